@@ -24,6 +24,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Array tool method
@@ -621,8 +622,7 @@ public class Arrayx {
     public static Byte[] toTypedArray(@Nullable byte[] elements) {
         Byte[] result = new Byte[count(elements)];
         if (elements != null) {
-            int index = 0;
-            while (index++ < elements.length) {
+            for (int index = 0; index < elements.length; index++) {
                 result[index] = elements[index];
             }
         }
@@ -636,8 +636,7 @@ public class Arrayx {
     public static Short[] toTypedArray(@Nullable short[] elements) {
         Short[] result = new Short[count(elements)];
         if (elements != null) {
-            int index = 0;
-            while (index++ < elements.length) {
+            for (int index = 0; index < elements.length; index++) {
                 result[index] = elements[index];
             }
         }
@@ -651,8 +650,7 @@ public class Arrayx {
     public static Integer[] toTypedArray(@Nullable int[] elements) {
         Integer[] result = new Integer[count(elements)];
         if (elements != null) {
-            int index = 0;
-            while (index++ < elements.length) {
+            for (int index = 0; index < elements.length; index++) {
                 result[index] = elements[index];
             }
         }
@@ -666,8 +664,7 @@ public class Arrayx {
     public static Long[] toTypedArray(@Nullable long[] elements) {
         Long[] result = new Long[count(elements)];
         if (elements != null) {
-            int index = 0;
-            while (index++ < elements.length) {
+            for (int index = 0; index < elements.length; index++) {
                 result[index] = elements[index];
             }
         }
@@ -681,8 +678,7 @@ public class Arrayx {
     public static Float[] toTypedArray(@Nullable float[] elements) {
         Float[] result = new Float[count(elements)];
         if (elements != null) {
-            int index = 0;
-            while (index++ < elements.length) {
+            for (int index = 0; index < elements.length; index++) {
                 result[index] = elements[index];
             }
         }
@@ -696,8 +692,7 @@ public class Arrayx {
     public static Double[] toTypedArray(@Nullable double[] elements) {
         Double[] result = new Double[count(elements)];
         if (elements != null) {
-            int index = 0;
-            while (index++ < elements.length) {
+            for (int index = 0; index < elements.length; index++) {
                 result[index] = elements[index];
             }
         }
@@ -711,8 +706,7 @@ public class Arrayx {
     public static Boolean[] toTypedArray(@Nullable boolean[] elements) {
         Boolean[] result = new Boolean[count(elements)];
         if (elements != null) {
-            int index = 0;
-            while (index++ < elements.length) {
+            for (int index = 0; index < elements.length; index++) {
                 result[index] = elements[index];
             }
         }
@@ -726,8 +720,7 @@ public class Arrayx {
     public static Character[] toTypedArray(@Nullable char[] elements) {
         Character[] result = new Character[count(elements)];
         if (elements != null) {
-            int index = 0;
-            while (index++ < elements.length) {
+            for (int index = 0; index < elements.length; index++) {
                 result[index] = elements[index];
             }
         }
@@ -936,7 +929,8 @@ public class Arrayx {
      */
     @NotNull
     public static Set<Integer> toSet(@Nullable int[] elements) {
-        return toCollection(elements, new LinkedHashSet<Integer>(Mapx.capacity(count(elements))));
+        int[] distinct = IntHashSet.of(elements).toIntArray();
+        return toCollection(distinct, new LinkedHashSet<Integer>(Mapx.capacity(distinct.length)));
     }
 
     /**
@@ -946,7 +940,8 @@ public class Arrayx {
      */
     @NotNull
     public static Set<Long> toSet(@Nullable long[] elements) {
-        return toCollection(elements, new LinkedHashSet<Long>(Mapx.capacity(count(elements))));
+        long[] distinct = LongHashSet.of(elements).toLongArray();
+        return toCollection(distinct, new LinkedHashSet<Long>(Mapx.capacity(distinct.length)));
     }
 
     /**
@@ -966,7 +961,8 @@ public class Arrayx {
      */
     @NotNull
     public static Set<Double> toSet(@Nullable double[] elements) {
-        return toCollection(elements, new LinkedHashSet<Double>(Mapx.capacity(count(elements))));
+        double[] distinct = DoubleHashSet.of(elements).toDoubleArray();
+        return toCollection(distinct, new LinkedHashSet<Double>(Mapx.capacity(distinct.length)));
     }
 
     /**
@@ -986,7 +982,8 @@ public class Arrayx {
      */
     @NotNull
     public static Set<Character> toSet(@Nullable char[] elements) {
-        return toCollection(elements, new LinkedHashSet<Character>(Mapx.capacity(count(elements))));
+        char[] distinct = CharHashSet.of(elements).toCharArray();
+        return toCollection(distinct, new LinkedHashSet<Character>(Mapx.capacity(distinct.length)));
     }
 
 
@@ -2159,6 +2156,15 @@ public class Arrayx {
         if (elements != null && elements.length > 1) Arrays.sort(elements);
     }
 
+    /**
+     * Sorts the array in-place.
+     * <p>
+     * Large arrays are split into chunks that are processed concurrently on the [executor], the calling thread processes the first chunk.
+     */
+    public static void sort(@Nullable int[] elements, @NotNull ExecutorService executor) {
+        if (elements != null && elements.length > 1) ParallelArrays.sort(elements, executor);
+    }
+
     /**
      * Sorts the array in-place.
      */
@@ -2166,6 +2172,15 @@ public class Arrayx {
         if (elements != null && elements.length > 1) Arrays.sort(elements);
     }
 
+    /**
+     * Sorts the array in-place.
+     * <p>
+     * Large arrays are split into chunks that are processed concurrently on the [executor], the calling thread processes the first chunk.
+     */
+    public static void sort(@Nullable long[] elements, @NotNull ExecutorService executor) {
+        if (elements != null && elements.length > 1) ParallelArrays.sort(elements, executor);
+    }
+
     /**
      * Sorts the array in-place.
      */
@@ -2187,6 +2202,15 @@ public class Arrayx {
         if (elements != null && elements.length > 1) Arrays.sort(elements);
     }
 
+    /**
+     * Sorts the array in-place.
+     * <p>
+     * Large arrays are split into chunks that are processed concurrently on the [executor], the calling thread processes the first chunk.
+     */
+    public static void sort(@Nullable double[] elements, @NotNull ExecutorService executor) {
+        if (elements != null && elements.length > 1) ParallelArrays.sort(elements, executor);
+    }
+
     /**
      * Sorts the array in-place.
      */
@@ -2300,6 +2324,18 @@ public class Arrayx {
         }
     }
 
+    /**
+     * Sorts elements in the array in-place descending according to their natural sort order.
+     * <p>
+     * Large arrays are split into chunks that are processed concurrently on the [executor], the calling thread processes the first chunk.
+     */
+    public static void sortDescending(@Nullable int[] elements, @NotNull ExecutorService executor) {
+        if (elements != null && elements.length > 1) {
+            sort(elements, executor);
+            reverse(elements);
+        }
+    }
+
     /**
      * Sorts elements in the array in-place descending according to their natural sort order.
      */
@@ -2310,6 +2346,18 @@ public class Arrayx {
         }
     }
 
+    /**
+     * Sorts elements in the array in-place descending according to their natural sort order.
+     * <p>
+     * Large arrays are split into chunks that are processed concurrently on the [executor], the calling thread processes the first chunk.
+     */
+    public static void sortDescending(@Nullable long[] elements, @NotNull ExecutorService executor) {
+        if (elements != null && elements.length > 1) {
+            sort(elements, executor);
+            reverse(elements);
+        }
+    }
+
     /**
      * Sorts elements in the array in-place descending according to their natural sort order.
      */
@@ -2330,6 +2378,18 @@ public class Arrayx {
         }
     }
 
+    /**
+     * Sorts elements in the array in-place descending according to their natural sort order.
+     * <p>
+     * Large arrays are split into chunks that are processed concurrently on the [executor], the calling thread processes the first chunk.
+     */
+    public static void sortDescending(@Nullable double[] elements, @NotNull ExecutorService executor) {
+        if (elements != null && elements.length > 1) {
+            sort(elements, executor);
+            reverse(elements);
+        }
+    }
+
     /**
      * Sorts elements in the array in-place descending according to their natural sort order.
      */
@@ -2423,9 +2483,21 @@ public class Arrayx {
      */
     @NotNull
     public static List<Integer> sorted(@Nullable int[] elements) {
-        Integer[] result = toTypedArray(elements);
+        int[] result = copyOf(elements);
         sort(result);
-        return asList(result);
+        return asList(toTypedArray(result));
+    }
+
+    /**
+     * Returns a list of all elements sorted according to their natural sort order.
+     * <p>
+     * Large arrays are split into chunks that are processed concurrently on the [executor], the calling thread processes the first chunk.
+     */
+    @NotNull
+    public static List<Integer> sorted(@Nullable int[] elements, @NotNull ExecutorService executor) {
+        int[] result = copyOf(elements);
+        sort(result, executor);
+        return asList(toTypedArray(result));
     }
 
     /**
@@ -2433,9 +2505,21 @@ public class Arrayx {
      */
     @NotNull
     public static List<Long> sorted(@Nullable long[] elements) {
-        Long[] result = toTypedArray(elements);
+        long[] result = copyOf(elements);
         sort(result);
-        return asList(result);
+        return asList(toTypedArray(result));
+    }
+
+    /**
+     * Returns a list of all elements sorted according to their natural sort order.
+     * <p>
+     * Large arrays are split into chunks that are processed concurrently on the [executor], the calling thread processes the first chunk.
+     */
+    @NotNull
+    public static List<Long> sorted(@Nullable long[] elements, @NotNull ExecutorService executor) {
+        long[] result = copyOf(elements);
+        sort(result, executor);
+        return asList(toTypedArray(result));
     }
 
     /**
@@ -2453,9 +2537,21 @@ public class Arrayx {
      */
     @NotNull
     public static List<Double> sorted(@Nullable double[] elements) {
-        Double[] result = toTypedArray(elements);
+        double[] result = copyOf(elements);
         sort(result);
-        return asList(result);
+        return asList(toTypedArray(result));
+    }
+
+    /**
+     * Returns a list of all elements sorted according to their natural sort order.
+     * <p>
+     * Large arrays are split into chunks that are processed concurrently on the [executor], the calling thread processes the first chunk.
+     */
+    @NotNull
+    public static List<Double> sorted(@Nullable double[] elements, @NotNull ExecutorService executor) {
+        double[] result = copyOf(elements);
+        sort(result, executor);
+        return asList(toTypedArray(result));
     }
 
     /**
@@ -2512,6 +2608,18 @@ public class Arrayx {
         return Arrayx.reversed(result);
     }
 
+    /**
+     * Returns a list of all elements sorted descending according to their natural sort order.
+     * <p>
+     * Large arrays are split into chunks that are processed concurrently on the [executor], the calling thread processes the first chunk.
+     */
+    @NotNull
+    public static List<Integer> sortedDescending(@Nullable int[] elements, @NotNull ExecutorService executor) {
+        int[] result = copyOf(elements);
+        sort(result, executor);
+        return reversed(result);
+    }
+
     /**
      * Returns a list of all elements sorted descending according to their natural sort order.
      */
@@ -2522,6 +2630,18 @@ public class Arrayx {
         return Arrayx.reversed(result);
     }
 
+    /**
+     * Returns a list of all elements sorted descending according to their natural sort order.
+     * <p>
+     * Large arrays are split into chunks that are processed concurrently on the [executor], the calling thread processes the first chunk.
+     */
+    @NotNull
+    public static List<Long> sortedDescending(@Nullable long[] elements, @NotNull ExecutorService executor) {
+        long[] result = copyOf(elements);
+        sort(result, executor);
+        return reversed(result);
+    }
+
     /**
      * Returns a list of all elements sorted descending according to their natural sort order.
      */
@@ -2542,6 +2662,18 @@ public class Arrayx {
         return Arrayx.reversed(result);
     }
 
+    /**
+     * Returns a list of all elements sorted descending according to their natural sort order.
+     * <p>
+     * Large arrays are split into chunks that are processed concurrently on the [executor], the calling thread processes the first chunk.
+     */
+    @NotNull
+    public static List<Double> sortedDescending(@Nullable double[] elements, @NotNull ExecutorService executor) {
+        double[] result = copyOf(elements);
+        sort(result, executor);
+        return reversed(result);
+    }
+
     /**
      * Returns a list of all elements sorted descending according to their natural sort order.
      */
@@ -3083,6 +3215,409 @@ public class Arrayx {
     }
 
 
+    /* ******************************************* top k ******************************************* */
+
+
+    /**
+     * Returns a list of the [k] smallest elements according to their natural sort order, in ascending order.
+     * <p>
+     * Equal elements keep their original order, so the result is the same as taking the first [k] elements of the sorted array,
+     * but only [k] elements are kept at a time in a bounded heap, in O(n log k) time.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    @NotNull
+    public static <T extends Comparable<T>> List<T> bottomK(@Nullable T[] elements, int k) {
+        return bottomKWith(elements, k, new Comparator<T>() {
+            @Override
+            public int compare(@NotNull T o1, @NotNull T o2) {
+                return o1.compareTo(o2);
+            }
+        });
+    }
+
+    /**
+     * Returns a list of the [k] elements with the smallest values returned by specified [transformer] function, in ascending order of the values.
+     * <p>
+     * Equal elements keep their original order, and only [k] elements are kept at a time in a bounded heap, in O(n log k) time.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    @NotNull
+    public static <T, R extends Comparable<R>> List<T> bottomKBy(@Nullable T[] elements, int k, @NotNull final NullableTransformer<T, R> transformer) {
+        return bottomKWith(elements, k, new Comparator<T>() {
+            @Override
+            public int compare(@Nullable T o1, @Nullable T o2) {
+                R r1 = o1 != null ? transformer.transform(o1) : null;
+                R r2 = o2 != null ? transformer.transform(o2) : null;
+                return r1 == r2 ? 0 : (r1 == null ? -1 : (r2 == null ? 1 : (r1.compareTo(r2))));
+            }
+        });
+    }
+
+    /**
+     * Returns a list of the [k] smallest elements according to the order specified with [comparator], in that order.
+     * <p>
+     * Equal elements keep their original order, and only [k] elements are kept at a time in a bounded heap, in O(n log k) time.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    @NotNull
+    public static <T> List<T> bottomKWith(@Nullable T[] elements, int k, @NotNull Comparator<T> comparator) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Param 'k' is less than zero.");
+        }
+        BoundedHeap<T> heap = new BoundedHeap<T>(k, comparator);
+        if (elements != null && k > 0) {
+            for (T element : elements) {
+                heap.add(element);
+            }
+        }
+        return heap.toSortedList();
+    }
+
+    /**
+     * Returns a list of the [k] largest elements according to their natural sort order, in descending order.
+     * <p>
+     * Equal elements keep their original order, and only [k] elements are kept at a time in a bounded heap, in O(n log k) time.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    @NotNull
+    public static <T extends Comparable<T>> List<T> topK(@Nullable T[] elements, int k) {
+        return bottomKWith(elements, k, new Comparator<T>() {
+            @Override
+            public int compare(@NotNull T o1, @NotNull T o2) {
+                return o2.compareTo(o1);
+            }
+        });
+    }
+
+    /**
+     * Returns a list of the [k] elements with the largest values returned by specified [transformer] function, in descending order of the values.
+     * <p>
+     * Equal elements keep their original order, and only [k] elements are kept at a time in a bounded heap, in O(n log k) time.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    @NotNull
+    public static <T, R extends Comparable<R>> List<T> topKBy(@Nullable T[] elements, int k, @NotNull final NullableTransformer<T, R> transformer) {
+        return bottomKWith(elements, k, new Comparator<T>() {
+            @Override
+            public int compare(@Nullable T o1, @Nullable T o2) {
+                R r1 = o2 != null ? transformer.transform(o2) : null;
+                R r2 = o1 != null ? transformer.transform(o1) : null;
+                return r1 == r2 ? 0 : (r1 == null ? -1 : (r2 == null ? 1 : (r1.compareTo(r2))));
+            }
+        });
+    }
+
+    /**
+     * Returns a list of the [k] largest elements according to the order specified with [comparator], in descending order.
+     * <p>
+     * Equal elements keep their original order, and only [k] elements are kept at a time in a bounded heap, in O(n log k) time.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    @NotNull
+    public static <T> List<T> topKWith(@Nullable T[] elements, int k, @NotNull Comparator<T> comparator) {
+        return bottomKWith(elements, k, Collections.reverseOrder(comparator));
+    }
+
+
+    /**
+     * Returns a new array of the [k] smallest elements in ascending order.
+     * <p>
+     * The smallest elements are selected in linear time on average and only they are sorted, instead of sorting the whole array.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    @NotNull
+    public static int[] bottomK(@Nullable int[] elements, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Param 'k' is less than zero.");
+        }
+        int[] result = copyOf(elements);
+        int count = Math.min(k, result.length);
+        Selection.partialSort(result, count);
+        return count < result.length ? Arrays.copyOf(result, count) : result;
+    }
+
+    /**
+     * Returns a new array of the [k] largest elements in descending order.
+     * <p>
+     * The largest elements are selected in linear time on average and only they are sorted, instead of sorting the whole array.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    @NotNull
+    public static int[] topK(@Nullable int[] elements, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Param 'k' is less than zero.");
+        }
+        int[] result = copyOf(elements);
+        int count = Math.min(k, result.length);
+        if (count > 0 && count < result.length) {
+            Selection.select(result, 0, result.length, result.length - count);
+        }
+        int[] top = Arrays.copyOfRange(result, result.length - count, result.length);
+        Arrays.sort(top);
+        reverse(top);
+        return top;
+    }
+
+    /**
+     * Rearranges the array in-place so that its first [k] elements are its smallest elements in ascending order,
+     * the order of the other elements is unspecified.
+     * <p>
+     * The smallest elements are selected in linear time on average and only they are sorted.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    public static void partialSort(@Nullable int[] elements, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Param 'k' is less than zero.");
+        }
+        if (elements != null && elements.length > 1) {
+            Selection.partialSort(elements, k);
+        }
+    }
+
+    /**
+     * Rearranges the array in-place so that the element at index [n] is the one that would be there if the array was sorted,
+     * with no greater elements before it and no smaller elements after it, and returns that element.
+     * <p>
+     * The element is selected in linear time on average, without sorting the array.
+     *
+     * @throws IndexOutOfBoundsException if [n] is not an index of the array.
+     */
+    public static int nthElement(@Nullable int[] elements, int n) {
+        if (elements == null || n < 0 || n >= elements.length) {
+            throw new IndexOutOfBoundsException("index: " + n + ", size: " + count(elements));
+        }
+        Selection.select(elements, 0, elements.length, n);
+        return elements[n];
+    }
+
+
+    /**
+     * Returns a new array of the [k] smallest elements in ascending order.
+     * <p>
+     * The smallest elements are selected in linear time on average and only they are sorted, instead of sorting the whole array.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    @NotNull
+    public static long[] bottomK(@Nullable long[] elements, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Param 'k' is less than zero.");
+        }
+        long[] result = copyOf(elements);
+        int count = Math.min(k, result.length);
+        Selection.partialSort(result, count);
+        return count < result.length ? Arrays.copyOf(result, count) : result;
+    }
+
+    /**
+     * Returns a new array of the [k] largest elements in descending order.
+     * <p>
+     * The largest elements are selected in linear time on average and only they are sorted, instead of sorting the whole array.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    @NotNull
+    public static long[] topK(@Nullable long[] elements, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Param 'k' is less than zero.");
+        }
+        long[] result = copyOf(elements);
+        int count = Math.min(k, result.length);
+        if (count > 0 && count < result.length) {
+            Selection.select(result, 0, result.length, result.length - count);
+        }
+        long[] top = Arrays.copyOfRange(result, result.length - count, result.length);
+        Arrays.sort(top);
+        reverse(top);
+        return top;
+    }
+
+    /**
+     * Rearranges the array in-place so that its first [k] elements are its smallest elements in ascending order,
+     * the order of the other elements is unspecified.
+     * <p>
+     * The smallest elements are selected in linear time on average and only they are sorted.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    public static void partialSort(@Nullable long[] elements, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Param 'k' is less than zero.");
+        }
+        if (elements != null && elements.length > 1) {
+            Selection.partialSort(elements, k);
+        }
+    }
+
+    /**
+     * Rearranges the array in-place so that the element at index [n] is the one that would be there if the array was sorted,
+     * with no greater elements before it and no smaller elements after it, and returns that element.
+     * <p>
+     * The element is selected in linear time on average, without sorting the array.
+     *
+     * @throws IndexOutOfBoundsException if [n] is not an index of the array.
+     */
+    public static long nthElement(@Nullable long[] elements, int n) {
+        if (elements == null || n < 0 || n >= elements.length) {
+            throw new IndexOutOfBoundsException("index: " + n + ", size: " + count(elements));
+        }
+        Selection.select(elements, 0, elements.length, n);
+        return elements[n];
+    }
+
+
+    /**
+     * Returns a new array of the [k] smallest elements in ascending order.
+     * <p>
+     * The smallest elements are selected in linear time on average and only they are sorted, instead of sorting the whole array.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    @NotNull
+    public static double[] bottomK(@Nullable double[] elements, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Param 'k' is less than zero.");
+        }
+        double[] result = copyOf(elements);
+        int count = Math.min(k, result.length);
+        Selection.partialSort(result, count);
+        return count < result.length ? Arrays.copyOf(result, count) : result;
+    }
+
+    /**
+     * Returns a new array of the [k] largest elements in descending order.
+     * <p>
+     * The largest elements are selected in linear time on average and only they are sorted, instead of sorting the whole array.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    @NotNull
+    public static double[] topK(@Nullable double[] elements, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Param 'k' is less than zero.");
+        }
+        double[] result = copyOf(elements);
+        int count = Math.min(k, result.length);
+        if (count > 0 && count < result.length) {
+            Selection.select(result, 0, result.length, result.length - count);
+        }
+        double[] top = Arrays.copyOfRange(result, result.length - count, result.length);
+        Arrays.sort(top);
+        reverse(top);
+        return top;
+    }
+
+    /**
+     * Rearranges the array in-place so that its first [k] elements are its smallest elements in ascending order,
+     * the order of the other elements is unspecified.
+     * <p>
+     * The smallest elements are selected in linear time on average and only they are sorted.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    public static void partialSort(@Nullable double[] elements, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Param 'k' is less than zero.");
+        }
+        if (elements != null && elements.length > 1) {
+            Selection.partialSort(elements, k);
+        }
+    }
+
+    /**
+     * Rearranges the array in-place so that the element at index [n] is the one that would be there if the array was sorted,
+     * with no greater elements before it and no smaller elements after it, and returns that element.
+     * <p>
+     * The element is selected in linear time on average, without sorting the array.
+     *
+     * @throws IndexOutOfBoundsException if [n] is not an index of the array.
+     */
+    public static double nthElement(@Nullable double[] elements, int n) {
+        if (elements == null || n < 0 || n >= elements.length) {
+            throw new IndexOutOfBoundsException("index: " + n + ", size: " + count(elements));
+        }
+        Selection.select(elements, 0, elements.length, n);
+        return elements[n];
+    }
+
+
+    /**
+     * Rearranges the array in-place so that its first [k] elements are its smallest elements in ascending order according to their natural sort order,
+     * the order of the other elements is unspecified.
+     * <p>
+     * The smallest elements are selected in linear time on average and only they are sorted. Equal elements may be reordered.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    public static <T extends Comparable<T>> void partialSort(@Nullable T[] elements, int k) {
+        partialSortWith(elements, k, new Comparator<T>() {
+            @Override
+            public int compare(@NotNull T o1, @NotNull T o2) {
+                return o1.compareTo(o2);
+            }
+        });
+    }
+
+    /**
+     * Rearranges the array in-place so that its first [k] elements are its smallest elements in the order specified with [comparator],
+     * the order of the other elements is unspecified.
+     * <p>
+     * The smallest elements are selected in linear time on average and only they are sorted. Equal elements may be reordered.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    public static <T> void partialSortWith(@Nullable T[] elements, int k, @NotNull Comparator<T> comparator) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Param 'k' is less than zero.");
+        }
+        if (elements != null && elements.length > 1) {
+            Selection.partialSort(elements, k, comparator);
+        }
+    }
+
+    /**
+     * Rearranges the array in-place so that the element at index [n] is the one that would be there if the array was sorted according to their natural sort order,
+     * with no greater elements before it and no smaller elements after it, and returns that element.
+     * <p>
+     * The element is selected in linear time on average, without sorting the array.
+     *
+     * @throws IndexOutOfBoundsException if [n] is not an index of the array.
+     */
+    public static <T extends Comparable<T>> T nthElement(@Nullable T[] elements, int n) {
+        return nthElementWith(elements, n, new Comparator<T>() {
+            @Override
+            public int compare(@NotNull T o1, @NotNull T o2) {
+                return o1.compareTo(o2);
+            }
+        });
+    }
+
+    /**
+     * Rearranges the array in-place so that the element at index [n] is the one that would be there if the array was sorted according to [comparator],
+     * with no greater elements before it and no smaller elements after it, and returns that element.
+     * <p>
+     * The element is selected in linear time on average, without sorting the array.
+     *
+     * @throws IndexOutOfBoundsException if [n] is not an index of the array.
+     */
+    public static <T> T nthElementWith(@Nullable T[] elements, int n, @NotNull Comparator<T> comparator) {
+        if (elements == null || n < 0 || n >= elements.length) {
+            throw new IndexOutOfBoundsException("index: " + n + ", size: " + count(elements));
+        }
+        Selection.select(elements, 0, elements.length, n, comparator);
+        return elements[n];
+    }
+
+
     /* ******************************************* single ******************************************* */
 
 
@@ -4732,6 +5267,170 @@ public class Arrayx {
         return destination;
     }
 
+    /**
+     * Groups elements of the original array by the key returned by the given [keySelector] function
+     * applied to each element and returns a map where each group key is associated with an array of corresponding elements.
+     * Neither the keys nor the elements are boxed.
+     * <p>
+     * The returned map preserves the entry iteration order of the keys produced from the original array.
+     */
+    @NotNull
+    public static IntHashMap<int[]> groupByToArrays(@Nullable int[] elements, @NotNull IntTransformer keySelector) {
+        IntHashMap<int[]> map = new IntHashMap<int[]>();
+        if (elements == null || elements.length == 0) {
+            return map;
+        }
+        // Count the elements of each group first, so that every group is allocated once with its final size
+        int[] groupOfElements = new int[elements.length];
+        int[] groupSizes = new int[16];
+        for (int index = 0; index < elements.length; index++) {
+            int key = keySelector.transform(elements[index]);
+            int group = map.indexOfKey(key);
+            if (group < 0) {
+                group = map.size();
+                map.put(key, null);
+                if (group == groupSizes.length) {
+                    groupSizes = Arrays.copyOf(groupSizes, groupSizes.length * 2);
+                }
+            }
+            groupSizes[group]++;
+            groupOfElements[index] = group;
+        }
+        for (int group = 0; group < map.size(); group++) {
+            map.setValueAt(group, new int[groupSizes[group]]);
+            groupSizes[group] = 0;
+        }
+        for (int index = 0; index < elements.length; index++) {
+            int group = groupOfElements[index];
+            //noinspection ConstantConditions
+            map.valueAt(group)[groupSizes[group]++] = elements[index];
+        }
+        return map;
+    }
+
+    /**
+     * Groups elements of the original array by the key returned by the given [keySelector] function
+     * applied to each element and returns a map where each group key is associated with an array of corresponding elements.
+     * Neither the keys nor the elements are boxed.
+     * <p>
+     * The returned map preserves the entry iteration order of the keys produced from the original array.
+     */
+    @NotNull
+    public static LongHashMap<long[]> groupByToArrays(@Nullable long[] elements, @NotNull LongTransformer keySelector) {
+        LongHashMap<long[]> map = new LongHashMap<long[]>();
+        if (elements == null || elements.length == 0) {
+            return map;
+        }
+        // Count the elements of each group first, so that every group is allocated once with its final size
+        int[] groupOfElements = new int[elements.length];
+        int[] groupSizes = new int[16];
+        for (int index = 0; index < elements.length; index++) {
+            long key = keySelector.transform(elements[index]);
+            int group = map.indexOfKey(key);
+            if (group < 0) {
+                group = map.size();
+                map.put(key, null);
+                if (group == groupSizes.length) {
+                    groupSizes = Arrays.copyOf(groupSizes, groupSizes.length * 2);
+                }
+            }
+            groupSizes[group]++;
+            groupOfElements[index] = group;
+        }
+        for (int group = 0; group < map.size(); group++) {
+            map.setValueAt(group, new long[groupSizes[group]]);
+            groupSizes[group] = 0;
+        }
+        for (int index = 0; index < elements.length; index++) {
+            int group = groupOfElements[index];
+            //noinspection ConstantConditions
+            map.valueAt(group)[groupSizes[group]++] = elements[index];
+        }
+        return map;
+    }
+
+    /**
+     * Groups elements of the original array by the key returned by the given [keySelector] function
+     * applied to each element and returns a map where each group key is associated with an array of corresponding elements.
+     * Neither the keys nor the elements are boxed.
+     * <p>
+     * The returned map preserves the entry iteration order of the keys produced from the original array.
+     */
+    @NotNull
+    public static DoubleHashMap<double[]> groupByToArrays(@Nullable double[] elements, @NotNull DoubleTransformer keySelector) {
+        DoubleHashMap<double[]> map = new DoubleHashMap<double[]>();
+        if (elements == null || elements.length == 0) {
+            return map;
+        }
+        // Count the elements of each group first, so that every group is allocated once with its final size
+        int[] groupOfElements = new int[elements.length];
+        int[] groupSizes = new int[16];
+        for (int index = 0; index < elements.length; index++) {
+            double key = keySelector.transform(elements[index]);
+            int group = map.indexOfKey(key);
+            if (group < 0) {
+                group = map.size();
+                map.put(key, null);
+                if (group == groupSizes.length) {
+                    groupSizes = Arrays.copyOf(groupSizes, groupSizes.length * 2);
+                }
+            }
+            groupSizes[group]++;
+            groupOfElements[index] = group;
+        }
+        for (int group = 0; group < map.size(); group++) {
+            map.setValueAt(group, new double[groupSizes[group]]);
+            groupSizes[group] = 0;
+        }
+        for (int index = 0; index < elements.length; index++) {
+            int group = groupOfElements[index];
+            //noinspection ConstantConditions
+            map.valueAt(group)[groupSizes[group]++] = elements[index];
+        }
+        return map;
+    }
+
+    /**
+     * Groups elements of the original array by the key returned by the given [keySelector] function
+     * applied to each element and returns a map where each group key is associated with an array of corresponding elements.
+     * Neither the keys nor the elements are boxed.
+     * <p>
+     * The returned map preserves the entry iteration order of the keys produced from the original array.
+     */
+    @NotNull
+    public static CharHashMap<char[]> groupByToArrays(@Nullable char[] elements, @NotNull CharTransformer keySelector) {
+        CharHashMap<char[]> map = new CharHashMap<char[]>();
+        if (elements == null || elements.length == 0) {
+            return map;
+        }
+        // Count the elements of each group first, so that every group is allocated once with its final size
+        int[] groupOfElements = new int[elements.length];
+        int[] groupSizes = new int[16];
+        for (int index = 0; index < elements.length; index++) {
+            char key = keySelector.transform(elements[index]);
+            int group = map.indexOfKey(key);
+            if (group < 0) {
+                group = map.size();
+                map.put(key, null);
+                if (group == groupSizes.length) {
+                    groupSizes = Arrays.copyOf(groupSizes, groupSizes.length * 2);
+                }
+            }
+            groupSizes[group]++;
+            groupOfElements[index] = group;
+        }
+        for (int group = 0; group < map.size(); group++) {
+            map.setValueAt(group, new char[groupSizes[group]]);
+            groupSizes[group] = 0;
+        }
+        for (int index = 0; index < elements.length; index++) {
+            int group = groupOfElements[index];
+            //noinspection ConstantConditions
+            map.valueAt(group)[groupSizes[group]++] = elements[index];
+        }
+        return map;
+    }
+
 
     /* ******************************************* count ******************************************* */
 
@@ -5021,6 +5720,17 @@ public class Arrayx {
         return max;
     }
 
+    /**
+     * Returns the largest element or `null` if there are no elements.
+     * <p>
+     * Large arrays are split into chunks that are processed concurrently on the [executor], the calling thread processes the first chunk.
+     */
+    @Nullable
+    public static Integer maxOrNull(@Nullable int[] elements, @NotNull ExecutorService executor) {
+        if (elements == null || elements.length == 0) return null;
+        return ParallelArrays.max(elements, executor);
+    }
+
     /**
      * Returns the largest element or `null` if there are no elements.
      */
@@ -5035,6 +5745,17 @@ public class Arrayx {
         return max;
     }
 
+    /**
+     * Returns the largest element or `null` if there are no elements.
+     * <p>
+     * Large arrays are split into chunks that are processed concurrently on the [executor], the calling thread processes the first chunk.
+     */
+    @Nullable
+    public static Long maxOrNull(@Nullable long[] elements, @NotNull ExecutorService executor) {
+        if (elements == null || elements.length == 0) return null;
+        return ParallelArrays.max(elements, executor);
+    }
+
     /**
      * Returns the largest element or `null` if there are no elements.
      * <p>
@@ -5043,11 +5764,11 @@ public class Arrayx {
     @Nullable
     public static Float maxOrNull(@Nullable float[] elements) {
         if (elements == null || elements.length == 0) return null;
-        Float max = elements[0];
-        if (max.isNaN()) return max;
+        float max = elements[0];
+        if (Float.isNaN(max)) return max;
         for (int i = 1, size = elements.length; i < size; i++) {
-            Float e = elements[i];
-            if (e.isNaN()) return e;
+            float e = elements[i];
+            if (Float.isNaN(e)) return e;
             if (max < e) max = e;
         }
         return max;
@@ -5061,16 +5782,29 @@ public class Arrayx {
     @Nullable
     public static Double maxOrNull(@Nullable double[] elements) {
         if (elements == null || elements.length == 0) return null;
-        Double max = elements[0];
-        if (max.isNaN()) return max;
+        double max = elements[0];
+        if (Double.isNaN(max)) return max;
         for (int i = 1, size = elements.length; i < size; i++) {
-            Double e = elements[i];
-            if (e.isNaN()) return e;
+            double e = elements[i];
+            if (Double.isNaN(e)) return e;
             if (max < e) max = e;
         }
         return max;
     }
 
+    /**
+     * Returns the largest element or `null` if there are no elements.
+     * <p>
+     * If any of elements is `NaN` returns `NaN`.
+     * <p>
+     * Large arrays are split into chunks that are processed concurrently on the [executor], the calling thread processes the first chunk.
+     */
+    @Nullable
+    public static Double maxOrNull(@Nullable double[] elements, @NotNull ExecutorService executor) {
+        if (elements == null || elements.length == 0) return null;
+        return ParallelArrays.max(elements, executor);
+    }
+
     /**
      * Returns the largest element or `null` if there are no elements.
      */
@@ -6724,6 +7458,17 @@ public class Arrayx {
         return min;
     }
 
+    /**
+     * Returns the smallest element or `null` if there are no elements.
+     * <p>
+     * Large arrays are split into chunks that are processed concurrently on the [executor], the calling thread processes the first chunk.
+     */
+    @Nullable
+    public static Integer minOrNull(@Nullable int[] elements, @NotNull ExecutorService executor) {
+        if (elements == null || elements.length == 0) return null;
+        return ParallelArrays.min(elements, executor);
+    }
+
     /**
      * Returns the smallest element or `null` if there are no elements.
      */
@@ -6738,6 +7483,17 @@ public class Arrayx {
         return min;
     }
 
+    /**
+     * Returns the smallest element or `null` if there are no elements.
+     * <p>
+     * Large arrays are split into chunks that are processed concurrently on the [executor], the calling thread processes the first chunk.
+     */
+    @Nullable
+    public static Long minOrNull(@Nullable long[] elements, @NotNull ExecutorService executor) {
+        if (elements == null || elements.length == 0) return null;
+        return ParallelArrays.min(elements, executor);
+    }
+
     /**
      * Returns the smallest element or `null` if there are no elements.
      * <p>
@@ -6746,11 +7502,11 @@ public class Arrayx {
     @Nullable
     public static Float minOrNull(@Nullable float[] elements) {
         if (elements == null || elements.length == 0) return null;
-        Float min = elements[0];
-        if (min.isNaN()) return min;
+        float min = elements[0];
+        if (Float.isNaN(min)) return min;
         for (int i = 1, size = elements.length; i < size; i++) {
-            Float e = elements[i];
-            if (e.isNaN()) return e;
+            float e = elements[i];
+            if (Float.isNaN(e)) return e;
             if (min > e) min = e;
         }
         return min;
@@ -6764,16 +7520,29 @@ public class Arrayx {
     @Nullable
     public static Double minOrNull(@Nullable double[] elements) {
         if (elements == null || elements.length == 0) return null;
-        Double min = elements[0];
-        if (min.isNaN()) return min;
+        double min = elements[0];
+        if (Double.isNaN(min)) return min;
         for (int i = 1, size = elements.length; i < size; i++) {
-            Double e = elements[i];
-            if (e.isNaN()) return e;
+            double e = elements[i];
+            if (Double.isNaN(e)) return e;
             if (min > e) min = e;
         }
         return min;
     }
 
+    /**
+     * Returns the smallest element or `null` if there are no elements.
+     * <p>
+     * If any of elements is `NaN` returns `NaN`.
+     * <p>
+     * Large arrays are split into chunks that are processed concurrently on the [executor], the calling thread processes the first chunk.
+     */
+    @Nullable
+    public static Double minOrNull(@Nullable double[] elements, @NotNull ExecutorService executor) {
+        if (elements == null || elements.length == 0) return null;
+        return ParallelArrays.min(elements, executor);
+    }
+
     /**
      * Returns the smallest element or `null` if there are no elements.
      */
@@ -9317,6 +10086,15 @@ public class Arrayx {
         return sum;
     }
 
+    /**
+     * Returns the sum of all elements in the array.
+     * <p>
+     * Large arrays are split into chunks that are processed concurrently on the [executor], the calling thread processes the first chunk.
+     */
+    public static int sum(@Nullable int[] elements, @NotNull ExecutorService executor) {
+        return elements != null ? ParallelArrays.sum(elements, executor) : 0;
+    }
+
     /**
      * Returns the sum of all elements in the array.
      */
@@ -9330,6 +10108,15 @@ public class Arrayx {
         return sum;
     }
 
+    /**
+     * Returns the sum of all elements in the array.
+     * <p>
+     * Large arrays are split into chunks that are processed concurrently on the [executor], the calling thread processes the first chunk.
+     */
+    public static long sum(@Nullable long[] elements, @NotNull ExecutorService executor) {
+        return elements != null ? ParallelArrays.sum(elements, executor) : 0;
+    }
+
     /**
      * Returns the sum of all elements in the array.
      */
@@ -9356,6 +10143,15 @@ public class Arrayx {
         return sum;
     }
 
+    /**
+     * Returns the sum of all elements in the array.
+     * <p>
+     * Large arrays are split into chunks that are processed concurrently on the [executor], the calling thread processes the first chunk.
+     */
+    public static double sum(@Nullable double[] elements, @NotNull ExecutorService executor) {
+        return elements != null ? ParallelArrays.sum(elements, executor) : 0;
+    }
+
     /**
      * Returns the sum of all values produced by [selector] function applied to each element in the array.
      */
@@ -10530,6 +11326,15 @@ public class Arrayx {
         return indexOf(elements, element) >= 0;
     }
 
+    /**
+     * Returns `true` if [element] is found in the array.
+     * <p>
+     * Large arrays are split into chunks that are processed concurrently on the [executor], the calling thread processes the first chunk.
+     */
+    public static boolean contains(@Nullable int[] elements, int element, @NotNull ExecutorService executor) {
+        return elements != null && ParallelArrays.contains(elements, element, executor);
+    }
+
     /**
      * Returns `true` if [element] is found in the array.
      */
@@ -10537,6 +11342,15 @@ public class Arrayx {
         return indexOf(elements, element) >= 0;
     }
 
+    /**
+     * Returns `true` if [element] is found in the array.
+     * <p>
+     * Large arrays are split into chunks that are processed concurrently on the [executor], the calling thread processes the first chunk.
+     */
+    public static boolean contains(@Nullable long[] elements, long element, @NotNull ExecutorService executor) {
+        return elements != null && ParallelArrays.contains(elements, element, executor);
+    }
+
     /**
      * Returns `true` if [element] is found in the array.
      */
@@ -10551,6 +11365,15 @@ public class Arrayx {
         return indexOf(elements, element) >= 0;
     }
 
+    /**
+     * Returns `true` if [element] is found in the array.
+     * <p>
+     * Large arrays are split into chunks that are processed concurrently on the [executor], the calling thread processes the first chunk.
+     */
+    public static boolean contains(@Nullable double[] elements, double element, @NotNull ExecutorService executor) {
+        return elements != null && ParallelArrays.contains(elements, element, executor);
+    }
+
     /**
      * Returns `true` if [element] is found in the array.
      */
@@ -14172,6 +14995,15 @@ public class Arrayx {
         return count == 0 ? Double.NaN : sum / count;
     }
 
+    /**
+     * Returns an average value of elements in the array.
+     * <p>
+     * Large arrays are split into chunks that are processed concurrently on the [executor], the calling thread processes the first chunk.
+     */
+    public static double average(@Nullable int[] elements, @NotNull ExecutorService executor) {
+        return elements != null ? ParallelArrays.average(elements, executor) : Double.NaN;
+    }
+
     /**
      * Returns an average value of elements in the array.
      */
@@ -14187,6 +15019,15 @@ public class Arrayx {
         return count == 0 ? Double.NaN : sum / count;
     }
 
+    /**
+     * Returns an average value of elements in the array.
+     * <p>
+     * Large arrays are split into chunks that are processed concurrently on the [executor], the calling thread processes the first chunk.
+     */
+    public static double average(@Nullable long[] elements, @NotNull ExecutorService executor) {
+        return elements != null ? ParallelArrays.average(elements, executor) : Double.NaN;
+    }
+
     /**
      * Returns an average value of elements in the array.
      */
@@ -14217,6 +15058,15 @@ public class Arrayx {
         return count == 0 ? Double.NaN : sum / count;
     }
 
+    /**
+     * Returns an average value of elements in the array.
+     * <p>
+     * Large arrays are split into chunks that are processed concurrently on the [executor], the calling thread processes the first chunk.
+     */
+    public static double average(@Nullable double[] elements, @NotNull ExecutorService executor) {
+        return elements != null ? ParallelArrays.average(elements, executor) : Double.NaN;
+    }
+
 
     /* ******************************************* none ******************************************* */
 
@@ -15513,9 +16363,8 @@ public class Arrayx {
      */
     @NotNull
     public static Set<Integer> intersect(@Nullable int[] elements, @NotNull Iterable<Integer> other) {
-        Set<Integer> set = Arrayx.toSet(elements);
-        Collectionx.retainAll(set, other);
-        return set;
+        int[] intersect = retainToArray(elements, IntHashSet.of(other), true);
+        return toCollection(intersect, new LinkedHashSet<Integer>(Mapx.capacity(intersect.length)));
     }
 
     /**
@@ -15525,9 +16374,8 @@ public class Arrayx {
      */
     @NotNull
     public static Set<Long> intersect(@Nullable long[] elements, @NotNull Iterable<Long> other) {
-        Set<Long> set = Arrayx.toSet(elements);
-        Collectionx.retainAll(set, other);
-        return set;
+        long[] intersect = retainToArray(elements, LongHashSet.of(other), true);
+        return toCollection(intersect, new LinkedHashSet<Long>(Mapx.capacity(intersect.length)));
     }
 
     /**
@@ -15549,9 +16397,8 @@ public class Arrayx {
      */
     @NotNull
     public static Set<Double> intersect(@Nullable double[] elements, @NotNull Iterable<Double> other) {
-        Set<Double> set = Arrayx.toSet(elements);
-        Collectionx.retainAll(set, other);
-        return set;
+        double[] intersect = retainToArray(elements, DoubleHashSet.of(other), true);
+        return toCollection(intersect, new LinkedHashSet<Double>(Mapx.capacity(intersect.length)));
     }
 
     /**
@@ -15573,9 +16420,48 @@ public class Arrayx {
      */
     @NotNull
     public static Set<Character> intersect(@Nullable char[] elements, @NotNull Iterable<Character> other) {
-        Set<Character> set = Arrayx.toSet(elements);
-        Collectionx.retainAll(set, other);
-        return set;
+        char[] intersect = retainToArray(elements, CharHashSet.of(other), true);
+        return toCollection(intersect, new LinkedHashSet<Character>(Mapx.capacity(intersect.length)));
+    }
+
+    /**
+     * Returns an array containing the distinct elements that are contained by both this array and the [other] array, the elements are not boxed.
+     * <p>
+     * The elements in the resulting array are in the same order as they were in the source array.
+     */
+    @NotNull
+    public static int[] intersectToArray(@Nullable int[] elements, @Nullable int[] other) {
+        return retainToArray(elements, IntHashSet.of(other), true);
+    }
+
+    /**
+     * Returns an array containing the distinct elements that are contained by both this array and the [other] array, the elements are not boxed.
+     * <p>
+     * The elements in the resulting array are in the same order as they were in the source array.
+     */
+    @NotNull
+    public static long[] intersectToArray(@Nullable long[] elements, @Nullable long[] other) {
+        return retainToArray(elements, LongHashSet.of(other), true);
+    }
+
+    /**
+     * Returns an array containing the distinct elements that are contained by both this array and the [other] array, the elements are not boxed.
+     * <p>
+     * The elements in the resulting array are in the same order as they were in the source array.
+     */
+    @NotNull
+    public static double[] intersectToArray(@Nullable double[] elements, @Nullable double[] other) {
+        return retainToArray(elements, DoubleHashSet.of(other), true);
+    }
+
+    /**
+     * Returns an array containing the distinct elements that are contained by both this array and the [other] array, the elements are not boxed.
+     * <p>
+     * The elements in the resulting array are in the same order as they were in the source array.
+     */
+    @NotNull
+    public static char[] intersectToArray(@Nullable char[] elements, @Nullable char[] other) {
+        return retainToArray(elements, CharHashSet.of(other), true);
     }
 
 
@@ -15625,9 +16511,8 @@ public class Arrayx {
      */
     @NotNull
     public static Set<Integer> subtract(@Nullable int[] elements, @NotNull Iterable<Integer> other) {
-        Set<Integer> set = Arrayx.toSet(elements);
-        Collectionx.removeAll(set, other);
-        return set;
+        int[] subtract = retainToArray(elements, IntHashSet.of(other), false);
+        return toCollection(subtract, new LinkedHashSet<Integer>(Mapx.capacity(subtract.length)));
     }
 
     /**
@@ -15637,9 +16522,8 @@ public class Arrayx {
      */
     @NotNull
     public static Set<Long> subtract(@Nullable long[] elements, @NotNull Iterable<Long> other) {
-        Set<Long> set = Arrayx.toSet(elements);
-        Collectionx.removeAll(set, other);
-        return set;
+        long[] subtract = retainToArray(elements, LongHashSet.of(other), false);
+        return toCollection(subtract, new LinkedHashSet<Long>(Mapx.capacity(subtract.length)));
     }
 
     /**
@@ -15661,9 +16545,8 @@ public class Arrayx {
      */
     @NotNull
     public static Set<Double> subtract(@Nullable double[] elements, @NotNull Iterable<Double> other) {
-        Set<Double> set = Arrayx.toSet(elements);
-        Collectionx.removeAll(set, other);
-        return set;
+        double[] subtract = retainToArray(elements, DoubleHashSet.of(other), false);
+        return toCollection(subtract, new LinkedHashSet<Double>(Mapx.capacity(subtract.length)));
     }
 
     /**
@@ -15685,9 +16568,256 @@ public class Arrayx {
      */
     @NotNull
     public static Set<Character> subtract(@Nullable char[] elements, @NotNull Iterable<Character> other) {
-        Set<Character> set = Arrayx.toSet(elements);
-        Collectionx.removeAll(set, other);
-        return set;
+        char[] subtract = retainToArray(elements, CharHashSet.of(other), false);
+        return toCollection(subtract, new LinkedHashSet<Character>(Mapx.capacity(subtract.length)));
+    }
+
+    /**
+     * Returns an array containing the distinct elements that are contained by this array and not contained by the [other] array, the elements are not boxed.
+     * <p>
+     * The elements in the resulting array are in the same order as they were in the source array.
+     */
+    @NotNull
+    public static int[] subtractToArray(@Nullable int[] elements, @Nullable int[] other) {
+        return retainToArray(elements, IntHashSet.of(other), false);
+    }
+
+    /**
+     * Returns the distinct elements of the array that are contained or not contained by the [set], depending on [contained]
+     */
+    @NotNull
+    private static int[] retainToArray(@Nullable int[] elements, @NotNull IntHashSet set, boolean contained) {
+        IntHashSet result = new IntHashSet();
+        if (elements != null) {
+            for (int element : elements) {
+                if (set.contains(element) == contained) {
+                    result.add(element);
+                }
+            }
+        }
+        return result.toIntArray();
+    }
+
+    /**
+     * Returns an array containing the distinct elements that are contained by this array and not contained by the [other] array, the elements are not boxed.
+     * <p>
+     * The elements in the resulting array are in the same order as they were in the source array.
+     */
+    @NotNull
+    public static long[] subtractToArray(@Nullable long[] elements, @Nullable long[] other) {
+        return retainToArray(elements, LongHashSet.of(other), false);
+    }
+
+    /**
+     * Returns the distinct elements of the array that are contained or not contained by the [set], depending on [contained]
+     */
+    @NotNull
+    private static long[] retainToArray(@Nullable long[] elements, @NotNull LongHashSet set, boolean contained) {
+        LongHashSet result = new LongHashSet();
+        if (elements != null) {
+            for (long element : elements) {
+                if (set.contains(element) == contained) {
+                    result.add(element);
+                }
+            }
+        }
+        return result.toLongArray();
+    }
+
+    /**
+     * Returns an array containing the distinct elements that are contained by this array and not contained by the [other] array, the elements are not boxed.
+     * <p>
+     * The elements in the resulting array are in the same order as they were in the source array.
+     */
+    @NotNull
+    public static double[] subtractToArray(@Nullable double[] elements, @Nullable double[] other) {
+        return retainToArray(elements, DoubleHashSet.of(other), false);
+    }
+
+    /**
+     * Returns the distinct elements of the array that are contained or not contained by the [set], depending on [contained]
+     */
+    @NotNull
+    private static double[] retainToArray(@Nullable double[] elements, @NotNull DoubleHashSet set, boolean contained) {
+        DoubleHashSet result = new DoubleHashSet();
+        if (elements != null) {
+            for (double element : elements) {
+                if (set.contains(element) == contained) {
+                    result.add(element);
+                }
+            }
+        }
+        return result.toDoubleArray();
+    }
+
+    /**
+     * Returns an array containing the distinct elements that are contained by this array and not contained by the [other] array, the elements are not boxed.
+     * <p>
+     * The elements in the resulting array are in the same order as they were in the source array.
+     */
+    @NotNull
+    public static char[] subtractToArray(@Nullable char[] elements, @Nullable char[] other) {
+        return retainToArray(elements, CharHashSet.of(other), false);
+    }
+
+    /**
+     * Returns the distinct elements of the array that are contained or not contained by the [set], depending on [contained]
+     */
+    @NotNull
+    private static char[] retainToArray(@Nullable char[] elements, @NotNull CharHashSet set, boolean contained) {
+        CharHashSet result = new CharHashSet();
+        if (elements != null) {
+            for (char element : elements) {
+                if (set.contains(element) == contained) {
+                    result.add(element);
+                }
+            }
+        }
+        return result.toCharArray();
+    }
+
+
+    /* ******************************************* union ******************************************* */
+
+
+    /**
+     * Returns a set containing all distinct elements from both this array and the specified collection.
+     * <p>
+     * The returned set preserves the element iteration order of the original array.
+     * Those elements of the [other] collection that are unique are iterated in the end
+     * in the order of the [other] collection.
+     */
+    @NotNull
+    public static Set<Integer> union(@Nullable int[] elements, @NotNull Iterable<Integer> other) {
+        IntHashSet set = IntHashSet.of(elements);
+        for (Integer element : other) {
+            if (element != null) {
+                set.add(element);
+            }
+        }
+        int[] union = set.toIntArray();
+        return toCollection(union, new LinkedHashSet<Integer>(Mapx.capacity(union.length)));
+    }
+
+    /**
+     * Returns an array containing all distinct elements from both this array and the [other] array, the elements are not boxed.
+     * <p>
+     * The elements of this array come first in their order, followed by the unique elements of the [other] array in their order.
+     */
+    @NotNull
+    public static int[] unionToArray(@Nullable int[] elements, @Nullable int[] other) {
+        IntHashSet set = IntHashSet.of(elements);
+        if (other != null) {
+            for (int element : other) {
+                set.add(element);
+            }
+        }
+        return set.toIntArray();
+    }
+
+    /**
+     * Returns a set containing all distinct elements from both this array and the specified collection.
+     * <p>
+     * The returned set preserves the element iteration order of the original array.
+     * Those elements of the [other] collection that are unique are iterated in the end
+     * in the order of the [other] collection.
+     */
+    @NotNull
+    public static Set<Long> union(@Nullable long[] elements, @NotNull Iterable<Long> other) {
+        LongHashSet set = LongHashSet.of(elements);
+        for (Long element : other) {
+            if (element != null) {
+                set.add(element);
+            }
+        }
+        long[] union = set.toLongArray();
+        return toCollection(union, new LinkedHashSet<Long>(Mapx.capacity(union.length)));
+    }
+
+    /**
+     * Returns an array containing all distinct elements from both this array and the [other] array, the elements are not boxed.
+     * <p>
+     * The elements of this array come first in their order, followed by the unique elements of the [other] array in their order.
+     */
+    @NotNull
+    public static long[] unionToArray(@Nullable long[] elements, @Nullable long[] other) {
+        LongHashSet set = LongHashSet.of(elements);
+        if (other != null) {
+            for (long element : other) {
+                set.add(element);
+            }
+        }
+        return set.toLongArray();
+    }
+
+    /**
+     * Returns a set containing all distinct elements from both this array and the specified collection.
+     * <p>
+     * The returned set preserves the element iteration order of the original array.
+     * Those elements of the [other] collection that are unique are iterated in the end
+     * in the order of the [other] collection.
+     */
+    @NotNull
+    public static Set<Double> union(@Nullable double[] elements, @NotNull Iterable<Double> other) {
+        DoubleHashSet set = DoubleHashSet.of(elements);
+        for (Double element : other) {
+            if (element != null) {
+                set.add(element);
+            }
+        }
+        double[] union = set.toDoubleArray();
+        return toCollection(union, new LinkedHashSet<Double>(Mapx.capacity(union.length)));
+    }
+
+    /**
+     * Returns an array containing all distinct elements from both this array and the [other] array, the elements are not boxed.
+     * <p>
+     * The elements of this array come first in their order, followed by the unique elements of the [other] array in their order.
+     */
+    @NotNull
+    public static double[] unionToArray(@Nullable double[] elements, @Nullable double[] other) {
+        DoubleHashSet set = DoubleHashSet.of(elements);
+        if (other != null) {
+            for (double element : other) {
+                set.add(element);
+            }
+        }
+        return set.toDoubleArray();
+    }
+
+    /**
+     * Returns a set containing all distinct elements from both this array and the specified collection.
+     * <p>
+     * The returned set preserves the element iteration order of the original array.
+     * Those elements of the [other] collection that are unique are iterated in the end
+     * in the order of the [other] collection.
+     */
+    @NotNull
+    public static Set<Character> union(@Nullable char[] elements, @NotNull Iterable<Character> other) {
+        CharHashSet set = CharHashSet.of(elements);
+        for (Character element : other) {
+            if (element != null) {
+                set.add(element);
+            }
+        }
+        char[] union = set.toCharArray();
+        return toCollection(union, new LinkedHashSet<Character>(Mapx.capacity(union.length)));
+    }
+
+    /**
+     * Returns an array containing all distinct elements from both this array and the [other] array, the elements are not boxed.
+     * <p>
+     * The elements of this array come first in their order, followed by the unique elements of the [other] array in their order.
+     */
+    @NotNull
+    public static char[] unionToArray(@Nullable char[] elements, @Nullable char[] other) {
+        CharHashSet set = CharHashSet.of(elements);
+        if (other != null) {
+            for (char element : other) {
+                set.add(element);
+            }
+        }
+        return set.toCharArray();
     }
 
 
@@ -16900,7 +18030,7 @@ public class Arrayx {
      */
     @NotNull
     public static List<Integer> distinct(@Nullable int[] elements) {
-        return Collectionx.toList(Arrayx.toSet(elements));
+        return toList(distinctToArray(elements));
     }
 
     /**
@@ -16910,7 +18040,7 @@ public class Arrayx {
      */
     @NotNull
     public static List<Long> distinct(@Nullable long[] elements) {
-        return Collectionx.toList(Arrayx.toSet(elements));
+        return toList(distinctToArray(elements));
     }
 
     /**
@@ -16930,7 +18060,7 @@ public class Arrayx {
      */
     @NotNull
     public static List<Double> distinct(@Nullable double[] elements) {
-        return Collectionx.toList(Arrayx.toSet(elements));
+        return toList(distinctToArray(elements));
     }
 
     /**
@@ -16950,7 +18080,47 @@ public class Arrayx {
      */
     @NotNull
     public static List<Character> distinct(@Nullable char[] elements) {
-        return Collectionx.toList(Arrayx.toSet(elements));
+        return toList(distinctToArray(elements));
+    }
+
+    /**
+     * Returns an array containing only distinct elements from the given array, the elements are not boxed.
+     * <p>
+     * The elements in the resulting array are in the same order as they were in the source array.
+     */
+    @NotNull
+    public static int[] distinctToArray(@Nullable int[] elements) {
+        return IntHashSet.of(elements).toIntArray();
+    }
+
+    /**
+     * Returns an array containing only distinct elements from the given array, the elements are not boxed.
+     * <p>
+     * The elements in the resulting array are in the same order as they were in the source array.
+     */
+    @NotNull
+    public static long[] distinctToArray(@Nullable long[] elements) {
+        return LongHashSet.of(elements).toLongArray();
+    }
+
+    /**
+     * Returns an array containing only distinct elements from the given array, the elements are not boxed.
+     * <p>
+     * The elements in the resulting array are in the same order as they were in the source array.
+     */
+    @NotNull
+    public static double[] distinctToArray(@Nullable double[] elements) {
+        return DoubleHashSet.of(elements).toDoubleArray();
+    }
+
+    /**
+     * Returns an array containing only distinct elements from the given array, the elements are not boxed.
+     * <p>
+     * The elements in the resulting array are in the same order as they were in the source array.
+     */
+    @NotNull
+    public static char[] distinctToArray(@Nullable char[] elements) {
+        return CharHashSet.of(elements).toCharArray();
     }
 
     /**
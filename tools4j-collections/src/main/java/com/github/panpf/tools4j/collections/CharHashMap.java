@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.collections;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A map from `char` keys to values that doesn't box the keys, by open addressing with linear probing.
+ * <p>
+ * The entries are kept in the order their keys were first put, they can be read by index with [keyAt] and [valueAt].
+ */
+public class CharHashMap<V> {
+
+    @NotNull
+    private char[] keys;
+    @NotNull
+    private Object[] values;
+    /**
+     * The index of the entry plus one, 0 for an empty slot
+     */
+    @NotNull
+    private int[] table;
+    private int size;
+
+    public CharHashMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize " + expectedSize + " is less than zero.");
+        }
+        this.keys = new char[Math.max(expectedSize, 4)];
+        this.values = new Object[keys.length];
+        this.table = new int[CharHashSet.tableSize(expectedSize)];
+    }
+
+    public CharHashMap() {
+        this(16);
+    }
+
+    /**
+     * Returns the index of the entry of the [key], or -1 if the map doesn't contain the [key]
+     */
+    public int indexOfKey(char key) {
+        int mask = table.length - 1;
+        int slot = CharHashSet.hash(key) & mask;
+        int index;
+        while ((index = table[slot]) != 0) {
+            if (CharHashSet.equals(keys[index - 1], key)) {
+                return index - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    public boolean containsKey(char key) {
+        return indexOfKey(key) >= 0;
+    }
+
+    /**
+     * Returns the value of the [key], or null if the map doesn't contain the [key]
+     */
+    @Nullable
+    public V get(char key) {
+        int index = indexOfKey(key);
+        //noinspection unchecked
+        return index >= 0 ? (V) values[index] : null;
+    }
+
+    /**
+     * Associates the [value] with the [key], a new key is added after all the other keys.
+     *
+     * @return The previous value of the [key], or null if the map didn't contain the [key]
+     */
+    @Nullable
+    public V put(char key, @Nullable V value) {
+        int mask = table.length - 1;
+        int slot = CharHashSet.hash(key) & mask;
+        int index;
+        while ((index = table[slot]) != 0) {
+            if (CharHashSet.equals(keys[index - 1], key)) {
+                //noinspection unchecked
+                V oldValue = (V) values[index - 1];
+                values[index - 1] = value;
+                return oldValue;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, keys.length * 2);
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        keys[size] = key;
+        values[size] = value;
+        table[slot] = ++size;
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the key of the [index]-th entry
+     *
+     * @throws IndexOutOfBoundsException if the [index] is out of bounds of this map.
+     */
+    public char keyAt(int index) {
+        checkIndex(index);
+        return keys[index];
+    }
+
+    /**
+     * Returns the value of the [index]-th entry
+     *
+     * @throws IndexOutOfBoundsException if the [index] is out of bounds of this map.
+     */
+    @Nullable
+    public V valueAt(int index) {
+        checkIndex(index);
+        //noinspection unchecked
+        return (V) values[index];
+    }
+
+    /**
+     * Replaces the value of the [index]-th entry
+     *
+     * @throws IndexOutOfBoundsException if the [index] is out of bounds of this map.
+     */
+    public void setValueAt(int index, @Nullable V value) {
+        checkIndex(index);
+        values[index] = value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all entries from the map
+     */
+    public void clear() {
+        Arrays.fill(table, 0);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Returns a new array of all keys in the order they were first put
+     */
+    @NotNull
+    public char[] keys() {
+        return Arrays.copyOf(keys, size);
+    }
+
+    /**
+     * Returns a new list of all values in the order their keys were first put
+     */
+    @NotNull
+    public List<V> values() {
+        List<V> list = new ArrayList<V>(size);
+        for (int index = 0; index < size; index++) {
+            //noinspection unchecked
+            list.add((V) values[index]);
+        }
+        return list;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+    }
+
+    private void rehash(int tableSize) {
+        int[] newTable = new int[tableSize];
+        int mask = tableSize - 1;
+        for (int index = 0; index < size; index++) {
+            int slot = CharHashSet.hash(keys[index]) & mask;
+            while (newTable[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            newTable[slot] = index + 1;
+        }
+        table = newTable;
+    }
+}
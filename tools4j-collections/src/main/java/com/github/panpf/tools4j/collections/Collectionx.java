@@ -17,7 +17,10 @@
 package com.github.panpf.tools4j.collections;
 
 import com.github.panpf.tools4j.common.*;
+import com.github.panpf.tools4j.iterable.AbstractIterator;
+import com.github.panpf.tools4j.iterable.BoundedHeap;
 import com.github.panpf.tools4j.iterable.IndexingIterable;
+import com.github.panpf.tools4j.iterable.TransformingIterable;
 import com.github.panpf.tools4j.iterable.WindowedIterator;
 import com.github.panpf.tools4j.ranges.IntRange;
 import org.jetbrains.annotations.NotNull;
@@ -2272,6 +2275,35 @@ public class Collectionx {
         return windowed(iterable, size, size, true, transform);
     }
 
+    /**
+     * Splits this collection into a lazy iterable of lists each not exceeding the given [size], each list is computed only when it is reached.
+     * <p>
+     * If this collection is a random access list every list is a read-only view of this list, otherwise a snapshot list.
+     * The last list may have less elements than the given [size].
+     *
+     * @param size the number of elements to take in each list, must be positive and can be greater than the number of elements in this collection.
+     */
+    @NotNull
+    public static <T> Iterable<List<T>> chunkedIterable(@Nullable Iterable<T> iterable, int size) {
+        return windowedIterable(iterable, size, size, true);
+    }
+
+    /**
+     * Splits this collection into several lists each not exceeding the given [size]
+     * and lazily applies the given [transform] function to an each.
+     *
+     * @param size the number of elements to take in each list, must be positive and can be greater than the number of elements in this collection.
+     * @return lazy iterable of results of the [transform] applied to an each list.
+     * <p>
+     * Note that the list passed to the [transform] function is ephemeral and is valid only inside that function.
+     * You should not store it or allow it to escape in some way, unless you made a snapshot of it.
+     * The last list may have less elements than the given [size].
+     */
+    @NotNull
+    public static <T, R> Iterable<R> chunkedIterable(@Nullable Iterable<T> iterable, int size, @NotNull Transformer<List<T>, R> transform) {
+        return windowedIterable(iterable, size, size, true, transform);
+    }
+
 
     /* ******************************************* minus ******************************************* */
 
@@ -2646,6 +2678,191 @@ public class Collectionx {
     }
 
 
+    /* ******************************************* top k ******************************************* */
+
+
+    /**
+     * Returns a list of the [k] smallest elements according to their natural sort order, in ascending order.
+     * <p>
+     * Equal elements keep their original order, so the result is the same as taking the first [k] elements of the sorted collection,
+     * but only [k] elements are kept at a time in a bounded heap, in O(n log k) time.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    @NotNull
+    public static <T extends Comparable<T>> List<T> bottomK(@Nullable Iterable<T> iterable, int k) {
+        return bottomKWith(iterable, k, new Comparator<T>() {
+            @Override
+            public int compare(@NotNull T o1, @NotNull T o2) {
+                return o1.compareTo(o2);
+            }
+        });
+    }
+
+    /**
+     * Returns a list of the [k] elements with the smallest values returned by specified [transformer] function, in ascending order of the values.
+     * <p>
+     * Equal elements keep their original order, and only [k] elements are kept at a time in a bounded heap, in O(n log k) time.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    @NotNull
+    public static <T, R extends Comparable<R>> List<T> bottomKBy(@Nullable Iterable<T> iterable, int k, @NotNull final NullableTransformer<T, R> transformer) {
+        return bottomKWith(iterable, k, new Comparator<T>() {
+            @Override
+            public int compare(@Nullable T o1, @Nullable T o2) {
+                R r1 = o1 != null ? transformer.transform(o1) : null;
+                R r2 = o2 != null ? transformer.transform(o2) : null;
+                return r1 == r2 ? 0 : (r1 == null ? -1 : (r2 == null ? 1 : (r1.compareTo(r2))));
+            }
+        });
+    }
+
+    /**
+     * Returns a list of the [k] smallest elements according to the order specified with [comparator], in that order.
+     * <p>
+     * Equal elements keep their original order, and only [k] elements are kept at a time in a bounded heap, in O(n log k) time.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    @NotNull
+    public static <T> List<T> bottomKWith(@Nullable Iterable<T> iterable, int k, @NotNull Comparator<T> comparator) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Param 'k' is less than zero.");
+        }
+        BoundedHeap<T> heap = new BoundedHeap<T>(k, comparator);
+        if (iterable != null && k > 0) {
+            for (T element : iterable) {
+                heap.add(element);
+            }
+        }
+        return heap.toSortedList();
+    }
+
+    /**
+     * Returns a list of the [k] largest elements according to their natural sort order, in descending order.
+     * <p>
+     * Equal elements keep their original order, and only [k] elements are kept at a time in a bounded heap, in O(n log k) time.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    @NotNull
+    public static <T extends Comparable<T>> List<T> topK(@Nullable Iterable<T> iterable, int k) {
+        return bottomKWith(iterable, k, new Comparator<T>() {
+            @Override
+            public int compare(@NotNull T o1, @NotNull T o2) {
+                return o2.compareTo(o1);
+            }
+        });
+    }
+
+    /**
+     * Returns a list of the [k] elements with the largest values returned by specified [transformer] function, in descending order of the values.
+     * <p>
+     * Equal elements keep their original order, and only [k] elements are kept at a time in a bounded heap, in O(n log k) time.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    @NotNull
+    public static <T, R extends Comparable<R>> List<T> topKBy(@Nullable Iterable<T> iterable, int k, @NotNull final NullableTransformer<T, R> transformer) {
+        return bottomKWith(iterable, k, new Comparator<T>() {
+            @Override
+            public int compare(@Nullable T o1, @Nullable T o2) {
+                R r1 = o2 != null ? transformer.transform(o2) : null;
+                R r2 = o1 != null ? transformer.transform(o1) : null;
+                return r1 == r2 ? 0 : (r1 == null ? -1 : (r2 == null ? 1 : (r1.compareTo(r2))));
+            }
+        });
+    }
+
+    /**
+     * Returns a list of the [k] largest elements according to the order specified with [comparator], in descending order.
+     * <p>
+     * Equal elements keep their original order, and only [k] elements are kept at a time in a bounded heap, in O(n log k) time.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    @NotNull
+    public static <T> List<T> topKWith(@Nullable Iterable<T> iterable, int k, @NotNull Comparator<T> comparator) {
+        return bottomKWith(iterable, k, Collections.reverseOrder(comparator));
+    }
+
+
+    /**
+     * Rearranges the list in-place so that its first [k] elements are its smallest elements in ascending order according to their natural sort order,
+     * the order of the other elements is unspecified.
+     * <p>
+     * The smallest elements are selected in linear time on average and only they are sorted. Equal elements may be reordered.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    public static <T extends Comparable<T>> void partialSort(@Nullable List<T> list, int k) {
+        partialSortWith(list, k, new Comparator<T>() {
+            @Override
+            public int compare(@NotNull T o1, @NotNull T o2) {
+                return o1.compareTo(o2);
+            }
+        });
+    }
+
+    /**
+     * Rearranges the list in-place so that its first [k] elements are its smallest elements in the order specified with [comparator],
+     * the order of the other elements is unspecified.
+     * <p>
+     * The smallest elements are selected in linear time on average and only they are sorted. Equal elements may be reordered.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    public static <T> void partialSortWith(@Nullable List<T> list, int k, @NotNull Comparator<T> comparator) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Param 'k' is less than zero.");
+        }
+        if (list != null && list.size() > 1 && k > 0) {
+            //noinspection unchecked
+            T[] elements = (T[]) list.toArray();
+            Selection.partialSort(elements, k, comparator);
+            ListIterator<T> iterator = list.listIterator();
+            for (T element : elements) {
+                iterator.next();
+                iterator.set(element);
+            }
+        }
+    }
+
+    /**
+     * Returns the element that would be at index [n] if the collection was sorted according to their natural sort order.
+     * <p>
+     * The element is selected in linear time on average from a copy of the collection, without sorting it.
+     *
+     * @throws IndexOutOfBoundsException if [n] is not an index of the collection.
+     */
+    public static <T extends Comparable<T>> T nthElement(@Nullable Iterable<T> iterable, int n) {
+        return nthElementWith(iterable, n, new Comparator<T>() {
+            @Override
+            public int compare(@NotNull T o1, @NotNull T o2) {
+                return o1.compareTo(o2);
+            }
+        });
+    }
+
+    /**
+     * Returns the element that would be at index [n] if the collection was sorted according to [comparator].
+     * <p>
+     * The element is selected in linear time on average from a copy of the collection, without sorting it.
+     *
+     * @throws IndexOutOfBoundsException if [n] is not an index of the collection.
+     */
+    public static <T> T nthElementWith(@Nullable Iterable<T> iterable, int n, @NotNull Comparator<T> comparator) {
+        //noinspection unchecked
+        T[] elements = (T[]) toList(iterable).toArray();
+        if (n < 0 || n >= elements.length) {
+            throw new IndexOutOfBoundsException("Collection doesn't contain element at index " + n + ".");
+        }
+        Selection.select(elements, 0, elements.length, n, comparator);
+        return elements[n];
+    }
+
+
     /* ******************************************* reverse ******************************************* */
 
 
@@ -3661,7 +3878,7 @@ public class Collectionx {
             return result;
         } else {
             final ArrayList<R> result = new ArrayList<R>();
-            forEach(new WindowedIterator<T>(iterable != null ? iterable.iterator() : null, size, step, partialWindows), new Action<List<T>>() {
+            forEach(new WindowedIterator<T>(iterable != null ? iterable.iterator() : null, size, step, partialWindows, true), new Action<List<T>>() {
                 @Override
                 public void action(@NotNull List<T> ts) {
                     result.add(transform.transform(ts));
@@ -3671,6 +3888,143 @@ public class Collectionx {
         }
     }
 
+    /**
+     * Returns a lazy iterable of the windows of the given [size]
+     * sliding along this collection with the given [step], each window is computed only when it is reached.
+     * <p>
+     * If this collection is a random access list every window is a read-only view of this list, the elements are not copied,
+     * so the windows reflect the changes of this list and become invalid if its size changes.
+     * Otherwise every window is a snapshot list.
+     * <p>
+     * Several last lists may have less elements than the given [size].
+     * <p>
+     * Both [size] and [step] must be positive and can be greater than the number of elements in this collection.
+     *
+     * @param size           the number of elements to take in each window
+     * @param step           the number of elements to move the window forward by on an each step, by default 1
+     * @param partialWindows controls whether or not to keep partial windows in the end if any,
+     *                       by default `false` which means partial windows won't be preserved
+     */
+    @NotNull
+    public static <T> Iterable<List<T>> windowedIterable(@Nullable final Iterable<T> iterable, final int size, final int step, final boolean partialWindows) {
+        if (size <= 0 || step <= 0) {
+            if (size != step) {
+                throw new IllegalArgumentException("Both size " + size + " and step " + step + " must be greater than zero.");
+            } else {
+                throw new IllegalArgumentException("size " + size + " must be greater than zero.");
+            }
+        }
+        if (iterable instanceof RandomAccess && iterable instanceof List) {
+            final List<T> list = (List<T>) iterable;
+            return new Iterable<List<T>>() {
+                @NotNull
+                @Override
+                public Iterator<List<T>> iterator() {
+                    return new AbstractIterator<List<T>>() {
+                        private int index = 0;
+
+                        @Override
+                        protected void computeNext() {
+                            int thisSize = list.size();
+                            int windowSize = Math.min(size, thisSize - index);
+                            if (windowSize <= 0 || (windowSize < size && !partialWindows)) {
+                                done();
+                                return;
+                            }
+                            setNext(Collections.unmodifiableList(list.subList(index, index + windowSize)));
+                            index = step < thisSize - index ? index + step : thisSize;
+                        }
+
+                        @Override
+                        public void remove() {
+                            throw new UnsupportedOperationException("remove");
+                        }
+                    };
+                }
+            };
+        } else {
+            return new Iterable<List<T>>() {
+                @NotNull
+                @Override
+                public Iterator<List<T>> iterator() {
+                    return new WindowedIterator<T>(iterable != null ? iterable.iterator() : null, size, step, partialWindows);
+                }
+            };
+        }
+    }
+
+    /**
+     * Returns a lazy iterable of results of applying the given [transform] function to
+     * an each list representing a view over the window of the given [size]
+     * sliding along this collection with the given [step], each window is computed only when it is reached.
+     * <p>
+     * Note that the list passed to the [transform] function is ephemeral and is valid only inside that function.
+     * You should not store it or allow it to escape in some way, unless you made a snapshot of it.
+     * The same read-only list is reused for all the windows, backed by this list if it is a random access list, otherwise by a ring buffer,
+     * so no list is allocated per window.
+     * Several last lists may have less elements than the given [size].
+     * <p>
+     * Both [size] and [step] must be positive and can be greater than the number of elements in this collection.
+     *
+     * @param size           the number of elements to take in each window
+     * @param step           the number of elements to move the window forward by on an each step, by default 1
+     * @param partialWindows controls whether or not to keep partial windows in the end if any,
+     *                       by default `false` which means partial windows won't be preserved
+     */
+    @NotNull
+    public static <T, R> Iterable<R> windowedIterable(@Nullable final Iterable<T> iterable, final int size, final int step, final boolean partialWindows,
+                                                      @NotNull final Transformer<List<T>, R> transform) {
+        if (size <= 0 || step <= 0) {
+            if (size != step) {
+                throw new IllegalArgumentException("Both size " + size + " and step " + step + " must be greater than zero.");
+            } else {
+                throw new IllegalArgumentException("size " + size + " must be greater than zero.");
+            }
+        }
+        if (iterable instanceof RandomAccess && iterable instanceof List) {
+            final List<T> list = (List<T>) iterable;
+            return new Iterable<R>() {
+                @NotNull
+                @Override
+                public Iterator<R> iterator() {
+                    return new AbstractIterator<R>() {
+                        @NotNull
+                        private final MovingSubList<T> window = new MovingSubList<T>(list);
+                        @NotNull
+                        private final List<T> windowView = Collections.unmodifiableList(window);
+                        private int index = 0;
+
+                        @Override
+                        protected void computeNext() {
+                            int thisSize = list.size();
+                            int windowSize = Math.min(size, thisSize - index);
+                            if (windowSize <= 0 || (windowSize < size && !partialWindows)) {
+                                done();
+                                return;
+                            }
+                            window.move(index, index + windowSize);
+                            setNext(transform.transform(windowView));
+                            index = step < thisSize - index ? index + step : thisSize;
+                        }
+
+                        @Override
+                        public void remove() {
+                            throw new UnsupportedOperationException("remove");
+                        }
+                    };
+                }
+            };
+        } else {
+            return new TransformingIterable<List<T>, R>(new Iterable<List<T>>() {
+                @NotNull
+                @Override
+                public Iterator<List<T>> iterator() {
+                    return new WindowedIterator<T>(iterable != null ? iterable.iterator() : null, size, step, partialWindows, true);
+                }
+            }, transform);
+        }
+    }
+
 
     /* ******************************************* zip ******************************************* */
 
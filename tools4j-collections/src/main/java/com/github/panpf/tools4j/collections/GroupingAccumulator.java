@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.collections;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Groups the elements of a [Grouping] into one mutable accumulator per key, the engine of the group-and-fold operations of [Groupingx].
+ * <p>
+ * The accumulators are updated in place, so each element costs one lookup in the map of the groups.
+ * The parallel version gives every partition its own map and merges the maps with [merge] at the end.
+ */
+abstract class GroupingAccumulator<T, K, A> {
+
+    /**
+     * The number of elements one partition takes from the source at a time
+     */
+    static final int BATCH_SIZE = 1024;
+
+    /**
+     * Creates the accumulator of the group of [key] from the first [element] of the group
+     */
+    @NotNull
+    abstract A create(@NotNull K key, @NotNull T element);
+
+    /**
+     * Adds the [element] to the [accumulator] of the group of [key] in place
+     */
+    abstract void accumulate(@NotNull K key, @NotNull A accumulator, @NotNull T element);
+
+    /**
+     * Combines the accumulators of the same group built by two partitions, [left] is the one already merged into the result
+     */
+    @NotNull
+    abstract A merge(@NotNull K key, @NotNull A left, @NotNull A right);
+
+    @NotNull
+    Map<K, A> accumulate(@NotNull Grouping<T, K> grouping) {
+        Map<K, A> groups = new LinkedHashMap<K, A>();
+        Iterator<T> iterator = grouping.sourceIterator();
+        while (iterator.hasNext()) {
+            add(grouping, groups, iterator.next());
+        }
+        return groups;
+    }
+
+    /**
+     * Groups the elements with one partition on the calling thread and one partition per processor on the [executor].
+     * <p>
+     * The calling thread reads the source in batches and hands them to the partitions through a bounded queue.
+     * When the queue is full, or once the source is exhausted, the calling thread processes the batches itself,
+     * so it never waits for a partition that the executor hasn't started, and the partitions that haven't started by the end are given up.
+     * The order of the keys and the order in which the elements of a group are accumulated depend on the scheduling.
+     */
+    @NotNull
+    Map<K, A> accumulate(@NotNull final Grouping<T, K> grouping, @NotNull ExecutorService executor) {
+        int partitionCount = Runtime.getRuntime().availableProcessors();
+        final BlockingQueue<List<T>> queue = new ArrayBlockingQueue<List<T>>(partitionCount * 2);
+        final List<T> end = new ArrayList<T>(0);
+        List<Future<Map<K, A>>> partitions = new ArrayList<Future<Map<K, A>>>(partitionCount);
+        List<AtomicBoolean> partitionStarts = new ArrayList<AtomicBoolean>(partitionCount);
+        List<Future<Map<K, A>>> startedPartitions = new ArrayList<Future<Map<K, A>>>(partitionCount);
+        Map<K, A> groups = new LinkedHashMap<K, A>();
+        try {
+            for (int i = 0; i < partitionCount; i++) {
+                final AtomicBoolean started = new AtomicBoolean();
+                partitionStarts.add(started);
+                partitions.add(executor.submit(new Callable<Map<K, A>>() {
+                    @Override
+                    public Map<K, A> call() throws InterruptedException {
+                        if (!started.compareAndSet(false, true)) {
+                            // Given up by the calling thread
+                            return null;
+                        }
+                        Map<K, A> groups = new LinkedHashMap<K, A>();
+                        List<T> batch;
+                        while ((batch = queue.take()) != end) {
+                            addAll(grouping, groups, batch);
+                        }
+                        return groups;
+                    }
+                }));
+            }
+
+            Iterator<T> iterator = grouping.sourceIterator();
+            while (iterator.hasNext()) {
+                List<T> batch = new ArrayList<T>(BATCH_SIZE);
+                while (batch.size() < BATCH_SIZE && iterator.hasNext()) {
+                    batch.add(iterator.next());
+                }
+                if (!queue.offer(batch)) {
+                    addAll(grouping, groups, batch);
+                }
+            }
+            List<T> batch;
+            while ((batch = queue.poll()) != null) {
+                addAll(grouping, groups, batch);
+            }
+        } finally {
+            // The queue is already drained unless the calling thread failed, then the batches left are dropped
+            queue.clear();
+            for (int i = 0; i < partitions.size(); i++) {
+                Future<Map<K, A>> partition = partitions.get(i);
+                if (partitionStarts.get(i).compareAndSet(false, true)) {
+                    partition.cancel(false);
+                } else {
+                    startedPartitions.add(partition);
+                    queue.add(end);
+                }
+            }
+        }
+
+        for (Future<Map<K, A>> partition : startedPartitions) {
+            for (Map.Entry<K, A> entry : ParallelArrays.await(partition).entrySet()) {
+                K key = entry.getKey();
+                A accumulator = groups.get(key);
+                groups.put(key, accumulator != null ? merge(key, accumulator, entry.getValue()) : entry.getValue());
+            }
+        }
+        return groups;
+    }
+
+    private void addAll(@NotNull Grouping<T, K> grouping, @NotNull Map<K, A> groups, @NotNull List<T> elements) {
+        for (int i = 0, size = elements.size(); i < size; i++) {
+            add(grouping, groups, elements.get(i));
+        }
+    }
+
+    private void add(@NotNull Grouping<T, K> grouping, @NotNull Map<K, A> groups, @NotNull T element) {
+        K key = grouping.keyOf(element);
+        A accumulator = groups.get(key);
+        if (accumulator == null) {
+            groups.put(key, create(key, element));
+        } else {
+            accumulate(key, accumulator, element);
+        }
+    }
+}
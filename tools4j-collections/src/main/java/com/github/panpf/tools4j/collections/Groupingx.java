@@ -26,9 +26,14 @@ import org.jetbrains.annotations.Nullable;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 public class Groupingx {
 
+    private static final int SUM = 0;
+    private static final int MIN = 1;
+    private static final int MAX = 2;
+
     private Groupingx() {
     }
 
@@ -329,43 +334,361 @@ public class Groupingx {
      */
     @NotNull
     public static <T, K> Map<K, Integer> eachCount(@Nullable Grouping<T, K> grouping) {
-        return mapValuesInPlace(foldTo(grouping, new LinkedHashMap<K, Ref.IntRef>(0), new Transformer2<K, T, Ref.IntRef>() {
+        return intValues(groups(grouping, Groupingx.<T, K>counter(), null));
+    }
+
+    /**
+     * Groups elements from the [Grouping] source by key and counts elements in each group to the given [destination] map.
+     * <p>
+     * If the [destination] map already has a value corresponding to the key of some group,
+     * that value is used as an initial value of the counter for that group.
+     *
+     * @return the [destination] map associating the key of each group with the count of elements in the group.
+     */
+    @NotNull
+    public static <T, K, M extends Map<K, Integer>> M eachCountTo(@Nullable Grouping<T, K> grouping, @NotNull M destination) {
+        if (grouping != null) {
+            for (Map.Entry<K, Ref.IntRef> entry : Groupingx.<T, K>counter().accumulate(grouping).entrySet()) {
+                Integer count = destination.get(entry.getKey());
+                destination.put(entry.getKey(), (count != null ? count : 0) + entry.getValue().element);
+            }
+        }
+        return destination;
+    }
+
+
+    /*
+     * *****************************************************************************************************************
+     * Primitive accumulators and parallel grouping
+     * *****************************************************************************************************************
+     */
+
+
+    /**
+     * Groups elements from the [Grouping] source by key and applies [operation] to the elements of each group,
+     * like [aggregate], but splits the elements between partitions grouped concurrently on the [executor],
+     * each into its own map, and combines the results of the partitions for the same key with the [combiner] at the end.
+     * <p>
+     * The partitions take batches of elements in no particular order, so the [operation] and the [combiner] must give the same result
+     * whatever the order of the elements of a group, and the order of the keys of the returned map is unspecified.
+     *
+     * @param operation function is invoked on each element with the following parameters:
+     *                  - `key`: the key of the group this element belongs to;
+     *                  - `accumulator`: the current value of the accumulator of the group in the partition, `null` if it's the first `element` of the group in the partition;
+     *                  - `element`: the element from the source being aggregated;
+     *                  - `first`: indicates whether it's the first `element` of the group in the partition.
+     * @param combiner  function that combines the results of two partitions for the same key
+     * @return a [Map] associating the key of each group with the result of aggregation of the group elements.
+     */
+    @NotNull
+    public static <T, K, R> Map<K, R> aggregate(@Nullable Grouping<T, K> grouping, @NotNull final AggregateOperation<T, K, R> operation,
+                                                @NotNull final Transformer2<R, R, R> combiner, @NotNull ExecutorService executor) {
+        return mapValuesInPlace(groups(grouping, new GroupingAccumulator<T, K, Ref.ObjectRef<R>>() {
             @NotNull
             @Override
-            public Ref.IntRef transform(@NotNull K k, @NotNull T t) {
-                return new Ref.IntRef();
+            Ref.ObjectRef<R> create(@NotNull K key, @NotNull T element) {
+                Ref.ObjectRef<R> accumulator = new Ref.ObjectRef<R>();
+                accumulator.element = operation.operation(key, null, element, true);
+                return accumulator;
             }
-        }, new FoldOperation<T, K, Ref.IntRef>() {
+
+            @Override
+            void accumulate(@NotNull K key, @NotNull Ref.ObjectRef<R> accumulator, @NotNull T element) {
+                accumulator.element = operation.operation(key, accumulator.element, element, false);
+            }
+
             @NotNull
             @Override
-            public Ref.IntRef operation(@NotNull K key, @NotNull Ref.IntRef accumulator, @NotNull T element) {
-                accumulator.element += 1;
-                return accumulator;
+            Ref.ObjectRef<R> merge(@NotNull K key, @NotNull Ref.ObjectRef<R> left, @NotNull Ref.ObjectRef<R> right) {
+                left.element = combiner.transform(left.element, right.element);
+                return left;
             }
-        }), new Transformer<Map.Entry<K, Ref.IntRef>, Integer>() {
+        }, executor), new Transformer<Map.Entry<K, Ref.ObjectRef<R>>, R>() {
             @NotNull
             @Override
-            public Integer transform(@NotNull Map.Entry<K, Ref.IntRef> kIntRefEntry) {
-                return kIntRefEntry.getValue().element;
+            public R transform(@NotNull Map.Entry<K, Ref.ObjectRef<R>> entry) {
+                return entry.getValue().element;
             }
         });
     }
 
     /**
-     * Groups elements from the [Grouping] source by key and counts elements in each group to the given [destination] map.
+     * Groups elements from the [Grouping] source by key and counts elements in each group,
+     * splitting the elements between partitions counted concurrently on the [executor].
      * <p>
-     * If the [destination] map already has a value corresponding to the key of some group,
-     * that value is used as an initial value of the counter for that group.
+     * The order of the keys of the returned map is unspecified.
      *
-     * @return the [destination] map associating the key of each group with the count of elements in the group.
+     * @return a [Map] associating the key of each group with the count of elements in the group.
      */
     @NotNull
-    public static <T, K, M extends Map<K, Integer>> M eachCountTo(@Nullable Grouping<T, K> grouping, @NotNull M destination) {
-        return foldTo(grouping, destination, 0, new Transformer2<Integer, T, Integer>() {
+    public static <T, K> Map<K, Integer> eachCount(@Nullable Grouping<T, K> grouping, @NotNull ExecutorService executor) {
+        return intValues(groups(grouping, Groupingx.<T, K>counter(), executor));
+    }
+
+    /**
+     * Groups elements from the [Grouping] source by key and sums the values produced by [selector] for the elements of each group.
+     * The sum of each group is kept in a mutable `long`, the values are not boxed.
+     *
+     * @return a [Map] associating the key of each group with the sum of the group.
+     */
+    @NotNull
+    public static <T, K> Map<K, Long> eachSumOf(@Nullable Grouping<T, K> grouping, @NotNull ToLongTransformer<T> selector) {
+        return longValues(groups(grouping, Groupingx.<T, K>longAccumulator(selector, SUM), null));
+    }
+
+    /**
+     * Groups elements from the [Grouping] source by key and sums the values produced by [selector] for the elements of each group,
+     * splitting the elements between partitions summed concurrently on the [executor].
+     * <p>
+     * The order of the keys of the returned map is unspecified.
+     *
+     * @return a [Map] associating the key of each group with the sum of the group.
+     */
+    @NotNull
+    public static <T, K> Map<K, Long> eachSumOf(@Nullable Grouping<T, K> grouping, @NotNull ToLongTransformer<T> selector, @NotNull ExecutorService executor) {
+        return longValues(groups(grouping, Groupingx.<T, K>longAccumulator(selector, SUM), executor));
+    }
+
+    /**
+     * Groups elements from the [Grouping] source by key and sums the values produced by [selector] for the elements of each group.
+     * The sum of each group is kept in a mutable `double`, the values are not boxed.
+     *
+     * @return a [Map] associating the key of each group with the sum of the group.
+     */
+    @NotNull
+    public static <T, K> Map<K, Double> eachSumOfDouble(@Nullable Grouping<T, K> grouping, @NotNull ToDoubleTransformer<T> selector) {
+        return doubleValues(groups(grouping, Groupingx.<T, K>doubleAccumulator(selector, SUM), null));
+    }
+
+    /**
+     * Groups elements from the [Grouping] source by key and sums the values produced by [selector] for the elements of each group,
+     * splitting the elements between partitions summed concurrently on the [executor].
+     * <p>
+     * The order of the keys of the returned map is unspecified, and so is the order in which the values of a group are added.
+     *
+     * @return a [Map] associating the key of each group with the sum of the group.
+     */
+    @NotNull
+    public static <T, K> Map<K, Double> eachSumOfDouble(@Nullable Grouping<T, K> grouping, @NotNull ToDoubleTransformer<T> selector, @NotNull ExecutorService executor) {
+        return doubleValues(groups(grouping, Groupingx.<T, K>doubleAccumulator(selector, SUM), executor));
+    }
+
+    /**
+     * Groups elements from the [Grouping] source by key and finds the smallest value produced by [selector] for the elements of each group.
+     *
+     * @return a [Map] associating the key of each group with the smallest value of the group.
+     */
+    @NotNull
+    public static <T, K> Map<K, Long> eachMinOf(@Nullable Grouping<T, K> grouping, @NotNull ToLongTransformer<T> selector) {
+        return longValues(groups(grouping, Groupingx.<T, K>longAccumulator(selector, MIN), null));
+    }
+
+    /**
+     * Groups elements from the [Grouping] source by key and finds the smallest value produced by [selector] for the elements of each group,
+     * splitting the elements between partitions processed concurrently on the [executor].
+     * <p>
+     * The order of the keys of the returned map is unspecified.
+     *
+     * @return a [Map] associating the key of each group with the smallest value of the group.
+     */
+    @NotNull
+    public static <T, K> Map<K, Long> eachMinOf(@Nullable Grouping<T, K> grouping, @NotNull ToLongTransformer<T> selector, @NotNull ExecutorService executor) {
+        return longValues(groups(grouping, Groupingx.<T, K>longAccumulator(selector, MIN), executor));
+    }
+
+    /**
+     * Groups elements from the [Grouping] source by key and finds the smallest value produced by [selector] for the elements of each group.
+     * <p>
+     * If any of values of a group is `NaN` the value of the group is `NaN`.
+     *
+     * @return a [Map] associating the key of each group with the smallest value of the group.
+     */
+    @NotNull
+    public static <T, K> Map<K, Double> eachMinOfDouble(@Nullable Grouping<T, K> grouping, @NotNull ToDoubleTransformer<T> selector) {
+        return doubleValues(groups(grouping, Groupingx.<T, K>doubleAccumulator(selector, MIN), null));
+    }
+
+    /**
+     * Groups elements from the [Grouping] source by key and finds the smallest value produced by [selector] for the elements of each group,
+     * splitting the elements between partitions processed concurrently on the [executor].
+     * <p>
+     * If any of values of a group is `NaN` the value of the group is `NaN`. The order of the keys of the returned map is unspecified.
+     *
+     * @return a [Map] associating the key of each group with the smallest value of the group.
+     */
+    @NotNull
+    public static <T, K> Map<K, Double> eachMinOfDouble(@Nullable Grouping<T, K> grouping, @NotNull ToDoubleTransformer<T> selector, @NotNull ExecutorService executor) {
+        return doubleValues(groups(grouping, Groupingx.<T, K>doubleAccumulator(selector, MIN), executor));
+    }
+
+    /**
+     * Groups elements from the [Grouping] source by key and finds the largest value produced by [selector] for the elements of each group.
+     *
+     * @return a [Map] associating the key of each group with the largest value of the group.
+     */
+    @NotNull
+    public static <T, K> Map<K, Long> eachMaxOf(@Nullable Grouping<T, K> grouping, @NotNull ToLongTransformer<T> selector) {
+        return longValues(groups(grouping, Groupingx.<T, K>longAccumulator(selector, MAX), null));
+    }
+
+    /**
+     * Groups elements from the [Grouping] source by key and finds the largest value produced by [selector] for the elements of each group,
+     * splitting the elements between partitions processed concurrently on the [executor].
+     * <p>
+     * The order of the keys of the returned map is unspecified.
+     *
+     * @return a [Map] associating the key of each group with the largest value of the group.
+     */
+    @NotNull
+    public static <T, K> Map<K, Long> eachMaxOf(@Nullable Grouping<T, K> grouping, @NotNull ToLongTransformer<T> selector, @NotNull ExecutorService executor) {
+        return longValues(groups(grouping, Groupingx.<T, K>longAccumulator(selector, MAX), executor));
+    }
+
+    /**
+     * Groups elements from the [Grouping] source by key and finds the largest value produced by [selector] for the elements of each group.
+     * <p>
+     * If any of values of a group is `NaN` the value of the group is `NaN`.
+     *
+     * @return a [Map] associating the key of each group with the largest value of the group.
+     */
+    @NotNull
+    public static <T, K> Map<K, Double> eachMaxOfDouble(@Nullable Grouping<T, K> grouping, @NotNull ToDoubleTransformer<T> selector) {
+        return doubleValues(groups(grouping, Groupingx.<T, K>doubleAccumulator(selector, MAX), null));
+    }
+
+    /**
+     * Groups elements from the [Grouping] source by key and finds the largest value produced by [selector] for the elements of each group,
+     * splitting the elements between partitions processed concurrently on the [executor].
+     * <p>
+     * If any of values of a group is `NaN` the value of the group is `NaN`. The order of the keys of the returned map is unspecified.
+     *
+     * @return a [Map] associating the key of each group with the largest value of the group.
+     */
+    @NotNull
+    public static <T, K> Map<K, Double> eachMaxOfDouble(@Nullable Grouping<T, K> grouping, @NotNull ToDoubleTransformer<T> selector, @NotNull ExecutorService executor) {
+        return doubleValues(groups(grouping, Groupingx.<T, K>doubleAccumulator(selector, MAX), executor));
+    }
+
+    @NotNull
+    private static <T, K, A> Map<K, A> groups(@Nullable Grouping<T, K> grouping, @NotNull GroupingAccumulator<T, K, A> accumulator, @Nullable ExecutorService executor) {
+        if (grouping == null) {
+            return new LinkedHashMap<K, A>(0);
+        }
+        return executor != null ? accumulator.accumulate(grouping, executor) : accumulator.accumulate(grouping);
+    }
+
+    @NotNull
+    private static <T, K> GroupingAccumulator<T, K, Ref.IntRef> counter() {
+        return new GroupingAccumulator<T, K, Ref.IntRef>() {
+            @NotNull
+            @Override
+            Ref.IntRef create(@NotNull K key, @NotNull T element) {
+                Ref.IntRef accumulator = new Ref.IntRef();
+                accumulator.element = 1;
+                return accumulator;
+            }
+
+            @Override
+            void accumulate(@NotNull K key, @NotNull Ref.IntRef accumulator, @NotNull T element) {
+                accumulator.element++;
+            }
+
+            @NotNull
+            @Override
+            Ref.IntRef merge(@NotNull K key, @NotNull Ref.IntRef left, @NotNull Ref.IntRef right) {
+                left.element += right.element;
+                return left;
+            }
+        };
+    }
+
+    @NotNull
+    private static <T, K> GroupingAccumulator<T, K, Ref.LongRef> longAccumulator(@NotNull final ToLongTransformer<T> selector, final int function) {
+        return new GroupingAccumulator<T, K, Ref.LongRef>() {
+            @NotNull
+            @Override
+            Ref.LongRef create(@NotNull K key, @NotNull T element) {
+                Ref.LongRef accumulator = new Ref.LongRef();
+                accumulator.element = selector.transform(element);
+                return accumulator;
+            }
+
+            @Override
+            void accumulate(@NotNull K key, @NotNull Ref.LongRef accumulator, @NotNull T element) {
+                accumulator.element = combine(accumulator.element, selector.transform(element));
+            }
+
+            @NotNull
+            @Override
+            Ref.LongRef merge(@NotNull K key, @NotNull Ref.LongRef left, @NotNull Ref.LongRef right) {
+                left.element = combine(left.element, right.element);
+                return left;
+            }
+
+            private long combine(long left, long right) {
+                return function == SUM ? left + right : function == MIN ? Math.min(left, right) : Math.max(left, right);
+            }
+        };
+    }
+
+    @NotNull
+    private static <T, K> GroupingAccumulator<T, K, Ref.DoubleRef> doubleAccumulator(@NotNull final ToDoubleTransformer<T> selector, final int function) {
+        return new GroupingAccumulator<T, K, Ref.DoubleRef>() {
+            @NotNull
+            @Override
+            Ref.DoubleRef create(@NotNull K key, @NotNull T element) {
+                Ref.DoubleRef accumulator = new Ref.DoubleRef();
+                accumulator.element = selector.transform(element);
+                return accumulator;
+            }
+
+            @Override
+            void accumulate(@NotNull K key, @NotNull Ref.DoubleRef accumulator, @NotNull T element) {
+                accumulator.element = combine(accumulator.element, selector.transform(element));
+            }
+
+            @NotNull
+            @Override
+            Ref.DoubleRef merge(@NotNull K key, @NotNull Ref.DoubleRef left, @NotNull Ref.DoubleRef right) {
+                left.element = combine(left.element, right.element);
+                return left;
+            }
+
+            private double combine(double left, double right) {
+                return function == SUM ? left + right : function == MIN ? Math.min(left, right) : Math.max(left, right);
+            }
+        };
+    }
+
+    @NotNull
+    private static <K> Map<K, Integer> intValues(@NotNull Map<K, Ref.IntRef> groups) {
+        return mapValuesInPlace(groups, new Transformer<Map.Entry<K, Ref.IntRef>, Integer>() {
+            @NotNull
+            @Override
+            public Integer transform(@NotNull Map.Entry<K, Ref.IntRef> entry) {
+                return entry.getValue().element;
+            }
+        });
+    }
+
+    @NotNull
+    private static <K> Map<K, Long> longValues(@NotNull Map<K, Ref.LongRef> groups) {
+        return mapValuesInPlace(groups, new Transformer<Map.Entry<K, Ref.LongRef>, Long>() {
+            @NotNull
+            @Override
+            public Long transform(@NotNull Map.Entry<K, Ref.LongRef> entry) {
+                return entry.getValue().element;
+            }
+        });
+    }
+
+    @NotNull
+    private static <K> Map<K, Double> doubleValues(@NotNull Map<K, Ref.DoubleRef> groups) {
+        return mapValuesInPlace(groups, new Transformer<Map.Entry<K, Ref.DoubleRef>, Double>() {
             @NotNull
             @Override
-            public Integer transform(@NotNull Integer integer, @NotNull T t) {
-                return integer + 1;
+            public Double transform(@NotNull Map.Entry<K, Ref.DoubleRef> entry) {
+                return entry.getValue().element;
             }
         });
     }
@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.collections;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * A set of `int` values that doesn't box them, by open addressing with linear probing.
+ * <p>
+ * The values are kept in an array in the order they were added, which is also the order of [toIntArray] and [get].
+ */
+public class IntHashSet {
+
+    @NotNull
+    private int[] elements;
+    /**
+     * The index of the element in [elements] plus one, 0 for an empty slot
+     */
+    @NotNull
+    private int[] table;
+    private int size;
+
+    public IntHashSet(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize " + expectedSize + " is less than zero.");
+        }
+        this.elements = new int[Math.max(expectedSize, 4)];
+        this.table = new int[tableSize(expectedSize)];
+    }
+
+    public IntHashSet() {
+        this(16);
+    }
+
+    /**
+     * Creates a set of the distinct values of the [elements], in the order of their first occurrences
+     */
+    @NotNull
+    public static IntHashSet of(@Nullable int[] elements) {
+        IntHashSet set = new IntHashSet(elements != null ? elements.length : 0);
+        if (elements != null) {
+            for (int element : elements) {
+                set.add(element);
+            }
+        }
+        return set;
+    }
+
+    /**
+     * Creates a set of the distinct values of the [elements], in the order of their first occurrences.
+     * Null elements are skipped, a null never equals a primitive value
+     */
+    @NotNull
+    public static IntHashSet of(@Nullable Iterable<Integer> elements) {
+        IntHashSet set = new IntHashSet();
+        if (elements != null) {
+            for (Integer element : elements) {
+                if (element != null) {
+                    set.add(element);
+                }
+            }
+        }
+        return set;
+    }
+
+    /**
+     * Adds the [element] to the set.
+     *
+     * @return `true` if the element has been added, `false` if the element is already contained in the set.
+     */
+    public boolean add(int element) {
+        int mask = table.length - 1;
+        int slot = hash(element) & mask;
+        int index;
+        while ((index = table[slot]) != 0) {
+            if (equals(elements[index - 1], element)) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, elements.length * 2);
+        }
+        elements[size++] = element;
+        table[slot] = size;
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * Returns `true` if the set contains the [element]
+     */
+    public boolean contains(int element) {
+        int mask = table.length - 1;
+        int slot = hash(element) & mask;
+        int index;
+        while ((index = table[slot]) != 0) {
+            if (equals(elements[index - 1], element)) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the element added [index]-th to the set
+     *
+     * @throws IndexOutOfBoundsException if the [index] is out of bounds of this set.
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+        return elements[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all elements from the set
+     */
+    public void clear() {
+        Arrays.fill(table, 0);
+        size = 0;
+    }
+
+    /**
+     * Returns a new array of all elements in the order they were added
+     */
+    @NotNull
+    public int[] toIntArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    private void rehash(int tableSize) {
+        int[] newTable = new int[tableSize];
+        int mask = tableSize - 1;
+        for (int index = 0; index < size; index++) {
+            int slot = hash(elements[index]) & mask;
+            while (newTable[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            newTable[slot] = index + 1;
+        }
+        table = newTable;
+    }
+
+    static int tableSize(int expectedSize) {
+        int tableSize = 8;
+        while (tableSize < (long) expectedSize * 2 && tableSize < (1 << 30)) {
+            tableSize <<= 1;
+        }
+        return tableSize;
+    }
+
+    static int hash(int element) {
+        // Spread the bits, so that sequential values and values differing only in the high bits don't cluster
+        long h = (long) element * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    static boolean equals(int element1, int element2) {
+        return element1 == element2;
+    }
+}
@@ -0,0 +1,648 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.collections;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Splits primitive arrays into chunks processed concurrently on an {@link ExecutorService}, the implementation of the parallel methods of {@link Arrayx}.
+ * <p>
+ * The first chunk is processed on the calling thread, the tasks never wait for each other, so any executor can be used, even one with a single thread.
+ * Arrays shorter than {@link #PARALLEL_THRESHOLD} are processed on the calling thread only.
+ */
+class ParallelArrays {
+
+    /**
+     * Below this length splitting costs more than it saves
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+    /**
+     * The smallest chunk worth a task
+     */
+    private static final int MIN_CHUNK_SIZE = 1 << 14;
+
+    private ParallelArrays() {
+    }
+
+    /**
+     * Returns the boundaries of the chunks of an array of the given [length], the i-th chunk is from bounds[i] inclusive to bounds[i + 1] exclusive
+     */
+    @NotNull
+    static int[] chunkBounds(int length) {
+        int chunkCount = length < PARALLEL_THRESHOLD ? 1
+                : Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 4, length / MIN_CHUNK_SIZE));
+        int[] bounds = new int[chunkCount + 1];
+        for (int i = 0; i <= chunkCount; i++) {
+            bounds[i] = (int) ((long) length * i / chunkCount);
+        }
+        return bounds;
+    }
+
+    /**
+     * Runs the [task] on every chunk of an array of the given [length] and returns the results in the order of the chunks
+     */
+    @NotNull
+    static <R> List<R> invokeChunks(@NotNull ExecutorService executor, int length, @NotNull ChunkTask<R> task) {
+        return invokeChunks(executor, chunkBounds(length), task);
+    }
+
+    /**
+     * Runs the [task] on every chunk of the given [bounds] and returns the results in the order of the chunks,
+     * for callers that need the same chunks again afterwards, the chunk count of [chunkBounds] may change between calls
+     */
+    @NotNull
+    static <R> List<R> invokeChunks(@NotNull ExecutorService executor, @NotNull final int[] bounds, @NotNull final ChunkTask<R> task) {
+        int chunkCount = bounds.length - 1;
+        List<Future<R>> futures = new ArrayList<Future<R>>(chunkCount);
+        List<R> results = new ArrayList<R>(chunkCount);
+        try {
+            for (int i = 1; i < chunkCount; i++) {
+                final int chunk = i;
+                futures.add(executor.submit(new Callable<R>() {
+                    @Override
+                    public R call() {
+                        return task.run(bounds[chunk], bounds[chunk + 1]);
+                    }
+                }));
+            }
+            results.add(task.run(bounds[0], bounds[1]));
+            for (Future<R> future : futures) {
+                results.add(await(future));
+            }
+        } finally {
+            for (Future<R> future : futures) {
+                future.cancel(false);
+            }
+        }
+        return results;
+    }
+
+    static <R> R await(@NotNull Future<R> future) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    // The chunks share the array with the caller, so it must not return before they are done
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    } else if (cause instanceof Error) {
+                        throw (Error) cause;
+                    } else {
+                        throw new IllegalStateException(cause);
+                    }
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    interface ChunkTask<R> {
+        R run(int fromIndex, int toIndex);
+    }
+
+    /**
+     * The runs of a merge sort, the i-th run is from bounds[i] inclusive to bounds[i + 1] exclusive
+     */
+    @NotNull
+    private static int[] mergedBounds(@NotNull int[] bounds) {
+        int runCount = bounds.length - 1;
+        int[] merged = new int[(runCount + 1) / 2 + 1];
+        for (int i = 0; i < merged.length - 1; i++) {
+            merged[i] = bounds[i * 2];
+        }
+        merged[merged.length - 1] = bounds[runCount];
+        return merged;
+    }
+
+
+    /* ******************************************* int ******************************************* */
+
+
+    static int sum(@NotNull final int[] elements, @NotNull ExecutorService executor) {
+        int sum = 0;
+        for (Integer chunkSum : invokeChunks(executor, elements.length, new ChunkTask<Integer>() {
+            @Override
+            public Integer run(int fromIndex, int toIndex) {
+                int sum = 0;
+                for (int i = fromIndex; i < toIndex; i++) {
+                    sum += elements[i];
+                }
+                return sum;
+            }
+        })) {
+            sum += chunkSum;
+        }
+        return sum;
+    }
+
+    static double average(@NotNull final int[] elements, @NotNull ExecutorService executor) {
+        if (elements.length == 0) {
+            return Double.NaN;
+        }
+        double sum = 0;
+        for (Double chunkSum : invokeChunks(executor, elements.length, new ChunkTask<Double>() {
+            @Override
+            public Double run(int fromIndex, int toIndex) {
+                double sum = 0;
+                for (int i = fromIndex; i < toIndex; i++) {
+                    sum += elements[i];
+                }
+                return sum;
+            }
+        })) {
+            sum += chunkSum;
+        }
+        return sum / elements.length;
+    }
+
+    static int max(@NotNull final int[] elements, @NotNull ExecutorService executor) {
+        List<Integer> chunkMaxes = invokeChunks(executor, elements.length, new ChunkTask<Integer>() {
+            @Override
+            public Integer run(int fromIndex, int toIndex) {
+                int max = elements[fromIndex];
+                for (int i = fromIndex + 1; i < toIndex; i++) {
+                    int e = elements[i];
+                    if (max < e) max = e;
+                }
+                return max;
+            }
+        });
+        int max = chunkMaxes.get(0);
+        for (Integer chunkMax : chunkMaxes) {
+            if (max < chunkMax) max = chunkMax;
+        }
+        return max;
+    }
+
+    static int min(@NotNull final int[] elements, @NotNull ExecutorService executor) {
+        List<Integer> chunkMins = invokeChunks(executor, elements.length, new ChunkTask<Integer>() {
+            @Override
+            public Integer run(int fromIndex, int toIndex) {
+                int min = elements[fromIndex];
+                for (int i = fromIndex + 1; i < toIndex; i++) {
+                    int e = elements[i];
+                    if (min > e) min = e;
+                }
+                return min;
+            }
+        });
+        int min = chunkMins.get(0);
+        for (Integer chunkMin : chunkMins) {
+            if (min > chunkMin) min = chunkMin;
+        }
+        return min;
+    }
+
+    static boolean contains(@NotNull final int[] elements, final int element, @NotNull ExecutorService executor) {
+        final AtomicBoolean found = new AtomicBoolean();
+        invokeChunks(executor, elements.length, new ChunkTask<Void>() {
+            @Override
+            public Void run(int fromIndex, int toIndex) {
+                // Check the flag only once in a while, so that the scan itself stays a tight loop
+                for (int blockStart = fromIndex; blockStart < toIndex && !found.get(); blockStart += 4096) {
+                    for (int i = blockStart, blockEnd = Math.min(blockStart + 4096, toIndex); i < blockEnd; i++) {
+                        if (elements[i] == element) {
+                            found.set(true);
+                            return null;
+                        }
+                    }
+                }
+                return null;
+            }
+        });
+        return found.get();
+    }
+
+    /**
+     * Sorts the chunks with {@link Arrays#sort(int[], int, int)} concurrently, then merges pairs of sorted runs concurrently until one run is left
+     */
+    static void sort(@NotNull final int[] elements, @NotNull ExecutorService executor) {
+        final int[] bounds = chunkBounds(elements.length);
+        invokeChunks(executor, bounds, new ChunkTask<Void>() {
+            @Override
+            public Void run(int fromIndex, int toIndex) {
+                Arrays.sort(elements, fromIndex, toIndex);
+                return null;
+            }
+        });
+        if (bounds.length <= 2) {
+            return;
+        }
+        int[] source = elements;
+        int[] destination = new int[elements.length];
+        int[] runs = bounds;
+        while (runs.length > 2) {
+            final int[] finalSource = source;
+            final int[] finalDestination = destination;
+            final int[] finalRuns = runs;
+            invokeMergeTasks(executor, runs.length / 2, new ChunkTask<Void>() {
+                @Override
+                public Void run(int pair, int unused) {
+                    int from = finalRuns[pair * 2];
+                    int middle = finalRuns[pair * 2 + 1];
+                    int to = pair * 2 + 2 < finalRuns.length ? finalRuns[pair * 2 + 2] : middle;
+                    merge(finalSource, from, middle, to, finalDestination);
+                    return null;
+                }
+            });
+            runs = mergedBounds(runs);
+            source = finalDestination;
+            destination = finalSource;
+        }
+        if (source != elements) {
+            System.arraycopy(source, 0, elements, 0, elements.length);
+        }
+    }
+
+    /**
+     * Merges the sorted ranges [from, middle) and [middle, to) of the [source] into the same range of the [destination]
+     */
+    private static void merge(@NotNull int[] source, int from, int middle, int to, @NotNull int[] destination) {
+        int left = from;
+        int right = middle;
+        int index = from;
+        while (left < middle && right < to) {
+            destination[index++] = source[left] <= source[right] ? source[left++] : source[right++];
+        }
+        if (left < middle) {
+            System.arraycopy(source, left, destination, index, middle - left);
+        } else if (right < to) {
+            System.arraycopy(source, right, destination, index, to - right);
+        }
+    }
+
+
+    /* ******************************************* long ******************************************* */
+
+
+    static long sum(@NotNull final long[] elements, @NotNull ExecutorService executor) {
+        long sum = 0;
+        for (Long chunkSum : invokeChunks(executor, elements.length, new ChunkTask<Long>() {
+            @Override
+            public Long run(int fromIndex, int toIndex) {
+                long sum = 0;
+                for (int i = fromIndex; i < toIndex; i++) {
+                    sum += elements[i];
+                }
+                return sum;
+            }
+        })) {
+            sum += chunkSum;
+        }
+        return sum;
+    }
+
+    static double average(@NotNull final long[] elements, @NotNull ExecutorService executor) {
+        if (elements.length == 0) {
+            return Double.NaN;
+        }
+        double sum = 0;
+        for (Double chunkSum : invokeChunks(executor, elements.length, new ChunkTask<Double>() {
+            @Override
+            public Double run(int fromIndex, int toIndex) {
+                double sum = 0;
+                for (int i = fromIndex; i < toIndex; i++) {
+                    sum += elements[i];
+                }
+                return sum;
+            }
+        })) {
+            sum += chunkSum;
+        }
+        return sum / elements.length;
+    }
+
+    static long max(@NotNull final long[] elements, @NotNull ExecutorService executor) {
+        List<Long> chunkMaxes = invokeChunks(executor, elements.length, new ChunkTask<Long>() {
+            @Override
+            public Long run(int fromIndex, int toIndex) {
+                long max = elements[fromIndex];
+                for (int i = fromIndex + 1; i < toIndex; i++) {
+                    long e = elements[i];
+                    if (max < e) max = e;
+                }
+                return max;
+            }
+        });
+        long max = chunkMaxes.get(0);
+        for (Long chunkMax : chunkMaxes) {
+            if (max < chunkMax) max = chunkMax;
+        }
+        return max;
+    }
+
+    static long min(@NotNull final long[] elements, @NotNull ExecutorService executor) {
+        List<Long> chunkMins = invokeChunks(executor, elements.length, new ChunkTask<Long>() {
+            @Override
+            public Long run(int fromIndex, int toIndex) {
+                long min = elements[fromIndex];
+                for (int i = fromIndex + 1; i < toIndex; i++) {
+                    long e = elements[i];
+                    if (min > e) min = e;
+                }
+                return min;
+            }
+        });
+        long min = chunkMins.get(0);
+        for (Long chunkMin : chunkMins) {
+            if (min > chunkMin) min = chunkMin;
+        }
+        return min;
+    }
+
+    static boolean contains(@NotNull final long[] elements, final long element, @NotNull ExecutorService executor) {
+        final AtomicBoolean found = new AtomicBoolean();
+        invokeChunks(executor, elements.length, new ChunkTask<Void>() {
+            @Override
+            public Void run(int fromIndex, int toIndex) {
+                // Check the flag only once in a while, so that the scan itself stays a tight loop
+                for (int blockStart = fromIndex; blockStart < toIndex && !found.get(); blockStart += 4096) {
+                    for (int i = blockStart, blockEnd = Math.min(blockStart + 4096, toIndex); i < blockEnd; i++) {
+                        if (elements[i] == element) {
+                            found.set(true);
+                            return null;
+                        }
+                    }
+                }
+                return null;
+            }
+        });
+        return found.get();
+    }
+
+    /**
+     * Sorts the chunks with {@link Arrays#sort(long[], int, int)} concurrently, then merges pairs of sorted runs concurrently until one run is left
+     */
+    static void sort(@NotNull final long[] elements, @NotNull ExecutorService executor) {
+        final int[] bounds = chunkBounds(elements.length);
+        invokeChunks(executor, bounds, new ChunkTask<Void>() {
+            @Override
+            public Void run(int fromIndex, int toIndex) {
+                Arrays.sort(elements, fromIndex, toIndex);
+                return null;
+            }
+        });
+        if (bounds.length <= 2) {
+            return;
+        }
+        long[] source = elements;
+        long[] destination = new long[elements.length];
+        int[] runs = bounds;
+        while (runs.length > 2) {
+            final long[] finalSource = source;
+            final long[] finalDestination = destination;
+            final int[] finalRuns = runs;
+            invokeMergeTasks(executor, runs.length / 2, new ChunkTask<Void>() {
+                @Override
+                public Void run(int pair, int unused) {
+                    int from = finalRuns[pair * 2];
+                    int middle = finalRuns[pair * 2 + 1];
+                    int to = pair * 2 + 2 < finalRuns.length ? finalRuns[pair * 2 + 2] : middle;
+                    merge(finalSource, from, middle, to, finalDestination);
+                    return null;
+                }
+            });
+            runs = mergedBounds(runs);
+            source = finalDestination;
+            destination = finalSource;
+        }
+        if (source != elements) {
+            System.arraycopy(source, 0, elements, 0, elements.length);
+        }
+    }
+
+    /**
+     * Merges the sorted ranges [from, middle) and [middle, to) of the [source] into the same range of the [destination]
+     */
+    private static void merge(@NotNull long[] source, int from, int middle, int to, @NotNull long[] destination) {
+        int left = from;
+        int right = middle;
+        int index = from;
+        while (left < middle && right < to) {
+            destination[index++] = source[left] <= source[right] ? source[left++] : source[right++];
+        }
+        if (left < middle) {
+            System.arraycopy(source, left, destination, index, middle - left);
+        } else if (right < to) {
+            System.arraycopy(source, right, destination, index, to - right);
+        }
+    }
+
+
+    /* ******************************************* double ******************************************* */
+
+
+    static double sum(@NotNull final double[] elements, @NotNull ExecutorService executor) {
+        double sum = 0;
+        for (Double chunkSum : invokeChunks(executor, elements.length, new ChunkTask<Double>() {
+            @Override
+            public Double run(int fromIndex, int toIndex) {
+                double sum = 0;
+                for (int i = fromIndex; i < toIndex; i++) {
+                    sum += elements[i];
+                }
+                return sum;
+            }
+        })) {
+            sum += chunkSum;
+        }
+        return sum;
+    }
+
+    static double average(@NotNull final double[] elements, @NotNull ExecutorService executor) {
+        if (elements.length == 0) {
+            return Double.NaN;
+        }
+        double sum = 0;
+        for (Double chunkSum : invokeChunks(executor, elements.length, new ChunkTask<Double>() {
+            @Override
+            public Double run(int fromIndex, int toIndex) {
+                double sum = 0;
+                for (int i = fromIndex; i < toIndex; i++) {
+                    sum += elements[i];
+                }
+                return sum;
+            }
+        })) {
+            sum += chunkSum;
+        }
+        return sum / elements.length;
+    }
+
+    static double max(@NotNull final double[] elements, @NotNull ExecutorService executor) {
+        List<Double> chunkMaxes = invokeChunks(executor, elements.length, new ChunkTask<Double>() {
+            @Override
+            public Double run(int fromIndex, int toIndex) {
+                double max = elements[fromIndex];
+                for (int i = fromIndex + 1; i < toIndex; i++) {
+                    double e = elements[i];
+                    if (Double.isNaN(e)) return e;
+                    if (max < e) max = e;
+                }
+                return max;
+            }
+        });
+        double max = chunkMaxes.get(0);
+        for (Double chunkMax : chunkMaxes) {
+            if (Double.isNaN(chunkMax)) return chunkMax;
+            if (max < chunkMax) max = chunkMax;
+        }
+        return max;
+    }
+
+    static double min(@NotNull final double[] elements, @NotNull ExecutorService executor) {
+        List<Double> chunkMins = invokeChunks(executor, elements.length, new ChunkTask<Double>() {
+            @Override
+            public Double run(int fromIndex, int toIndex) {
+                double min = elements[fromIndex];
+                for (int i = fromIndex + 1; i < toIndex; i++) {
+                    double e = elements[i];
+                    if (Double.isNaN(e)) return e;
+                    if (min > e) min = e;
+                }
+                return min;
+            }
+        });
+        double min = chunkMins.get(0);
+        for (Double chunkMin : chunkMins) {
+            if (Double.isNaN(chunkMin)) return chunkMin;
+            if (min > chunkMin) min = chunkMin;
+        }
+        return min;
+    }
+
+    static boolean contains(@NotNull final double[] elements, final double element, @NotNull ExecutorService executor) {
+        final AtomicBoolean found = new AtomicBoolean();
+        invokeChunks(executor, elements.length, new ChunkTask<Void>() {
+            @Override
+            public Void run(int fromIndex, int toIndex) {
+                // Check the flag only once in a while, so that the scan itself stays a tight loop
+                for (int blockStart = fromIndex; blockStart < toIndex && !found.get(); blockStart += 4096) {
+                    for (int i = blockStart, blockEnd = Math.min(blockStart + 4096, toIndex); i < blockEnd; i++) {
+                        if (elements[i] == element) {
+                            found.set(true);
+                            return null;
+                        }
+                    }
+                }
+                return null;
+            }
+        });
+        return found.get();
+    }
+
+    /**
+     * Sorts the chunks with {@link Arrays#sort(double[], int, int)} concurrently, then merges pairs of sorted runs concurrently until one run is left
+     */
+    static void sort(@NotNull final double[] elements, @NotNull ExecutorService executor) {
+        final int[] bounds = chunkBounds(elements.length);
+        invokeChunks(executor, bounds, new ChunkTask<Void>() {
+            @Override
+            public Void run(int fromIndex, int toIndex) {
+                Arrays.sort(elements, fromIndex, toIndex);
+                return null;
+            }
+        });
+        if (bounds.length <= 2) {
+            return;
+        }
+        double[] source = elements;
+        double[] destination = new double[elements.length];
+        int[] runs = bounds;
+        while (runs.length > 2) {
+            final double[] finalSource = source;
+            final double[] finalDestination = destination;
+            final int[] finalRuns = runs;
+            invokeMergeTasks(executor, runs.length / 2, new ChunkTask<Void>() {
+                @Override
+                public Void run(int pair, int unused) {
+                    int from = finalRuns[pair * 2];
+                    int middle = finalRuns[pair * 2 + 1];
+                    int to = pair * 2 + 2 < finalRuns.length ? finalRuns[pair * 2 + 2] : middle;
+                    merge(finalSource, from, middle, to, finalDestination);
+                    return null;
+                }
+            });
+            runs = mergedBounds(runs);
+            source = finalDestination;
+            destination = finalSource;
+        }
+        if (source != elements) {
+            System.arraycopy(source, 0, elements, 0, elements.length);
+        }
+    }
+
+    /**
+     * Merges the sorted ranges [from, middle) and [middle, to) of the [source] into the same range of the [destination]
+     */
+    private static void merge(@NotNull double[] source, int from, int middle, int to, @NotNull double[] destination) {
+        int left = from;
+        int right = middle;
+        int index = from;
+        while (left < middle && right < to) {
+            destination[index++] = Double.compare(source[left], source[right]) <= 0 ? source[left++] : source[right++];
+        }
+        if (left < middle) {
+            System.arraycopy(source, left, destination, index, middle - left);
+        } else if (right < to) {
+            System.arraycopy(source, right, destination, index, to - right);
+        }
+    }
+
+    /**
+     * Runs the [task] for each of [count] merges, with the index of the merge as `fromIndex`
+     */
+    private static void invokeMergeTasks(@NotNull ExecutorService executor, int count, @NotNull final ChunkTask<Void> task) {
+        List<Future<Void>> futures = new ArrayList<Future<Void>>(count);
+        try {
+            for (int i = 1; i < count; i++) {
+                final int merge = i;
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        return task.run(merge, merge);
+                    }
+                }));
+            }
+            task.run(0, 0);
+            for (Future<Void> future : futures) {
+                await(future);
+            }
+        } finally {
+            for (Future<Void> future : futures) {
+                future.cancel(false);
+            }
+        }
+    }
+}
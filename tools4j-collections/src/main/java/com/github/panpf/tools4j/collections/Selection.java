@@ -0,0 +1,266 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.collections;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Quickselect and partial sort, the implementation of the nthElement() and partialSort() methods of [Arrayx] and [Collectionx]
+ */
+class Selection {
+
+    private Selection() {
+    }
+
+    /**
+     * Rearranges the range [fromIndex, toIndex) of the array so that the element at [n] is the one that would be there if the range was sorted,
+     * the elements before it are not greater and the elements after it are not less
+     */
+    static <T> void select(@NotNull T[] elements, int fromIndex, int toIndex, int n, @NotNull Comparator<T> comparator) {
+        int left = fromIndex;
+        int right = toIndex - 1;
+        // Falls back to sorting when the pivots keep being bad, which keeps the worst case at O(n log n)
+        int budget = 2 * (32 - Integer.numberOfLeadingZeros(toIndex - fromIndex));
+        while (right > left) {
+            if (budget-- == 0) {
+                Arrays.sort(elements, left, right + 1, comparator);
+                return;
+            }
+            int middle = (left + right) >>> 1;
+            if (comparator.compare(elements[middle], elements[left]) < 0) swap(elements, middle, left);
+            if (comparator.compare(elements[right], elements[left]) < 0) swap(elements, right, left);
+            if (comparator.compare(elements[right], elements[middle]) < 0) swap(elements, right, middle);
+            T pivot = elements[middle];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (comparator.compare(elements[i], pivot) < 0) i++;
+                while (comparator.compare(pivot, elements[j]) < 0) j--;
+                if (i <= j) {
+                    swap(elements, i++, j--);
+                }
+            }
+            if (n <= j) {
+                right = j;
+            } else if (n >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Rearranges the array so that its first [count] elements are its smallest elements in ascending order
+     */
+    static <T> void partialSort(@NotNull T[] elements, int count, @NotNull Comparator<T> comparator) {
+        int sortCount = Math.min(count, elements.length);
+        if (sortCount <= 0) {
+            return;
+        }
+        if (sortCount < elements.length) {
+            select(elements, 0, elements.length, sortCount - 1, comparator);
+        }
+        Arrays.sort(elements, 0, sortCount, comparator);
+    }
+
+    private static <T> void swap(@NotNull T[] elements, int index1, int index2) {
+        T element = elements[index1];
+        elements[index1] = elements[index2];
+        elements[index2] = element;
+    }
+
+
+    /**
+     * Rearranges the range [fromIndex, toIndex) of the array so that the element at [n] is the one that would be there if the range was sorted,
+     * the elements before it are not greater and the elements after it are not less
+     */
+    static void select(@NotNull int[] elements, int fromIndex, int toIndex, int n) {
+        int left = fromIndex;
+        int right = toIndex - 1;
+        // Falls back to sorting when the pivots keep being bad, which keeps the worst case at O(n log n)
+        int budget = 2 * (32 - Integer.numberOfLeadingZeros(toIndex - fromIndex));
+        while (right > left) {
+            if (budget-- == 0) {
+                Arrays.sort(elements, left, right + 1);
+                return;
+            }
+            int middle = (left + right) >>> 1;
+            if (elements[middle] < elements[left]) swap(elements, middle, left);
+            if (elements[right] < elements[left]) swap(elements, right, left);
+            if (elements[right] < elements[middle]) swap(elements, right, middle);
+            int pivot = elements[middle];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (elements[i] < pivot) i++;
+                while (pivot < elements[j]) j--;
+                if (i <= j) {
+                    swap(elements, i++, j--);
+                }
+            }
+            if (n <= j) {
+                right = j;
+            } else if (n >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Rearranges the array so that its first [count] elements are its smallest elements in ascending order
+     */
+    static void partialSort(@NotNull int[] elements, int count) {
+        int sortCount = Math.min(count, elements.length);
+        if (sortCount <= 0) {
+            return;
+        }
+        if (sortCount < elements.length) {
+            select(elements, 0, elements.length, sortCount - 1);
+        }
+        Arrays.sort(elements, 0, sortCount);
+    }
+
+    private static void swap(@NotNull int[] elements, int index1, int index2) {
+        int element = elements[index1];
+        elements[index1] = elements[index2];
+        elements[index2] = element;
+    }
+
+
+    /**
+     * Rearranges the range [fromIndex, toIndex) of the array so that the element at [n] is the one that would be there if the range was sorted,
+     * the elements before it are not greater and the elements after it are not less
+     */
+    static void select(@NotNull long[] elements, int fromIndex, int toIndex, int n) {
+        int left = fromIndex;
+        int right = toIndex - 1;
+        // Falls back to sorting when the pivots keep being bad, which keeps the worst case at O(n log n)
+        int budget = 2 * (32 - Integer.numberOfLeadingZeros(toIndex - fromIndex));
+        while (right > left) {
+            if (budget-- == 0) {
+                Arrays.sort(elements, left, right + 1);
+                return;
+            }
+            int middle = (left + right) >>> 1;
+            if (elements[middle] < elements[left]) swap(elements, middle, left);
+            if (elements[right] < elements[left]) swap(elements, right, left);
+            if (elements[right] < elements[middle]) swap(elements, right, middle);
+            long pivot = elements[middle];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (elements[i] < pivot) i++;
+                while (pivot < elements[j]) j--;
+                if (i <= j) {
+                    swap(elements, i++, j--);
+                }
+            }
+            if (n <= j) {
+                right = j;
+            } else if (n >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Rearranges the array so that its first [count] elements are its smallest elements in ascending order
+     */
+    static void partialSort(@NotNull long[] elements, int count) {
+        int sortCount = Math.min(count, elements.length);
+        if (sortCount <= 0) {
+            return;
+        }
+        if (sortCount < elements.length) {
+            select(elements, 0, elements.length, sortCount - 1);
+        }
+        Arrays.sort(elements, 0, sortCount);
+    }
+
+    private static void swap(@NotNull long[] elements, int index1, int index2) {
+        long element = elements[index1];
+        elements[index1] = elements[index2];
+        elements[index2] = element;
+    }
+
+
+    /**
+     * Rearranges the range [fromIndex, toIndex) of the array so that the element at [n] is the one that would be there if the range was sorted,
+     * the elements before it are not greater and the elements after it are not less
+     */
+    static void select(@NotNull double[] elements, int fromIndex, int toIndex, int n) {
+        int left = fromIndex;
+        int right = toIndex - 1;
+        // Falls back to sorting when the pivots keep being bad, which keeps the worst case at O(n log n)
+        int budget = 2 * (32 - Integer.numberOfLeadingZeros(toIndex - fromIndex));
+        while (right > left) {
+            if (budget-- == 0) {
+                Arrays.sort(elements, left, right + 1);
+                return;
+            }
+            int middle = (left + right) >>> 1;
+            if (Double.compare(elements[middle], elements[left]) < 0) swap(elements, middle, left);
+            if (Double.compare(elements[right], elements[left]) < 0) swap(elements, right, left);
+            if (Double.compare(elements[right], elements[middle]) < 0) swap(elements, right, middle);
+            double pivot = elements[middle];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (Double.compare(elements[i], pivot) < 0) i++;
+                while (Double.compare(pivot, elements[j]) < 0) j--;
+                if (i <= j) {
+                    swap(elements, i++, j--);
+                }
+            }
+            if (n <= j) {
+                right = j;
+            } else if (n >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Rearranges the array so that its first [count] elements are its smallest elements in ascending order
+     */
+    static void partialSort(@NotNull double[] elements, int count) {
+        int sortCount = Math.min(count, elements.length);
+        if (sortCount <= 0) {
+            return;
+        }
+        if (sortCount < elements.length) {
+            select(elements, 0, elements.length, sortCount - 1);
+        }
+        Arrays.sort(elements, 0, sortCount);
+    }
+
+    private static void swap(@NotNull double[] elements, int index1, int index2) {
+        double element = elements[index1];
+        elements[index1] = elements[index2];
+        elements[index2] = element;
+    }
+}
@@ -2,6 +2,8 @@ package com.github.panpf.tools4j.collections
 
 import org.junit.Assert.*
 import org.junit.Test
+import java.util.*
+import java.util.concurrent.Executors
 
 class ArrayxTest {
 
@@ -103,4 +105,122 @@ class ArrayxTest {
         assertEquals("[keytrue, keyfalse, keyfalse]", Arrayx.joinToArrayString(booleanArrayOf(true, false, false)) { "key$it" })
         assertEquals("[true, false, false]", Arrayx.joinToArrayString(booleanArrayOf(true, false, false)))
     }
-}
\ No newline at end of file
+
+    @Test
+    fun testPrimitiveSetOperations() {
+        assertEquals(listOf(3, 1, 2), Arrayx.distinct(intArrayOf(3, 1, 3, 2, 1)))
+        assertEquals(listOf(3L, 1L), Arrayx.distinct(longArrayOf(3L, 1L, 3L)))
+        assertEquals(listOf('b', 'a'), Arrayx.distinct(charArrayOf('b', 'a', 'b')))
+        assertEquals(listOf<Int>(), Arrayx.distinct(null as IntArray?))
+        assertArrayEquals(intArrayOf(3, 1, 2), Arrayx.distinctToArray(intArrayOf(3, 1, 3, 2, 1)))
+        assertArrayEquals(longArrayOf(), Arrayx.distinctToArray(null as LongArray?))
+        assertArrayEquals(doubleArrayOf(Double.NaN, 0.0, -0.0), Arrayx.distinctToArray(doubleArrayOf(Double.NaN, 0.0, Double.NaN, -0.0)), 0.0)
+        assertEquals(linkedSetOf(5, 1), Arrayx.toSet(intArrayOf(5, 5, 1)))
+        assertEquals(listOf(5, 1), Arrayx.toSet(intArrayOf(5, 5, 1)).toList())
+
+        assertEquals(listOf(3, 2), Arrayx.intersect(intArrayOf(3, 1, 3, 2, 7), listOf(2, 3, 9)).toList())
+        assertEquals(listOf(3L, 1L), Arrayx.subtract(longArrayOf(3L, 1L, 3L, 2L), listOf(2L)).toList())
+        // A null in the other collection never matches a primitive element
+        assertEquals(listOf(3, 2), Arrayx.intersect(intArrayOf(3, 1, 3, 2, 7), listOf(2, null, 3)).toList())
+        assertEquals(listOf(3, 1, 7), Arrayx.subtract(intArrayOf(3, 1, 3, 2, 7), listOf(null, 2)).toList())
+        assertEquals(listOf('a', 'b', 'c'), Arrayx.union(charArrayOf('a', 'b'), listOf('b', 'c')).toList())
+        assertEquals(listOf(1.0, 2.0), Arrayx.union(doubleArrayOf(1.0), listOf(2.0, 1.0)).toList())
+        assertArrayEquals(intArrayOf(2, 3), Arrayx.intersectToArray(intArrayOf(1, 2, 3, 2), intArrayOf(3, 2)))
+        assertArrayEquals(intArrayOf(), Arrayx.intersectToArray(intArrayOf(1, 2, 3, 2), null))
+        assertArrayEquals(intArrayOf(1, 2, 3), Arrayx.subtractToArray(intArrayOf(1, 2, 3, 2), null))
+        assertArrayEquals(charArrayOf('x'), Arrayx.subtractToArray(charArrayOf('x', 'y'), charArrayOf('y')))
+        assertArrayEquals(longArrayOf(1L, 2L, 3L), Arrayx.unionToArray(longArrayOf(1L, 2L, 1L), longArrayOf(3L, 2L)))
+
+        val groups = Arrayx.groupByToArrays(intArrayOf(1, 2, 3, 4, 5, 6, 7)) { it % 3 }
+        assertArrayEquals(intArrayOf(1, 2, 0), groups.keys())
+        assertArrayEquals(intArrayOf(1, 4, 7), groups.get(1))
+        assertArrayEquals(intArrayOf(2, 5), groups.get(2))
+        assertArrayEquals(intArrayOf(3, 6), groups.get(0))
+        assertTrue(Arrayx.groupByToArrays(null as LongArray?) { it }.isEmpty)
+        assertArrayEquals(charArrayOf('a', 'A'), Arrayx.groupByToArrays(charArrayOf('a', 'b', 'A')) { it.toLowerCase() }.get('a'))
+    }
+
+    @Test
+    fun testSorted() {
+        assertEquals(listOf(1, 2, 3, 5), Arrayx.toTypedArray(intArrayOf(1, 2, 3, 5)).toList())
+        assertEquals(listOf(1, 2, 3, 5), Arrayx.sorted(intArrayOf(5, 1, 3, 2)))
+        assertEquals(listOf(5L, 3L, 2L, 1L), Arrayx.sortedDescending(longArrayOf(5, 1, 3, 2)))
+        assertEquals(listOf(-1.5, 0.0, 2.5), Arrayx.sorted(doubleArrayOf(2.5, -1.5, 0.0)))
+        assertEquals(listOf('a', 'b', 'c'), Arrayx.sorted(charArrayOf('c', 'a', 'b')))
+        assertTrue(Arrayx.sorted(intArrayOf()).isEmpty())
+    }
+
+    @Test
+    fun testParallelOperations() {
+        val executor = Executors.newFixedThreadPool(3)
+        try {
+            val random = Random(7)
+            val ints = IntArray(300000) { random.nextInt() }
+            val sortedInts = ints.copyOf().apply { sort() }
+            assertArrayEquals(sortedInts, ints.copyOf().apply { Arrayx.sort(this, executor) })
+            assertArrayEquals(sortedInts.reversedArray(), ints.copyOf().apply { Arrayx.sortDescending(this, executor) })
+            assertEquals(sortedInts.toList(), Arrayx.sorted(ints, executor))
+            assertEquals(Arrayx.sum(ints), Arrayx.sum(ints, executor))
+            assertEquals(Arrayx.average(ints), Arrayx.average(ints, executor), 0.000001)
+            assertEquals(Arrayx.maxOrNull(ints), Arrayx.maxOrNull(ints, executor))
+            assertEquals(Arrayx.minOrNull(ints), Arrayx.minOrNull(ints, executor))
+            assertTrue(Arrayx.contains(ints, ints[ints.size - 1], executor))
+            assertFalse(Arrayx.contains(intArrayOf(1, 2), 3, executor))
+
+            val longs = LongArray(200000) { random.nextLong() }
+            assertEquals(Arrayx.sortedDescending(longs), Arrayx.sortedDescending(longs, executor))
+            assertEquals(Arrayx.sum(longs), Arrayx.sum(longs, executor))
+
+            val doubles = DoubleArray(200000) { if (it % 1000 == 0) -0.0 else random.nextGaussian() }
+            assertArrayEquals(doubles.copyOf().apply { sort() }, doubles.copyOf().apply { Arrayx.sort(this, executor) }, 0.0)
+            assertEquals(Arrayx.minOrNull(doubles), Arrayx.minOrNull(doubles, executor))
+            doubles[150000] = Double.NaN
+            assertTrue(Arrayx.maxOrNull(doubles, executor)!!.isNaN())
+
+            assertNull(Arrayx.maxOrNull(null as IntArray?, executor))
+            assertEquals(0L, Arrayx.sum(longArrayOf(), executor))
+            assertTrue(Arrayx.average(null as DoubleArray?, executor).isNaN())
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    @Test
+    fun testTopK() {
+        val random = Random(18)
+        val ints = IntArray(10000) { random.nextInt(1000) }
+        val sortedInts = ints.sortedArray()
+        assertArrayEquals(sortedInts.copyOf(100), Arrayx.bottomK(ints, 100))
+        assertArrayEquals(sortedInts.reversedArray().copyOf(100), Arrayx.topK(ints, 100))
+        assertArrayEquals(sortedInts, Arrayx.bottomK(ints, 20000))
+        assertEquals(0, Arrayx.topK(null as IntArray?, 3).size)
+        assertEquals(sortedInts[5000], Arrayx.nthElement(ints.copyOf(), 5000))
+        ints.copyOf().apply {
+            Arrayx.partialSort(this, 100)
+            assertArrayEquals(sortedInts.copyOf(100), copyOf(100))
+            assertArrayEquals(sortedInts, sortedArray())
+        }
+
+        val doubles = doubleArrayOf(3.0, Double.NaN, -0.0, 1.0, 0.0, -2.0)
+        assertArrayEquals(doubleArrayOf(Double.NaN, 3.0, 1.0), Arrayx.topK(doubles, 3), 0.0)
+        assertArrayEquals(doubleArrayOf(-2.0, -0.0, 0.0), Arrayx.bottomK(doubles, 3), 0.0)
+        assertEquals(1.0, Arrayx.nthElement(doubles.copyOf(), 3), 0.0)
+
+        val strings = arrayOf("bb", "a", "ccc", "dd", "e")
+        assertEquals(listOf("e", "dd", "ccc"), Arrayx.topK(strings, 3))
+        assertEquals(listOf("a", "e", "bb"), Arrayx.bottomKBy(strings, 3) { it.length })
+        assertEquals(listOf("ccc", "bb", "dd"), Arrayx.topKBy(strings, 3) { it.length })
+        assertEquals("bb", Arrayx.nthElement(strings.copyOf(), 1))
+
+        try {
+            Arrayx.topK(ints, -1)
+            fail()
+        } catch (e: IllegalArgumentException) {
+        }
+        try {
+            Arrayx.nthElement(ints, ints.size)
+            fail()
+        } catch (e: IndexOutOfBoundsException) {
+        }
+    }
+}
@@ -2180,6 +2180,37 @@ class CollectionxTest {
                 Collectionx.windowed(ArrayIterable(arrayOf(1, 2, 3, 4, 5)), 2, 2, true) { it.joinToString("+", "[", "]") }.toString())
     }
 
+    @Test
+    fun testWindowedIterable() {
+        val normalList = listOf(1, 2, 3, 4, 5)
+        val normalLinkedList = Collectionx.linkedListOf(1, 2, 3, 4, 5)
+
+        assertThrow(IllegalArgumentException::class) { Collectionx.windowedIterable(normalList, 0, 1, true) }
+        assertEquals(normalList.windowed(3, 1, true), Collectionx.windowedIterable(normalList, 3, 1, true).toList())
+        assertEquals(normalList.windowed(2, 3, false), Collectionx.windowedIterable(normalList, 2, 3, false).toList())
+        assertEquals(normalLinkedList.windowed(3, 1, false), Collectionx.windowedIterable(normalLinkedList, 3, 1, false).toList())
+        assertEquals(normalList.chunked(2), Collectionx.chunkedIterable(normalList, 2).toList())
+        assertEquals(listOf<List<Int>>(), Collectionx.windowedIterable(null as List<Int>?, 2, 1, true).toList())
+
+        // The windows of a random access list are read-only views of it
+        val arrayList = arrayListOf(1, 2, 3, 4)
+        val firstWindow = Collectionx.windowedIterable(arrayList, 2, 1, false).first()
+        arrayList[1] = 9
+        assertEquals(listOf(1, 9), firstWindow)
+        assertThrow(UnsupportedOperationException::class) { (firstWindow as MutableList<Int>)[0] = 0 }
+        assertThrow(UnsupportedOperationException::class) {
+            Collectionx.windowedIterable(arrayList, 2, 1, false).iterator().apply { next() }.let { (it as MutableIterator<List<Int>>).remove() }
+        }
+        assertThrow(UnsupportedOperationException::class) {
+            Collectionx.windowedIterable(arrayList, 2, 1, false) { it.sum() }.iterator().apply { next() }.let { (it as MutableIterator<Int>).remove() }
+        }
+
+        assertEquals(normalList.windowed(3, 1, true) { it.sum() }, Collectionx.windowedIterable(normalList, 3, 1, true) { it.sum() }.toList())
+        assertEquals(normalLinkedList.windowed(3, 2, true) { it.sum() }, Collectionx.windowedIterable(normalLinkedList, 3, 2, true) { it.sum() }.toList())
+        assertEquals(normalLinkedList.chunked(2) { it.toString() }, Collectionx.chunkedIterable(normalLinkedList, 2) { it.toString() }.toList())
+        assertEquals(normalLinkedList.windowed(4, 1, false) { it.toString() }, Collectionx.windowed(normalLinkedList, 4, 1, false) { it.toString() })
+    }
+
     @Test
     @Suppress("RedundantSamConstructor", "RemoveExplicitTypeArguments")
     fun testMax() {
@@ -3542,6 +3573,33 @@ class CollectionxTest {
         }
     }
 
+    @Test
+    fun testTopK() {
+        val list = listOf("bb", "a", "ccc", "dd", "e", "ff")
+        assertEquals(list.sorted().take(3), Collectionx.bottomK(list, 3))
+        assertEquals(list.sortedDescending().take(3), Collectionx.topK(list, 3))
+        assertEquals(list.sortedBy { it.length }.take(4), Collectionx.bottomKBy(list, 4) { it.length })
+        assertEquals(list.sortedByDescending { it.length }.take(4), Collectionx.topKBy(list, 4) { it.length })
+        assertEquals(list.sortedWith(Comparator { o1, o2 -> o1.length - o2.length }).take(2),
+                Collectionx.bottomKWith(list, 2) { o1, o2 -> o1.length - o2.length })
+        assertEquals(list.sorted(), Collectionx.topKWith(list, 10) { o1, o2 -> o2.compareTo(o1) })
+        assertEquals(0, Collectionx.topK(null as List<String>?, 3).size)
+        assertEquals(0, Collectionx.topK(list, 0).size)
+        assertThrow(IllegalArgumentException::class) { Collectionx.bottomK(list, -1) }
+
+        assertEquals("ccc", Collectionx.nthElement(list, 2))
+        assertEquals(listOf("bb", "a", "ccc", "dd", "e", "ff"), list)
+        assertThrow(IndexOutOfBoundsException::class) { Collectionx.nthElement(list, 6) }
+
+        val mutableList = list.toMutableList()
+        Collectionx.partialSort(mutableList, 3)
+        assertEquals(listOf("a", "bb", "ccc"), mutableList.take(3))
+        assertEquals(list.sorted(), mutableList.sorted())
+        val linkedList = LinkedList(list)
+        Collectionx.partialSortWith(linkedList, 2) { o1, o2 -> o2.compareTo(o1) }
+        assertEquals(listOf("ff", "e"), linkedList.take(2))
+    }
+
     private fun <T> MutableList<T>.toMutableIterable(): MutableIterable<T> {
         return object : MutableIterable<T> {
             override fun iterator(): MutableIterator<T> {
@@ -16,9 +16,12 @@
 
 package com.github.panpf.tools4j.collections
 
+import com.github.panpf.tools4j.test.ktx.assertThrow
 import com.github.panpf.tools4j.test.ktx.assertTwoEquals
 import org.junit.Assert.assertEquals
 import org.junit.Test
+import java.util.*
+import java.util.concurrent.Executors
 
 class GroupingxTest {
 
@@ -163,4 +166,47 @@ class GroupingxTest {
                 list.groupingBy { it.first().toString() }.eachCountTo(LinkedHashMap()).toSortedMap(),
                 Groupingx.eachCountTo(Groupingx.groupingBy(list) { it.first().toString() }, LinkedHashMap()).toSortedMap())
     }
-}
\ No newline at end of file
+
+    @Test
+    fun testPrimitiveAccumulators() {
+        val words = listOf("apple", "avocado", "banana", "blueberry", "cherry", "apricot")
+        val grouping = Groupingx.groupingBy(words) { it[0] }
+
+        assertEquals("{a=3, b=2, c=1}", Groupingx.eachCount(grouping).toString())
+        assertEquals("{a=19, b=15, c=6}", Groupingx.eachSumOf(grouping) { it.length.toLong() }.toString())
+        assertEquals("{a=19.0, b=15.0, c=6.0}", Groupingx.eachSumOfDouble(grouping) { it.length.toDouble() }.toString())
+        assertEquals("{a=5, b=6, c=6}", Groupingx.eachMinOf(grouping) { it.length.toLong() }.toString())
+        assertEquals("{a=7, b=9, c=6}", Groupingx.eachMaxOf(grouping) { it.length.toLong() }.toString())
+        assertEquals("{a=5.0, b=6.0, c=6.0}", Groupingx.eachMinOfDouble(grouping) { it.length.toDouble() }.toString())
+        assertEquals("{a=NaN, b=9.0, c=6.0}", Groupingx.eachMaxOfDouble(grouping) { if (it == "apricot") Double.NaN else it.length.toDouble() }.toString())
+        assertEquals("{}", Groupingx.eachSumOf(null as Grouping<String, Char>?) { it.length.toLong() }.toString())
+
+        val destination = linkedMapOf('c' to 10, 'z' to 1)
+        assertEquals("{c=11, z=1, a=3, b=2}", Groupingx.eachCountTo(grouping, destination).toString())
+    }
+
+    @Test
+    fun testParallel() {
+        val executor = Executors.newFixedThreadPool(3)
+        try {
+            val random = Random(11)
+            val numbers = (0 until 100000).map { random.nextInt(10000) }
+            val grouping = Groupingx.groupingBy(numbers) { it % 101 }
+
+            assertEquals(Groupingx.eachCount(grouping), Groupingx.eachCount(grouping, executor))
+            assertEquals(Groupingx.eachSumOf(grouping) { it.toLong() }, Groupingx.eachSumOf(grouping, { it.toLong() }, executor))
+            assertEquals(Groupingx.eachMinOf(grouping) { it.toLong() }, Groupingx.eachMinOf(grouping, { it.toLong() }, executor))
+            assertEquals(Groupingx.eachMaxOfDouble(grouping) { it.toDouble() }, Groupingx.eachMaxOfDouble(grouping, { it.toDouble() }, executor))
+            assertEquals(Groupingx.eachMaxOf(grouping) { it.toLong() },
+                    Groupingx.aggregate(grouping, { _, accumulator: Long?, element, first -> if (first) element.toLong() else Math.max(accumulator!!, element.toLong()) }, { left, right -> Math.max(left, right) }, executor))
+            assertEquals("{}", Groupingx.eachCount(null as Grouping<Int, Int>?, executor).toString())
+
+            // The failure of a partition is thrown to the caller
+            assertThrow(IllegalStateException::class) {
+                Groupingx.eachCount(Groupingx.groupingBy(numbers) { if (it == numbers.last()) throw IllegalStateException() else it }, executor)
+            }
+        } finally {
+            executor.shutdown()
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.collections
+
+import com.github.panpf.tools4j.test.ktx.assertThrow
+import org.junit.Assert.*
+import org.junit.Test
+
+class PrimitiveHashSetTest {
+
+    @Test
+    fun testHashSet() {
+        val set = IntHashSet(0)
+        assertTrue(set.isEmpty)
+        for (i in 0 until 10000) {
+            assertTrue(set.add(i * 31 - 5000))
+        }
+        for (i in 0 until 10000) {
+            assertFalse(set.add(i * 31 - 5000))
+        }
+        assertEquals(10000, set.size())
+        assertTrue(set.contains(-5000))
+        assertFalse(set.contains(-4999))
+        assertEquals(-5000, set.get(0))
+        assertEquals(9999 * 31 - 5000, set.get(9999))
+        assertArrayEquals((0 until 10000).map { it * 31 - 5000 }.toIntArray(), set.toIntArray())
+        assertThrow(IndexOutOfBoundsException::class) { set.get(10000) }
+        set.clear()
+        assertEquals(0, set.size())
+        assertFalse(set.contains(-5000))
+        assertTrue(set.add(-5000))
+        assertThrow(IllegalArgumentException::class) { IntHashSet(-1) }
+
+        val longSet = LongHashSet.of(longArrayOf(Long.MIN_VALUE, Long.MAX_VALUE, 0L, Long.MIN_VALUE, 1L shl 40, 0L))
+        assertArrayEquals(longArrayOf(Long.MIN_VALUE, Long.MAX_VALUE, 0L, 1L shl 40), longSet.toLongArray())
+        assertFalse(longSet.contains(1L))
+
+        val doubleSet = DoubleHashSet.of(listOf(Double.NaN, 0.0, -0.0, Double.NaN))
+        assertEquals(3, doubleSet.size())
+        assertTrue(doubleSet.contains(Double.NaN))
+        assertArrayEquals(intArrayOf(1, 2), IntHashSet.of(listOf(1, null, 2, null)).toIntArray())
+
+        val charSet = CharHashSet.of("hello".toCharArray())
+        assertArrayEquals("helo".toCharArray(), charSet.toCharArray())
+        assertTrue(CharHashSet.of(null as CharArray?).isEmpty)
+    }
+
+    @Test
+    fun testHashMap() {
+        val map = IntHashMap<String>()
+        assertTrue(map.isEmpty)
+        for (i in 0 until 1000) {
+            assertNull(map.put(-i, "v$i"))
+        }
+        assertEquals("v5", map.put(-5, "five"))
+        assertEquals(1000, map.size())
+        assertEquals("five", map.get(-5))
+        assertEquals("v999", map.get(-999))
+        assertNull(map.get(1))
+        assertTrue(map.containsKey(0))
+        assertFalse(map.containsKey(1))
+        assertEquals(5, map.indexOfKey(-5))
+        assertEquals(-1, map.indexOfKey(1))
+        assertEquals(-5, map.keyAt(5))
+        assertEquals("five", map.valueAt(5))
+        map.setValueAt(5, "v5")
+        assertEquals("v5", map.get(-5))
+        assertArrayEquals((0 until 1000).map { -it }.toIntArray(), map.keys())
+        assertEquals((0 until 1000).map { "v$it" }, map.values())
+        assertThrow(IndexOutOfBoundsException::class) { map.keyAt(1000) }
+        map.clear()
+        assertTrue(map.isEmpty)
+        assertNull(map.get(0))
+
+        val doubleMap = DoubleHashMap<Int>()
+        doubleMap.put(Double.NaN, 1)
+        doubleMap.put(0.0, 2)
+        doubleMap.put(-0.0, 3)
+        assertEquals(1, doubleMap.get(Double.NaN))
+        assertEquals(3, doubleMap.size())
+
+        val charMap = CharHashMap<Int>(2)
+        "hello".forEach { charMap.put(it, (charMap.get(it) ?: 0) + 1) }
+        assertEquals(2, charMap.get('l'))
+        assertArrayEquals("helo".toCharArray(), charMap.keys())
+
+        val longMap = LongHashMap<String>()
+        longMap.put(Long.MAX_VALUE, "max")
+        assertEquals("max", longMap.get(Long.MAX_VALUE))
+        assertNull(longMap.get(Long.MIN_VALUE))
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.iterable;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Keeps the [capacity] smallest of the elements added to it according to the [comparator], in O(log capacity) time per element
+ * and O(capacity) memory.
+ * <p>
+ * Elements that compare equal are ordered by the order they were added, so [toSortedList] returns the same list as
+ * sorting all the added elements with a stable sort and taking the first [capacity] of them.
+ */
+public class BoundedHeap<T> {
+
+    private final int capacity;
+    @NotNull
+    private final Comparator<T> comparator;
+
+    /**
+     * A binary max-heap, the largest kept element is at index 0 so that it is the one replaced by a smaller element
+     */
+    @NotNull
+    private Object[] elements;
+    /**
+     * The order in which each element of [elements] was added
+     */
+    @NotNull
+    private long[] orders;
+    private int size;
+    private long addedCount;
+
+    public BoundedHeap(int capacity, @NotNull Comparator<T> comparator) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity " + capacity + " is less than zero.");
+        }
+        this.capacity = capacity;
+        this.comparator = comparator;
+        this.elements = new Object[Math.min(capacity, 16)];
+        this.orders = new long[elements.length];
+    }
+
+    /**
+     * Adds the [element] if it is one of the [capacity] smallest elements added so far
+     *
+     * @return `true` if the element is kept
+     */
+    public boolean add(T element) {
+        long order = addedCount++;
+        if (size < capacity) {
+            if (size == elements.length) {
+                int newLength = (int) Math.min((long) elements.length * 2 + 1, capacity);
+                elements = Arrays.copyOf(elements, newLength);
+                orders = Arrays.copyOf(orders, newLength);
+            }
+            siftUp(size++, element, order);
+            return true;
+        } else if (size > 0 && compare(element, order, elementAt(0), orders[0]) < 0) {
+            siftDown(elements, orders, size, 0, element, order);
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the largest kept element, which is the element at index [capacity] - 1 of the sorted elements once [capacity] elements were added
+     *
+     * @throws NoSuchElementException if no element was added
+     */
+    public T largest() {
+        if (size == 0) {
+            throw new NoSuchElementException("Heap is empty.");
+        }
+        return elementAt(0);
+    }
+
+    /**
+     * Returns the kept elements sorted according to the [comparator]
+     */
+    @NotNull
+    public List<T> toSortedList() {
+        Object[] heapElements = Arrays.copyOf(elements, size);
+        long[] heapOrders = Arrays.copyOf(orders, size);
+        Object[] sorted = new Object[size];
+        // Heap sort on a copy: the largest element is removed first and placed last
+        for (int heapSize = size; heapSize > 0; heapSize--) {
+            sorted[heapSize - 1] = heapElements[0];
+            if (heapSize > 1) {
+                //noinspection unchecked
+                siftDown(heapElements, heapOrders, heapSize - 1, 0, (T) heapElements[heapSize - 1], heapOrders[heapSize - 1]);
+            }
+        }
+        //noinspection unchecked
+        return new ArrayList<T>((List<T>) Arrays.asList(sorted));
+    }
+
+    private int compare(T element1, long order1, T element2, long order2) {
+        int result = comparator.compare(element1, element2);
+        return result != 0 ? result : (order1 < order2 ? -1 : (order1 == order2 ? 0 : 1));
+    }
+
+    private T elementAt(int index) {
+        //noinspection unchecked
+        return (T) elements[index];
+    }
+
+    private void siftUp(int index, T element, long order) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (compare(element, order, elementAt(parent), orders[parent]) <= 0) {
+                break;
+            }
+            elements[index] = elements[parent];
+            orders[index] = orders[parent];
+            index = parent;
+        }
+        elements[index] = element;
+        orders[index] = order;
+    }
+
+    private void siftDown(@NotNull Object[] elements, @NotNull long[] orders, int size, int index, T element, long order) {
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            //noinspection unchecked
+            if (right < size && compare((T) elements[right], orders[right], (T) elements[child], orders[child]) > 0) {
+                child = right;
+            }
+            //noinspection unchecked
+            if (compare(element, order, (T) elements[child], orders[child]) >= 0) {
+                break;
+            }
+            elements[index] = elements[child];
+            orders[index] = orders[child];
+            index = child;
+        }
+        elements[index] = element;
+        orders[index] = order;
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.iterable;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A bounded first-in first-out ring buffer of `int` values, which are stored without boxing.
+ * <p>
+ * The values are kept in an array whose length is the smallest power of two not less than the capacity,
+ * so that an index is wrapped with a mask instead of a division. The buffer is not thread-safe.
+ * <p>
+ * Buffer overflow is not allowed so [add] doesn't overwrite the first value but raises an exception, use [offer] to test for free space.
+ */
+public class IntRingBuffer {
+
+    @NotNull
+    private final int[] buffer;
+    private final int mask;
+    private final int capacity;
+    private int startIndex = 0;
+    private int size;
+
+    public IntRingBuffer(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity " + capacity + " is less than zero.");
+        }
+        if (capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity " + capacity + " is greater than " + (1 << 30) + ".");
+        }
+        this.capacity = capacity;
+        int length = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.buffer = new int[length];
+        this.mask = length - 1;
+    }
+
+    /**
+     * Adds [element] to the end of the buffer or fails with [IllegalStateException] if no free space available in the buffer
+     */
+    public void add(int element) {
+        if (!offer(element)) {
+            throw new IllegalStateException("ring buffer is full");
+        }
+    }
+
+    /**
+     * Adds [element] to the end of the buffer if there is free space in the buffer
+     *
+     * @return `false` if the buffer is full
+     */
+    public boolean offer(int element) {
+        if (size == capacity) {
+            return false;
+        }
+        buffer[(startIndex + size) & mask] = element;
+        size++;
+        return true;
+    }
+
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+        return buffer[(startIndex + index) & mask];
+    }
+
+    /**
+     * Returns the first value of the buffer or fails with [NoSuchElementException] if the buffer is empty
+     */
+    public int first() {
+        if (size == 0) {
+            throw new NoSuchElementException("ring buffer is empty");
+        }
+        return buffer[startIndex];
+    }
+
+    /**
+     * Returns the last value of the buffer or fails with [NoSuchElementException] if the buffer is empty
+     */
+    public int last() {
+        if (size == 0) {
+            throw new NoSuchElementException("ring buffer is empty");
+        }
+        return buffer[(startIndex + size - 1) & mask];
+    }
+
+    /**
+     * Removes and returns the first value of the buffer or fails with [NoSuchElementException] if the buffer is empty
+     */
+    public int removeFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException("ring buffer is empty");
+        }
+        int element = buffer[startIndex];
+        startIndex = (startIndex + 1) & mask;
+        size--;
+        return element;
+    }
+
+    /**
+     * Removes [n] first values from the buffer or fails with [IllegalArgumentException] if not enough values in the buffer to remove
+     */
+    public void removeFirst(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n shouldn't be negative but it is " + n);
+        }
+        if (n > size) {
+            throw new IllegalArgumentException("n shouldn't be greater than the buffer size: n = " + n + ", size = " + size);
+        }
+        startIndex = (startIndex + n) & mask;
+        size -= n;
+    }
+
+    /**
+     * Removes at most [maxCount] first values from the buffer and copies them to [destination] starting at [offset],
+     * no more values than fit in [destination] are removed
+     *
+     * @return the number of values removed
+     */
+    public int drainTo(@NotNull int[] destination, int offset, int maxCount) {
+        if (offset < 0 || offset > destination.length) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + destination.length);
+        }
+        if (maxCount < 0) {
+            throw new IllegalArgumentException("maxCount shouldn't be negative but it is " + maxCount);
+        }
+        int count = Math.min(Math.min(maxCount, size), destination.length - offset);
+        copyTo(destination, offset, count);
+        removeFirst(count);
+        return count;
+    }
+
+    public void clear() {
+        startIndex = 0;
+        size = 0;
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    @NotNull
+    public int[] toArray() {
+        int[] result = new int[size];
+        copyTo(result, 0, size);
+        return result;
+    }
+
+    private void copyTo(@NotNull int[] destination, int offset, int count) {
+        int firstCount = Math.min(count, buffer.length - startIndex);
+        System.arraycopy(buffer, startIndex, destination, offset, firstCount);
+        System.arraycopy(buffer, 0, destination, offset + firstCount, count - firstCount);
+    }
+
+    @NotNull
+    public IntIterator iterator() {
+        return new IntIterator() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public int nextInt() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                return buffer[(startIndex + index++) & mask];
+            }
+        };
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
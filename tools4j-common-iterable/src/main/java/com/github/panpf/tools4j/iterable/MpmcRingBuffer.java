@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.iterable;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded lock-free first-in first-out queue for any number of producer and consumer threads.
+ * <p>
+ * Producers and consumers claim a slot by advancing the tail or the head with a compare-and-set. Every slot has a sequence number
+ * that tells whether it holds an element of the current round, the owner of a claimed slot publishes the element or the
+ * free slot by updating that number with an ordered write, so a slow thread only delays the slot it has claimed.
+ * <p>
+ * The elements are kept in an array whose length is the smallest power of two not less than the capacity and 2. Null elements are not allowed.
+ */
+public class MpmcRingBuffer<T> {
+
+    @NotNull
+    private final Object[] buffer;
+    @NotNull
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final int capacity;
+
+    /**
+     * The index of the next element to poll
+     */
+    @NotNull
+    private final AtomicLong head = new AtomicLong();
+    /**
+     * The index of the next element to offer
+     */
+    @NotNull
+    private final AtomicLong tail = new AtomicLong();
+
+    public MpmcRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity " + capacity + " must be greater than zero.");
+        }
+        if (capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity " + capacity + " is greater than " + (1 << 30) + ".");
+        }
+        this.capacity = capacity;
+        // With a single slot a published element and a free slot of the next round would have the same sequence number
+        int length = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.buffer = new Object[length];
+        this.sequences = new AtomicLongArray(length);
+        for (int i = 0; i < length; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = length - 1;
+    }
+
+    /**
+     * Adds [element] to the end of the buffer if there is free space in the buffer
+     *
+     * @return `false` if the buffer is full
+     */
+    public boolean offer(@NotNull T element) {
+        //noinspection ConstantConditions
+        if (element == null) {
+            throw new NullPointerException("element is null");
+        }
+        while (true) {
+            long currentTail = tail.get();
+            int index = (int) currentTail & mask;
+            long difference = sequences.get(index) - currentTail;
+            if (difference == 0) {
+                // The slot is free, but the capacity may be smaller than the array
+                if (capacity != buffer.length && currentTail - head.get() >= capacity) {
+                    return false;
+                }
+                if (tail.compareAndSet(currentTail, currentTail + 1)) {
+                    buffer[index] = element;
+                    sequences.lazySet(index, currentTail + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                // The slot still holds the element of the previous round
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Removes and returns the first element of the buffer, or returns null if the buffer is empty
+     */
+    @Nullable
+    public T poll() {
+        while (true) {
+            long currentHead = head.get();
+            int index = (int) currentHead & mask;
+            long difference = sequences.get(index) - (currentHead + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(currentHead, currentHead + 1)) {
+                    //noinspection unchecked
+                    T element = (T) buffer[index];
+                    buffer[index] = null;
+                    sequences.lazySet(index, currentHead + buffer.length);
+                    return element;
+                }
+            } else if (difference < 0) {
+                // The slot has not been published yet
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Removes at most [maxCount] first elements of the buffer and adds them to [destination].
+     * The published elements at the head are claimed with a single compare-and-set, so this is one batch, not a loop of [poll].
+     * <p>
+     * If [destination] rejects an element by throwing, the rejected element and the rest of the batch are offered back to the end
+     * of the buffer, because other consumers may already have moved the head past them. An element is only lost if producers fill
+     * the buffer in the meantime
+     *
+     * @return the number of elements removed
+     */
+    public int drainTo(@NotNull Collection<? super T> destination, int maxCount) {
+        if (maxCount < 0) {
+            throw new IllegalArgumentException("maxCount shouldn't be negative but it is " + maxCount);
+        }
+        long currentHead;
+        int count;
+        while (true) {
+            currentHead = head.get();
+            int limit = Math.min(maxCount, buffer.length);
+            count = 0;
+            while (count < limit && sequences.get((int) (currentHead + count) & mask) == currentHead + count + 1) {
+                count++;
+            }
+            if (count == 0) {
+                if (maxCount == 0 || sequences.get((int) currentHead & mask) - (currentHead + 1) < 0) {
+                    return 0;
+                }
+                // Another consumer has moved the head
+            } else if (head.compareAndSet(currentHead, currentHead + count)) {
+                break;
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            T element = take(currentHead + i);
+            try {
+                destination.add(element);
+            } catch (RuntimeException e) {
+                // The claimed slots can't be given back, so the elements that were not added go to the end of the buffer
+                offer(element);
+                for (int j = i + 1; j < count; j++) {
+                    offer(take(currentHead + j));
+                }
+                throw e;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the element of a slot claimed by the caller and frees the slot for the next round
+     */
+    @NotNull
+    private T take(long sequence) {
+        int index = (int) sequence & mask;
+        //noinspection unchecked
+        T element = (T) buffer[index];
+        buffer[index] = null;
+        sequences.lazySet(index, sequence + buffer.length);
+        return element;
+    }
+
+    /**
+     * Removes all elements of the buffer and adds them to [destination]
+     *
+     * @return the number of elements removed
+     */
+    public int drainTo(@NotNull Collection<? super T> destination) {
+        return drainTo(destination, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the number of elements in the buffer, which may already be out of date when other threads are active
+     */
+    public int size() {
+        long currentHead = head.get();
+        long size = tail.get() - currentHead;
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -103,8 +103,12 @@ public class RingBuffer<T> extends AbstractList<T> implements RandomAccess {
         }
     }
 
+    /**
+     * [n] is never greater than the capacity, so the index wraps around at most once and no division is needed
+     */
     private int forward(int self, int n) {
-        return (self + n) % capacity;
+        int index = self + n;
+        return index >= capacity ? index - capacity : index;
     }
 
     public boolean isFull() {
@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.iterable;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded lock-free first-in first-out queue for exactly one producer thread and one consumer thread.
+ * <p>
+ * Only one thread at a time may call [offer], and only one thread at a time may call [poll], [peek] and [drainTo].
+ * The producer publishes an element by advancing the tail with an ordered write after storing it,
+ * the consumer frees a slot the same way by advancing the head, and each side caches the last position of the other side
+ * so that it only reads the shared position again when the buffer looks full or empty.
+ * <p>
+ * The elements are kept in an array whose length is the smallest power of two not less than the capacity. Null elements are not allowed.
+ */
+public class SpscRingBuffer<T> {
+
+    @NotNull
+    private final Object[] buffer;
+    private final int mask;
+    private final int capacity;
+
+    /**
+     * The index of the next element to poll, written only by the consumer
+     */
+    @NotNull
+    private final AtomicLong head = new AtomicLong();
+    /**
+     * The index of the next element to offer, written only by the producer
+     */
+    @NotNull
+    private final AtomicLong tail = new AtomicLong();
+    /**
+     * The head last read by the producer
+     */
+    private long producerHead;
+    /**
+     * The tail last read by the consumer
+     */
+    private long consumerTail;
+
+    public SpscRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity " + capacity + " must be greater than zero.");
+        }
+        if (capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity " + capacity + " is greater than " + (1 << 30) + ".");
+        }
+        this.capacity = capacity;
+        int length = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.buffer = new Object[length];
+        this.mask = length - 1;
+    }
+
+    /**
+     * Adds [element] to the end of the buffer if there is free space in the buffer. Called only by the producer thread
+     *
+     * @return `false` if the buffer is full
+     */
+    public boolean offer(@NotNull T element) {
+        //noinspection ConstantConditions
+        if (element == null) {
+            throw new NullPointerException("element is null");
+        }
+        long currentTail = tail.get();
+        if (currentTail - producerHead >= capacity) {
+            producerHead = head.get();
+            if (currentTail - producerHead >= capacity) {
+                return false;
+            }
+        }
+        buffer[(int) currentTail & mask] = element;
+        tail.lazySet(currentTail + 1);
+        return true;
+    }
+
+    /**
+     * Removes and returns the first element of the buffer, or returns null if the buffer is empty. Called only by the consumer thread
+     */
+    @Nullable
+    public T poll() {
+        long currentHead = head.get();
+        if (currentHead >= consumerTail) {
+            consumerTail = tail.get();
+            if (currentHead >= consumerTail) {
+                return null;
+            }
+        }
+        int index = (int) currentHead & mask;
+        //noinspection unchecked
+        T element = (T) buffer[index];
+        buffer[index] = null;
+        head.lazySet(currentHead + 1);
+        return element;
+    }
+
+    /**
+     * Returns the first element of the buffer without removing it, or returns null if the buffer is empty. Called only by the consumer thread
+     */
+    @Nullable
+    public T peek() {
+        long currentHead = head.get();
+        if (currentHead >= consumerTail) {
+            consumerTail = tail.get();
+            if (currentHead >= consumerTail) {
+                return null;
+            }
+        }
+        //noinspection unchecked
+        return (T) buffer[(int) currentHead & mask];
+    }
+
+    /**
+     * Removes at most [maxCount] first elements of the buffer and adds them to [destination], freeing their slots at once.
+     * Called only by the consumer thread
+     *
+     * @return the number of elements removed
+     */
+    public int drainTo(@NotNull Collection<? super T> destination, int maxCount) {
+        if (maxCount < 0) {
+            throw new IllegalArgumentException("maxCount shouldn't be negative but it is " + maxCount);
+        }
+        long currentHead = head.get();
+        long available = consumerTail - currentHead;
+        if (available < maxCount) {
+            consumerTail = tail.get();
+            available = consumerTail - currentHead;
+        }
+        int count = (int) Math.min(available, maxCount);
+        for (int i = 0; i < count; i++) {
+            int index = (int) (currentHead + i) & mask;
+            //noinspection unchecked
+            T element = (T) buffer[index];
+            buffer[index] = null;
+            try {
+                destination.add(element);
+            } catch (RuntimeException e) {
+                // The elements added so far are removed, the rejected one stays in the buffer
+                buffer[index] = element;
+                head.lazySet(currentHead + i);
+                throw e;
+            }
+        }
+        head.lazySet(currentHead + count);
+        return count;
+    }
+
+    /**
+     * Removes all elements of the buffer and adds them to [destination]. Called only by the consumer thread
+     *
+     * @return the number of elements removed
+     */
+    public int drainTo(@NotNull Collection<? super T> destination) {
+        return drainTo(destination, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the number of elements in the buffer, which may already be out of date when the other thread is active
+     */
+    public int size() {
+        long currentHead = head.get();
+        long size = tail.get() - currentHead;
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public boolean isEmpty() {
+        return tail.get() == head.get();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -20,10 +20,17 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 
+/**
+ * Returns the windows of the given [size] sliding along the [iterator] with the given [step], computing each window only when it is requested.
+ * <p>
+ * When [reuseBuffer] is `true` every window is a read-only view of the same buffer, which is valid only until the next call of [hasNext] or [next],
+ * otherwise every window is a new list.
+ */
 public class WindowedIterator<T> implements Iterator<List<T>> {
 
     @Nullable
@@ -31,12 +38,23 @@ public class WindowedIterator<T> implements Iterator<List<T>> {
     private final int size;
     private final int step;
     private final boolean partialWindows;
+    private final boolean reuseBuffer;
 
     @Nullable
     private List<T> nextElement;
+    private boolean nextComputed;
+    private ArrayList<T> cachedList;
     private RingBuffer<T> cachedBuffer;
+    /**
+     * The number of elements to remove from the [cachedBuffer] before computing the next window, the last window may still be a view of it
+     */
+    private int pendingRemoveCount;
+    @Nullable
+    private List<T> bufferView;
+    @Nullable
+    private List<T> viewedBuffer;
 
-    public WindowedIterator(@Nullable Iterator<T> iterator, int size, int step, boolean partialWindows) {
+    public WindowedIterator(@Nullable Iterator<T> iterator, int size, int step, boolean partialWindows, boolean reuseBuffer) {
         if (size <= 0 || step <= 0) {
             if (size != step){
                 throw new IllegalArgumentException("Both size " + size + " and step " + step + " must be greater than zero.");
@@ -48,24 +66,33 @@ public class WindowedIterator<T> implements Iterator<List<T>> {
         this.size = size;
         this.step = step;
         this.partialWindows = partialWindows;
-        this.nextElement = calculateNext();
+        this.reuseBuffer = reuseBuffer;
+    }
+
+    public WindowedIterator(@Nullable Iterator<T> iterator, int size, int step, boolean partialWindows) {
+        this(iterator, size, step, partialWindows, false);
     }
 
     @Override
     public boolean hasNext() {
+        if (!nextComputed) {
+            nextElement = calculateNext();
+            nextComputed = true;
+        }
         return nextElement != null;
     }
 
     @NotNull
     @Override
     public List<T> next() {
-        final List<T> nextElement = this.nextElement;
-        if (nextElement == null) {
+        if (!hasNext()) {
             throw new NoSuchElementException();
-        } else {
-            this.nextElement = calculateNext();
-            return nextElement;
         }
+        final List<T> nextElement = this.nextElement;
+        this.nextElement = null;
+        this.nextComputed = false;
+        //noinspection ConstantConditions
+        return nextElement;
     }
 
     @Nullable
@@ -73,7 +100,14 @@ public class WindowedIterator<T> implements Iterator<List<T>> {
         int bufferInitialCapacity = Math.min(size, 1024);
         int gap = step - size;
         if (gap >= 0) {
-            ArrayList<T> buffer = new ArrayList<T>(bufferInitialCapacity);
+            ArrayList<T> buffer;
+            if (reuseBuffer && cachedList != null) {
+                buffer = cachedList;
+                buffer.clear();
+            } else {
+                buffer = new ArrayList<T>(bufferInitialCapacity);
+                if (reuseBuffer) cachedList = buffer;
+            }
             while (iterator != null && iterator.hasNext()) {
                 buffer.add(iterator.next());
                 if (buffer.size() == size) {
@@ -86,9 +120,9 @@ public class WindowedIterator<T> implements Iterator<List<T>> {
                     while (skipCount++ < gap && iterator.hasNext()) {
                         iterator.next();
                     }
-                    return buffer;
+                    return window(buffer);
                 } else if(partialWindows){
-                    return buffer;
+                    return window(buffer);
                 }
             }
         } else {
@@ -96,6 +130,8 @@ public class WindowedIterator<T> implements Iterator<List<T>> {
             RingBuffer<T> cachedBuffer = this.cachedBuffer;
             if (cachedBuffer != null) {
                 buffer = cachedBuffer;
+                buffer.removeFirst(pendingRemoveCount);
+                pendingRemoveCount = 0;
             } else {
                 RingBuffer<T> newBuffer = new RingBuffer<T>(bufferInitialCapacity);
                 this.cachedBuffer = newBuffer;
@@ -112,27 +148,37 @@ public class WindowedIterator<T> implements Iterator<List<T>> {
                         continue;
                     }
 
-                    ArrayList<T> result = new ArrayList<T>(buffer);
-                    buffer.removeFirst(step);
-                    return result;
+                    pendingRemoveCount = step;
+                    return window(buffer);
                 }
             }
             if (partialWindows) {
                 if (buffer.size() > step) {
-                    ArrayList<T> result = new ArrayList<T>(buffer);
-                    buffer.removeFirst(step);
-                    return result;
+                    pendingRemoveCount = step;
+                    return window(buffer);
                 }
                 if (!buffer.isEmpty()) {
-                    ArrayList<T> result = new ArrayList<T>(buffer);
-                    buffer.removeFirst(buffer.size());
-                    return result;
+                    pendingRemoveCount = buffer.size();
+                    return window(buffer);
                 }
             }
         }
         return null;
     }
 
+    @NotNull
+    private List<T> window(@NotNull List<T> buffer) {
+        if (!reuseBuffer) {
+            return buffer instanceof RingBuffer ? new ArrayList<T>(buffer) : buffer;
+        }
+        if (viewedBuffer != buffer) {
+            bufferView = Collections.unmodifiableList(buffer);
+            viewedBuffer = buffer;
+        }
+        //noinspection ConstantConditions
+        return bufferView;
+    }
+
     @Override
     public void remove() {
         throw new UnsupportedOperationException("remove");
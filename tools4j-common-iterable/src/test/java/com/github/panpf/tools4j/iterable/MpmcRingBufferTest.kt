@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.panpf.tools4j.iterable
+
+import com.github.panpf.tools4j.test.ktx.assertThrow
+import org.junit.Assert.*
+import org.junit.Test
+import java.util.*
+import java.util.concurrent.atomic.AtomicInteger
+
+class MpmcRingBufferTest {
+
+    @Test
+    fun test() {
+        val ringBuffer = MpmcRingBuffer<String>(3)
+        assertEquals(3, ringBuffer.capacity())
+        assertNull(ringBuffer.poll())
+        assertTrue(ringBuffer.offer("a"))
+        assertTrue(ringBuffer.offer("b"))
+        assertTrue(ringBuffer.offer("c"))
+        assertFalse(ringBuffer.offer("d"))
+        assertEquals(3, ringBuffer.size())
+        assertEquals("a", ringBuffer.poll())
+        assertTrue(ringBuffer.offer("d"))
+
+        val destination = ArrayList<String>()
+        assertEquals(2, ringBuffer.drainTo(destination, 2))
+        assertEquals(1, ringBuffer.drainTo(destination))
+        assertEquals(listOf("b", "c", "d"), destination)
+        assertTrue(ringBuffer.isEmpty)
+
+        // The elements not added to a throwing destination go back to the buffer
+        assertTrue(ringBuffer.offer("e"))
+        assertTrue(ringBuffer.offer("f"))
+        assertTrue(ringBuffer.offer("g"))
+        val rejecting = object : ArrayList<String>() {
+            override fun add(element: String): Boolean {
+                if (element == "f") throw IllegalStateException(element)
+                return super.add(element)
+            }
+        }
+        assertThrow(IllegalStateException::class) { ringBuffer.drainTo(rejecting) }
+        assertEquals(listOf("e"), rejecting)
+        assertEquals(2, ringBuffer.size())
+        assertEquals("f", ringBuffer.poll())
+        assertEquals("g", ringBuffer.poll())
+        assertTrue(ringBuffer.isEmpty)
+
+        val singleRingBuffer = MpmcRingBuffer<String>(1)
+        assertTrue(singleRingBuffer.offer("a"))
+        assertFalse(singleRingBuffer.offer("b"))
+        assertEquals("a", singleRingBuffer.poll())
+        assertTrue(singleRingBuffer.offer("b"))
+        assertThrow(IllegalArgumentException::class) { MpmcRingBuffer<String>(0) }
+    }
+
+    @Test
+    fun testConcurrent() {
+        val ringBuffer = MpmcRingBuffer<Int>(8)
+        val producerCount = 3
+        val count = 30000
+        val remaining = AtomicInteger(producerCount * count)
+        val received = Collections.synchronizedList(ArrayList<Int>())
+        val producers = (0 until producerCount).map { producer ->
+            Thread {
+                for (i in 0 until count) {
+                    while (!ringBuffer.offer(producer * count + i)) {
+                        Thread.yield()
+                    }
+                }
+            }
+        }
+        val consumers = (0 until 3).map {
+            Thread {
+                val batch = ArrayList<Int>()
+                while (remaining.get() > 0) {
+                    batch.clear()
+                    if (ringBuffer.drainTo(batch, 4) == 0) {
+                        Thread.yield()
+                    } else {
+                        received.addAll(batch)
+                        remaining.addAndGet(-batch.size)
+                    }
+                }
+            }
+        }
+        (producers + consumers).forEach { it.start() }
+        (producers + consumers).forEach { it.join() }
+        assertEquals((0 until producerCount * count).toList(), received.sorted())
+        assertNull(ringBuffer.poll())
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.panpf.tools4j.iterable
+
+import com.github.panpf.tools4j.test.ktx.assertThrow
+import org.junit.Assert.*
+import org.junit.Test
+
+class PrimitiveRingBufferTest {
+
+    @Test
+    fun testIntRingBuffer() {
+        val ringBuffer = IntRingBuffer(5)
+        assertEquals(5, ringBuffer.capacity())
+        assertTrue(ringBuffer.isEmpty)
+
+        (1..5).forEach { ringBuffer.add(it) }
+        assertTrue(ringBuffer.isFull)
+        assertFalse(ringBuffer.offer(6))
+        assertThrow(IllegalStateException::class) { ringBuffer.add(6) }
+        assertEquals("[1, 2, 3, 4, 5]", ringBuffer.toString())
+
+        assertEquals(1, ringBuffer.removeFirst())
+        ringBuffer.removeFirst(2)
+        assertTrue(ringBuffer.offer(6))
+        assertTrue(ringBuffer.offer(7))
+        assertTrue(ringBuffer.offer(8))
+        assertArrayEquals(intArrayOf(4, 5, 6, 7, 8), ringBuffer.toArray())
+        assertEquals(4, ringBuffer.first())
+        assertEquals(8, ringBuffer.last())
+        assertEquals(6, ringBuffer.get(2))
+        assertThrow(IndexOutOfBoundsException::class) { ringBuffer.get(5) }
+        assertEquals(listOf(4, 5, 6, 7, 8), ringBuffer.iterator().asSequence().toList())
+
+        val destination = IntArray(4)
+        assertEquals(3, ringBuffer.drainTo(destination, 1, 3))
+        assertArrayEquals(intArrayOf(0, 4, 5, 6), destination)
+        assertEquals(2, ringBuffer.drainTo(destination, 0, 10))
+        assertArrayEquals(intArrayOf(7, 8, 5, 6), destination)
+        assertTrue(ringBuffer.isEmpty)
+        assertThrow(NoSuchElementException::class) { ringBuffer.removeFirst() }
+        assertThrow(IllegalArgumentException::class) { ringBuffer.removeFirst(1) }
+        assertThrow(IllegalArgumentException::class) { IntRingBuffer(-1) }
+
+        val emptyRingBuffer = IntRingBuffer(0)
+        assertTrue(emptyRingBuffer.isFull)
+        assertFalse(emptyRingBuffer.offer(1))
+    }
+
+    @Test
+    fun testLongAndDoubleRingBuffer() {
+        val longRingBuffer = LongRingBuffer(3)
+        (1L..3L).forEach { longRingBuffer.add(it) }
+        longRingBuffer.removeFirst(2)
+        longRingBuffer.add(4L)
+        longRingBuffer.add(5L)
+        assertArrayEquals(longArrayOf(3L, 4L, 5L), longRingBuffer.toArray())
+
+        val doubleRingBuffer = DoubleRingBuffer(3)
+        doubleRingBuffer.add(1.5)
+        doubleRingBuffer.add(Double.NaN)
+        assertEquals(1.5, doubleRingBuffer.removeFirst(), 0.0)
+        assertTrue(doubleRingBuffer.first().isNaN())
+        doubleRingBuffer.clear()
+        assertEquals(0, doubleRingBuffer.size())
+    }
+}
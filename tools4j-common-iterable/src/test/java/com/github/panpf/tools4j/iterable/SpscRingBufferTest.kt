@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.panpf.tools4j.iterable
+
+import com.github.panpf.tools4j.test.ktx.assertThrow
+import org.junit.Assert.*
+import org.junit.Test
+
+class SpscRingBufferTest {
+
+    @Test
+    fun test() {
+        val ringBuffer = SpscRingBuffer<String>(3)
+        assertEquals(3, ringBuffer.capacity())
+        assertNull(ringBuffer.poll())
+        assertNull(ringBuffer.peek())
+        assertTrue(ringBuffer.offer("a"))
+        assertTrue(ringBuffer.offer("b"))
+        assertTrue(ringBuffer.offer("c"))
+        assertFalse(ringBuffer.offer("d"))
+        assertEquals(3, ringBuffer.size())
+        assertEquals("a", ringBuffer.peek())
+        assertEquals("a", ringBuffer.poll())
+        assertTrue(ringBuffer.offer("d"))
+
+        val destination = ArrayList<String>()
+        assertEquals(2, ringBuffer.drainTo(destination, 2))
+        assertEquals(listOf("b", "c"), destination)
+        assertEquals(1, ringBuffer.drainTo(destination))
+        assertEquals(listOf("b", "c", "d"), destination)
+        assertTrue(ringBuffer.isEmpty)
+        assertThrow(IllegalArgumentException::class) { SpscRingBuffer<String>(0) }
+    }
+
+    @Test
+    fun testConcurrent() {
+        val ringBuffer = SpscRingBuffer<Int>(16)
+        val count = 100000
+        val producer = Thread {
+            for (i in 0 until count) {
+                while (!ringBuffer.offer(i)) {
+                    Thread.yield()
+                }
+            }
+        }
+        producer.start()
+
+        val received = ArrayList<Int>(count)
+        while (received.size < count) {
+            if (ringBuffer.drainTo(received, 8) == 0) {
+                Thread.yield()
+            }
+        }
+        producer.join()
+        assertEquals((0 until count).toList(), received)
+        assertNull(ringBuffer.poll())
+    }
+}
@@ -0,0 +1,765 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.date;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.text.DateFormatSymbols;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.github.panpf.tools4j.date.EpochCalendar.MILLIS_PER_DAY;
+import static com.github.panpf.tools4j.date.EpochCalendar.civilFromDays;
+import static com.github.panpf.tools4j.date.EpochCalendar.dayOfMonthOf;
+import static com.github.panpf.tools4j.date.EpochCalendar.dayOfWeek;
+import static com.github.panpf.tools4j.date.EpochCalendar.daysFromCivil;
+import static com.github.panpf.tools4j.date.EpochCalendar.floorDiv;
+import static com.github.panpf.tools4j.date.EpochCalendar.lengthOfMonth;
+import static com.github.panpf.tools4j.date.EpochCalendar.monthOf;
+import static com.github.panpf.tools4j.date.EpochCalendar.toEpochMillis;
+import static com.github.panpf.tools4j.date.EpochCalendar.yearOf;
+
+/**
+ * An immutable and thread-safe date formatter compiled once for a [SimpleDateFormat] pattern, locale and time zone,
+ * which produces the same text as [SimpleDateFormat] and parses text in the same way.
+ * <p>
+ * Formatters are obtained with [of] from a bounded cache. The fields `y`, `M`, `d`, `H`, `h`, `k`, `K`, `m`, `s`, `S`, `D`,
+ * `E`, `a` and `Z` are computed from the epoch milliseconds directly and written to a [StringBuilder] or `char[]`
+ * without creating [Date] or [Calendar] objects, and text that only contains the numeric fields `y`, `M`, `d`, `H`, `m`, `s`
+ * and `S` with their usual values is parsed without a [Calendar] too.
+ * Everything else, such as other pattern letters, calendars other than the Gregorian calendar, dates before the Gregorian cutover,
+ * lenient values and ambiguous local times, falls back to a [SimpleDateFormat] kept per thread.
+ */
+public final class DateFormatter {
+
+    private static final int MAX_CACHE_SIZE = 256;
+    @NotNull
+    private static final ConcurrentMap<Key, DateFormatter> CACHE = new ConcurrentHashMap<Key, DateFormatter>();
+
+    /**
+     * 1583-01-02T00:00:00Z, [GregorianCalendar] uses the Julian calendar before 1582-10-15 and 1582 is 10 days shorter,
+     * so earlier dates in any time zone are formatted by [SimpleDateFormat]
+     */
+    private static final long FIRST_GREGORIAN_YEAR = -12212467200000L;
+
+    private static final int TYPE_LITERAL = 0;
+    private static final int TYPE_YEAR = 1;
+    private static final int TYPE_MONTH = 2;
+    private static final int TYPE_MONTH_TEXT = 3;
+    private static final int TYPE_DAY_OF_MONTH = 4;
+    private static final int TYPE_HOUR_OF_DAY = 5;
+    private static final int TYPE_HOUR_OF_DAY_1 = 6;
+    private static final int TYPE_HOUR = 7;
+    private static final int TYPE_HOUR_1 = 8;
+    private static final int TYPE_MINUTE = 9;
+    private static final int TYPE_SECOND = 10;
+    private static final int TYPE_MILLISECOND = 11;
+    private static final int TYPE_DAY_OF_YEAR = 12;
+    private static final int TYPE_DAY_OF_WEEK = 13;
+    private static final int TYPE_AM_PM = 14;
+    private static final int TYPE_ZONE_OFFSET = 15;
+
+    @NotNull
+    private final String pattern;
+    @NotNull
+    private final Locale locale;
+    @NotNull
+    private final TimeZone timeZone;
+    @NotNull
+    private final SimpleDateFormat prototype;
+    @NotNull
+    private final ThreadLocal<SimpleDateFormat> fallbackFormat;
+
+    /**
+     * Types, widths and literals of the compiled pattern, null if the pattern can't be formatted without [SimpleDateFormat]
+     */
+    @Nullable
+    private final int[] types;
+    @Nullable
+    private final int[] counts;
+    @Nullable
+    private final String[] literals;
+    @Nullable
+    private final String[] texts;
+    private final int maxLength;
+    /**
+     * Whether text can be parsed without [SimpleDateFormat], which requires the pattern to only contain numeric fields of fixed meaning
+     */
+    private final boolean fastParse;
+    @NotNull
+    private final ThreadLocal<char[]> buffer;
+
+    private DateFormatter(@NotNull String pattern, @NotNull Locale locale, @NotNull TimeZone timeZone) {
+        this.pattern = pattern;
+        this.locale = locale;
+        this.timeZone = timeZone;
+        this.prototype = new SimpleDateFormat(pattern, locale);
+        this.prototype.setTimeZone(timeZone);
+        this.fallbackFormat = new ThreadLocal<SimpleDateFormat>() {
+            @Override
+            protected SimpleDateFormat initialValue() {
+                return (SimpleDateFormat) prototype.clone();
+            }
+        };
+
+        List<int[]> fields = compile(pattern);
+        NumberFormat numberFormat = prototype.getNumberFormat();
+        // The Buddhist and Japanese calendars extend GregorianCalendar but count years differently
+        boolean supported = prototype.getCalendar().getClass() == GregorianCalendar.class
+                && numberFormat instanceof DecimalFormat
+                && ((DecimalFormat) numberFormat).getDecimalFormatSymbols().getZeroDigit() == '0';
+        List<String> literalList = new ArrayList<String>();
+        boolean parseSupported = supported;
+        for (int[] field : fields) {
+            int type = field[0];
+            if (type < 0) {
+                supported = false;
+            }
+            if (type != TYPE_LITERAL && type != TYPE_YEAR && type != TYPE_MONTH && type != TYPE_DAY_OF_MONTH
+                    && type != TYPE_HOUR_OF_DAY && type != TYPE_MINUTE && type != TYPE_SECOND && type != TYPE_MILLISECOND) {
+                parseSupported = false;
+            } else if (type == TYPE_YEAR && field[1] <= 2) {
+                // Two digit years are resolved against a moving century
+                parseSupported = false;
+            }
+        }
+
+        if (supported) {
+            int size = fields.size();
+            this.types = new int[size];
+            this.counts = new int[size];
+            this.literals = new String[size];
+            DateFormatSymbols symbols = DateFormatSymbols.getInstance(locale);
+            String[] months = null;
+            String[] shortMonths = null;
+            String[] weekdays = null;
+            String[] shortWeekdays = null;
+            String[] amPmStrings = null;
+            int length = 0;
+            int literalIndex = 0;
+            for (int i = 0; i < size; i++) {
+                int[] field = fields.get(i);
+                types[i] = field[0];
+                counts[i] = field[1];
+                switch (field[0]) {
+                    case TYPE_LITERAL:
+                        literals[i] = literalOf(pattern, field[1], field[2]);
+                        length += literals[i].length();
+                        break;
+                    case TYPE_MONTH_TEXT:
+                        if (field[1] >= 4) {
+                            months = months != null ? months : symbols.getMonths();
+                            length += maxLength(months);
+                        } else {
+                            shortMonths = shortMonths != null ? shortMonths : symbols.getShortMonths();
+                            length += maxLength(shortMonths);
+                        }
+                        break;
+                    case TYPE_DAY_OF_WEEK:
+                        if (field[1] >= 4) {
+                            weekdays = weekdays != null ? weekdays : symbols.getWeekdays();
+                            length += maxLength(weekdays);
+                        } else {
+                            shortWeekdays = shortWeekdays != null ? shortWeekdays : symbols.getShortWeekdays();
+                            length += maxLength(shortWeekdays);
+                        }
+                        break;
+                    case TYPE_AM_PM:
+                        amPmStrings = amPmStrings != null ? amPmStrings : symbols.getAmPmStrings();
+                        length += maxLength(amPmStrings);
+                        break;
+                    case TYPE_ZONE_OFFSET:
+                        length += 5;
+                        break;
+                    default:
+                        // The largest year of a long millisecond value has 9 digits
+                        length += Math.max(field[1], field[0] == TYPE_YEAR ? 9 : 3);
+                        break;
+                }
+            }
+            // All the names are kept in one array: months, short months, weekdays, short weekdays, am/pm
+            this.texts = new String[12 + 12 + 8 + 8 + 2];
+            copyNames(months, texts, 0, 12);
+            copyNames(shortMonths, texts, 12, 12);
+            copyNames(weekdays, texts, 24, 8);
+            copyNames(shortWeekdays, texts, 32, 8);
+            copyNames(amPmStrings, texts, 40, 2);
+            this.maxLength = length;
+            this.buffer = new ThreadLocal<char[]>() {
+                @Override
+                protected char[] initialValue() {
+                    return new char[maxLength];
+                }
+            };
+        } else {
+            this.types = null;
+            this.counts = null;
+            this.literals = null;
+            this.texts = null;
+            this.maxLength = 0;
+            this.buffer = new ThreadLocal<char[]>();
+        }
+        this.fastParse = parseSupported && types != null;
+    }
+
+    /**
+     * Returns the formatter of [pattern], [locale] and [timeZone] from the cache, compiling it if it isn't cached yet
+     *
+     * @param locale   the locale of the names of months and days, the default locale if null
+     * @param timeZone the time zone of the formatted dates, the default time zone if null
+     * @throws IllegalArgumentException if [pattern] is not a valid [SimpleDateFormat] pattern
+     */
+    @NotNull
+    public static DateFormatter of(@NotNull String pattern, @Nullable Locale locale, @Nullable TimeZone timeZone) {
+        Locale finalLocale = locale != null ? locale : Locale.getDefault();
+        TimeZone finalTimeZone = timeZone != null ? timeZone : TimeZone.getDefault();
+        Key key = new Key(pattern, finalLocale, finalTimeZone);
+        DateFormatter formatter = CACHE.get(key);
+        if (formatter == null) {
+            // The cached key and the formatter share a private copy of the zone, so a caller changing its zone later can't make the entry stale
+            TimeZone timeZoneCopy = (TimeZone) finalTimeZone.clone();
+            key = new Key(pattern, finalLocale, timeZoneCopy);
+            formatter = new DateFormatter(pattern, finalLocale, timeZoneCopy);
+            if (CACHE.size() >= MAX_CACHE_SIZE) {
+                // Patterns are rarely created dynamically, evicting any entry is enough to keep the cache bounded
+                Iterator<Key> iterator = CACHE.keySet().iterator();
+                if (iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove();
+                }
+            }
+            DateFormatter previous = CACHE.putIfAbsent(key, formatter);
+            if (previous != null) {
+                formatter = previous;
+            }
+        }
+        return formatter;
+    }
+
+    /**
+     * Returns the formatter of [pattern] and [locale] in the default time zone from the cache, compiling it if it isn't cached yet
+     *
+     * @throws IllegalArgumentException if [pattern] is not a valid [SimpleDateFormat] pattern
+     */
+    @NotNull
+    public static DateFormatter of(@NotNull String pattern, @Nullable Locale locale) {
+        return of(pattern, locale, null);
+    }
+
+    /**
+     * Returns the formatter of [pattern] in the default locale and time zone from the cache, compiling it if it isn't cached yet
+     *
+     * @throws IllegalArgumentException if [pattern] is not a valid [SimpleDateFormat] pattern
+     */
+    @NotNull
+    public static DateFormatter of(@NotNull String pattern) {
+        return of(pattern, null, null);
+    }
+
+
+    @NotNull
+    public String getPattern() {
+        return pattern;
+    }
+
+    @NotNull
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * Returns a copy of the time zone of this formatter
+     */
+    @NotNull
+    public TimeZone getTimeZone() {
+        return (TimeZone) timeZone.clone();
+    }
+
+
+    /**
+     * Convert milliseconds to a formatted string
+     */
+    @NotNull
+    public String format(long millisecondValue) {
+        if (types == null || millisecondValue < FIRST_GREGORIAN_YEAR) {
+            return fallbackFormat.get().format(new Date(millisecondValue));
+        }
+        char[] chars = buffer.get();
+        return new String(chars, 0, write(millisecondValue, chars, 0));
+    }
+
+    /**
+     * Convert Date to a formatted string
+     */
+    @NotNull
+    public String format(@NotNull Date date) {
+        return format(date.getTime());
+    }
+
+    /**
+     * Appends the formatted milliseconds to [builder]
+     *
+     * @return [builder]
+     */
+    @NotNull
+    public StringBuilder format(long millisecondValue, @NotNull StringBuilder builder) {
+        if (types == null || millisecondValue < FIRST_GREGORIAN_YEAR) {
+            return builder.append(fallbackFormat.get().format(new Date(millisecondValue)));
+        }
+        char[] chars = buffer.get();
+        return builder.append(chars, 0, write(millisecondValue, chars, 0));
+    }
+
+    /**
+     * Writes the formatted milliseconds to [destination] starting at [offset]
+     *
+     * @return the index in [destination] after the last written char
+     * @throws IndexOutOfBoundsException if the formatted text doesn't fit in [destination]
+     */
+    public int format(long millisecondValue, @NotNull char[] destination, int offset) {
+        if (offset < 0 || offset > destination.length) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + destination.length);
+        }
+        int length;
+        char[] chars;
+        if (types == null || millisecondValue < FIRST_GREGORIAN_YEAR) {
+            String text = fallbackFormat.get().format(new Date(millisecondValue));
+            length = text.length();
+            if (length > destination.length - offset) {
+                throw new IndexOutOfBoundsException("formatted length: " + length + ", offset: " + offset + ", length: " + destination.length);
+            }
+            text.getChars(0, length, destination, offset);
+            return offset + length;
+        } else if (destination.length - offset >= maxLength) {
+            return offset + write(millisecondValue, destination, offset);
+        } else {
+            chars = buffer.get();
+            length = write(millisecondValue, chars, 0);
+            if (length > destination.length - offset) {
+                throw new IndexOutOfBoundsException("formatted length: " + length + ", offset: " + offset + ", length: " + destination.length);
+            }
+            System.arraycopy(chars, 0, destination, offset, length);
+            return offset + length;
+        }
+    }
+
+    /**
+     * Writes the fields computed from [millisecondValue] to [chars], which has at least [maxLength] free chars after [offset]
+     *
+     * @return the index after the last written char
+     */
+    private int write(long millisecondValue, @NotNull char[] chars, int offset) {
+        int[] types = this.types;
+        int[] counts = this.counts;
+        String[] literals = this.literals;
+        String[] texts = this.texts;
+        //noinspection ConstantConditions
+        int size = types.length;
+
+        int zoneOffset = timeZone.getOffset(millisecondValue);
+        long localMillis = millisecondValue + zoneOffset;
+        long epochDay = floorDiv(localMillis, MILLIS_PER_DAY);
+        int millisOfDay = (int) (localMillis - epochDay * MILLIS_PER_DAY);
+
+        long civil = civilFromDays(epochDay);
+        long year = yearOf(civil);
+        int month = monthOf(civil);
+        int dayOfMonth = dayOfMonthOf(civil);
+        int hourOfDay = millisOfDay / 3600000;
+
+        int index = offset;
+        for (int i = 0; i < size; i++) {
+            //noinspection ConstantConditions
+            int count = counts[i];
+            switch (types[i]) {
+                case TYPE_LITERAL:
+                    //noinspection ConstantConditions
+                    String literal = literals[i];
+                    literal.getChars(0, literal.length(), chars, index);
+                    index += literal.length();
+                    break;
+                case TYPE_YEAR:
+                    index = count == 2 ? writeNumber(year % 100, 2, chars, index) : writeNumber(year, count, chars, index);
+                    break;
+                case TYPE_MONTH:
+                    index = writeNumber(month, count, chars, index);
+                    break;
+                case TYPE_MONTH_TEXT:
+                    //noinspection ConstantConditions
+                    index = writeText(texts[(count >= 4 ? 0 : 12) + month - 1], chars, index);
+                    break;
+                case TYPE_DAY_OF_MONTH:
+                    index = writeNumber(dayOfMonth, count, chars, index);
+                    break;
+                case TYPE_HOUR_OF_DAY:
+                    index = writeNumber(hourOfDay, count, chars, index);
+                    break;
+                case TYPE_HOUR_OF_DAY_1:
+                    index = writeNumber(hourOfDay == 0 ? 24 : hourOfDay, count, chars, index);
+                    break;
+                case TYPE_HOUR:
+                    index = writeNumber(hourOfDay % 12, count, chars, index);
+                    break;
+                case TYPE_HOUR_1:
+                    index = writeNumber(hourOfDay % 12 == 0 ? 12 : hourOfDay % 12, count, chars, index);
+                    break;
+                case TYPE_MINUTE:
+                    index = writeNumber(millisOfDay / 60000 % 60, count, chars, index);
+                    break;
+                case TYPE_SECOND:
+                    index = writeNumber(millisOfDay / 1000 % 60, count, chars, index);
+                    break;
+                case TYPE_MILLISECOND:
+                    index = writeNumber(millisOfDay % 1000, count, chars, index);
+                    break;
+                case TYPE_DAY_OF_YEAR:
+                    index = writeNumber(epochDay - daysFromCivil(year, 1, 1) + 1, count, chars, index);
+                    break;
+                case TYPE_DAY_OF_WEEK:
+                    //noinspection ConstantConditions
+                    index = writeText(texts[(count >= 4 ? 24 : 32) + dayOfWeek(epochDay)], chars, index);
+                    break;
+                case TYPE_AM_PM:
+                    //noinspection ConstantConditions
+                    index = writeText(texts[40 + (hourOfDay < 12 ? 0 : 1)], chars, index);
+                    break;
+                case TYPE_ZONE_OFFSET:
+                    int offsetMinutes = zoneOffset / 60000;
+                    chars[index++] = offsetMinutes >= 0 ? '+' : '-';
+                    offsetMinutes = Math.abs(offsetMinutes);
+                    index = writeNumber(offsetMinutes / 60 * 100 + offsetMinutes % 60, 4, chars, index);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown field type: " + types[i]);
+            }
+        }
+        return index - offset;
+    }
+
+    private static int writeNumber(long value, int minDigits, @NotNull char[] chars, int index) {
+        int digits = 1;
+        for (long remaining = value / 10; remaining > 0; remaining /= 10) {
+            digits++;
+        }
+        for (int i = digits; i < minDigits; i++) {
+            chars[index++] = '0';
+        }
+        int end = index + digits;
+        for (int i = end - 1; i >= index; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+
+    private static int writeText(@NotNull String text, @NotNull char[] chars, int index) {
+        text.getChars(0, text.length(), chars, index);
+        return index + text.length();
+    }
+
+
+    /**
+     * Parses [text] to milliseconds in the same way as [SimpleDateFormat.parse]
+     *
+     * @throws ParseException if the beginning of [text] cannot be parsed
+     */
+    public long parseMillis(@NotNull String text) throws ParseException {
+        if (fastParse) {
+            long millis = parseFast(text);
+            if (millis != Long.MIN_VALUE) {
+                return millis;
+            }
+        }
+        return fallbackFormat.get().parse(text).getTime();
+    }
+
+    /**
+     * Parses [text] to Date in the same way as [SimpleDateFormat.parse]
+     *
+     * @throws ParseException if the beginning of [text] cannot be parsed
+     */
+    @NotNull
+    public Date parse(@NotNull String text) throws ParseException {
+        return new Date(parseMillis(text));
+    }
+
+    /**
+     * Parses text made of numeric fields whose values are in their usual range and the literals of the pattern
+     *
+     * @return [Long.MIN_VALUE] if the text has to be parsed by [SimpleDateFormat]
+     */
+    private long parseFast(@NotNull String text) {
+        int[] types = this.types;
+        int[] counts = this.counts;
+        String[] literals = this.literals;
+        //noinspection ConstantConditions
+        int size = types.length;
+        int length = text.length();
+        int year = 1970;
+        int month = 1;
+        int dayOfMonth = 1;
+        int hourOfDay = 0;
+        int minute = 0;
+        int second = 0;
+        int millisecond = 0;
+
+        int index = 0;
+        for (int i = 0; i < size; i++) {
+            int type = types[i];
+            if (type == TYPE_LITERAL) {
+                //noinspection ConstantConditions
+                String literal = literals[i];
+                if (!text.startsWith(literal, index)) {
+                    return Long.MIN_VALUE;
+                }
+                index += literal.length();
+                continue;
+            }
+
+            // Like SimpleDateFormat, a field followed by another numeric field takes exactly [count] digits
+            boolean fixedWidth = i + 1 < size && types[i + 1] != TYPE_LITERAL;
+            //noinspection ConstantConditions
+            int maxEnd = fixedWidth ? index + counts[i] : Math.min(length, index + 9);
+            int value = 0;
+            int start = index;
+            while (index < maxEnd && index < length) {
+                char c = text.charAt(index);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                value = value * 10 + (c - '0');
+                index++;
+            }
+            if (index == start || (fixedWidth && index != maxEnd) || (index < length && isDigit(text.charAt(index)) && !fixedWidth)) {
+                return Long.MIN_VALUE;
+            }
+            switch (type) {
+                case TYPE_YEAR:
+                    year = value;
+                    break;
+                case TYPE_MONTH:
+                    month = value;
+                    break;
+                case TYPE_DAY_OF_MONTH:
+                    dayOfMonth = value;
+                    break;
+                case TYPE_HOUR_OF_DAY:
+                    hourOfDay = value;
+                    break;
+                case TYPE_MINUTE:
+                    minute = value;
+                    break;
+                case TYPE_SECOND:
+                    second = value;
+                    break;
+                case TYPE_MILLISECOND:
+                    millisecond = value;
+                    break;
+                default:
+                    return Long.MIN_VALUE;
+            }
+        }
+        // SimpleDateFormat ignores the rest of the text and values out of their range are rolled over by the lenient calendar,
+        // years are limited to four digits to keep the arithmetic from overflowing
+        if (index != length || year > 9999 || month < 1 || month > 12 || dayOfMonth < 1 || dayOfMonth > lengthOfMonth(year, month)
+                || hourOfDay > 23 || minute > 59 || second > 59 || millisecond > 999) {
+            return Long.MIN_VALUE;
+        }
+
+        return toEpochMillis(timeZone, daysFromCivil(year, month, dayOfMonth) * MILLIS_PER_DAY
+                + hourOfDay * 3600000L + minute * 60000L + second * 1000L + millisecond);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+
+    /**
+     * Splits [pattern] into fields of `{type, count}` and literals of `{TYPE_LITERAL, start, end}` in the same way as [SimpleDateFormat],
+     * the type of the fields that can't be formatted without [SimpleDateFormat] is negative
+     */
+    @NotNull
+    private static List<int[]> compile(@NotNull String pattern) {
+        List<int[]> fields = new ArrayList<int[]>();
+        int length = pattern.length();
+        int index = 0;
+        int literalStart = -1;
+        while (index < length) {
+            char c = pattern.charAt(index);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                if (literalStart >= 0) {
+                    fields.add(new int[]{TYPE_LITERAL, literalStart, index});
+                    literalStart = -1;
+                }
+                int end = index + 1;
+                while (end < length && pattern.charAt(end) == c) {
+                    end++;
+                }
+                int count = end - index;
+                fields.add(new int[]{typeOf(c, count), count});
+                index = end;
+            } else {
+                if (c == '\'') {
+                    // Quoted text, including '' for a quote, is a literal that is unquoted by literalOf()
+                    int end = index + 1;
+                    if (end < length && pattern.charAt(end) == '\'') {
+                        end++;
+                    } else {
+                        while (end < length) {
+                            if (pattern.charAt(end) == '\'') {
+                                if (end + 1 < length && pattern.charAt(end + 1) == '\'') {
+                                    end += 2;
+                                    continue;
+                                }
+                                break;
+                            }
+                            end++;
+                        }
+                        end = Math.min(end + 1, length);
+                    }
+                    if (literalStart < 0) {
+                        literalStart = index;
+                    }
+                    index = end;
+                } else {
+                    if (literalStart < 0) {
+                        literalStart = index;
+                    }
+                    index++;
+                }
+            }
+        }
+        if (literalStart >= 0) {
+            fields.add(new int[]{TYPE_LITERAL, literalStart, length});
+        }
+        return fields;
+    }
+
+    private static int typeOf(char letter, int count) {
+        switch (letter) {
+            case 'y':
+                return TYPE_YEAR;
+            case 'M':
+                return count >= 3 ? TYPE_MONTH_TEXT : TYPE_MONTH;
+            case 'd':
+                return TYPE_DAY_OF_MONTH;
+            case 'H':
+                return TYPE_HOUR_OF_DAY;
+            case 'k':
+                return TYPE_HOUR_OF_DAY_1;
+            case 'K':
+                return TYPE_HOUR;
+            case 'h':
+                return TYPE_HOUR_1;
+            case 'm':
+                return TYPE_MINUTE;
+            case 's':
+                return TYPE_SECOND;
+            case 'S':
+                return TYPE_MILLISECOND;
+            case 'D':
+                return TYPE_DAY_OF_YEAR;
+            case 'E':
+                return TYPE_DAY_OF_WEEK;
+            case 'a':
+                return TYPE_AM_PM;
+            case 'Z':
+                return TYPE_ZONE_OFFSET;
+            default:
+                return -1;
+        }
+    }
+
+    @NotNull
+    private static String literalOf(@NotNull String pattern, int start, int end) {
+        StringBuilder builder = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                if (i + 1 < end && pattern.charAt(i + 1) == '\'') {
+                    builder.append('\'');
+                    i++;
+                }
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static int maxLength(@NotNull String[] names) {
+        int length = 0;
+        for (String name : names) {
+            length = Math.max(length, name != null ? name.length() : 0);
+        }
+        return length;
+    }
+
+    private static void copyNames(@Nullable String[] names, @NotNull String[] destination, int offset, int count) {
+        if (names != null) {
+            for (int i = 0; i < count && i < names.length; i++) {
+                destination[offset + i] = names[i] != null ? names[i] : "";
+            }
+        }
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+        return "DateFormatter{pattern='" + pattern + "', locale=" + locale + ", timeZone=" + timeZone.getID() + "}";
+    }
+
+    private static final class Key {
+        @NotNull
+        private final String pattern;
+        @NotNull
+        private final Locale locale;
+        @NotNull
+        private final TimeZone timeZone;
+
+        private Key(@NotNull String pattern, @NotNull Locale locale, @NotNull TimeZone timeZone) {
+            this.pattern = pattern;
+            this.locale = locale;
+            this.timeZone = timeZone;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            // TimeZone doesn't override equals(), zones with the same ID and rules are equal
+            return pattern.equals(key.pattern) && locale.equals(key.locale)
+                    && timeZone.getID().equals(key.timeZone.getID()) && timeZone.hasSameRules(key.timeZone);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = pattern.hashCode();
+            result = 31 * result + locale.hashCode();
+            result = 31 * result + timeZone.getID().hashCode();
+            return result;
+        }
+    }
+}
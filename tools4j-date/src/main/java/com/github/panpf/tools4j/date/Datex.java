@@ -24,6 +24,7 @@ import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
+import java.util.TimeZone;
 
 /**
  * Date tool method
@@ -82,19 +83,19 @@ public class Datex {
     }
 
     /**
-     * Convert formatted date string to Date
+     * Convert formatted date string to Date, the pattern is compiled once and cached, see [DateFormatter]
      */
     @NotNull
     public static Date toDate(@NotNull String formattedDate, @NotNull String pattern, @Nullable Locale locale) throws ParseException {
-        return toDate(formattedDate, locale != null ? new SimpleDateFormat(pattern, locale) : new SimpleDateFormat(pattern));
+        return DateFormatter.of(pattern, locale).parse(formattedDate);
     }
 
     /**
-     * Convert formatted date string to Date
+     * Convert formatted date string to Date, the pattern is compiled once and cached, see [DateFormatter]
      */
     @NotNull
     public static Date toDate(@NotNull String formattedDate, @NotNull String pattern) throws ParseException {
-        return toDate(formattedDate, new SimpleDateFormat(pattern));
+        return DateFormatter.of(pattern).parse(formattedDate);
     }
 
 
@@ -186,6 +187,30 @@ public class Datex {
         return calendar;
     }
 
+    /**
+     * Returns the calendar-free equivalent of [createCalendar] with [firstDayOfWeek] and [locale],
+     * or null if [Calendar] has to be used for [locale], [millisecondValue] or [targetMillisecondValue]
+     */
+    @Nullable
+    private static EpochCalendar epochCalendar(long millisecondValue, long targetMillisecondValue, int firstDayOfWeek, @Nullable Locale locale) {
+        if (!EpochCalendar.isInRange(millisecondValue) || !EpochCalendar.isInRange(targetMillisecondValue)) {
+            return null;
+        }
+        return EpochCalendar.of(firstDayOfWeek, locale);
+    }
+
+    /**
+     * Returns the calendar-free equivalent of [createCalendar] with [locale],
+     * or null if [Calendar] has to be used for [locale], [millisecondValue] or [targetMillisecondValue]
+     */
+    @Nullable
+    private static EpochCalendar epochCalendar(long millisecondValue, long targetMillisecondValue, @Nullable Locale locale) {
+        if (!EpochCalendar.isInRange(millisecondValue) || !EpochCalendar.isInRange(targetMillisecondValue)) {
+            return null;
+        }
+        return EpochCalendar.of(locale);
+    }
+
 
 
     /* ******************************************* format ****************************************** */
@@ -200,19 +225,19 @@ public class Datex {
     }
 
     /**
-     * Convert Date to a formatted string
+     * Convert Date to a formatted string, the pattern is compiled once and cached, see [DateFormatter]
      */
     @NotNull
     public static String format(@NotNull Date date, @NotNull String pattern, @Nullable Locale locale) {
-        return (locale != null ? new SimpleDateFormat(pattern, locale) : new SimpleDateFormat(pattern)).format(date);
+        return DateFormatter.of(pattern, locale).format(date);
     }
 
     /**
-     * Convert Date to a formatted string
+     * Convert Date to a formatted string, the pattern is compiled once and cached, see [DateFormatter]
      */
     @NotNull
     public static String format(@NotNull Date date, @NotNull String pattern) {
-        return new SimpleDateFormat(pattern).format(date);
+        return DateFormatter.of(pattern).format(date);
     }
 
 
@@ -225,19 +250,37 @@ public class Datex {
     }
 
     /**
-     * Convert Date to a formatted string
+     * Convert Date to a formatted string, the pattern is compiled once and cached, see [DateFormatter]
      */
     @NotNull
     public static String format(long millisecondValue, @NotNull String pattern, @Nullable Locale locale) {
-        return (locale != null ? new SimpleDateFormat(pattern, locale) : new SimpleDateFormat(pattern)).format(new Date(millisecondValue));
+        return DateFormatter.of(pattern, locale).format(millisecondValue);
     }
 
     /**
-     * Convert Date to a formatted string
+     * Convert Date to a formatted string, the pattern is compiled once and cached, see [DateFormatter]
      */
     @NotNull
     public static String format(long millisecondValue, @NotNull String pattern) {
-        return new SimpleDateFormat(pattern).format(new Date(millisecondValue));
+        return DateFormatter.of(pattern).format(millisecondValue);
+    }
+
+    /**
+     * Convert Date to a formatted string in [timeZone], the pattern is compiled once and cached, see [DateFormatter]
+     */
+    @NotNull
+    public static String format(long millisecondValue, @NotNull String pattern, @Nullable Locale locale, @Nullable TimeZone timeZone) {
+        return DateFormatter.of(pattern, locale, timeZone).format(millisecondValue);
+    }
+
+    /**
+     * Append the formatted Date to [builder] without creating Date or Calendar objects for the common fields, see [DateFormatter]
+     *
+     * @return [builder]
+     */
+    @NotNull
+    public static StringBuilder formatTo(long millisecondValue, @NotNull String pattern, @NotNull StringBuilder builder) {
+        return DateFormatter.of(pattern).format(millisecondValue, builder);
     }
 
 
@@ -331,114 +374,17 @@ public class Datex {
      */
     @NotNull
     public static String formatDuration(long duration, @NotNull String pattern) {
-        duration = Math.max(duration, 0);
-        final long oneSecondMilliseconds = 1000;
-        final long oneMinuteMilliseconds = oneSecondMilliseconds * 60;
-        final long oneHourMilliseconds = oneMinuteMilliseconds * 60;
-        final long oneDayMilliseconds = oneHourMilliseconds * 24;
-
-        String[] items = pattern.split("%");
-        String daySuffix = null, hourSuffix = null, minuteSuffix = null, secondSuffix = null, millisecondSuffix = null;
-        boolean dayAllowIgnore = false, hourAllowIgnore = false, minuteAllowIgnore = false, secondAllowIgnore = false, millisecondAllowIgnore = false;
-        boolean dayPad = false, hourPad = false, minutePad = false, secondPad = false, millisecondPad = false;
-        for (String item : items) {
-            if (item.toLowerCase().startsWith("ms")) {
-                millisecondAllowIgnore = item.length() > 2 && item.charAt(2) == '?';
-                millisecondSuffix = item.substring(millisecondAllowIgnore ? 3 : 2);
-                millisecondPad = item.startsWith("MS");
-            } else if (item.toLowerCase().startsWith("s")) {
-                secondAllowIgnore = item.length() > 1 && item.charAt(1) == '?';
-                secondSuffix = item.substring(secondAllowIgnore ? 2 : 1);
-                secondPad = item.startsWith("S");
-            } else if (item.toLowerCase().startsWith("m")) {
-                minuteAllowIgnore = item.length() > 1 && item.charAt(1) == '?';
-                minuteSuffix = item.substring(minuteAllowIgnore ? 2 : 1);
-                minutePad = item.startsWith("M");
-            } else if (item.toLowerCase().startsWith("h")) {
-                hourAllowIgnore = item.length() > 1 && item.charAt(1) == '?';
-                hourSuffix = item.substring(hourAllowIgnore ? 2 : 1);
-                hourPad = item.startsWith("H");
-            } else if (item.toLowerCase().startsWith("d")) {
-                dayAllowIgnore = item.length() > 1 && item.charAt(1) == '?';
-                daySuffix = item.substring(dayAllowIgnore ? 2 : 1);
-                dayPad = item.startsWith("D");
-            }
-        }
-        if (daySuffix == null && hourSuffix == null && minuteSuffix == null && secondSuffix == null && millisecondSuffix == null) {
-            throw new IllegalArgumentException("Invalid pattern '" + pattern + "', for example：'%h:%m:%s'");
-        }
-
-        StringBuilder builder = new StringBuilder();
-        if (daySuffix != null) {
-            long day = duration / oneDayMilliseconds;
-            if (day > 0 || !dayAllowIgnore) {
-                builder.append(dayPad ? String.format("%02d", day) : day).append(daySuffix);
-            }
-        }
-
-        if (hourSuffix != null) {
-            long hour;
-            if (daySuffix != null) {
-                hour = duration % oneDayMilliseconds / oneHourMilliseconds;
-            } else {
-                hour = duration / oneHourMilliseconds;
-            }
-            if (hour > 0 || !hourAllowIgnore) {
-                builder.append(hourPad ? String.format("%02d", hour) : hour).append(hourSuffix);
-            }
-        }
-
-        if (minuteSuffix != null) {
-            long minute;
-            if (daySuffix != null || hourSuffix != null) {
-                minute = duration % oneHourMilliseconds / oneMinuteMilliseconds;
-            } else {
-                minute = duration / oneMinuteMilliseconds;
-            }
-            if (minute > 0 || !minuteAllowIgnore) {
-                builder.append(minutePad ? String.format("%02d", minute) : minute).append(minuteSuffix);
-            }
-        }
-
-        if (secondSuffix != null) {
-            long second;
-            if (daySuffix != null || hourSuffix != null || minuteSuffix != null) {
-                second = duration % oneMinuteMilliseconds / oneSecondMilliseconds;
-            } else {
-                second = duration / oneSecondMilliseconds;
-            }
-            if (second > 0 || !secondAllowIgnore) {
-                builder.append(secondPad ? String.format("%02d", second) : second).append(secondSuffix);
-            }
-        }
-
-        if (millisecondSuffix != null) {
-            long millisecond;
-            if (daySuffix != null || hourSuffix != null || minuteSuffix != null || secondSuffix != null) {
-                millisecond = duration % oneSecondMilliseconds;
-            } else {
-                millisecond = duration;
-            }
-            if (millisecond > 0 || !millisecondAllowIgnore) {
-                builder.append(millisecondPad ? String.format("%03d", millisecond) : millisecond).append(millisecondSuffix);
-            }
-        }
-
-        if (builder.length() == 0) {
-            if (millisecondSuffix != null) {
-                builder.append(millisecondPad ? String.format("%03d", 0) : 0).append(millisecondSuffix);
-            } else if (secondSuffix != null) {
-                builder.append(secondPad ? String.format("%02d", 0) : 0).append(secondSuffix);
-            } else if (minuteSuffix != null) {
-                builder.append(minutePad ? String.format("%02d", 0) : 0).append(minuteSuffix);
-            } else if (hourSuffix != null) {
-                builder.append(hourPad ? String.format("%02d", 0) : 0).append(hourSuffix);
-            } else {
-                builder.append(dayPad ? String.format("%02d", 0) : 0).append(daySuffix);
-            }
-        }
+        return DurationFormat.of(pattern).format(duration);
+    }
 
-        return builder.toString().trim();
+    /**
+     * Appends the duration in milliseconds formatted with [pattern] to [builder], see [formatDuration] for the pattern
+     *
+     * @return [builder]
+     */
+    @NotNull
+    public static StringBuilder formatDurationTo(long duration, @NotNull String pattern, @NotNull StringBuilder builder) {
+        return DurationFormat.of(pattern).format(duration, builder);
     }
 
 
@@ -459,28 +405,28 @@ public class Datex {
      * Get calendar field from millisecond
      */
     public static int getCalendarField(@NotNull Date date, int field, int firstDayOfWeek, @Nullable Locale locale) {
-        return createCalendar(date, firstDayOfWeek, locale).get(field);
+        return getCalendarField(date.getTime(), field, firstDayOfWeek, locale);
     }
 
     /**
      * Get calendar field from millisecond
      */
     public static int getCalendarField(@NotNull Date date, int field, int firstDayOfWeek) {
-        return createCalendar(date, firstDayOfWeek).get(field);
+        return getCalendarField(date.getTime(), field, firstDayOfWeek);
     }
 
     /**
      * Get calendar field from millisecond
      */
     public static int getCalendarField(@NotNull Date date, int field, @Nullable Locale locale) {
-        return createCalendar(date, locale).get(field);
+        return getCalendarField(date.getTime(), field, locale);
     }
 
     /**
      * Get calendar field from millisecond
      */
     public static int getCalendarField(@NotNull Date date, int field) {
-        return createCalendar(date).get(field);
+        return getCalendarField(date.getTime(), field);
     }
 
 
@@ -488,28 +434,30 @@ public class Datex {
      * Get calendar field from millisecond
      */
     public static int getCalendarField(long millisecondValue, int field, int firstDayOfWeek, @Nullable Locale locale) {
-        return createCalendar(millisecondValue, firstDayOfWeek, locale).get(field);
+        EpochCalendar calendar = EpochCalendar.isSupportedField(field) ? epochCalendar(millisecondValue, millisecondValue, firstDayOfWeek, locale) : null;
+        return calendar != null ? calendar.get(millisecondValue, field) : createCalendar(millisecondValue, firstDayOfWeek, locale).get(field);
     }
 
     /**
      * Get calendar field from millisecond
      */
     public static int getCalendarField(long millisecondValue, int field, int firstDayOfWeek) {
-        return createCalendar(millisecondValue, firstDayOfWeek).get(field);
+        return getCalendarField(millisecondValue, field, firstDayOfWeek, null);
     }
 
     /**
      * Get calendar field from millisecond
      */
     public static int getCalendarField(long millisecondValue, int field, @Nullable Locale locale) {
-        return createCalendar(millisecondValue, locale).get(field);
+        EpochCalendar calendar = EpochCalendar.isSupportedField(field) ? epochCalendar(millisecondValue, millisecondValue, locale) : null;
+        return calendar != null ? calendar.get(millisecondValue, field) : createCalendar(millisecondValue, locale).get(field);
     }
 
     /**
      * Get calendar field from millisecond
      */
     public static int getCalendarField(long millisecondValue, int field) {
-        return createCalendar(millisecondValue).get(field);
+        return getCalendarField(millisecondValue, field, (Locale) null);
     }
 
 
@@ -531,7 +479,7 @@ public class Datex {
      */
     @NotNull
     public static Date addCalendarField(@NotNull Date date, int field, int amount, int firstDayOfWeek, @Nullable Locale locale) {
-        return addToDate(createCalendar(date, firstDayOfWeek, locale), field, amount);
+        return addCalendarField(date.getTime(), field, amount, firstDayOfWeek, locale);
     }
 
     /**
@@ -539,7 +487,7 @@ public class Datex {
      */
     @NotNull
     public static Date addCalendarField(@NotNull Date date, int field, int amount, int firstDayOfWeek) {
-        return addToDate(createCalendar(date, firstDayOfWeek), field, amount);
+        return addCalendarField(date.getTime(), field, amount, firstDayOfWeek);
     }
 
     /**
@@ -547,7 +495,7 @@ public class Datex {
      */
     @NotNull
     public static Date addCalendarField(@NotNull Date date, int field, int amount, @Nullable Locale locale) {
-        return addToDate(createCalendar(date, locale), field, amount);
+        return addCalendarField(date.getTime(), field, amount, locale);
     }
 
     /**
@@ -555,7 +503,7 @@ public class Datex {
      */
     @NotNull
     public static Date addCalendarField(@NotNull Date date, int field, int amount) {
-        return addToDate(createCalendar(date), field, amount);
+        return addCalendarField(date.getTime(), field, amount);
     }
 
 
@@ -564,7 +512,9 @@ public class Datex {
      */
     @NotNull
     public static Date addCalendarField(long millisecondValue, int field, int amount, int firstDayOfWeek, @Nullable Locale locale) {
-        return addToDate(createCalendar(millisecondValue, firstDayOfWeek, locale), field, amount);
+        EpochCalendar calendar = epochCalendar(millisecondValue, millisecondValue, firstDayOfWeek, locale);
+        long newTimeInMillis = calendar != null ? calendar.add(millisecondValue, field, amount) : Long.MIN_VALUE;
+        return newTimeInMillis != Long.MIN_VALUE ? new Date(newTimeInMillis) : addToDate(createCalendar(millisecondValue, firstDayOfWeek, locale), field, amount);
     }
 
     /**
@@ -572,7 +522,7 @@ public class Datex {
      */
     @NotNull
     public static Date addCalendarField(long millisecondValue, int field, int amount, int firstDayOfWeek) {
-        return addToDate(createCalendar(millisecondValue, firstDayOfWeek), field, amount);
+        return addCalendarField(millisecondValue, field, amount, firstDayOfWeek, null);
     }
 
     /**
@@ -580,7 +530,9 @@ public class Datex {
      */
     @NotNull
     public static Date addCalendarField(long millisecondValue, int field, int amount, @Nullable Locale locale) {
-        return addToDate(createCalendar(millisecondValue, locale), field, amount);
+        EpochCalendar calendar = epochCalendar(millisecondValue, millisecondValue, locale);
+        long newTimeInMillis = calendar != null ? calendar.add(millisecondValue, field, amount) : Long.MIN_VALUE;
+        return newTimeInMillis != Long.MIN_VALUE ? new Date(newTimeInMillis) : addToDate(createCalendar(millisecondValue, locale), field, amount);
     }
 
     /**
@@ -588,7 +540,7 @@ public class Datex {
      */
     @NotNull
     public static Date addCalendarField(long millisecondValue, int field, int amount) {
-        return addToDate(createCalendar(millisecondValue), field, amount);
+        return addCalendarField(millisecondValue, field, amount, (Locale) null);
     }
 
 
@@ -791,350 +743,350 @@ public class Datex {
      * Return true if the year is the same
      */
     public static boolean isSameYear(@NotNull Date date, @NotNull Date target, @Nullable Locale locale) {
-        return isSameYear(createCalendar(date, locale), createCalendar(target, locale));
+        return isSameYear(date.getTime(), target.getTime(), locale);
     }
 
     /**
      * Return true if the year is the same
      */
     public static boolean isSameYear(@NotNull Date date, @NotNull Date target) {
-        return isSameYear(createCalendar(date), createCalendar(target));
+        return isSameYear(date.getTime(), target.getTime());
     }
 
     /**
      * Returns true if the year and month are the same
      */
     public static boolean isSameMonth(@NotNull Date date, @NotNull Date target, @Nullable Locale locale) {
-        return isSameMonth(createCalendar(date, locale), createCalendar(target, locale));
+        return isSameMonth(date.getTime(), target.getTime(), locale);
     }
 
     /**
      * Returns true if the year and month are the same
      */
     public static boolean isSameMonth(@NotNull Date date, @NotNull Date target) {
-        return isSameMonth(createCalendar(date), createCalendar(target));
+        return isSameMonth(date.getTime(), target.getTime());
     }
 
     /**
      * Return true if the months is the same
      */
     public static boolean isSameMonthOfYear(@NotNull Date date, @NotNull Date target, @Nullable Locale locale) {
-        return isSameMonthOfYear(createCalendar(date, locale), createCalendar(target, locale));
+        return isSameMonthOfYear(date.getTime(), target.getTime(), locale);
     }
 
     /**
      * Return true if the months is the same
      */
     public static boolean isSameMonthOfYear(@NotNull Date date, @NotNull Date target) {
-        return isSameMonthOfYear(createCalendar(date), createCalendar(target));
+        return isSameMonthOfYear(date.getTime(), target.getTime());
     }
 
     /**
      * Returns true if the year, month, and week are the same
      */
     public static boolean isSameWeek(@NotNull Date date, @NotNull Date target, int firstDayOfWeek, @Nullable Locale locale) {
-        return isSameWeek(createCalendar(date, firstDayOfWeek, locale), createCalendar(target, firstDayOfWeek, locale));
+        return isSameWeek(date.getTime(), target.getTime(), firstDayOfWeek, locale);
     }
 
     /**
      * Returns true if the year, month, and week are the same
      */
     public static boolean isSameWeek(@NotNull Date date, @NotNull Date target, int firstDayOfWeek) {
-        return isSameWeek(createCalendar(date, firstDayOfWeek), createCalendar(target, firstDayOfWeek));
+        return isSameWeek(date.getTime(), target.getTime(), firstDayOfWeek);
     }
 
     /**
      * Returns true if the year, month, and week are the same
      */
     public static boolean isSameWeek(@NotNull Date date, @NotNull Date target, @Nullable Locale locale) {
-        return isSameWeek(createCalendar(date, locale), createCalendar(target, locale));
+        return isSameWeek(date.getTime(), target.getTime(), locale);
     }
 
     /**
      * Returns true if the year, month, and week are the same
      */
     public static boolean isSameWeek(@NotNull Date date, @NotNull Date target) {
-        return isSameWeek(createCalendar(date), createCalendar(target));
+        return isSameWeek(date.getTime(), target.getTime());
     }
 
     /**
      * Return true if the weekOfYear is the same
      */
     public static boolean isSameWeekOfYear(@NotNull Date date, @NotNull Date target, int firstDayOfWeek, @Nullable Locale locale) {
-        return isSameWeekOfYear(createCalendar(date, firstDayOfWeek, locale), createCalendar(target, firstDayOfWeek, locale));
+        return isSameWeekOfYear(date.getTime(), target.getTime(), firstDayOfWeek, locale);
     }
 
     /**
      * Return true if the weekOfYear is the same
      */
     public static boolean isSameWeekOfYear(@NotNull Date date, @NotNull Date target, int firstDayOfWeek) {
-        return isSameWeekOfYear(createCalendar(date, firstDayOfWeek), createCalendar(target, firstDayOfWeek));
+        return isSameWeekOfYear(date.getTime(), target.getTime(), firstDayOfWeek);
     }
 
     /**
      * Return true if the weekOfYear is the same
      */
     public static boolean isSameWeekOfYear(@NotNull Date date, @NotNull Date target, @Nullable Locale locale) {
-        return isSameWeekOfYear(createCalendar(date, locale), createCalendar(target, locale));
+        return isSameWeekOfYear(date.getTime(), target.getTime(), locale);
     }
 
     /**
      * Return true if the weekOfYear is the same
      */
     public static boolean isSameWeekOfYear(@NotNull Date date, @NotNull Date target) {
-        return isSameWeekOfYear(createCalendar(date), createCalendar(target));
+        return isSameWeekOfYear(date.getTime(), target.getTime());
     }
 
     /**
      * Return true if the weekOfMonth is the same
      */
     public static boolean isSameWeekOfMonth(@NotNull Date date, @NotNull Date target, int firstDayOfWeek, @Nullable Locale locale) {
-        return isSameWeekOfMonth(createCalendar(date, firstDayOfWeek, locale), createCalendar(target, firstDayOfWeek, locale));
+        return isSameWeekOfMonth(date.getTime(), target.getTime(), firstDayOfWeek, locale);
     }
 
     /**
      * Return true if the weekOfMonth is the same
      */
     public static boolean isSameWeekOfMonth(@NotNull Date date, @NotNull Date target, int firstDayOfWeek) {
-        return isSameWeekOfMonth(createCalendar(date, firstDayOfWeek), createCalendar(target, firstDayOfWeek));
+        return isSameWeekOfMonth(date.getTime(), target.getTime(), firstDayOfWeek);
     }
 
     /**
      * Return true if the weekOfMonth is the same
      */
     public static boolean isSameWeekOfMonth(@NotNull Date date, @NotNull Date target, @Nullable Locale locale) {
-        return isSameWeekOfMonth(createCalendar(date, locale), createCalendar(target, locale));
+        return isSameWeekOfMonth(date.getTime(), target.getTime(), locale);
     }
 
     /**
      * Return true if the weekOfMonth is the same
      */
     public static boolean isSameWeekOfMonth(@NotNull Date date, @NotNull Date target) {
-        return isSameWeekOfMonth(createCalendar(date), createCalendar(target));
+        return isSameWeekOfMonth(date.getTime(), target.getTime());
     }
 
     /**
      * Returns true if the year, month, week and day are the same
      */
     public static boolean isSameDay(@NotNull Date date, @NotNull Date target, @Nullable Locale locale) {
-        return isSameDay(createCalendar(date, locale), createCalendar(target, locale));
+        return isSameDay(date.getTime(), target.getTime(), locale);
     }
 
     /**
      * Returns true if the year, month, week and day are the same
      */
     public static boolean isSameDay(@NotNull Date date, @NotNull Date target) {
-        return isSameDay(createCalendar(date), createCalendar(target));
+        return isSameDay(date.getTime(), target.getTime());
     }
 
     /**
      * Return true if the dayOfYear is the same
      */
     public static boolean isSameDayOfYear(@NotNull Date date, @NotNull Date target, @Nullable Locale locale) {
-        return isSameDayOfYear(createCalendar(date, locale), createCalendar(target, locale));
+        return isSameDayOfYear(date.getTime(), target.getTime(), locale);
     }
 
     /**
      * Return true if the dayOfYear is the same
      */
     public static boolean isSameDayOfYear(@NotNull Date date, @NotNull Date target) {
-        return isSameDayOfYear(createCalendar(date), createCalendar(target));
+        return isSameDayOfYear(date.getTime(), target.getTime());
     }
 
     /**
      * Return true if the dayOfMonth is the same
      */
     public static boolean isSameDayOfMonth(@NotNull Date date, @NotNull Date target, @Nullable Locale locale) {
-        return isSameDayOfMonth(createCalendar(date, locale), createCalendar(target, locale));
+        return isSameDayOfMonth(date.getTime(), target.getTime(), locale);
     }
 
     /**
      * Return true if the dayOfMonth is the same
      */
     public static boolean isSameDayOfMonth(@NotNull Date date, @NotNull Date target) {
-        return isSameDayOfMonth(createCalendar(date), createCalendar(target));
+        return isSameDayOfMonth(date.getTime(), target.getTime());
     }
 
     /**
      * Return true if the dayOfWeek is the same
      */
     public static boolean isSameDayOfWeek(@NotNull Date date, @NotNull Date target, int firstDayOfWeek, @Nullable Locale locale) {
-        return isSameDayOfWeek(createCalendar(date, firstDayOfWeek, locale), createCalendar(target, firstDayOfWeek, locale));
+        return isSameDayOfWeek(date.getTime(), target.getTime(), firstDayOfWeek, locale);
     }
 
     /**
      * Return true if the dayOfWeek is the same
      */
     public static boolean isSameDayOfWeek(@NotNull Date date, @NotNull Date target, int firstDayOfWeek) {
-        return isSameDayOfWeek(createCalendar(date, firstDayOfWeek), createCalendar(target, firstDayOfWeek));
+        return isSameDayOfWeek(date.getTime(), target.getTime(), firstDayOfWeek);
     }
 
     /**
      * Return true if the dayOfWeek is the same
      */
     public static boolean isSameDayOfWeek(@NotNull Date date, @NotNull Date target, @Nullable Locale locale) {
-        return isSameDayOfWeek(createCalendar(date, locale), createCalendar(target, locale));
+        return isSameDayOfWeek(date.getTime(), target.getTime(), locale);
     }
 
     /**
      * Return true if the dayOfWeek is the same
      */
     public static boolean isSameDayOfWeek(@NotNull Date date, @NotNull Date target) {
-        return isSameDayOfWeek(createCalendar(date), createCalendar(target));
+        return isSameDayOfWeek(date.getTime(), target.getTime());
     }
 
     /**
      * Return true if the dayOfWeekInMonth is the same
      */
     public static boolean isSameDayOfWeekInMonth(@NotNull Date date, @NotNull Date target, int firstDayOfWeek, @Nullable Locale locale) {
-        return isSameDayOfWeekInMonth(createCalendar(date, firstDayOfWeek, locale), createCalendar(target, firstDayOfWeek, locale));
+        return isSameDayOfWeekInMonth(date.getTime(), target.getTime(), firstDayOfWeek, locale);
     }
 
     /**
      * Return true if the dayOfWeekInMonth is the same
      */
     public static boolean isSameDayOfWeekInMonth(@NotNull Date date, @NotNull Date target, int firstDayOfWeek) {
-        return isSameDayOfWeekInMonth(createCalendar(date, firstDayOfWeek), createCalendar(target, firstDayOfWeek));
+        return isSameDayOfWeekInMonth(date.getTime(), target.getTime(), firstDayOfWeek);
     }
 
     /**
      * Return true if the dayOfWeekInMonth is the same
      */
     public static boolean isSameDayOfWeekInMonth(@NotNull Date date, @NotNull Date target, @Nullable Locale locale) {
-        return isSameDayOfWeekInMonth(createCalendar(date, locale), createCalendar(target, locale));
+        return isSameDayOfWeekInMonth(date.getTime(), target.getTime(), locale);
     }
 
     /**
      * Return true if the dayOfWeekInMonth is the same
      */
     public static boolean isSameDayOfWeekInMonth(@NotNull Date date, @NotNull Date target) {
-        return isSameDayOfWeekInMonth(createCalendar(date), createCalendar(target));
+        return isSameDayOfWeekInMonth(date.getTime(), target.getTime());
     }
 
     /**
      * Returns true if the year, month, week, day and hour are the same
      */
     public static boolean isSameHour(@NotNull Date date, @NotNull Date target, @Nullable Locale locale) {
-        return isSameHour(createCalendar(date, locale), createCalendar(target, locale));
+        return isSameHour(date.getTime(), target.getTime(), locale);
     }
 
     /**
      * Returns true if the year, month, week, day and hour are the same
      */
     public static boolean isSameHour(@NotNull Date date, @NotNull Date target) {
-        return isSameHour(createCalendar(date), createCalendar(target));
+        return isSameHour(date.getTime(), target.getTime());
     }
 
     /**
      * Return true if the 24H hour is the same
      */
     public static boolean isSameHourOf24H(@NotNull Date date, @NotNull Date target, @Nullable Locale locale) {
-        return isSameHourOf24H(createCalendar(date, locale), createCalendar(target, locale));
+        return isSameHourOf24H(date.getTime(), target.getTime(), locale);
     }
 
     /**
      * Return true if the 24H hour is the same
      */
     public static boolean isSameHourOf24H(@NotNull Date date, @NotNull Date target) {
-        return isSameHourOf24H(createCalendar(date), createCalendar(target));
+        return isSameHourOf24H(date.getTime(), target.getTime());
     }
 
     /**
      * Return true if the 12H hour is the same
      */
     public static boolean isSameHourOf12H(@NotNull Date date, @NotNull Date target, @Nullable Locale locale) {
-        return isSameHourOf12H(createCalendar(date, locale), createCalendar(target, locale));
+        return isSameHourOf12H(date.getTime(), target.getTime(), locale);
     }
 
     /**
      * Return true if the 12H hour is the same
      */
     public static boolean isSameHourOf12H(@NotNull Date date, @NotNull Date target) {
-        return isSameHourOf12H(createCalendar(date), createCalendar(target));
+        return isSameHourOf12H(date.getTime(), target.getTime());
     }
 
     /**
      * Returns true if the year, month, week, day, hour and minute are the same
      */
     public static boolean isSameMinute(@NotNull Date date, @NotNull Date target, @Nullable Locale locale) {
-        return isSameMinute(createCalendar(date, locale), createCalendar(target, locale));
+        return isSameMinute(date.getTime(), target.getTime(), locale);
     }
 
     /**
      * Returns true if the year, month, week, day, hour and minute are the same
      */
     public static boolean isSameMinute(@NotNull Date date, @NotNull Date target) {
-        return isSameMinute(createCalendar(date), createCalendar(target));
+        return isSameMinute(date.getTime(), target.getTime());
     }
 
     /**
      * Return true if the minuteOfHour is the same
      */
     public static boolean isSameMinuteOfHour(@NotNull Date date, @NotNull Date target, @Nullable Locale locale) {
-        return isSameMinuteOfHour(createCalendar(date, locale), createCalendar(target, locale));
+        return isSameMinuteOfHour(date.getTime(), target.getTime(), locale);
     }
 
     /**
      * Return true if the minuteOfHour is the same
      */
     public static boolean isSameMinuteOfHour(@NotNull Date date, @NotNull Date target) {
-        return isSameMinuteOfHour(createCalendar(date), createCalendar(target));
+        return isSameMinuteOfHour(date.getTime(), target.getTime());
     }
 
     /**
      * Returns true if the year, month, week, day, hour, minute and second are the same
      */
     public static boolean isSameSecond(@NotNull Date date, @NotNull Date target, @Nullable Locale locale) {
-        return isSameSecond(createCalendar(date, locale), createCalendar(target, locale));
+        return isSameSecond(date.getTime(), target.getTime(), locale);
     }
 
     /**
      * Returns true if the year, month, week, day, hour, minute and second are the same
      */
     public static boolean isSameSecond(@NotNull Date date, @NotNull Date target) {
-        return isSameSecond(createCalendar(date), createCalendar(target));
+        return isSameSecond(date.getTime(), target.getTime());
     }
 
     /**
      * Return true if the secondOfMinute is the same
      */
     public static boolean isSameSecondOfMinute(@NotNull Date date, @NotNull Date target, @Nullable Locale locale) {
-        return isSameSecondOfMinute(createCalendar(date, locale), createCalendar(target, locale));
+        return isSameSecondOfMinute(date.getTime(), target.getTime(), locale);
     }
 
     /**
      * Return true if the secondOfMinute is the same
      */
     public static boolean isSameSecondOfMinute(@NotNull Date date, @NotNull Date target) {
-        return isSameSecondOfMinute(createCalendar(date), createCalendar(target));
+        return isSameSecondOfMinute(date.getTime(), target.getTime());
     }
 
     /**
      * Returns true if the year, month, week, day, hour, minute, second and millisecond are the same
      */
     public static boolean isSameMillisecond(@NotNull Date date, @NotNull Date target, @Nullable Locale locale) {
-        return isSameMillisecond(createCalendar(date, locale), createCalendar(target, locale));
+        return isSameMillisecond(date.getTime(), target.getTime(), locale);
     }
 
     /**
      * Returns true if the year, month, week, day, hour, minute, second and millisecond are the same
      */
     public static boolean isSameMillisecond(@NotNull Date date, @NotNull Date target) {
-        return isSameMillisecond(createCalendar(date), createCalendar(target));
+        return isSameMillisecond(date.getTime(), target.getTime());
     }
 
     /**
      * Return true if the millisecondOfSecond is the same
      */
     public static boolean isSameMillisecondOfSecond(@NotNull Date date, @NotNull Date target, @Nullable Locale locale) {
-        return isSameMillisecondOfSecond(createCalendar(date, locale), createCalendar(target, locale));
+        return isSameMillisecondOfSecond(date.getTime(), target.getTime(), locale);
     }
 
     /**
      * Return true if the millisecondOfSecond is the same
      */
     public static boolean isSameMillisecondOfSecond(@NotNull Date date, @NotNull Date target) {
-        return isSameMillisecondOfSecond(createCalendar(date), createCalendar(target));
+        return isSameMillisecondOfSecond(date.getTime(), target.getTime());
     }
 
 
@@ -1142,350 +1094,400 @@ public class Datex {
      * Return true if the year is the same
      */
     public static boolean isSameYear(long millisecondValue, long targetMillisecondValue, @Nullable Locale locale) {
-        return isSameYear(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
+        EpochCalendar calendar = epochCalendar(millisecondValue, targetMillisecondValue, locale);
+        return calendar != null ? calendar.isSamePeriod(millisecondValue, targetMillisecondValue, Calendar.YEAR)
+                : isSameYear(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
     }
 
     /**
      * Return true if the year is the same
      */
     public static boolean isSameYear(long millisecondValue, long targetMillisecondValue) {
-        return isSameYear(createCalendar(millisecondValue), createCalendar(targetMillisecondValue));
+        return isSameYear(millisecondValue, targetMillisecondValue, (Locale) null);
     }
 
     /**
      * Returns true if the year and month are the same
      */
     public static boolean isSameMonth(long millisecondValue, long targetMillisecondValue, @Nullable Locale locale) {
-        return isSameMonth(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
+        EpochCalendar calendar = epochCalendar(millisecondValue, targetMillisecondValue, locale);
+        return calendar != null ? calendar.isSamePeriod(millisecondValue, targetMillisecondValue, Calendar.MONTH)
+                : isSameMonth(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
     }
 
     /**
      * Returns true if the year and month are the same
      */
     public static boolean isSameMonth(long millisecondValue, long targetMillisecondValue) {
-        return isSameMonth(createCalendar(millisecondValue), createCalendar(targetMillisecondValue));
+        return isSameMonth(millisecondValue, targetMillisecondValue, (Locale) null);
     }
 
     /**
      * Return true if the months is the same
      */
     public static boolean isSameMonthOfYear(long millisecondValue, long targetMillisecondValue, @Nullable Locale locale) {
-        return isSameMonthOfYear(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
+        EpochCalendar calendar = epochCalendar(millisecondValue, targetMillisecondValue, locale);
+        return calendar != null ? calendar.get(millisecondValue, Calendar.MONTH) == calendar.get(targetMillisecondValue, Calendar.MONTH)
+                : isSameMonthOfYear(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
     }
 
     /**
      * Return true if the months is the same
      */
     public static boolean isSameMonthOfYear(long millisecondValue, long targetMillisecondValue) {
-        return isSameMonthOfYear(createCalendar(millisecondValue), createCalendar(targetMillisecondValue));
+        return isSameMonthOfYear(millisecondValue, targetMillisecondValue, (Locale) null);
     }
 
     /**
      * Returns true if the year, month, and week are the same
      */
     public static boolean isSameWeek(long millisecondValue, long targetMillisecondValue, int firstDayOfWeek, @Nullable Locale locale) {
-        return isSameWeek(createCalendar(millisecondValue, firstDayOfWeek, locale), createCalendar(targetMillisecondValue, firstDayOfWeek, locale));
+        EpochCalendar calendar = epochCalendar(millisecondValue, targetMillisecondValue, firstDayOfWeek, locale);
+        return calendar != null ? calendar.isSameWeek(millisecondValue, targetMillisecondValue)
+                : isSameWeek(createCalendar(millisecondValue, firstDayOfWeek, locale), createCalendar(targetMillisecondValue, firstDayOfWeek, locale));
     }
 
     /**
      * Returns true if the year, month, and week are the same
      */
     public static boolean isSameWeek(long millisecondValue, long targetMillisecondValue, int firstDayOfWeek) {
-        return isSameWeek(createCalendar(millisecondValue, firstDayOfWeek), createCalendar(targetMillisecondValue, firstDayOfWeek));
+        return isSameWeek(millisecondValue, targetMillisecondValue, firstDayOfWeek, null);
     }
 
     /**
      * Returns true if the year, month, and week are the same
      */
     public static boolean isSameWeek(long millisecondValue, long targetMillisecondValue, @Nullable Locale locale) {
-        return isSameWeek(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
+        EpochCalendar calendar = epochCalendar(millisecondValue, targetMillisecondValue, locale);
+        return calendar != null ? calendar.isSameWeek(millisecondValue, targetMillisecondValue)
+                : isSameWeek(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
     }
 
     /**
      * Returns true if the year, month, and week are the same
      */
     public static boolean isSameWeek(long millisecondValue, long targetMillisecondValue) {
-        return isSameWeek(createCalendar(millisecondValue), createCalendar(targetMillisecondValue));
+        return isSameWeek(millisecondValue, targetMillisecondValue, (Locale) null);
     }
 
     /**
      * Return true if the weekOfYear is the same
      */
     public static boolean isSameWeekOfYear(long millisecondValue, long targetMillisecondValue, int firstDayOfWeek, @Nullable Locale locale) {
-        return isSameWeekOfYear(createCalendar(millisecondValue, firstDayOfWeek, locale), createCalendar(targetMillisecondValue, firstDayOfWeek, locale));
+        EpochCalendar calendar = epochCalendar(millisecondValue, targetMillisecondValue, firstDayOfWeek, locale);
+        return calendar != null ? calendar.get(millisecondValue, Calendar.WEEK_OF_YEAR) == calendar.get(targetMillisecondValue, Calendar.WEEK_OF_YEAR)
+                : isSameWeekOfYear(createCalendar(millisecondValue, firstDayOfWeek, locale), createCalendar(targetMillisecondValue, firstDayOfWeek, locale));
     }
 
     /**
      * Return true if the weekOfYear is the same
      */
     public static boolean isSameWeekOfYear(long millisecondValue, long targetMillisecondValue, int firstDayOfWeek) {
-        return isSameWeekOfYear(createCalendar(millisecondValue, firstDayOfWeek), createCalendar(targetMillisecondValue, firstDayOfWeek));
+        return isSameWeekOfYear(millisecondValue, targetMillisecondValue, firstDayOfWeek, null);
     }
 
     /**
      * Return true if the weekOfYear is the same
      */
     public static boolean isSameWeekOfYear(long millisecondValue, long targetMillisecondValue, @Nullable Locale locale) {
-        return isSameWeekOfYear(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
+        EpochCalendar calendar = epochCalendar(millisecondValue, targetMillisecondValue, locale);
+        return calendar != null ? calendar.get(millisecondValue, Calendar.WEEK_OF_YEAR) == calendar.get(targetMillisecondValue, Calendar.WEEK_OF_YEAR)
+                : isSameWeekOfYear(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
     }
 
     /**
      * Return true if the weekOfYear is the same
      */
     public static boolean isSameWeekOfYear(long millisecondValue, long targetMillisecondValue) {
-        return isSameWeekOfYear(createCalendar(millisecondValue), createCalendar(targetMillisecondValue));
+        return isSameWeekOfYear(millisecondValue, targetMillisecondValue, (Locale) null);
     }
 
     /**
      * Return true if the weekOfMonth is the same
      */
     public static boolean isSameWeekOfMonth(long millisecondValue, long targetMillisecondValue, int firstDayOfWeek, @Nullable Locale locale) {
-        return isSameWeekOfMonth(createCalendar(millisecondValue, firstDayOfWeek, locale), createCalendar(targetMillisecondValue, firstDayOfWeek, locale));
+        EpochCalendar calendar = epochCalendar(millisecondValue, targetMillisecondValue, firstDayOfWeek, locale);
+        return calendar != null ? calendar.get(millisecondValue, Calendar.WEEK_OF_MONTH) == calendar.get(targetMillisecondValue, Calendar.WEEK_OF_MONTH)
+                : isSameWeekOfMonth(createCalendar(millisecondValue, firstDayOfWeek, locale), createCalendar(targetMillisecondValue, firstDayOfWeek, locale));
     }
 
     /**
      * Return true if the weekOfMonth is the same
      */
     public static boolean isSameWeekOfMonth(long millisecondValue, long targetMillisecondValue, int firstDayOfWeek) {
-        return isSameWeekOfMonth(createCalendar(millisecondValue, firstDayOfWeek), createCalendar(targetMillisecondValue, firstDayOfWeek));
+        return isSameWeekOfMonth(millisecondValue, targetMillisecondValue, firstDayOfWeek, null);
     }
 
     /**
      * Return true if the weekOfMonth is the same
      */
     public static boolean isSameWeekOfMonth(long millisecondValue, long targetMillisecondValue, @Nullable Locale locale) {
-        return isSameWeekOfMonth(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
+        EpochCalendar calendar = epochCalendar(millisecondValue, targetMillisecondValue, locale);
+        return calendar != null ? calendar.get(millisecondValue, Calendar.WEEK_OF_MONTH) == calendar.get(targetMillisecondValue, Calendar.WEEK_OF_MONTH)
+                : isSameWeekOfMonth(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
     }
 
     /**
      * Return true if the weekOfMonth is the same
      */
     public static boolean isSameWeekOfMonth(long millisecondValue, long targetMillisecondValue) {
-        return isSameWeekOfMonth(createCalendar(millisecondValue), createCalendar(targetMillisecondValue));
+        return isSameWeekOfMonth(millisecondValue, targetMillisecondValue, (Locale) null);
     }
 
     /**
      * Returns true if the year, month, week and day are the same
      */
     public static boolean isSameDay(long millisecondValue, long targetMillisecondValue, @Nullable Locale locale) {
-        return isSameDay(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
+        EpochCalendar calendar = epochCalendar(millisecondValue, targetMillisecondValue, locale);
+        return calendar != null ? calendar.isSamePeriod(millisecondValue, targetMillisecondValue, Calendar.DAY_OF_MONTH)
+                : isSameDay(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
     }
 
     /**
      * Returns true if the year, month, week and day are the same
      */
     public static boolean isSameDay(long millisecondValue, long targetMillisecondValue) {
-        return isSameDay(createCalendar(millisecondValue), createCalendar(targetMillisecondValue));
+        return isSameDay(millisecondValue, targetMillisecondValue, (Locale) null);
     }
 
     /**
      * Return true if the dayOfYear is the same
      */
     public static boolean isSameDayOfYear(long millisecondValue, long targetMillisecondValue, @Nullable Locale locale) {
-        return isSameDayOfYear(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
+        EpochCalendar calendar = epochCalendar(millisecondValue, targetMillisecondValue, locale);
+        return calendar != null ? calendar.get(millisecondValue, Calendar.DAY_OF_YEAR) == calendar.get(targetMillisecondValue, Calendar.DAY_OF_YEAR)
+                : isSameDayOfYear(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
     }
 
     /**
      * Return true if the dayOfYear is the same
      */
     public static boolean isSameDayOfYear(long millisecondValue, long targetMillisecondValue) {
-        return isSameDayOfYear(createCalendar(millisecondValue), createCalendar(targetMillisecondValue));
+        return isSameDayOfYear(millisecondValue, targetMillisecondValue, (Locale) null);
     }
 
     /**
      * Return true if the dayOfMonth is the same
      */
     public static boolean isSameDayOfMonth(long millisecondValue, long targetMillisecondValue, @Nullable Locale locale) {
-        return isSameDayOfMonth(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
+        EpochCalendar calendar = epochCalendar(millisecondValue, targetMillisecondValue, locale);
+        return calendar != null ? calendar.get(millisecondValue, Calendar.DAY_OF_MONTH) == calendar.get(targetMillisecondValue, Calendar.DAY_OF_MONTH)
+                : isSameDayOfMonth(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
     }
 
     /**
      * Return true if the dayOfMonth is the same
      */
     public static boolean isSameDayOfMonth(long millisecondValue, long targetMillisecondValue) {
-        return isSameDayOfMonth(createCalendar(millisecondValue), createCalendar(targetMillisecondValue));
+        return isSameDayOfMonth(millisecondValue, targetMillisecondValue, (Locale) null);
     }
 
     /**
      * Return true if the dayOfWeek is the same
      */
     public static boolean isSameDayOfWeek(long millisecondValue, long targetMillisecondValue, int firstDayOfWeek, @Nullable Locale locale) {
-        return isSameDayOfWeek(createCalendar(millisecondValue, firstDayOfWeek, locale), createCalendar(targetMillisecondValue, firstDayOfWeek, locale));
+        EpochCalendar calendar = epochCalendar(millisecondValue, targetMillisecondValue, firstDayOfWeek, locale);
+        return calendar != null ? calendar.get(millisecondValue, Calendar.DAY_OF_WEEK) == calendar.get(targetMillisecondValue, Calendar.DAY_OF_WEEK)
+                : isSameDayOfWeek(createCalendar(millisecondValue, firstDayOfWeek, locale), createCalendar(targetMillisecondValue, firstDayOfWeek, locale));
     }
 
     /**
      * Return true if the dayOfWeek is the same
      */
     public static boolean isSameDayOfWeek(long millisecondValue, long targetMillisecondValue, int firstDayOfWeek) {
-        return isSameDayOfWeek(createCalendar(millisecondValue, firstDayOfWeek), createCalendar(targetMillisecondValue, firstDayOfWeek));
+        return isSameDayOfWeek(millisecondValue, targetMillisecondValue, firstDayOfWeek, null);
     }
 
     /**
      * Return true if the dayOfWeek is the same
      */
     public static boolean isSameDayOfWeek(long millisecondValue, long targetMillisecondValue, @Nullable Locale locale) {
-        return isSameDayOfWeek(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
+        EpochCalendar calendar = epochCalendar(millisecondValue, targetMillisecondValue, locale);
+        return calendar != null ? calendar.get(millisecondValue, Calendar.DAY_OF_WEEK) == calendar.get(targetMillisecondValue, Calendar.DAY_OF_WEEK)
+                : isSameDayOfWeek(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
     }
 
     /**
      * Return true if the dayOfWeek is the same
      */
     public static boolean isSameDayOfWeek(long millisecondValue, long targetMillisecondValue) {
-        return isSameDayOfWeek(createCalendar(millisecondValue), createCalendar(targetMillisecondValue));
+        return isSameDayOfWeek(millisecondValue, targetMillisecondValue, (Locale) null);
     }
 
     /**
      * Return true if the dayOfWeekInMonth is the same
      */
     public static boolean isSameDayOfWeekInMonth(long millisecondValue, long targetMillisecondValue, int firstDayOfWeek, @Nullable Locale locale) {
-        return isSameDayOfWeekInMonth(createCalendar(millisecondValue, firstDayOfWeek, locale), createCalendar(targetMillisecondValue, firstDayOfWeek, locale));
+        EpochCalendar calendar = epochCalendar(millisecondValue, targetMillisecondValue, firstDayOfWeek, locale);
+        return calendar != null ? calendar.get(millisecondValue, Calendar.DAY_OF_WEEK_IN_MONTH) == calendar.get(targetMillisecondValue, Calendar.DAY_OF_WEEK_IN_MONTH)
+                : isSameDayOfWeekInMonth(createCalendar(millisecondValue, firstDayOfWeek, locale), createCalendar(targetMillisecondValue, firstDayOfWeek, locale));
     }
 
     /**
      * Return true if the dayOfWeekInMonth is the same
      */
     public static boolean isSameDayOfWeekInMonth(long millisecondValue, long targetMillisecondValue, int firstDayOfWeek) {
-        return isSameDayOfWeekInMonth(createCalendar(millisecondValue, firstDayOfWeek), createCalendar(targetMillisecondValue, firstDayOfWeek));
+        return isSameDayOfWeekInMonth(millisecondValue, targetMillisecondValue, firstDayOfWeek, null);
     }
 
     /**
      * Return true if the dayOfWeekInMonth is the same
      */
     public static boolean isSameDayOfWeekInMonth(long millisecondValue, long targetMillisecondValue, @Nullable Locale locale) {
-        return isSameDayOfWeekInMonth(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
+        EpochCalendar calendar = epochCalendar(millisecondValue, targetMillisecondValue, locale);
+        return calendar != null ? calendar.get(millisecondValue, Calendar.DAY_OF_WEEK_IN_MONTH) == calendar.get(targetMillisecondValue, Calendar.DAY_OF_WEEK_IN_MONTH)
+                : isSameDayOfWeekInMonth(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
     }
 
     /**
      * Return true if the dayOfWeekInMonth is the same
      */
     public static boolean isSameDayOfWeekInMonth(long millisecondValue, long targetMillisecondValue) {
-        return isSameDayOfWeekInMonth(createCalendar(millisecondValue), createCalendar(targetMillisecondValue));
+        return isSameDayOfWeekInMonth(millisecondValue, targetMillisecondValue, (Locale) null);
     }
 
     /**
      * Returns true if the year, month, week, day and hour are the same
      */
     public static boolean isSameHour(long millisecondValue, long targetMillisecondValue, @Nullable Locale locale) {
-        return isSameHour(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
+        EpochCalendar calendar = epochCalendar(millisecondValue, targetMillisecondValue, locale);
+        return calendar != null ? calendar.isSamePeriod(millisecondValue, targetMillisecondValue, Calendar.HOUR_OF_DAY)
+                : isSameHour(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
     }
 
     /**
      * Returns true if the year, month, week, day and hour are the same
      */
     public static boolean isSameHour(long millisecondValue, long targetMillisecondValue) {
-        return isSameHour(createCalendar(millisecondValue), createCalendar(targetMillisecondValue));
+        return isSameHour(millisecondValue, targetMillisecondValue, (Locale) null);
     }
 
     /**
      * Return true if the 24H hour is the same
      */
     public static boolean isSameHourOf24H(long millisecondValue, long targetMillisecondValue, @Nullable Locale locale) {
-        return isSameHourOf24H(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
+        EpochCalendar calendar = epochCalendar(millisecondValue, targetMillisecondValue, locale);
+        return calendar != null ? calendar.get(millisecondValue, Calendar.HOUR_OF_DAY) == calendar.get(targetMillisecondValue, Calendar.HOUR_OF_DAY)
+                : isSameHourOf24H(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
     }
 
     /**
      * Return true if the 24H hour is the same
      */
     public static boolean isSameHourOf24H(long millisecondValue, long targetMillisecondValue) {
-        return isSameHourOf24H(createCalendar(millisecondValue), createCalendar(targetMillisecondValue));
+        return isSameHourOf24H(millisecondValue, targetMillisecondValue, (Locale) null);
     }
 
     /**
      * Return true if the 12H hour is the same
      */
     public static boolean isSameHourOf12H(long millisecondValue, long targetMillisecondValue, @Nullable Locale locale) {
-        return isSameHourOf12H(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
+        EpochCalendar calendar = epochCalendar(millisecondValue, targetMillisecondValue, locale);
+        return calendar != null ? calendar.get(millisecondValue, Calendar.HOUR) == calendar.get(targetMillisecondValue, Calendar.HOUR)
+                : isSameHourOf12H(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
     }
 
     /**
      * Return true if the 12H hour is the same
      */
     public static boolean isSameHourOf12H(long millisecondValue, long targetMillisecondValue) {
-        return isSameHourOf12H(createCalendar(millisecondValue), createCalendar(targetMillisecondValue));
+        return isSameHourOf12H(millisecondValue, targetMillisecondValue, (Locale) null);
     }
 
     /**
      * Returns true if the year, month, week, day, hour and minute are the same
      */
     public static boolean isSameMinute(long millisecondValue, long targetMillisecondValue, @Nullable Locale locale) {
-        return isSameMinute(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
+        EpochCalendar calendar = epochCalendar(millisecondValue, targetMillisecondValue, locale);
+        return calendar != null ? calendar.isSamePeriod(millisecondValue, targetMillisecondValue, Calendar.MINUTE)
+                : isSameMinute(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
     }
 
     /**
      * Returns true if the year, month, week, day, hour and minute are the same
      */
     public static boolean isSameMinute(long millisecondValue, long targetMillisecondValue) {
-        return isSameMinute(createCalendar(millisecondValue), createCalendar(targetMillisecondValue));
+        return isSameMinute(millisecondValue, targetMillisecondValue, (Locale) null);
     }
 
     /**
      * Return true if the minuteOfHour is the same
      */
     public static boolean isSameMinuteOfHour(long millisecondValue, long targetMillisecondValue, @Nullable Locale locale) {
-        return isSameMinuteOfHour(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
+        EpochCalendar calendar = epochCalendar(millisecondValue, targetMillisecondValue, locale);
+        return calendar != null ? calendar.get(millisecondValue, Calendar.MINUTE) == calendar.get(targetMillisecondValue, Calendar.MINUTE)
+                : isSameMinuteOfHour(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
     }
 
     /**
      * Return true if the minuteOfHour is the same
      */
     public static boolean isSameMinuteOfHour(long millisecondValue, long targetMillisecondValue) {
-        return isSameMinuteOfHour(createCalendar(millisecondValue), createCalendar(targetMillisecondValue));
+        return isSameMinuteOfHour(millisecondValue, targetMillisecondValue, (Locale) null);
     }
 
     /**
      * Returns true if the year, month, week, day, hour, minute and second are the same
      */
     public static boolean isSameSecond(long millisecondValue, long targetMillisecondValue, @Nullable Locale locale) {
-        return isSameSecond(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
+        EpochCalendar calendar = epochCalendar(millisecondValue, targetMillisecondValue, locale);
+        return calendar != null ? calendar.isSamePeriod(millisecondValue, targetMillisecondValue, Calendar.SECOND)
+                : isSameSecond(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
     }
 
     /**
      * Returns true if the year, month, week, day, hour, minute and second are the same
      */
     public static boolean isSameSecond(long millisecondValue, long targetMillisecondValue) {
-        return isSameSecond(createCalendar(millisecondValue), createCalendar(targetMillisecondValue));
+        return isSameSecond(millisecondValue, targetMillisecondValue, (Locale) null);
     }
 
     /**
      * Return true if the secondOfMinute is the same
      */
     public static boolean isSameSecondOfMinute(long millisecondValue, long targetMillisecondValue, @Nullable Locale locale) {
-        return isSameSecondOfMinute(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
+        EpochCalendar calendar = epochCalendar(millisecondValue, targetMillisecondValue, locale);
+        return calendar != null ? calendar.get(millisecondValue, Calendar.SECOND) == calendar.get(targetMillisecondValue, Calendar.SECOND)
+                : isSameSecondOfMinute(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
     }
 
     /**
      * Return true if the secondOfMinute is the same
      */
     public static boolean isSameSecondOfMinute(long millisecondValue, long targetMillisecondValue) {
-        return isSameSecondOfMinute(createCalendar(millisecondValue), createCalendar(targetMillisecondValue));
+        return isSameSecondOfMinute(millisecondValue, targetMillisecondValue, (Locale) null);
     }
 
     /**
      * Returns true if the year, month, week, day, hour, minute, second and millisecond are the same
      */
     public static boolean isSameMillisecond(long millisecondValue, long targetMillisecondValue, @Nullable Locale locale) {
-        return isSameMillisecond(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
+        EpochCalendar calendar = epochCalendar(millisecondValue, targetMillisecondValue, locale);
+        return calendar != null ? calendar.isSamePeriod(millisecondValue, targetMillisecondValue, Calendar.MILLISECOND)
+                : isSameMillisecond(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
     }
 
     /**
      * Returns true if the year, month, week, day, hour, minute, second and millisecond are the same
      */
     public static boolean isSameMillisecond(long millisecondValue, long targetMillisecondValue) {
-        return isSameMillisecond(createCalendar(millisecondValue), createCalendar(targetMillisecondValue));
+        return isSameMillisecond(millisecondValue, targetMillisecondValue, (Locale) null);
     }
 
     /**
      * Return true if the millisecondOfSecond is the same
      */
     public static boolean isSameMillisecondOfSecond(long millisecondValue, long targetMillisecondValue, @Nullable Locale locale) {
-        return isSameMillisecondOfSecond(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
+        EpochCalendar calendar = epochCalendar(millisecondValue, targetMillisecondValue, locale);
+        return calendar != null ? calendar.get(millisecondValue, Calendar.MILLISECOND) == calendar.get(targetMillisecondValue, Calendar.MILLISECOND)
+                : isSameMillisecondOfSecond(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale));
     }
 
     /**
      * Return true if the millisecondOfSecond is the same
      */
     public static boolean isSameMillisecondOfSecond(long millisecondValue, long targetMillisecondValue) {
-        return isSameMillisecondOfSecond(createCalendar(millisecondValue), createCalendar(targetMillisecondValue));
+        return isSameMillisecondOfSecond(millisecondValue, targetMillisecondValue, (Locale) null);
     }
 
 
@@ -1512,34 +1514,42 @@ public class Datex {
      * Return true if the difference from the [target] does not exceed the [amount] specified calendar field
      */
     public static boolean differCalendarField(@NotNull Date date, @NotNull Date target, int field, int amount, int firstDayOfWeek, @Nullable Locale locale) {
-        return differField(createCalendar(date, firstDayOfWeek, locale), createCalendar(target, firstDayOfWeek, locale), field, amount);
+        return differCalendarField(date.getTime(), target.getTime(), field, amount, firstDayOfWeek, locale);
     }
 
     /**
      * Return true if the difference from the [target] does not exceed the [amount] specified calendar field
      */
     public static boolean differCalendarField(@NotNull Date date, @NotNull Date target, int field, int amount, int firstDayOfWeek) {
-        return differField(createCalendar(date, firstDayOfWeek), createCalendar(target, firstDayOfWeek), field, amount);
+        return differCalendarField(date.getTime(), target.getTime(), field, amount, firstDayOfWeek);
     }
 
     /**
      * Return true if the difference from the [target] does not exceed the [amount] specified calendar field
      */
     public static boolean differCalendarField(@NotNull Date date, @NotNull Date target, int field, int amount, @Nullable Locale locale) {
-        return differField(createCalendar(date, locale), createCalendar(target, locale), field, amount);
+        return differCalendarField(date.getTime(), target.getTime(), field, amount, locale);
     }
 
     /**
      * Return true if the difference from the [target] does not exceed the [amount] specified calendar field
      */
     public static boolean differCalendarField(@NotNull Date date, @NotNull Date target, int field, int amount) {
-        return differField(createCalendar(date), createCalendar(target), field, amount);
+        return differCalendarField(date.getTime(), target.getTime(), field, amount);
     }
 
     /**
      * Return true if the difference from the [target] does not exceed the [amount] specified calendar field
      */
     public static boolean differCalendarField(long millisecondValue, long targetMillisecondValue, int field, int amount, int firstDayOfWeek, @Nullable Locale locale) {
+        EpochCalendar calendar = amount != 0 ? epochCalendar(millisecondValue, targetMillisecondValue, firstDayOfWeek, locale) : null;
+        if (calendar != null) {
+            int finalAmount = millisecondValue < targetMillisecondValue ? Math.abs(amount) : Math.abs(amount) * -1;
+            long newTimeInMillis = calendar.add(millisecondValue, field, finalAmount);
+            if (newTimeInMillis != Long.MIN_VALUE) {
+                return finalAmount > 0 ? targetMillisecondValue <= newTimeInMillis : targetMillisecondValue >= newTimeInMillis;
+            }
+        }
         return differField(createCalendar(millisecondValue, firstDayOfWeek, locale), createCalendar(targetMillisecondValue, firstDayOfWeek, locale), field, amount);
     }
 
@@ -1547,13 +1557,21 @@ public class Datex {
      * Return true if the difference from the [target] does not exceed the [amount] specified calendar field
      */
     public static boolean differCalendarField(long millisecondValue, long targetMillisecondValue, int field, int amount, int firstDayOfWeek) {
-        return differField(createCalendar(millisecondValue, firstDayOfWeek), createCalendar(targetMillisecondValue, firstDayOfWeek), field, amount);
+        return differCalendarField(millisecondValue, targetMillisecondValue, field, amount, firstDayOfWeek, null);
     }
 
     /**
      * Return true if the difference from the [target] does not exceed the [amount] specified calendar field
      */
     public static boolean differCalendarField(long millisecondValue, long targetMillisecondValue, int field, int amount, @Nullable Locale locale) {
+        EpochCalendar calendar = amount != 0 ? epochCalendar(millisecondValue, targetMillisecondValue, locale) : null;
+        if (calendar != null) {
+            int finalAmount = millisecondValue < targetMillisecondValue ? Math.abs(amount) : Math.abs(amount) * -1;
+            long newTimeInMillis = calendar.add(millisecondValue, field, finalAmount);
+            if (newTimeInMillis != Long.MIN_VALUE) {
+                return finalAmount > 0 ? targetMillisecondValue <= newTimeInMillis : targetMillisecondValue >= newTimeInMillis;
+            }
+        }
         return differField(createCalendar(millisecondValue, locale), createCalendar(targetMillisecondValue, locale), field, amount);
     }
 
@@ -1561,6 +1579,6 @@ public class Datex {
      * Return true if the difference from the [target] does not exceed the [amount] specified calendar field
      */
     public static boolean differCalendarField(long millisecondValue, long targetMillisecondValue, int field, int amount) {
-        return differField(createCalendar(millisecondValue), createCalendar(targetMillisecondValue), field, amount);
+        return differCalendarField(millisecondValue, targetMillisecondValue, field, amount, (Locale) null);
     }
 }
\ No newline at end of file
@@ -0,0 +1,225 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.date;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.text.DecimalFormatSymbols;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * An immutable and thread-safe duration format compiled once from a [Datex.formatDuration] pattern,
+ * which produces the same text as [Datex.formatDuration] and appends it to a [StringBuilder] without intermediate strings.
+ * <p>
+ * Formats are obtained with [of] from a cache that keeps the most recently used patterns,
+ * callers that always use the same pattern can also keep the format themselves.
+ */
+public final class DurationFormat {
+
+    private static final int MAX_CACHE_SIZE = 128;
+    @NotNull
+    private static final Map<String, DurationFormat> CACHE = new LinkedHashMap<String, DurationFormat>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, DurationFormat> eldest) {
+            return size() > MAX_CACHE_SIZE;
+        }
+    };
+
+    private static final int DAY = 0;
+    private static final int HOUR = 1;
+    private static final int MINUTE = 2;
+    private static final int SECOND = 3;
+    private static final int MILLISECOND = 4;
+    private static final int UNIT_COUNT = 5;
+    @NotNull
+    private static final long[] UNIT_MILLIS = {24 * 60 * 60 * 1000L, 60 * 60 * 1000L, 60 * 1000L, 1000L, 1L};
+    @NotNull
+    private static final String[] PADDED_FORMATS = {"%02d", "%02d", "%02d", "%02d", "%03d"};
+
+    @Nullable
+    private static volatile ZeroDigit zeroDigit;
+
+    @NotNull
+    private final String pattern;
+    /**
+     * The text after the value of each unit, null if the unit is not in the pattern
+     */
+    @NotNull
+    private final String[] suffixes = new String[UNIT_COUNT];
+    @NotNull
+    private final boolean[] ignorable = new boolean[UNIT_COUNT];
+    @NotNull
+    private final boolean[] padded = new boolean[UNIT_COUNT];
+    /**
+     * The milliseconds of the next larger unit if the pattern has any larger unit, 0 otherwise
+     */
+    @NotNull
+    private final long[] moduli = new long[UNIT_COUNT];
+    /**
+     * The smallest unit in the pattern, which is written if all the units are ignored
+     */
+    private final int lastUnit;
+
+    private DurationFormat(@NotNull String pattern) {
+        this.pattern = pattern;
+        for (String item : pattern.split("%")) {
+            String lowerCaseItem = item.toLowerCase();
+            if (lowerCaseItem.startsWith("ms")) {
+                compileItem(item, MILLISECOND, 2, item.startsWith("MS"));
+            } else if (lowerCaseItem.startsWith("s")) {
+                compileItem(item, SECOND, 1, item.startsWith("S"));
+            } else if (lowerCaseItem.startsWith("m")) {
+                compileItem(item, MINUTE, 1, item.startsWith("M"));
+            } else if (lowerCaseItem.startsWith("h")) {
+                compileItem(item, HOUR, 1, item.startsWith("H"));
+            } else if (lowerCaseItem.startsWith("d")) {
+                compileItem(item, DAY, 1, item.startsWith("D"));
+            }
+        }
+
+        int lastUnit = -1;
+        for (int unit = 0; unit < UNIT_COUNT; unit++) {
+            if (suffixes[unit] != null) {
+                moduli[unit] = lastUnit != -1 ? UNIT_MILLIS[unit - 1] : 0;
+                lastUnit = unit;
+            }
+        }
+        if (lastUnit == -1) {
+            throw new IllegalArgumentException("Invalid pattern '" + pattern + "', for example：'%h:%m:%s'");
+        }
+        this.lastUnit = lastUnit;
+    }
+
+    private void compileItem(@NotNull String item, int unit, int letterCount, boolean pad) {
+        boolean allowIgnore = item.length() > letterCount && item.charAt(letterCount) == '?';
+        suffixes[unit] = item.substring(allowIgnore ? letterCount + 1 : letterCount);
+        ignorable[unit] = allowIgnore;
+        padded[unit] = pad;
+    }
+
+    /**
+     * Returns the format of [pattern] from the cache, compiling it if it isn't cached yet
+     *
+     * @param pattern the pattern described in [Datex.formatDuration]
+     * @throws IllegalArgumentException if [pattern] doesn't contain any unit
+     */
+    @NotNull
+    public static DurationFormat of(@NotNull String pattern) {
+        DurationFormat format;
+        synchronized (CACHE) {
+            format = CACHE.get(pattern);
+        }
+        if (format == null) {
+            format = new DurationFormat(pattern);
+            synchronized (CACHE) {
+                CACHE.put(pattern, format);
+            }
+        }
+        return format;
+    }
+
+
+    @NotNull
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Convert the duration in milliseconds to a formatted string, negative durations are formatted as 0
+     */
+    @NotNull
+    public String format(long duration) {
+        return format(duration, new StringBuilder(16)).toString();
+    }
+
+    /**
+     * Appends the formatted duration in milliseconds to [builder], negative durations are formatted as 0
+     *
+     * @return [builder]
+     */
+    @NotNull
+    public StringBuilder format(long duration, @NotNull StringBuilder builder) {
+        long remaining = Math.max(duration, 0);
+        int start = builder.length();
+        for (int unit = 0; unit < UNIT_COUNT; unit++) {
+            String suffix = suffixes[unit];
+            if (suffix != null) {
+                long value = (moduli[unit] != 0 ? remaining % moduli[unit] : remaining) / UNIT_MILLIS[unit];
+                if (value > 0 || !ignorable[unit]) {
+                    appendValue(builder, value, unit).append(suffix);
+                }
+            }
+        }
+        if (builder.length() == start) {
+            //noinspection ConstantConditions
+            appendValue(builder, 0, lastUnit).append(suffixes[lastUnit]);
+        }
+
+        // The text always starts with a digit, so only the end may need trimming
+        int end = builder.length();
+        while (end > start && builder.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        builder.setLength(end);
+        return builder;
+    }
+
+    @NotNull
+    private StringBuilder appendValue(@NotNull StringBuilder builder, long value, int unit) {
+        if (!padded[unit]) {
+            return builder.append(value);
+        }
+        if (zeroDigit() != '0') {
+            // String.format() writes the digits of the default locale
+            return builder.append(String.format(PADDED_FORMATS[unit], value));
+        }
+        for (long bound = unit == MILLISECOND ? 100 : 10; bound > value && bound > 1; bound /= 10) {
+            builder.append('0');
+        }
+        return builder.append(value);
+    }
+
+    private static char zeroDigit() {
+        Locale locale = Locale.getDefault();
+        ZeroDigit cached = zeroDigit;
+        if (cached == null || !cached.locale.equals(locale)) {
+            cached = new ZeroDigit(locale, DecimalFormatSymbols.getInstance(locale).getZeroDigit());
+            zeroDigit = cached;
+        }
+        return cached.zero;
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+        return "DurationFormat{pattern='" + pattern + "'}";
+    }
+
+    private static final class ZeroDigit {
+        @NotNull
+        private final Locale locale;
+        private final char zero;
+
+        private ZeroDigit(@NotNull Locale locale, char zero) {
+            this.locale = locale;
+            this.zero = zero;
+        }
+    }
+}
@@ -0,0 +1,456 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.date;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The calendar fields and calendar arithmetic of [GregorianCalendar] computed from epoch milliseconds and the offsets of the
+ * default time zone without creating [Calendar] objects.
+ * <p>
+ * Only locales whose calendar is the Gregorian calendar and dates from 1600 to 9999 are supported,
+ * [Datex] uses [Calendar] for everything else.
+ */
+final class EpochCalendar {
+
+    static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+    /**
+     * 1600-01-01T00:00:00Z, well after the Gregorian cutover of [GregorianCalendar] in 1582
+     */
+    static final long FIRST_MILLIS = -11676096000000L;
+    /**
+     * 9999-12-31T23:59:59.999Z, which keeps every intermediate value far from overflowing
+     */
+    static final long LAST_MILLIS = 253402300799999L;
+    /**
+     * 1901-01-01T00:00:00Z, the time zone data of the JDK starts in 1900, where [Calendar] and [TimeZone.getOffset] may disagree
+     */
+    private static final long FIRST_ZONE_DATA_MILLIS = -2177452800000L;
+    /**
+     * A local time is only converted without [Calendar] if the offset is the same this long before and after it
+     */
+    private static final long OFFSET_CHECK_RANGE = 6 * 60 * 60 * 1000L;
+
+    private static final int MAX_CACHE_SIZE = 64;
+    /**
+     * The `{firstDayOfWeek, minimalDaysInFirstWeek}` of locales, `{0, 0}` if the calendar of the locale is not the Gregorian calendar
+     */
+    @NotNull
+    private static final ConcurrentMap<Locale, int[]> WEEK_DATA = new ConcurrentHashMap<Locale, int[]>();
+
+    @NotNull
+    private final TimeZone timeZone;
+    private final int firstDayOfWeek;
+    private final int minimalDaysInFirstWeek;
+
+    private EpochCalendar(@NotNull TimeZone timeZone, int firstDayOfWeek, int minimalDaysInFirstWeek) {
+        this.timeZone = timeZone;
+        this.firstDayOfWeek = firstDayOfWeek;
+        this.minimalDaysInFirstWeek = minimalDaysInFirstWeek;
+    }
+
+    /**
+     * Returns the calendar of [locale] in the default time zone with [firstDayOfWeek] as the first day of the week,
+     * which is the same as [Datex.createCalendar]
+     *
+     * @param locale the default locale if null
+     * @return null if the calendar of [locale] is not the Gregorian calendar or [firstDayOfWeek] is not a day of the week
+     */
+    @Nullable
+    static EpochCalendar of(int firstDayOfWeek, @Nullable Locale locale) {
+        return firstDayOfWeek >= Calendar.SUNDAY && firstDayOfWeek <= Calendar.SATURDAY ? create(firstDayOfWeek, locale) : null;
+    }
+
+    /**
+     * Returns the calendar of [locale] in the default time zone, which is the same as [Datex.createCalendar]
+     *
+     * @param locale the default locale if null
+     * @return null if the calendar of [locale] is not the Gregorian calendar
+     */
+    @Nullable
+    static EpochCalendar of(@Nullable Locale locale) {
+        return create(0, locale);
+    }
+
+    @Nullable
+    private static EpochCalendar create(int firstDayOfWeek, @Nullable Locale locale) {
+        Locale finalLocale = locale != null ? locale : Locale.getDefault();
+        int[] weekData = WEEK_DATA.get(finalLocale);
+        if (weekData == null) {
+            Calendar calendar = Calendar.getInstance(finalLocale);
+            // The Buddhist and Japanese calendars extend GregorianCalendar but count years differently
+            weekData = calendar.getClass() == GregorianCalendar.class
+                    ? new int[]{calendar.getFirstDayOfWeek(), calendar.getMinimalDaysInFirstWeek()} : new int[]{0, 0};
+            if (WEEK_DATA.size() >= MAX_CACHE_SIZE) {
+                WEEK_DATA.clear();
+            }
+            WEEK_DATA.put(finalLocale, weekData);
+        }
+        if (weekData[0] == 0) {
+            return null;
+        }
+        return new EpochCalendar(TimeZone.getDefault(), firstDayOfWeek != 0 ? firstDayOfWeek : weekData[0], weekData[1]);
+    }
+
+    /**
+     * Returns true if [millisecondValue] is in the range of dates supported without [Calendar]
+     */
+    static boolean isInRange(long millisecondValue) {
+        return millisecondValue >= FIRST_MILLIS && millisecondValue <= LAST_MILLIS;
+    }
+
+    /**
+     * Returns true if [field] is a field that can be got without [Calendar], which are all the fields except the time zone fields
+     */
+    static boolean isSupportedField(int field) {
+        return field >= 0 && field < Calendar.ZONE_OFFSET;
+    }
+
+
+    /**
+     * Returns the value of [field] at [millisecondValue], the same as [Calendar.get]
+     *
+     * @throws IllegalArgumentException if [field] is not supported
+     */
+    int get(long millisecondValue, int field) {
+        long localMillis = millisecondValue + timeZone.getOffset(millisecondValue);
+        long epochDay = floorDiv(localMillis, MILLIS_PER_DAY);
+        int millisOfDay = (int) (localMillis - epochDay * MILLIS_PER_DAY);
+        switch (field) {
+            case Calendar.ERA:
+                return GregorianCalendar.AD;
+            case Calendar.AM_PM:
+                return millisOfDay < 12 * 60 * 60 * 1000 ? Calendar.AM : Calendar.PM;
+            case Calendar.HOUR:
+                return millisOfDay / 3600000 % 12;
+            case Calendar.HOUR_OF_DAY:
+                return millisOfDay / 3600000;
+            case Calendar.MINUTE:
+                return millisOfDay / 60000 % 60;
+            case Calendar.SECOND:
+                return millisOfDay / 1000 % 60;
+            case Calendar.MILLISECOND:
+                return millisOfDay % 1000;
+            case Calendar.DAY_OF_WEEK:
+                return dayOfWeek(epochDay);
+        }
+
+        long civil = civilFromDays(epochDay);
+        int year = yearOf(civil);
+        int dayOfMonth = dayOfMonthOf(civil);
+        switch (field) {
+            case Calendar.YEAR:
+                return year;
+            case Calendar.MONTH:
+                return monthOf(civil) - 1;
+            case Calendar.DAY_OF_MONTH:
+                return dayOfMonth;
+            case Calendar.DAY_OF_YEAR:
+                return (int) (epochDay - daysFromCivil(year, 1, 1)) + 1;
+            case Calendar.DAY_OF_WEEK_IN_MONTH:
+                return (dayOfMonth - 1) / 7 + 1;
+            case Calendar.WEEK_OF_MONTH:
+                return weekNumber(epochDay - dayOfMonth + 1, epochDay);
+            case Calendar.WEEK_OF_YEAR:
+                return weekOfYear(year, epochDay);
+            default:
+                throw new IllegalArgumentException("Unsupported field: " + field);
+        }
+    }
+
+    /**
+     * Returns true if all the fields from [Calendar.YEAR] down to [field] are the same at [millisecondValue] and [targetMillisecondValue]
+     *
+     * @param field one of [Calendar.YEAR], [Calendar.MONTH], [Calendar.DAY_OF_MONTH], [Calendar.HOUR_OF_DAY],
+     *              [Calendar.MINUTE], [Calendar.SECOND] and [Calendar.MILLISECOND]
+     */
+    boolean isSamePeriod(long millisecondValue, long targetMillisecondValue, int field) {
+        return periodOf(millisecondValue, field) == periodOf(targetMillisecondValue, field);
+    }
+
+    /**
+     * Returns the number of the year, month, day, hour, minute, second or millisecond of the local time of [millisecondValue]
+     */
+    private long periodOf(long millisecondValue, int field) {
+        long localMillis = millisecondValue + timeZone.getOffset(millisecondValue);
+        switch (field) {
+            case Calendar.YEAR:
+                return yearOf(civilFromDays(floorDiv(localMillis, MILLIS_PER_DAY)));
+            case Calendar.MONTH:
+                long civil = civilFromDays(floorDiv(localMillis, MILLIS_PER_DAY));
+                return yearOf(civil) * 12L + monthOf(civil);
+            case Calendar.DAY_OF_MONTH:
+                return floorDiv(localMillis, MILLIS_PER_DAY);
+            case Calendar.HOUR_OF_DAY:
+                return floorDiv(localMillis, 3600000);
+            case Calendar.MINUTE:
+                return floorDiv(localMillis, 60000);
+            case Calendar.SECOND:
+                return floorDiv(localMillis, 1000);
+            case Calendar.MILLISECOND:
+                return localMillis;
+            default:
+                throw new IllegalArgumentException("Unsupported field: " + field);
+        }
+    }
+
+    /**
+     * Returns true if the year and week are the same in the same way as [Datex.isSameWeek]
+     */
+    boolean isSameWeek(long millisecondValue, long targetMillisecondValue) {
+        if (get(millisecondValue, Calendar.YEAR) != get(targetMillisecondValue, Calendar.YEAR)) {
+            // The last days of a year and the first days of the next year may be in the same week
+            if (millisecondValue < targetMillisecondValue
+                    ? targetMillisecondValue > addDays(millisecondValue, 7, 0)
+                    : targetMillisecondValue < addDays(millisecondValue, -7, 0)) {
+                return false;
+            }
+        }
+        return get(millisecondValue, Calendar.WEEK_OF_YEAR) == get(targetMillisecondValue, Calendar.WEEK_OF_YEAR);
+    }
+
+
+    /**
+     * Adds [amount] to [field] of [millisecondValue] in the same way as [Calendar.add]
+     *
+     * @return [Long.MIN_VALUE] if the result has to be computed by [Calendar]
+     */
+    long add(long millisecondValue, int field, int amount) {
+        if (amount == 0) {
+            return millisecondValue;
+        }
+        long result;
+        switch (field) {
+            case Calendar.YEAR:
+                result = addMonths(millisecondValue, amount * 12L);
+                break;
+            case Calendar.MONTH:
+                result = addMonths(millisecondValue, amount);
+                break;
+            case Calendar.WEEK_OF_YEAR:
+            case Calendar.WEEK_OF_MONTH:
+            case Calendar.DAY_OF_WEEK_IN_MONTH:
+                result = addDays(millisecondValue, amount * 7L, 0);
+                break;
+            case Calendar.DAY_OF_MONTH:
+            case Calendar.DAY_OF_YEAR:
+            case Calendar.DAY_OF_WEEK:
+                result = addDays(millisecondValue, amount, 0);
+                break;
+            case Calendar.AM_PM:
+                result = addDays(millisecondValue, amount / 2, amount % 2 * 12 * 60 * 60 * 1000L);
+                break;
+            case Calendar.HOUR:
+            case Calendar.HOUR_OF_DAY:
+                result = millisecondValue + amount * 3600000L;
+                break;
+            case Calendar.MINUTE:
+                result = millisecondValue + amount * 60000L;
+                break;
+            case Calendar.SECOND:
+                result = millisecondValue + amount * 1000L;
+                break;
+            case Calendar.MILLISECOND:
+                result = millisecondValue + amount;
+                break;
+            default:
+                return Long.MIN_VALUE;
+        }
+        return isInRange(result) ? result : Long.MIN_VALUE;
+    }
+
+    /**
+     * Keeps the local time of day and pins the day of month to the last day of the new month
+     *
+     * @return [Long.MIN_VALUE] if the new local time is ambiguous or out of range
+     */
+    private long addMonths(long millisecondValue, long months) {
+        long localMillis = millisecondValue + timeZone.getOffset(millisecondValue);
+        long epochDay = floorDiv(localMillis, MILLIS_PER_DAY);
+        long civil = civilFromDays(epochDay);
+        long monthIndex = yearOf(civil) * 12L + monthOf(civil) - 1 + months;
+        long year = floorDiv(monthIndex, 12);
+        if (year < 1600 || year > 9999) {
+            return Long.MIN_VALUE;
+        }
+        int month = (int) floorMod(monthIndex, 12) + 1;
+        int dayOfMonth = Math.min(dayOfMonthOf(civil), lengthOfMonth((int) year, month));
+        return toEpochMillis(timeZone, daysFromCivil(year, month, dayOfMonth) * MILLIS_PER_DAY + (localMillis - epochDay * MILLIS_PER_DAY));
+    }
+
+    /**
+     * Keeps the local time of day like [GregorianCalendar.add], which takes the earlier time if the time zone offset
+     * changes and the local time doesn't exist or exists twice on the new day
+     */
+    private long addDays(long millisecondValue, long days, long timeOfDayDelta) {
+        int zoneOffset = timeZone.getOffset(millisecondValue);
+        long localMillis = millisecondValue + zoneOffset;
+        long epochDay = floorDiv(localMillis, MILLIS_PER_DAY);
+        long timeOfDay = localMillis - epochDay * MILLIS_PER_DAY + timeOfDayDelta;
+        if (timeOfDay >= MILLIS_PER_DAY) {
+            epochDay++;
+            timeOfDay -= MILLIS_PER_DAY;
+        } else if (timeOfDay < 0) {
+            epochDay--;
+            timeOfDay += MILLIS_PER_DAY;
+        }
+        epochDay += days;
+        long result = epochDay * MILLIS_PER_DAY + timeOfDay - zoneOffset;
+        int offsetChange = zoneOffset - timeZone.getOffset(result);
+        if (offsetChange != 0) {
+            long adjusted = result + offsetChange;
+            if (floorDiv(adjusted + timeZone.getOffset(adjusted), MILLIS_PER_DAY) == epochDay) {
+                result = adjusted;
+            }
+        }
+        return result;
+    }
+
+
+    private int weekOfYear(int year, long epochDay) {
+        long firstDay = daysFromCivil(year, 1, 1);
+        int weekOfYear = weekNumber(firstDay, epochDay);
+        if (weekOfYear == 0) {
+            // The first days of a year belong to the last week of the previous year
+            return weekNumber(daysFromCivil(year - 1, 1, 1), firstDay - 1);
+        } else if (weekOfYear >= 52) {
+            // The last days of a year may belong to the first week of the next year
+            long nextFirstDay = daysFromCivil(year + 1, 1, 1);
+            long nextFirstWeekStart = startOfWeek(nextFirstDay + 6);
+            if (nextFirstWeekStart - nextFirstDay >= minimalDaysInFirstWeek && epochDay >= nextFirstWeekStart - 7) {
+                return 1;
+            }
+        }
+        return weekOfYear;
+    }
+
+    /**
+     * Returns the number of the week of [epochDay] in the year or month starting on [firstDay], 0 if it's in the last week of the previous one
+     */
+    private int weekNumber(long firstDay, long epochDay) {
+        long firstWeekStart = startOfWeek(firstDay + 6);
+        if (firstWeekStart - firstDay >= minimalDaysInFirstWeek) {
+            firstWeekStart -= 7;
+        }
+        return (int) floorDiv(epochDay - firstWeekStart, 7) + 1;
+    }
+
+    /**
+     * Returns the first day of the week of [epochDay]
+     */
+    private long startOfWeek(long epochDay) {
+        return epochDay - floorMod(dayOfWeek(epochDay) - firstDayOfWeek, 7);
+    }
+
+
+    /**
+     * Converts local time to epoch milliseconds
+     *
+     * @return [Long.MIN_VALUE] if the local time is in or near a gap or an overlap of a time zone transition,
+     * or before the time zone data, where [Calendar] resolves the local time in its own way
+     */
+    static long toEpochMillis(@NotNull TimeZone timeZone, long localMillis) {
+        if (localMillis < FIRST_ZONE_DATA_MILLIS) {
+            return Long.MIN_VALUE;
+        }
+        long millis = localMillis - timeZone.getOffset(localMillis - timeZone.getRawOffset());
+        int zoneOffset = timeZone.getOffset(millis);
+        if (millis + zoneOffset != localMillis
+                || timeZone.getOffset(millis - OFFSET_CHECK_RANGE) != zoneOffset
+                || timeZone.getOffset(millis + OFFSET_CHECK_RANGE) != zoneOffset) {
+            return Long.MIN_VALUE;
+        }
+        return millis;
+    }
+
+    /**
+     * Returns the [Calendar.DAY_OF_WEEK] of [epochDay], 1970-01-01 is a Thursday
+     */
+    static int dayOfWeek(long epochDay) {
+        return (int) floorMod(epochDay + 4, 7) + 1;
+    }
+
+    /**
+     * Converts a date of the proleptic Gregorian calendar to the number of days since 1970-01-01
+     */
+    static long daysFromCivil(long year, int month, int dayOfMonth) {
+        long shiftedYear = month <= 2 ? year - 1 : year;
+        long era = floorDiv(shiftedYear, 400);
+        long yearOfEra = shiftedYear - era * 400;
+        long dayOfShiftedYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + dayOfMonth - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfShiftedYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * Converts the number of days since 1970-01-01 to a date of the proleptic Gregorian calendar,
+     * packed as `year << 9 | month << 5 | dayOfMonth` and read with [yearOf], [monthOf] and [dayOfMonthOf]
+     */
+    static long civilFromDays(long epochDay) {
+        // Years start in March so that the leap day is the last day of a year
+        long shiftedDay = epochDay + 719468;
+        long era = floorDiv(shiftedDay, 146097);
+        int dayOfEra = (int) (shiftedDay - era * 146097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfShiftedYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfShiftedYear + 2) / 153;
+        int dayOfMonth = dayOfShiftedYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = era * 400 + yearOfEra + (month <= 2 ? 1 : 0);
+        return year << 9 | month << 5 | dayOfMonth;
+    }
+
+    static int yearOf(long civil) {
+        return (int) (civil >> 9);
+    }
+
+    static int monthOf(long civil) {
+        return (int) (civil >> 5 & 15);
+    }
+
+    static int dayOfMonthOf(long civil) {
+        return (int) (civil & 31);
+    }
+
+    static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    static long floorDiv(long x, long y) {
+        long result = x / y;
+        return (x % y != 0 && ((x ^ y) < 0)) ? result - 1 : result;
+    }
+
+    static long floorMod(long x, long y) {
+        return x - floorDiv(x, y) * y;
+    }
+}
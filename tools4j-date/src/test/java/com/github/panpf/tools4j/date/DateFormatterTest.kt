@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.panpf.tools4j.date
+
+import org.junit.Assert
+import org.junit.Test
+import java.text.ParseException
+import java.text.SimpleDateFormat
+import java.util.*
+
+class DateFormatterTest {
+
+    @Test
+    fun testFormat() {
+        val patterns = arrayOf("yyyy-MM-dd HH:mm:ss SSS", "yyyyMMdd", "yy/M/d h:m:s a", "EEE, d MMM yyyy HH:mm:ss Z",
+                "EEEE MMMM dd k K D", "'It''s' HH 'o''clock'", "yyyy-MM-dd'T'HH:mm:ss.SSS z", "GGG yyyy ww")
+        val timeZones = arrayOf("UTC", "Asia/Shanghai", "America/New_York", "Asia/Kolkata")
+        val locales = arrayOf(Locale.US, Locale.CHINA, Locale.FRANCE, Locale("th", "TH", "TH"))
+        val random = Random(21)
+        val millisValues = (0 until 50).map { (random.nextDouble() * 4102444800000L).toLong() } +
+                listOf(0L, -12219292800000L - 1, 1710054000000L, 1710054000000L - 1)
+        for (pattern in patterns) {
+            for (timeZoneId in timeZones) {
+                for (locale in locales) {
+                    val timeZone = TimeZone.getTimeZone(timeZoneId)
+                    val simpleDateFormat = SimpleDateFormat(pattern, locale).apply { setTimeZone(timeZone) }
+                    val formatter = DateFormatter.of(pattern, locale, timeZone)
+                    for (millis in millisValues) {
+                        val expected = simpleDateFormat.format(Date(millis))
+                        Assert.assertEquals(expected, formatter.format(millis))
+                        Assert.assertEquals("> $expected", formatter.format(millis, StringBuilder("> ")).toString())
+                        val chars = CharArray(64)
+                        val end = formatter.format(millis, chars, 2)
+                        Assert.assertEquals(expected, String(chars, 2, end - 2))
+                        Assert.assertEquals(simpleDateFormat.parse(expected).time, formatter.parseMillis(expected))
+                    }
+                }
+            }
+        }
+
+        val formatter = DateFormatter.of("yyyy-MM-dd", Locale.US, TimeZone.getTimeZone("UTC"))
+        Assert.assertSame(formatter, DateFormatter.of("yyyy-MM-dd", Locale.US, TimeZone.getTimeZone("UTC")))
+        Assert.assertEquals("yyyy-MM-dd", formatter.pattern)
+        Assert.assertEquals("UTC", formatter.timeZone.id)
+
+        // Changing the zone passed to of() doesn't change the cached formatters
+        val mutableZone = SimpleTimeZone(0, "testMutableZone")
+        val zeroFormatter = DateFormatter.of("HH", Locale.US, mutableZone)
+        Assert.assertEquals("00", zeroFormatter.format(0L))
+        mutableZone.rawOffset = 60 * 60 * 1000
+        Assert.assertEquals("00", zeroFormatter.format(0L))
+        Assert.assertEquals("01", DateFormatter.of("HH", Locale.US, mutableZone).format(0L))
+        mutableZone.rawOffset = 0
+        Assert.assertSame(zeroFormatter, DateFormatter.of("HH", Locale.US, mutableZone))
+        try {
+            formatter.format(0L, CharArray(5), 0)
+            Assert.fail()
+        } catch (e: IndexOutOfBoundsException) {
+        }
+    }
+
+    @Test
+    fun testParse() {
+        val timeZone = TimeZone.getTimeZone("America/New_York")
+        val simpleDateFormat = SimpleDateFormat("yyyy-MM-dd HH:mm:ss SSS", Locale.US).apply { setTimeZone(timeZone) }
+        val formatter = DateFormatter.of("yyyy-MM-dd HH:mm:ss SSS", Locale.US, timeZone)
+        val texts = arrayOf("2024-05-06 07:08:09 010", "2024-02-30 10:00:00 000", "2024-13-01 00:00:00 000",
+                "2024-1-1 1:2:3 4", "2024-01-01 10:00:00 000xyz", "2024-03-10 02:30:00 000", "2024-11-03 01:30:00 000", "1850-01-01 00:00:00 000")
+        for (text in texts) {
+            Assert.assertEquals(text, simpleDateFormat.parse(text).time, formatter.parseMillis(text))
+        }
+        try {
+            formatter.parse("x2024")
+            Assert.fail()
+        } catch (e: ParseException) {
+        }
+    }
+}
@@ -482,4 +482,55 @@ class DatexTest {
         Assert.assertFalse(Datex.differCalendarField(Datex.toDate("2018-05-28 08:58:58 888", Datex.yMdHmsS).time, Datex.toDate("2018-05-28 08:58:58 896", Datex.yMdHmsS).time, Calendar.MILLISECOND, 7, Locale.getDefault()))
         Assert.assertFalse(Datex.differCalendarField(Datex.toDate("2018-05-28 08:58:58 888", Datex.yMdHmsS).time, Datex.toDate("2018-05-28 08:58:58 850", Datex.yMdHmsS).time, Calendar.MILLISECOND, 7))
     }
+
+    @Test
+    fun testCalendarFreeArithmetic() {
+        val defaultTimeZone = TimeZone.getDefault()
+        try {
+            val locales = arrayOf(Locale.US, Locale.FRANCE, Locale("th", "TH", "TH"), null)
+            for (timeZoneId in arrayOf("UTC", "Europe/Berlin", "America/Sao_Paulo", "Australia/Lord_Howe")) {
+                TimeZone.setDefault(TimeZone.getTimeZone(timeZoneId))
+                // Every 7 hours from 2019-12-20 to 2021-01-10, which covers the time zone transitions and the weeks of new year
+                var millis = 1576800000000L
+                while (millis < 1610236800000L) {
+                    val target = millis + 3 * 24 * 60 * 60 * 1000L - 1
+                    for (locale in locales) {
+                        for (firstDayOfWeek in Calendar.SUNDAY..Calendar.SATURDAY) {
+                            val calendar = Datex.createCalendar(millis, firstDayOfWeek, locale)
+                            val targetCalendar = Datex.createCalendar(target, firstDayOfWeek, locale)
+                            for (field in arrayOf(Calendar.YEAR, Calendar.MONTH, Calendar.WEEK_OF_YEAR, Calendar.WEEK_OF_MONTH, Calendar.DAY_OF_YEAR, Calendar.HOUR)) {
+                                Assert.assertEquals(calendar.get(field), Datex.getCalendarField(millis, field, firstDayOfWeek, locale))
+                            }
+                            Assert.assertEquals(Datex.isSameWeek(calendar, targetCalendar), Datex.isSameWeek(millis, target, firstDayOfWeek, locale))
+                            Assert.assertEquals(Datex.isSameWeekOfMonth(calendar, targetCalendar), Datex.isSameWeekOfMonth(millis, target, firstDayOfWeek, locale))
+                        }
+                        val calendar = Datex.createCalendar(millis, locale)
+                        val targetCalendar = Datex.createCalendar(target, locale)
+                        Assert.assertEquals(Datex.isSameDay(calendar, targetCalendar), Datex.isSameDay(millis, target, locale))
+                        Assert.assertEquals(Datex.isSameMonth(calendar, targetCalendar), Datex.isSameMonth(millis, target, locale))
+                        Assert.assertEquals(Datex.isSameHour(calendar, targetCalendar), Datex.isSameHour(millis, target, locale))
+                        for (field in arrayOf(Calendar.YEAR, Calendar.MONTH, Calendar.WEEK_OF_YEAR, Calendar.DAY_OF_MONTH, Calendar.AM_PM, Calendar.HOUR)) {
+                            for (amount in arrayOf(-13, -1, 1, 2, 31)) {
+                                Assert.assertEquals(Datex.addToDate(Datex.createCalendar(millis, locale), field, amount),
+                                        Datex.addCalendarField(millis, field, amount, locale))
+                                Assert.assertEquals(Datex.differField(Datex.createCalendar(millis, locale), Datex.createCalendar(target, locale), field, amount),
+                                        Datex.differCalendarField(millis, target, field, amount, locale))
+                            }
+                        }
+                    }
+                    millis += 7 * 60 * 60 * 1000L
+                }
+            }
+
+            // Dates before 1600 and after 9999 are computed by Calendar
+            TimeZone.setDefault(TimeZone.getTimeZone("UTC"))
+            Assert.assertEquals(Datex.createCalendar(-12219292800001L).get(Calendar.DAY_OF_MONTH), Datex.getCalendarField(-12219292800001L, Calendar.DAY_OF_MONTH))
+            Assert.assertEquals(Datex.addToDate(Datex.createCalendar(-12219292800001L), Calendar.DAY_OF_MONTH, 1),
+                    Datex.addCalendarField(-12219292800001L, Calendar.DAY_OF_MONTH, 1))
+            Assert.assertEquals(Datex.addToDate(Datex.createCalendar(253402300799999L), Calendar.YEAR, 1),
+                    Datex.addCalendarField(253402300799999L, Calendar.YEAR, 1))
+        } finally {
+            TimeZone.setDefault(defaultTimeZone)
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.panpf.tools4j.date
+
+import org.junit.Assert
+import org.junit.Test
+import java.util.*
+
+class DurationFormatTest {
+
+    @Test
+    fun testFormat() {
+        Assert.assertEquals("1h0m23s", DurationFormat.of("%hh%mm%ss").format(3623000))
+        Assert.assertEquals("1h23s", DurationFormat.of("%h?h%m?m%s?s").format(3623000))
+        Assert.assertEquals("1:18:4", DurationFormat.of("%h:%m:%s").format(4684000))
+        Assert.assertEquals("01:18:04", DurationFormat.of("%H:%M:%S").format(4684000))
+        Assert.assertEquals("1Day 1Hour 23Minute 23Second 467Millisecond",
+                DurationFormat.of("%dDay %hHour %mMinute %sSecond %msMillisecond").format(91403467))
+        Assert.assertEquals("1Day 23Minute 467", DurationFormat.of("%dDay %mMinute %ms").format(91403467))
+        Assert.assertEquals("25:23", DurationFormat.of("%h:%m").format(91403467))
+        Assert.assertEquals("005", DurationFormat.of("%S?:%MS").format(5))
+        Assert.assertEquals("0m", DurationFormat.of("%h?h %m?m").format(59999))
+        Assert.assertEquals("0", DurationFormat.of("%d?").format(-1000))
+        Assert.assertEquals("> 01:00", DurationFormat.of("%M:%S").format(60000, StringBuilder("> ")).toString())
+        Assert.assertEquals("> 01:00", Datex.formatDurationTo(60000, "%M:%S", StringBuilder("> ")).toString())
+
+        val format = DurationFormat.of("%H:%M:%S")
+        Assert.assertSame(format, DurationFormat.of("%H:%M:%S"))
+        Assert.assertEquals("%H:%M:%S", format.pattern)
+
+        try {
+            DurationFormat.of("%a:%b")
+            Assert.fail()
+        } catch (e: IllegalArgumentException) {
+        }
+    }
+
+    @Test
+    fun testLocaleDigits() {
+        val defaultLocale = Locale.getDefault()
+        try {
+            for (locale in arrayOf(Locale.US, Locale("ar", "EG"), Locale("th", "TH", "TH"))) {
+                Locale.setDefault(locale)
+                Assert.assertEquals(String.format("%02d:%02d:%03d", 1, 2, 3), DurationFormat.of("%M:%S:%MS").format(62003))
+            }
+        } finally {
+            Locale.setDefault(defaultLocale)
+        }
+    }
+}
@@ -18,9 +18,12 @@
 
 package com.github.panpf.tools4j.io.ktx
 
+import com.github.panpf.tools4j.common.Action
 import com.github.panpf.tools4j.io.Filex
 import com.github.panpf.tools4j.io.FilePathComponents
 import java.io.*
+import java.nio.charset.Charset
+import java.util.concurrent.ExecutorService
 
 
 /*
@@ -372,6 +375,33 @@ inline fun File.toComponents(): FilePathComponents = Filex.toComponents(this)
 inline fun File.subPath(beginIndex: Int, endIndex: Int): File = Filex.subPath(this, beginIndex, endIndex)
 
 
+/* ******************************************* traversing ****************************************** */
+
+
+/**
+ * Reads this file line by line using the specified [charset] and calls [action] for each line.
+ * The lines are found in the bytes and only decoded when their chars are asked for,
+ * the [CharSequence] is only valid during the call, call toString() on it to keep it.
+ *
+ * You may use this function on huge files.
+ */
+@Throws(IOException::class)
+inline fun File.scanLines(charset: Charset = Charsets.UTF_8, noinline action: (CharSequence) -> Unit) =
+        Filex.scanLines(this, charset, Action<CharSequence> { action(it) })
+
+/**
+ * Splits this file into chunks of [chunkSize] bytes and reads the lines of each chunk by its own task on the [executor],
+ * calls [action] for each line on the threads of the [executor]. Returns once all the lines have been processed.
+ * The [CharSequence] is only valid during the call, call toString() on it to keep it.
+ *
+ * You may use this function on huge files.
+ */
+@Throws(IOException::class)
+inline fun File.scanLines(executor: ExecutorService, charset: Charset = Charsets.UTF_8, chunkSize: Long = 1024 * 1024 * 8,
+                          noinline action: (CharSequence) -> Unit) =
+        Filex.scanLines(this, charset, executor, chunkSize, Action<CharSequence> { action(it) })
+
+
 /* ******************************************* inputStream ****************************************** */
 
 
@@ -18,9 +18,11 @@
 
 package com.github.panpf.tools4j.io.ktx
 
+import com.github.panpf.tools4j.common.Action
 import com.github.panpf.tools4j.io.CopyListener
 import com.github.panpf.tools4j.io.IOx
 import java.io.*
+import java.nio.charset.Charset
 
 
 /*
@@ -144,4 +146,15 @@ inline fun Reader.copyTo(out: Writer, bufferSize: Int, listener: CopyListener):
  */
 @Throws(IOException::class)
 inline fun Reader.copyTo(out: Writer, listener: CopyListener): Long =
-        IOx.copyTo(this, out, listener)
\ No newline at end of file
+        IOx.copyTo(this, out, listener)
+
+
+/**
+ * Iterates through each line of this input stream decoded with the specified [charset], calls [action] for each line read
+ * and closes the [InputStream] when it's completed.
+ * The lines are found in the bytes and only decoded when their chars are asked for,
+ * the [CharSequence] is only valid during the call, call toString() on it to keep it.
+ */
+@Throws(IOException::class)
+inline fun InputStream.scanLines(charset: Charset = Charsets.UTF_8, noinline action: (CharSequence) -> Unit) =
+        IOx.scanLines(this, charset, Action<CharSequence> { action(it) })
@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.io;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * List the files of a directory together with their attributes, used by the recursive methods of {@link Filex} and {@link FileTreeWalk}.
+ * <p>
+ * On Java 7 and later the directory is read with java.nio.file.DirectoryStream and the type, length and modified time of each file
+ * come from a single java.nio.file.attribute.BasicFileAttributes read, instead of a separate system call for each of
+ * {@link File#isDirectory()}, {@link File#isFile()} and {@link File#length()}.
+ * This library targets Java 6, so the NIO classes are accessed through reflection.
+ * On older runtimes {@link File#listFiles()} is used and the attributes are read when needed.
+ */
+class DirectoryReader {
+
+    @Nullable
+    private static final NioBackend NIO_BACKEND = NioBackend.create();
+
+    private DirectoryReader() {
+    }
+
+    /**
+     * Returns the files of the directory in the order of the file system like {@link File#listFiles()},
+     * or null if [dir] is not a directory or can't be read, as {@link File#listFiles()} does
+     */
+    @Nullable
+    static FileEntry[] read(@NotNull File dir) {
+        // An empty path is the working directory for NIO, but doesn't exist for File
+        if (NIO_BACKEND != null && dir.getPath().length() > 0) {
+            try {
+                return NIO_BACKEND.read(dir);
+            } catch (UnsupportedOperationException ignored) {
+                // The file system of the directory can't be read through NIO
+            }
+        }
+        return readPlain(dir);
+    }
+
+    /**
+     * Returns the same as {@link #read(File)} using only {@link File#listFiles()}, the attributes are read when needed
+     */
+    @Nullable
+    static FileEntry[] readPlain(@NotNull File dir) {
+        File[] files = dir.listFiles();
+        if (files == null) return null;
+        FileEntry[] entries = new FileEntry[files.length];
+        for (int i = 0; i < files.length; i++) {
+            entries[i] = new FileEntry(files[i]);
+        }
+        return entries;
+    }
+
+    /**
+     * Whether the directories are read through NIO on this runtime
+     */
+    static boolean isNioAvailable() {
+        return NIO_BACKEND != null;
+    }
+
+    /**
+     * The reflective access to java.nio.file, only created if all the classes and methods are found
+     */
+    private static class NioBackend {
+        @NotNull
+        private final Method toPathMethod;
+        @NotNull
+        private final Method newDirectoryStreamMethod;
+        @NotNull
+        private final Method getFileNameMethod;
+        @NotNull
+        private final Method readAttributesMethod;
+        @NotNull
+        private final Class<?> attributesClass;
+        @NotNull
+        private final Object noLinkOptions;
+        @NotNull
+        private final Method isDirectoryMethod;
+        @NotNull
+        private final Method isRegularFileMethod;
+        @NotNull
+        private final Method sizeMethod;
+        @NotNull
+        private final Method lastModifiedTimeMethod;
+        @NotNull
+        private final Method toMillisMethod;
+        @NotNull
+        private final Class<?> directoryIteratorExceptionClass;
+
+        private NioBackend() throws ClassNotFoundException, NoSuchMethodException {
+            Class<?> pathClass = Class.forName("java.nio.file.Path");
+            Class<?> filesClass = Class.forName("java.nio.file.Files");
+            Class<?> linkOptionClass = Class.forName("java.nio.file.LinkOption");
+            Class<?> linkOptionArrayClass = Array.newInstance(linkOptionClass, 0).getClass();
+            attributesClass = Class.forName("java.nio.file.attribute.BasicFileAttributes");
+            Class<?> fileTimeClass = Class.forName("java.nio.file.attribute.FileTime");
+
+            toPathMethod = File.class.getMethod("toPath");
+            newDirectoryStreamMethod = filesClass.getMethod("newDirectoryStream", pathClass);
+            getFileNameMethod = pathClass.getMethod("getFileName");
+            readAttributesMethod = filesClass.getMethod("readAttributes", pathClass, Class.class, linkOptionArrayClass);
+            // No link options, symbolic links are followed like File does
+            noLinkOptions = Array.newInstance(linkOptionClass, 0);
+            isDirectoryMethod = attributesClass.getMethod("isDirectory");
+            isRegularFileMethod = attributesClass.getMethod("isRegularFile");
+            sizeMethod = attributesClass.getMethod("size");
+            lastModifiedTimeMethod = attributesClass.getMethod("lastModifiedTime");
+            toMillisMethod = fileTimeClass.getMethod("toMillis");
+            directoryIteratorExceptionClass = Class.forName("java.nio.file.DirectoryIteratorException");
+        }
+
+        @Nullable
+        static NioBackend create() {
+            try {
+                return new NioBackend();
+            } catch (ClassNotFoundException e) {
+                return null;
+            } catch (NoSuchMethodException e) {
+                return null;
+            } catch (LinkageError e) {
+                return null;
+            }
+        }
+
+        /**
+         * @throws UnsupportedOperationException The directory can't be read through NIO, such as a path that is not valid for NIO
+         */
+        @Nullable
+        FileEntry[] read(@NotNull File dir) {
+            Object stream;
+            try {
+                stream = newDirectoryStreamMethod.invoke(null, toPathMethod.invoke(dir));
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof IOException) {
+                    // Not a directory, doesn't exist or can't be read
+                    return null;
+                }
+                throw unsupported(e.getCause());
+            } catch (IllegalAccessException e) {
+                throw unsupported(e);
+            }
+
+            List<FileEntry> entries = new ArrayList<FileEntry>();
+            try {
+                for (Object path : (Iterable<?>) stream) {
+                    String name = getFileNameMethod.invoke(path).toString();
+                    entries.add(readEntry(new File(dir, name), path));
+                }
+            } catch (RuntimeException e) {
+                if (directoryIteratorExceptionClass.isInstance(e)) {
+                    // The directory failed while being read
+                    return null;
+                }
+                throw e;
+            } catch (InvocationTargetException e) {
+                throw unsupported(e.getCause());
+            } catch (IllegalAccessException e) {
+                throw unsupported(e);
+            } finally {
+                IOx.closeQuietly((Closeable) stream);
+            }
+            return entries.toArray(new FileEntry[entries.size()]);
+        }
+
+        @NotNull
+        private FileEntry readEntry(@NotNull File file, @NotNull Object path) throws InvocationTargetException, IllegalAccessException {
+            Object attributes;
+            try {
+                attributes = readAttributesMethod.invoke(null, path, attributesClass, noLinkOptions);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof IOException) {
+                    // Deleted after being listed, a broken link or not accessible, File#exists() returns false for them too
+                    return new FileEntry(file, false, false, false, 0, 0);
+                }
+                throw e;
+            }
+            boolean directory = (Boolean) isDirectoryMethod.invoke(attributes);
+            boolean regularFile = (Boolean) isRegularFileMethod.invoke(attributes);
+            long length = (Long) sizeMethod.invoke(attributes);
+            long lastModified = (Long) toMillisMethod.invoke(lastModifiedTimeMethod.invoke(attributes));
+            return new FileEntry(file, true, directory, regularFile, length, lastModified);
+        }
+
+        @NotNull
+        private static UnsupportedOperationException unsupported(@Nullable Throwable cause) {
+            UnsupportedOperationException exception = new UnsupportedOperationException("Cannot read directory through NIO");
+            exception.initCause(cause);
+            return exception;
+        }
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.io;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Copy files through their {@link FileChannel}, the implementation of the copy methods of {@link Filex}.
+ * <p>
+ * The content is copied by {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}, which lets the operating system
+ * copy the bytes without passing them through the Java heap, and on recent JDKs and file systems even share the blocks of the source.
+ * <p>
+ * When copying recursively with an {@link ExecutorService} the tree is still walked, the directories created and the conflicts resolved on the calling thread,
+ * in the same order as the serial copy, only the files are copied concurrently on the executor.
+ */
+class FileCopier {
+
+    /**
+     * The granularity of {@link CopyListener#onUpdateProgress(long)} and {@link CopyListener#isCanceled()}
+     */
+    private static final long PROGRESS_STEP = 1024 * 1024;
+    /**
+     * The most bytes transferred by one call, some platforms can't transfer more than 2 GB at once
+     */
+    private static final long MAX_TRANSFER_SIZE = 1024 * 1024 * 64;
+    /**
+     * The most file copies waiting on the executor, so that walking a huge tree doesn't queue all its files at once
+     */
+    private static final int MAX_PENDING = 1024;
+
+    private FileCopier() {
+    }
+
+    /**
+     * Copy the content of the file, the parent directory of the [target] must exist.
+     * If the listener cancels, the partially copied [target] is deleted
+     *
+     * @param bufferSize the buffer size of the stream copy of what the file channels can't transfer
+     * @return The number of bytes copied
+     */
+    static long copyFile(@NotNull File source, @NotNull File target, int bufferSize, @Nullable CopyListener listener) throws IOException {
+        long copied = 0;
+        boolean canceled = false;
+        FileInputStream inputStream = new FileInputStream(source);
+        try {
+            FileOutputStream outputStream = new FileOutputStream(target);
+            try {
+                FileChannel sourceChannel = inputStream.getChannel();
+                FileChannel targetChannel = outputStream.getChannel();
+                long size = sourceChannel.size();
+                long step = listener != null ? PROGRESS_STEP : MAX_TRANSFER_SIZE;
+                while (copied < size) {
+                    if (listener != null && listener.isCanceled()) {
+                        canceled = true;
+                        break;
+                    }
+                    long transferred = sourceChannel.transferTo(copied, Math.min(step, size - copied), targetChannel);
+                    if (transferred <= 0) break;
+                    copied += transferred;
+                    if (listener != null && !listener.isCanceled()) {
+                        listener.onUpdateProgress(copied);
+                    }
+                }
+                if (!canceled) {
+                    // Copy what's left as before, for files that shrank or grew, or whose size is not known like some files in /proc
+                    sourceChannel.position(copied);
+                    copied += IOx.copyTo(inputStream, outputStream, bufferSize, new OffsetListener(listener, copied));
+                    canceled = listener != null && listener.isCanceled();
+                }
+            } finally {
+                outputStream.close();
+            }
+        } finally {
+            inputStream.close();
+        }
+        if (canceled) {
+            //noinspection ResultOfMethodCallIgnored
+            target.delete();
+        }
+        return copied;
+    }
+
+    /**
+     * The implementation of {@link Filex#copyRecursively(File, File, boolean, OnError, ExecutorService, CopyListener)}
+     */
+    static boolean copyRecursively(@NotNull File source, @NotNull File target, final boolean overwrite, @NotNull final OnError onError,
+                                   @Nullable ExecutorService executor, @Nullable CopyListener listener) throws IOException {
+        if (!source.exists()) {
+            return onError.onError(source, new NoSuchFileException(source, null, "The source file doesn't exist.")) != OnErrorAction.TERMINATE;
+        }
+        final ProgressAggregator progress = listener != null ? new ProgressAggregator(listener) : null;
+        final AtomicBoolean stopped = new AtomicBoolean();
+        Queue<PendingCopy> pendingCopies = new LinkedList<PendingCopy>();
+        try {
+            // We cannot break for loop from inside a lambda, so we have to use an exception here
+            FileTreeWalk fileTreeWalk = Filex.walkTopDown(source).onFail(new OnFailed() {
+                @Override
+                public void onError(@NotNull File file, @NotNull IOException e) throws IOException {
+                    if (onError.onError(file, e) == OnErrorAction.TERMINATE) {
+                        throw new TerminateException(file);
+                    }
+                }
+            });
+            for (File src : fileTreeWalk) {
+                if (progress != null && progress.isCanceled()) {
+                    return false;
+                }
+                if (!src.exists()) {
+                    if (onError.onError(src, new NoSuchFileException(src, null, "The source file doesn't exist.")) == OnErrorAction.TERMINATE) {
+                        return false;
+                    }
+                } else {
+                    String relPath = Filex.toRelativeString(src, source);
+                    final File dstFile = new File(target, relPath);
+                    if (dstFile.exists() && !(src.isDirectory() && dstFile.isDirectory())) {
+                        boolean stillExists;
+                        if (!overwrite) {
+                            stillExists = true;
+                        } else {
+                            if (dstFile.isDirectory()) {
+                                stillExists = !Filex.deleteRecursively(dstFile);
+                            } else {
+                                stillExists = !dstFile.delete();
+                            }
+                        }
+
+                        if (stillExists) {
+                            if (onError.onError(dstFile, new FileAlreadyExistsException(src, dstFile, "The destination file already exists.")) == OnErrorAction.TERMINATE) {
+                                return false;
+                            }
+
+                            continue;
+                        }
+                    }
+
+                    if (src.isDirectory()) {
+                        //noinspection ResultOfMethodCallIgnored
+                        dstFile.mkdirs();
+                    } else if (executor == null) {
+                        long length = Filex.copyTo(src, dstFile, overwrite, progress != null ? progress.forFile() : null).length();
+                        if (progress != null && progress.isCanceled()) {
+                            return false;
+                        }
+                        if (length != src.length()) {
+                            if (onError.onError(src, new IOException("Source file wasn't copied completely, length of destination file differs.")) == OnErrorAction.TERMINATE) {
+                                return false;
+                            }
+                        }
+                    } else {
+                        final File finalSrc = src;
+                        Future<Long> future = executor.submit(new Callable<Long>() {
+                            @Override
+                            public Long call() throws IOException {
+                                if (stopped.get()) return -1L;
+                                return Filex.copyTo(finalSrc, dstFile, overwrite, progress != null ? progress.forFile() : null).length();
+                            }
+                        });
+                        pendingCopies.add(new PendingCopy(src, future));
+                        // Report the failures of the finished copies as early as possible, and don't queue too many copies
+                        while (!pendingCopies.isEmpty() && (pendingCopies.size() > MAX_PENDING || pendingCopies.peek().future.isDone())) {
+                            if (!finish(pendingCopies.poll(), onError, progress)) {
+                                return false;
+                            }
+                        }
+                    }
+                }
+            }
+            while (!pendingCopies.isEmpty()) {
+                if (!finish(pendingCopies.poll(), onError, progress)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (TerminateException e) {
+            return false;
+        } finally {
+            if (!pendingCopies.isEmpty()) {
+                // No file is copied any more after returning
+                stopped.set(true);
+                awaitQuietly(pendingCopies);
+            }
+        }
+    }
+
+    /**
+     * Wait for the copy and check it as the serial copy does
+     *
+     * @return false if the copying should be terminated
+     */
+    private static boolean finish(@NotNull PendingCopy pendingCopy, @NotNull OnError onError, @Nullable ProgressAggregator progress) throws IOException {
+        long length;
+        try {
+            length = pendingCopy.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException exception = new InterruptedIOException("Interrupted while waiting for file copy");
+            exception.initCause(e);
+            throw exception;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new IOException(cause != null ? cause.toString() : e.toString());
+            }
+        }
+        if (progress != null && progress.isCanceled()) {
+            return false;
+        }
+        if (length != pendingCopy.source.length()) {
+            return onError.onError(pendingCopy.source, new IOException("Source file wasn't copied completely, length of destination file differs.")) != OnErrorAction.TERMINATE;
+        }
+        return true;
+    }
+
+    private static void awaitQuietly(@NotNull Queue<PendingCopy> pendingCopies) {
+        boolean interrupted = false;
+        for (PendingCopy pendingCopy : pendingCopies) {
+            while (true) {
+                try {
+                    pendingCopy.future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    break;
+                } catch (CancellationException e) {
+                    break;
+                }
+            }
+        }
+        pendingCopies.clear();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class PendingCopy {
+        @NotNull
+        private final File source;
+        @NotNull
+        private final Future<Long> future;
+
+        private PendingCopy(@NotNull File source, @NotNull Future<Long> future) {
+            this.source = source;
+            this.future = future;
+        }
+    }
+
+    /**
+     * Reports the progress of the stream copy that continues after [offset] bytes
+     */
+    private static class OffsetListener implements CopyListener {
+        @Nullable
+        private final CopyListener listener;
+        private final long offset;
+
+        private OffsetListener(@Nullable CopyListener listener, long offset) {
+            this.listener = listener;
+            this.offset = offset;
+        }
+
+        @Override
+        public void onUpdateProgress(long completedLength) {
+            if (listener != null) listener.onUpdateProgress(offset + completedLength);
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return listener != null && listener.isCanceled();
+        }
+    }
+
+    /**
+     * Adds up the progress of all the copied files. The listener is called by one thread at a time with the total number of bytes copied
+     */
+    private static class ProgressAggregator {
+        @NotNull
+        private final CopyListener listener;
+        @NotNull
+        private final AtomicLong completedLength = new AtomicLong();
+        private volatile boolean canceled;
+
+        private ProgressAggregator(@NotNull CopyListener listener) {
+            this.listener = listener;
+        }
+
+        private boolean isCanceled() {
+            if (!canceled) {
+                synchronized (this) {
+                    if (!canceled && listener.isCanceled()) canceled = true;
+                }
+            }
+            return canceled;
+        }
+
+        private synchronized void advance(long length) {
+            if (!canceled) {
+                listener.onUpdateProgress(completedLength.addAndGet(length));
+            }
+        }
+
+        @NotNull
+        private CopyListener forFile() {
+            return new CopyListener() {
+                private long fileCompletedLength;
+
+                @Override
+                public void onUpdateProgress(long completedLength) {
+                    long length = completedLength - fileCompletedLength;
+                    fileCompletedLength = completedLength;
+                    advance(length);
+                }
+
+                @Override
+                public boolean isCanceled() {
+                    return ProgressAggregator.this.isCanceled();
+                }
+            };
+        }
+    }
+}
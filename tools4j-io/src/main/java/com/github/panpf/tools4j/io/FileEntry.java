@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+
+/**
+ * A file listed by {@link DirectoryReader} together with its attributes.
+ * <p>
+ * If the attributes were read with the listing they are returned directly,
+ * otherwise each of them is read from the {@link File} the first time it is asked for and then kept.
+ * The attributes follow symbolic links like {@link File} does, they are not updated if the file changes afterwards.
+ */
+class FileEntry {
+
+    private static final int UNKNOWN = 0;
+    private static final int NO = 1;
+    private static final int YES = 2;
+
+    @NotNull
+    final File file;
+    private int exists;
+    private int directory;
+    private int regularFile;
+    private long length = -1;
+    private long lastModified = -1;
+
+    /**
+     * The attributes are read from the [file] when needed
+     */
+    FileEntry(@NotNull File file) {
+        this.file = file;
+    }
+
+    /**
+     * The attributes are already known
+     */
+    FileEntry(@NotNull File file, boolean exists, boolean directory, boolean regularFile, long length, long lastModified) {
+        this.file = file;
+        this.exists = exists ? YES : NO;
+        this.directory = directory ? YES : NO;
+        this.regularFile = regularFile ? YES : NO;
+        this.length = length;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Same as {@link File#exists()}
+     */
+    boolean exists() {
+        if (exists == UNKNOWN) {
+            // Most files are regular files or directories, whose check already tells that they exist
+            exists = isRegularFile() || isDirectory() || file.exists() ? YES : NO;
+        }
+        return exists == YES;
+    }
+
+    /**
+     * Same as {@link File#isDirectory()}
+     */
+    boolean isDirectory() {
+        if (directory == UNKNOWN) {
+            directory = file.isDirectory() ? YES : NO;
+        }
+        return directory == YES;
+    }
+
+    /**
+     * Same as {@link File#isFile()}
+     */
+    boolean isRegularFile() {
+        if (regularFile == UNKNOWN) {
+            regularFile = file.isFile() ? YES : NO;
+        }
+        return regularFile == YES;
+    }
+
+    /**
+     * Same as {@link File#length()}
+     */
+    long length() {
+        if (length == -1) {
+            length = file.length();
+        }
+        return length;
+    }
+
+    /**
+     * Same as {@link File#lastModified()}
+     */
+    long lastModified() {
+        if (lastModified == -1) {
+            lastModified = file.lastModified();
+        }
+        return lastModified;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.io;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Lists the directories ahead of an ordered {@link FileTreeWalk} on an {@link ExecutorService}.
+ * <p>
+ * When the walk gets the file list of a directory, the listing of each of its sub-directories is submitted to the executor,
+ * together with the attributes of their files. The walk still visits the files in its own order on its own thread,
+ * it only finds the results ready. At most {@link #MAX_PREFETCHED} listings are fetched ahead, the others are listed on the walking thread.
+ * <p>
+ * Only used by the walking thread.
+ */
+class FileListPrefetcher {
+
+    private static final int MAX_PREFETCHED = 1024;
+
+    @NotNull
+    private final ExecutorService executor;
+    private final int maxDepth;
+    @NotNull
+    private final Map<File, Future<Listing>> prefetched = new HashMap<File, Future<Listing>>();
+
+    FileListPrefetcher(@NotNull ExecutorService executor, int maxDepth) {
+        this.executor = executor;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Returns the same as {@link DirectoryReader#read(File)}
+     *
+     * @param depth The depth of the directory, 0 for the start directory
+     */
+    @Nullable
+    FileEntry[] listFiles(@NotNull File dir, int depth) {
+        Future<Listing> future = prefetched.remove(dir);
+        Listing listing = future != null ? await(future) : null;
+        if (listing == null) {
+            listing = new Listing(DirectoryReader.read(dir));
+        }
+
+        FileEntry[] entries = listing.entries;
+        if (entries != null && depth + 1 < maxDepth) {
+            for (FileEntry entry : entries) {
+                if (entry.isDirectory() && prefetched.size() < MAX_PREFETCHED) {
+                    prefetched.put(entry.file, executor.submit(new ListTask(entry.file)));
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * The walk doesn't enter the directory, so its listing is not needed any more
+     */
+    void discard(@NotNull File dir) {
+        Future<Listing> future = prefetched.remove(dir);
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * Returns null if the listing failed, then the directory is listed again on the walking thread
+     */
+    @Nullable
+    private static Listing await(@NotNull Future<Listing> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        } catch (CancellationException e) {
+            return null;
+        }
+    }
+
+    private static class ListTask implements Callable<Listing> {
+        @NotNull
+        private final File dir;
+
+        private ListTask(@NotNull File dir) {
+            this.dir = dir;
+        }
+
+        @NotNull
+        @Override
+        public Listing call() {
+            FileEntry[] entries = DirectoryReader.read(dir);
+            if (entries != null) {
+                for (FileEntry entry : entries) {
+                    // Read ahead too if the attributes were not read with the listing
+                    entry.isDirectory();
+                }
+            }
+            return new Listing(entries);
+        }
+    }
+
+    private static class Listing {
+        @Nullable
+        private final FileEntry[] entries;
+
+        private Listing(@Nullable FileEntry[] entries) {
+            this.entries = entries;
+        }
+    }
+}
@@ -26,6 +26,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.Stack;
+import java.util.concurrent.ExecutorService;
 
 /**
  * This class is intended to implement different file traversal methods.
@@ -49,14 +50,24 @@ public class FileTreeWalk implements Iterable<File> {
     @Nullable
     private OnFailed onFail;
     private int maxDepth = Integer.MAX_VALUE;
+    @Nullable
+    private ExecutorService executor;
+    private boolean ordered = true;
 
-    public FileTreeWalk(@NotNull File start, @NotNull FileWalkDirection direction, @Nullable Transformer<File, Boolean> onEnter, @Nullable Action<File> onLeave, @Nullable OnFailed onFail, int maxDepth) {
+    public FileTreeWalk(@NotNull File start, @NotNull FileWalkDirection direction, @Nullable Transformer<File, Boolean> onEnter, @Nullable Action<File> onLeave,
+                        @Nullable OnFailed onFail, int maxDepth, @Nullable ExecutorService executor, boolean ordered) {
         this.start = start;
         this.direction = direction;
         this.onEnter = onEnter;
         this.onLeave = onLeave;
         this.onFail = onFail;
         this.maxDepth = maxDepth;
+        this.executor = executor;
+        this.ordered = ordered;
+    }
+
+    public FileTreeWalk(@NotNull File start, @NotNull FileWalkDirection direction, @Nullable Transformer<File, Boolean> onEnter, @Nullable Action<File> onLeave, @Nullable OnFailed onFail, int maxDepth) {
+        this(start, direction, onEnter, onLeave, onFail, maxDepth, null, true);
     }
 
     public FileTreeWalk(@NotNull File start, @NotNull FileWalkDirection direction) {
@@ -70,6 +81,9 @@ public class FileTreeWalk implements Iterable<File> {
     @NotNull
     @Override
     public Iterator<File> iterator() {
+        if (executor != null && !ordered) {
+            return new UnorderedFileTreeWalkIterator(start, executor, onEnter, onLeave, onFail, maxDepth);
+        }
         return new FileTreeWalkIterator();
     }
 
@@ -88,7 +102,7 @@ public class FileTreeWalk implements Iterable<File> {
          * Call of this function proceeds to a next file for visiting and returns it
          */
         @Nullable
-        public abstract File step();
+        public abstract FileEntry step();
     }
 
     /**
@@ -105,6 +119,8 @@ public class FileTreeWalk implements Iterable<File> {
 
         // Stack of directory states, beginning from the start directory
         private final Stack<WalkState> state = new Stack<WalkState>();
+        @Nullable
+        private final FileListPrefetcher prefetcher = executor != null ? new FileListPrefetcher(executor, maxDepth) : null;
 
         public FileTreeWalkIterator() {
             if (start.isDirectory()) {
@@ -138,19 +154,19 @@ public class FileTreeWalk implements Iterable<File> {
             }
             // Take next file from the top of the stack
             WalkState topState = state.peek();
-            File file = topState.step();
-            if (file == null) {
+            FileEntry entry = topState.step();
+            if (entry == null) {
                 // There is nothing more on the top of the stack, go back
                 state.pop();
                 return gotoNext();
             } else {
                 // Check that file/directory matches the filter
-                if (file == topState.root || !file.isDirectory() || state.size() >= maxDepth) {
+                if (entry.file == topState.root || !entry.isDirectory() || state.size() >= maxDepth) {
                     // Proceed to a root directory or a simple file
-                    return file;
+                    return entry.file;
                 } else {
                     // Proceed to a sub-directory
-                    state.push(directoryState(file));
+                    state.push(directoryState(entry.file));
                     return gotoNext();
                 }
             }
@@ -161,6 +177,23 @@ public class FileTreeWalk implements Iterable<File> {
             throw new UnsupportedOperationException("remove");
         }
 
+        /**
+         * List the files of the directory on the top of the stack, together with whether they are directories
+         */
+        @Nullable
+        private FileEntry[] listFiles(@NotNull File dir) {
+            return prefetcher != null ? prefetcher.listFiles(dir, state.size() - 1) : DirectoryReader.read(dir);
+        }
+
+        /**
+         * Called when [onEnter] rejects the directory on the top of the stack
+         */
+        private void notEntered(@NotNull File dir) {
+            if (prefetcher != null) {
+                prefetcher.discard(dir);
+            }
+        }
+
         /**
          * Visiting in bottom-up order
          */
@@ -169,7 +202,7 @@ public class FileTreeWalk implements Iterable<File> {
             private boolean rootVisited = false;
 
             @Nullable
-            private File[] fileList = null;
+            private FileEntry[] fileList = null;
 
             private int fileIndex = 0;
 
@@ -184,13 +217,14 @@ public class FileTreeWalk implements Iterable<File> {
              */
             @Override
             @Nullable
-            public File step() {
+            public FileEntry step() {
                 if (!failed && fileList == null) {
                     if (onEnter != null && !onEnter.transform(root)) {
+                        notEntered(root);
                         return null;
                     }
 
-                    fileList = root.listFiles();
+                    fileList = listFiles(root);
                     if (fileList == null) {
                         if (onFail != null) {
                             try {
@@ -208,7 +242,7 @@ public class FileTreeWalk implements Iterable<File> {
                 } else if (!rootVisited) {
                     // Then visit root
                     rootVisited = true;
-                    return root;
+                    return new FileEntry(root);
                 } else {
                     // That's all
                     if (onLeave != null) {
@@ -227,7 +261,7 @@ public class FileTreeWalk implements Iterable<File> {
             private boolean rootVisited = false;
 
             @Nullable
-            private File[] fileList = null;
+            private FileEntry[] fileList = null;
 
             private int fileIndex = 0;
 
@@ -240,19 +274,20 @@ public class FileTreeWalk implements Iterable<File> {
              */
             @Override
             @Nullable
-            public File step() {
+            public FileEntry step() {
                 if (!rootVisited) {
                     // First visit root
                     if (onEnter != null && !onEnter.transform(root)) {
+                        notEntered(root);
                         return null;
                     }
 
                     rootVisited = true;
-                    return root;
+                    return new FileEntry(root);
                 } else if (fileList == null || fileIndex < fileList.length) {
                     if (fileList == null) {
                         // Then read an array of files, if any
-                        fileList = root.listFiles();
+                        fileList = listFiles(root);
                         if (fileList == null) {
                             if (onFail != null) {
                                 try {
@@ -294,10 +329,10 @@ public class FileTreeWalk implements Iterable<File> {
 
             @Override
             @Nullable
-            public File step() {
+            public FileEntry step() {
                 if (visited) return null;
                 visited = true;
-                return root;
+                return new FileEntry(root);
             }
         }
     }
@@ -310,7 +345,7 @@ public class FileTreeWalk implements Iterable<File> {
      */
     @NotNull
     public FileTreeWalk onEnter(@Nullable Transformer<File, Boolean> newOnEnter) {
-        return new FileTreeWalk(start, direction, newOnEnter, onLeave, onFail, maxDepth);
+        return new FileTreeWalk(start, direction, newOnEnter, onLeave, onFail, maxDepth, executor, ordered);
     }
 
     /**
@@ -318,7 +353,7 @@ public class FileTreeWalk implements Iterable<File> {
      */
     @NotNull
     public FileTreeWalk onLeave(@Nullable Action<File> newOnLeave) {
-        return new FileTreeWalk(start, direction, onEnter, newOnLeave, onFail, maxDepth);
+        return new FileTreeWalk(start, direction, onEnter, newOnLeave, onFail, maxDepth, executor, ordered);
     }
 
     /**
@@ -328,7 +363,7 @@ public class FileTreeWalk implements Iterable<File> {
      */
     @NotNull
     public FileTreeWalk onFail(@Nullable OnFailed newOnFail) {
-        return new FileTreeWalk(start, direction, onEnter, onLeave, newOnFail, maxDepth);
+        return new FileTreeWalk(start, direction, onEnter, onLeave, newOnFail, maxDepth, executor, ordered);
     }
 
     /**
@@ -344,6 +379,32 @@ public class FileTreeWalk implements Iterable<File> {
         if (newDepth <= 0) {
             throw new IllegalArgumentException("Param 'newDepth' is less than or equal to zero.");
         }
-        return new FileTreeWalk(start, direction, onEnter, onLeave, onFail, newDepth);
+        return new FileTreeWalk(start, direction, onEnter, onLeave, onFail, newDepth, executor, ordered);
+    }
+
+    /**
+     * Lists the directories concurrently on the [executor], null restores the serial walk.
+     * <p>
+     * If [ordered] is true, the files are visited in exactly the same order as the serial walk and all the callbacks are called on the iterating thread,
+     * only the sub-directories of the directories being walked are listed ahead on the [executor].
+     * <p>
+     * If [ordered] is false, every directory is listed by its own task on the [executor] and the files are visited in the order they are found,
+     * which gives the highest throughput. A directory is still visited before its files, but the walk direction is ignored.
+     * The callbacks are called on the threads of the [executor] and must be thread-safe, [onLeave] is called once the files of the directory are found.
+     * The found files wait in a bounded queue, so the iterator is a [java.io.Closeable] that must be closed if the iteration is abandoned before its end.
+     */
+    @NotNull
+    public FileTreeWalk parallel(@Nullable ExecutorService executor, boolean ordered) {
+        return new FileTreeWalk(start, direction, onEnter, onLeave, onFail, maxDepth, executor, ordered);
+    }
+
+    /**
+     * Lists the directories concurrently on the [executor] and visits the files in exactly the same order as the serial walk, null restores the serial walk
+     *
+     * @see #parallel(ExecutorService, boolean)
+     */
+    @NotNull
+    public FileTreeWalk parallel(@Nullable ExecutorService executor) {
+        return parallel(executor, true);
     }
 }
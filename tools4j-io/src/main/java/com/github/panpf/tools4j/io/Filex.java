@@ -27,6 +27,7 @@ import java.math.RoundingMode;
 import java.nio.charset.Charset;
 import java.text.DecimalFormat;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 import java.util.regex.Pattern;
 
 /**
@@ -269,22 +270,21 @@ public class Filex {
 
         long length = 0;
 
-        Queue<File> fileQueue = new LinkedList<File>();
-        fileQueue.add(file);
+        Queue<File> dirQueue = new LinkedList<File>();
+        dirQueue.add(file);
 
-        File childFile;
         while (true) {
-            childFile = fileQueue.poll();
-            if (childFile == null || !childFile.exists()) {
-                break;
-            }
+            File currentDir = dirQueue.poll();
+            if (currentDir == null) break;
 
-            if (childFile.isFile()) {
-                length += childFile.length();
-            } else {
-                File[] childChildFiles = childFile.listFiles();
-                if (childChildFiles != null && childChildFiles.length > 0) {
-                    Collections.addAll(fileQueue, childChildFiles);
+            FileEntry[] childEntries = DirectoryReader.read(currentDir);
+            if (childEntries == null) continue;
+
+            for (FileEntry childEntry : childEntries) {
+                if (childEntry.isRegularFile()) {
+                    length += childEntry.length();
+                } else if (childEntry.isDirectory()) {
+                    dirQueue.add(childEntry.file);
                 }
             }
         }
@@ -336,18 +336,17 @@ public class Filex {
             File currentDir = dirQueue.poll();
             if (currentDir == null) break;
 
-            if (!currentDir.exists()) continue;
-            String[] childPaths = currentDir.list();
-            if (childPaths == null) continue;
+            FileEntry[] childEntries = DirectoryReader.read(currentDir);
+            if (childEntries == null) continue;
 
-            for (String childPath : childPaths) {
-                File childFile = new File(currentDir, childPath);
-                if (!childFile.exists()) continue;
+            for (FileEntry childEntry : childEntries) {
+                if (!childEntry.exists()) continue;
+                File childFile = childEntry.file;
                 if (fileFilter.accept(childFile)) {
                     files.add(childFile.getPath().replace(dir.getPath() + File.separator, ""));
                 }
 
-                if (childFile.isDirectory()) {
+                if (childEntry.isDirectory()) {
                     dirQueue.add(childFile);
                 }
             }
@@ -370,19 +369,19 @@ public class Filex {
 
         while (true) {
             File currentDir = dirQueue.poll();
-            if (currentDir == null || !currentDir.exists()) break;
+            if (currentDir == null) break;
 
-            String[] childPaths = currentDir.list();
-            if (childPaths == null) continue;
+            FileEntry[] childEntries = DirectoryReader.read(currentDir);
+            if (childEntries == null) continue;
 
-            for (String childPath : childPaths) {
-                File childFile = new File(currentDir, childPath);
-                if (!childFile.exists()) continue;
-                if (filenameFilter.accept(currentDir, childPath)) {
+            for (FileEntry childEntry : childEntries) {
+                if (!childEntry.exists()) continue;
+                File childFile = childEntry.file;
+                if (filenameFilter.accept(currentDir, childFile.getName())) {
                     files.add(childFile.getPath().replace(dir.getPath() + File.separator, ""));
                 }
 
-                if (childFile.isDirectory()) {
+                if (childEntry.isDirectory()) {
                     dirQueue.add(childFile);
                 }
             }
@@ -405,17 +404,17 @@ public class Filex {
 
         while (true) {
             File currentDir = dirQueue.poll();
-            if (currentDir == null || !currentDir.exists()) break;
+            if (currentDir == null) break;
 
-            String[] childPaths = currentDir.list();
-            if (childPaths == null) continue;
+            FileEntry[] childEntries = DirectoryReader.read(currentDir);
+            if (childEntries == null) continue;
 
-            for (String childPath : childPaths) {
-                File childFile = new File(currentDir, childPath);
-                if (!childFile.exists()) continue;
+            for (FileEntry childEntry : childEntries) {
+                if (!childEntry.exists()) continue;
+                File childFile = childEntry.file;
                 files.add(childFile.getPath().replace(dir.getPath() + File.separator, ""));
 
-                if (childFile.isDirectory()) {
+                if (childEntry.isDirectory()) {
                     dirQueue.add(childFile);
                 }
             }
@@ -438,19 +437,19 @@ public class Filex {
 
         while (true) {
             File currentDir = dirQueue.poll();
-            if (currentDir == null || !currentDir.exists()) break;
-
-            File[] childFiles = currentDir.listFiles();
-            if (childFiles == null) continue;
+            if (currentDir == null) break;
 
-            for (File childFile : childFiles) {
-                if (!childFile.exists()) continue;
+            FileEntry[] childEntries = DirectoryReader.read(currentDir);
+            if (childEntries == null) continue;
 
+            for (FileEntry childEntry : childEntries) {
+                if (!childEntry.exists()) continue;
+                File childFile = childEntry.file;
                 if (fileFilter.accept(childFile)) {
                     files.add(childFile);
                 }
 
-                if (childFile.isDirectory()) {
+                if (childEntry.isDirectory()) {
                     dirQueue.add(childFile);
                 }
             }
@@ -471,22 +470,21 @@ public class Filex {
         Queue<File> dirQueue = new LinkedList<File>();
         dirQueue.add(dir);
 
-        File currentDir;
         while (true) {
-            currentDir = dirQueue.poll();
-            if (currentDir == null || !currentDir.exists()) break;
-
-            File[] childFiles = currentDir.listFiles();
-            if (childFiles == null) continue;
+            File currentDir = dirQueue.poll();
+            if (currentDir == null) break;
 
-            for (File childFile : childFiles) {
-                if (!childFile.exists()) continue;
+            FileEntry[] childEntries = DirectoryReader.read(currentDir);
+            if (childEntries == null) continue;
 
+            for (FileEntry childEntry : childEntries) {
+                if (!childEntry.exists()) continue;
+                File childFile = childEntry.file;
                 if (filenameFilter.accept(currentDir, childFile.getName())) {
                     files.add(childFile);
                 }
 
-                if (childFile.isDirectory()) {
+                if (childEntry.isDirectory()) {
                     dirQueue.add(childFile);
                 }
             }
@@ -509,17 +507,17 @@ public class Filex {
 
         while (true) {
             File currentDir = dirQueue.poll();
-            if (currentDir == null || !currentDir.exists()) break;
-
-            File[] childFiles = currentDir.listFiles();
-            if (childFiles == null) continue;
+            if (currentDir == null) break;
 
-            for (File childFile : childFiles) {
-                if (!childFile.exists()) continue;
+            FileEntry[] childEntries = DirectoryReader.read(currentDir);
+            if (childEntries == null) continue;
 
+            for (FileEntry childEntry : childEntries) {
+                if (!childEntry.exists()) continue;
+                File childFile = childEntry.file;
                 files.add(childFile);
 
-                if (childFile.isDirectory()) {
+                if (childEntry.isDirectory()) {
                     dirQueue.add(childFile);
                 }
             }
@@ -953,17 +951,25 @@ public class Filex {
      * If this file is a directory, it is copied without its content, i.e. an empty [target] directory is created.
      * If you want to copy directory including its contents, use [copyRecursively].
      * <p>
+     * The content is copied by the file channels, which lets the operating system copy the bytes without passing them through the Java heap.
+     * If the [listener] cancels, the partially copied [target] file is deleted.
+     * <p>
      * The operation doesn't preserve copied file attributes such as creation/modification date, permissions, etc.
      *
-     * @param overwrite  `true` if destination overwrite is allowed.
-     * @param bufferSize the buffer size to use when copying.
+     * @param overwrite `true` if destination overwrite is allowed.
+     * @param listener  receives the number of bytes copied so far and can cancel the copying.
      * @return the [target] file.
      * @throws NoSuchFileException        if the source file doesn't exist.
      * @throws FileAlreadyExistsException if the destination file already exists and [overwrite] argument is set to `false`.
      * @throws IOException                if any errors occur while copying.
      */
     @NotNull
-    public static File copyTo(@NotNull File source, @NotNull File target, boolean overwrite, int bufferSize) throws IOException {
+    public static File copyTo(@NotNull File source, @NotNull File target, boolean overwrite, @Nullable CopyListener listener) throws IOException {
+        return copyTo(source, target, overwrite, IOx.DEFAULT_BUFFER_SIZE, listener);
+    }
+
+    @NotNull
+    private static File copyTo(@NotNull File source, @NotNull File target, boolean overwrite, int bufferSize, @Nullable CopyListener listener) throws IOException {
         if (!source.exists()) {
             throw new FileNotFoundException(String.format("The file pointed to by this parameter 'source': %s", source.getPath()));
         }
@@ -980,21 +986,38 @@ public class Filex {
             //noinspection ResultOfMethodCallIgnored
             target.getParentFile().mkdirs();
 
-            InputStream inputStream = null;
-            OutputStream outputStream = null;
-            try {
-                inputStream = inputStream(source);
-                outputStream = outputStream(target);
-                IOx.copyTo(inputStream, outputStream, bufferSize);
-            } finally {
-                IOx.closeQuietly(inputStream);
-                IOx.closeQuietly(outputStream);
-            }
+            FileCopier.copyFile(source, target, bufferSize, listener);
         }
 
         return target;
     }
 
+    /**
+     * Copies this file to the given [target] file.
+     * <p>
+     * If some directories on a way to the [target] are missing, then they will be created.
+     * If the [target] file already exists, this function will fail unless [overwrite] argument is set to `true`.
+     * <p>
+     * When [overwrite] is `true` and [target] is a directory, it is replaced only if it is empty.
+     * <p>
+     * If this file is a directory, it is copied without its content, i.e. an empty [target] directory is created.
+     * If you want to copy directory including its contents, use [copyRecursively].
+     * <p>
+     * The operation doesn't preserve copied file attributes such as creation/modification date, permissions, etc.
+     *
+     * @param overwrite  `true` if destination overwrite is allowed.
+     * @param bufferSize the buffer size of the stream copy, the content is copied by the file channels and the stream only copies
+     *                   what they can't, such as the content of files whose size is not known.
+     * @return the [target] file.
+     * @throws NoSuchFileException        if the source file doesn't exist.
+     * @throws FileAlreadyExistsException if the destination file already exists and [overwrite] argument is set to `false`.
+     * @throws IOException                if any errors occur while copying.
+     */
+    @NotNull
+    public static File copyTo(@NotNull File source, @NotNull File target, boolean overwrite, int bufferSize) throws IOException {
+        return copyTo(source, target, overwrite, bufferSize, null);
+    }
+
     /**
      * Copies this file to the given [target] file.
      * <p>
@@ -1032,6 +1055,8 @@ public class Filex {
      * <p>
      * The operation doesn't preserve copied file attributes such as creation/modification date, permissions, etc.
      *
+     * @param bufferSize the buffer size of the stream copy, the content is copied by the file channels and the stream only copies
+     *                   what they can't, such as the content of files whose size is not known.
      * @return the [target] file.
      * @throws NoSuchFileException        if the source file doesn't exist.
      * @throws FileAlreadyExistsException if the destination file already exists and [overwrite] argument is set to `false`.
@@ -1089,69 +1114,101 @@ public class Filex {
      * - [IOException] - if some problems occur when copying.
      * <p>
      * Note that if this function fails, then partial copying may have taken place.
+     * <p>
+     * With an [executor] the tree is walked, the directories are created and the conflicts are resolved on the calling thread,
+     * while the files are copied concurrently on the [executor], which is much faster for many small files.
+     * The files are copied by the file channels, which lets the operating system copy the bytes without passing them through the Java heap.
+     * <p>
+     * The [listener] receives the total number of bytes copied so far, from the threads of the [executor] but one at a time,
+     * if it cancels the copying stops and `false` is returned.
      *
      * @param overwrite `true` if it is allowed to overwrite existing destination files and directories.
+     * @param executor  copies the files concurrently, null copies them one by one on the calling thread.
+     * @param listener  receives the progress of the whole copying and can cancel it.
      * @return `false` if the copying was terminated, `true` otherwise.
      */
-    public static boolean copyRecursively(@NotNull File source, @NotNull File target, boolean overwrite, @NotNull final OnError onError) throws IOException {
-        if (!source.exists()) {
-            return onError.onError(source, new NoSuchFileException(source, null, "The source file doesn't exist.")) != OnErrorAction.TERMINATE;
-        }
-        try {
-            // We cannot break for loop from inside a lambda, so we have to use an exception here
-            FileTreeWalk fileTreeWalk = walkTopDown(source).onFail(new OnFailed() {
-                @Override
-                public void onError(@NotNull File file, @NotNull IOException e) throws IOException {
-                    if (onError.onError(file, e) == OnErrorAction.TERMINATE) {
-                        throw new TerminateException(file);
-                    }
-                }
-            });
-            for (File src : fileTreeWalk) {
-                if (!src.exists()) {
-                    if (onError.onError(src, new NoSuchFileException(src, null, "The source file doesn't exist.")) == OnErrorAction.TERMINATE) {
-                        return false;
-                    }
-                } else {
-                    String relPath = toRelativeString(src, source);
-                    File dstFile = new File(target, relPath);
-                    if (dstFile.exists() && !(src.isDirectory() && dstFile.isDirectory())) {
-                        boolean stillExists;
-                        if (!overwrite) {
-                            stillExists = true;
-                        } else {
-                            if (dstFile.isDirectory()) {
-                                stillExists = !deleteRecursively(dstFile);
-                            } else {
-                                stillExists = !dstFile.delete();
-                            }
-                        }
-
-                        if (stillExists) {
-                            if (onError.onError(dstFile, new FileAlreadyExistsException(src, dstFile, "The destination file already exists.")) == OnErrorAction.TERMINATE) {
-                                return false;
-                            }
-
-                            continue;
-                        }
-                    }
-
-                    if (src.isDirectory()) {
-                        //noinspection ResultOfMethodCallIgnored
-                        dstFile.mkdirs();
-                    } else {
-                        if (copyTo(src, dstFile, overwrite).length() != src.length()) {
-                            if (onError.onError(src, new IOException("Source file wasn't copied completely, length of destination file differs.")) == OnErrorAction.TERMINATE) {
-                                return false;
-                            }
-                        }
-                    }
-                }
+    public static boolean copyRecursively(@NotNull File source, @NotNull File target, boolean overwrite, @NotNull OnError onError,
+                                          @Nullable ExecutorService executor, @Nullable CopyListener listener) throws IOException {
+        return FileCopier.copyRecursively(source, target, overwrite, onError, executor, listener);
+    }
+
+    /**
+     * Copies this file with all its children to the specified destination [target] path.
+     * If some directories on the way to the destination are missing, then they will be created.
+     * <p>
+     * If this file path points to a single file, then it will be copied to a file with the path [target].
+     * If this file path points to a directory, then its children will be copied to a directory with the path [target].
+     * <p>
+     * If the [target] already exists, it will be deleted before copying when the [overwrite] parameter permits so.
+     * <p>
+     * The operation doesn't preserve copied file attributes such as creation/modification date, permissions, etc.
+     * <p>
+     * If any errors occur during the copying, then further actions will depend on the result of the call
+     * to `onError(File, IOException)` function, that will be called with arguments,
+     * specifying the file that caused the error and the exception itself.
+     * By default this function rethrows exceptions.
+     * <p>
+     * Exceptions that can be passed to the `onError` function:
+     * <p>
+     * - [NoSuchFileException] - if there was an attempt to copy a non-existent file
+     * - [FileAlreadyExistsException] - if there is a conflict
+     * - [AccessDeniedException] - if there was an attempt to open a directory that didn't succeed.
+     * - [IOException] - if some problems occur when copying.
+     * <p>
+     * Note that if this function fails, then partial copying may have taken place.
+     * <p>
+     * With an [executor] the tree is walked, the directories are created and the conflicts are resolved on the calling thread,
+     * while the files are copied concurrently on the [executor], which is much faster for many small files.
+     * The files are copied by the file channels, which lets the operating system copy the bytes without passing them through the Java heap.
+     * <p>
+     * The [listener] receives the total number of bytes copied so far, from the threads of the [executor] but one at a time,
+     * if it cancels the copying stops and `false` is returned.
+     *
+     * @param overwrite `true` if it is allowed to overwrite existing destination files and directories.
+     * @param executor  copies the files concurrently, null copies them one by one on the calling thread.
+     * @param listener  receives the progress of the whole copying and can cancel it.
+     * @return `false` if the copying was terminated, `true` otherwise.
+     */
+    public static boolean copyRecursively(@NotNull File source, @NotNull File target, boolean overwrite,
+                                          @Nullable ExecutorService executor, @Nullable CopyListener listener) throws IOException {
+        return copyRecursively(source, target, overwrite, new OnError() {
+            @Override
+            public OnErrorAction onError(@NotNull File file, @NotNull IOException e) throws IOException {
+                throw e;
             }
-            return true;
-        } catch (TerminateException e) {
-            return false;
-        }
+        }, executor, listener);
+    }
+
+    /**
+     * Copies this file with all its children to the specified destination [target] path.
+     * If some directories on the way to the destination are missing, then they will be created.
+     * <p>
+     * If this file path points to a single file, then it will be copied to a file with the path [target].
+     * If this file path points to a directory, then its children will be copied to a directory with the path [target].
+     * <p>
+     * If the [target] already exists, it will be deleted before copying when the [overwrite] parameter permits so.
+     * <p>
+     * The operation doesn't preserve copied file attributes such as creation/modification date, permissions, etc.
+     * <p>
+     * If any errors occur during the copying, then further actions will depend on the result of the call
+     * to `onError(File, IOException)` function, that will be called with arguments,
+     * specifying the file that caused the error and the exception itself.
+     * By default this function rethrows exceptions.
+     * <p>
+     * Exceptions that can be passed to the `onError` function:
+     * <p>
+     * - [NoSuchFileException] - if there was an attempt to copy a non-existent file
+     * - [FileAlreadyExistsException] - if there is a conflict
+     * - [AccessDeniedException] - if there was an attempt to open a directory that didn't succeed.
+     * - [IOException] - if some problems occur when copying.
+     * <p>
+     * Note that if this function fails, then partial copying may have taken place.
+     *
+     * @param overwrite `true` if it is allowed to overwrite existing destination files and directories.
+     * @return `false` if the copying was terminated, `true` otherwise.
+     */
+    public static boolean copyRecursively(@NotNull File source, @NotNull File target, boolean overwrite, @NotNull final OnError onError) throws IOException {
+        return copyRecursively(source, target, overwrite, onError, null, null);
     }
 
     /**
@@ -2129,6 +2186,74 @@ public class Filex {
         forEachLine(file, Charset.forName("UTF-8"), action);
     }
 
+    /**
+     * Reads this file line by line using the specified [charset] and calls [action] for each line.
+     * <p>
+     * Unlike [forEachLine] the lines are found in the bytes and passed to [action] as a [CharSequence] view of the buffer,
+     * which is only valid during the call and reused for the next line, call toString() on it to keep it.
+     * A line is only decoded when its chars are asked for, so skipping or counting lines costs no decoding and no String.
+     * <p>
+     * You may use this function on huge files.
+     *
+     * @param charset character set to use.
+     * @param action  function to process file lines.
+     * @see IOx#scanLines(InputStream, Charset, Action)
+     */
+    public static void scanLines(@NotNull File file, @NotNull Charset charset, @NotNull Action<CharSequence> action) throws IOException {
+        // Note: close is called at scanLines
+        IOx.scanLines(new FileInputStream(file), charset, action);
+    }
+
+    /**
+     * Reads this file line by line using UTF-8 and calls [action] for each line.
+     * <p>
+     * You may use this function on huge files.
+     *
+     * @param action function to process file lines, the [CharSequence] is only valid during the call.
+     * @see #scanLines(File, Charset, Action)
+     */
+    public static void scanLines(@NotNull File file, @NotNull Action<CharSequence> action) throws IOException {
+        scanLines(file, Charset.forName("UTF-8"), action);
+    }
+
+    /**
+     * Splits this file into chunks of [chunkSize] bytes and reads the lines of each chunk by its own task on the [executor],
+     * calls [action] for each line. Returns once all the lines have been processed.
+     * <p>
+     * Each chunk starts with the first line that starts in it, so every line is processed once by one task.
+     * The lines are processed in no particular order and [action] is called on the threads of the [executor], it must be thread-safe.
+     * The [CharSequence] is only valid during the call, call toString() on it to keep it.
+     * <p>
+     * You may use this function on huge files.
+     *
+     * @param charset   character set to use, '\r' and '\n' must be single ASCII bytes in it, like UTF-8 and ISO-8859-1.
+     * @param chunkSize the number of bytes read by each task, should be much larger than the lines.
+     * @param action    function to process file lines.
+     * @throws IllegalArgumentException The [charset] is not supported or [chunkSize] is less than or equal to zero
+     */
+    public static void scanLines(@NotNull File file, @NotNull Charset charset, @NotNull ExecutorService executor, long chunkSize,
+                                 @NotNull Action<CharSequence> action) throws IOException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Param 'chunkSize' is less than or equal to zero.");
+        }
+        if (!LineScanner.isSupported(charset)) {
+            throw new IllegalArgumentException("Unsupported charset for parallel line scanning: " + charset.name());
+        }
+        LineScanner.scan(file, charset, executor, chunkSize, action);
+    }
+
+    /**
+     * Splits this file into chunks of 8 MB and reads the lines of each chunk by its own task on the [executor], calls [action] for each line.
+     *
+     * @param charset character set to use, '\r' and '\n' must be single ASCII bytes in it, like UTF-8 and ISO-8859-1.
+     * @param action  function to process file lines, must be thread-safe.
+     * @see #scanLines(File, Charset, ExecutorService, long, Action)
+     */
+    public static void scanLines(@NotNull File file, @NotNull Charset charset, @NotNull ExecutorService executor,
+                                 @NotNull Action<CharSequence> action) throws IOException {
+        scanLines(file, charset, executor, 1024 * 1024 * 8, action);
+    }
+
 
     /* ******************************************* outputStream ****************************************** */
 
@@ -570,6 +570,48 @@ public class IOx {
         }
     }
 
+    /**
+     * Iterates through each line of this input stream decoded with the specified [charset], calls [action] for each line read
+     * and closes the [InputStream] when it's completed.
+     * <p>
+     * Unlike [forEachLine] the lines are found in the bytes and passed to [action] as a [CharSequence] view of the buffer,
+     * which is only valid during the call and reused for the next line, call toString() on it to keep it.
+     * A line is only decoded when its chars are asked for, so skipping or counting lines costs no decoding and no String.
+     * If '\r' and '\n' are not single ASCII bytes in the [charset], such as UTF-16, the lines are read as Strings instead.
+     * <p>
+     * You may use this function on huge streams.
+     *
+     * @param action function to process the lines.
+     */
+    public static void scanLines(@NotNull InputStream inputStream, @NotNull Charset charset, @NotNull final Action<CharSequence> action) throws IOException {
+        if (!LineScanner.isSupported(charset)) {
+            // Note: close is called at forEachLine
+            forEachLine(new InputStreamReader(inputStream, charset), new Action<String>() {
+                @Override
+                public void action(@NotNull String line) {
+                    action.action(line);
+                }
+            });
+            return;
+        }
+        try {
+            new LineScanner(charset, LineScanner.DEFAULT_BUFFER_SIZE).scan(inputStream, action);
+        } finally {
+            closeQuietly(inputStream);
+        }
+    }
+
+    /**
+     * Iterates through each line of this input stream decoded with UTF-8, calls [action] for each line read
+     * and closes the [InputStream] when it's completed.
+     *
+     * @param action function to process the lines, the [CharSequence] is only valid during the call.
+     * @see #scanLines(InputStream, Charset, Action)
+     */
+    public static void scanLines(@NotNull InputStream inputStream, @NotNull Action<CharSequence> action) throws IOException {
+        scanLines(inputStream, Charset.forName("UTF-8"), action);
+    }
+
 
     /* ******************************************* outputStream ****************************************** */
 
@@ -0,0 +1,379 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.io;
+
+import com.github.panpf.tools4j.common.Action;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Split bytes into lines without decoding them, the implementation of {@link IOx#scanLines(InputStream, Charset, Action)}
+ * and {@link Filex#scanLines(java.io.File, Charset, Action)}.
+ * <p>
+ * The line terminators '\n', '\r' and "\r\n" are found in the bytes, like {@link java.io.BufferedReader#readLine()} does with the chars.
+ * Each line is passed to the action as a {@link CharSequence} view of the buffer, which is reused for the next line.
+ * A line is only decoded when its chars are asked for, and a line of ASCII bytes is never decoded.
+ * <p>
+ * With an {@link ExecutorService} the file is split into chunks that are scanned in parallel, each chunk starts with the first line that starts in it,
+ * so the lines are aligned without the chunks looking at each other.
+ * <p>
+ * Not thread-safe, every scan uses its own instance.
+ */
+class LineScanner {
+
+    static final int DEFAULT_BUFFER_SIZE = 1024 * 64;
+    /**
+     * The maximum number of chunks submitted to the executor and not yet finished
+     */
+    private static final int MAX_PENDING = 1024;
+
+    @NotNull
+    private final Line line;
+    @NotNull
+    private byte[] buffer;
+
+    LineScanner(@NotNull Charset charset, int bufferSize) {
+        this.line = new Line(charset);
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Whether the lines encoded by the charset can be found in the bytes, that is '\r' and '\n' are encoded as the single ASCII bytes
+     * and those bytes are not part of other chars, as in UTF-8, ISO-8859-1 and the other ASCII compatible charsets.
+     * UTF-16 and UTF-32 are not supported
+     */
+    static boolean isSupported(@NotNull Charset charset) {
+        if (!charset.canEncode()) return false;
+        ByteBuffer encoded = charset.encode("\r\na");
+        return encoded.remaining() == 3 && encoded.get(0) == '\r' && encoded.get(1) == '\n' && encoded.get(2) == 'a';
+    }
+
+    /**
+     * Scan all the lines of the input stream, the input stream is not closed
+     */
+    void scan(@NotNull final InputStream inputStream, @NotNull Action<CharSequence> action) throws IOException {
+        scan(new Source() {
+            @Override
+            public int read(@NotNull byte[] bytes, int offset, int length) throws IOException {
+                return inputStream.read(bytes, offset, length);
+            }
+        }, 0, false, Long.MAX_VALUE, action);
+    }
+
+    /**
+     * Scan the lines of the file that start at or after [start] and before [end], the first line may start before [end] and end after it.
+     * The channel is read with absolute positions, so it can be shared by several scanners
+     */
+    void scan(@NotNull final FileChannel channel, long start, long end, @NotNull Action<CharSequence> action) throws IOException {
+        // The byte before the start tells whether a line starts right at the start
+        final long readStart = start > 0 ? start - 1 : 0;
+        scan(new Source() {
+            private long position = readStart;
+
+            @Override
+            public int read(@NotNull byte[] bytes, int offset, int length) throws IOException {
+                int readLength = channel.read(ByteBuffer.wrap(bytes, offset, length), position);
+                if (readLength > 0) position += readLength;
+                return readLength;
+            }
+        }, readStart, start > 0, end, action);
+    }
+
+    /**
+     * Split the file into chunks of [chunkSize] bytes and scan the lines starting in each chunk by its own task on the executor.
+     * Returns once all the tasks have finished, the first exception thrown by a task is rethrown
+     */
+    static void scan(@NotNull File file, @NotNull final Charset charset, @NotNull ExecutorService executor, long chunkSize,
+                     @NotNull final Action<CharSequence> action) throws IOException {
+        FileInputStream inputStream = new FileInputStream(file);
+        try {
+            final FileChannel channel = inputStream.getChannel();
+            long size = channel.size();
+            // The buffer grows when a line is longer, so small chunks don't allocate the default buffer
+            final int bufferSize = (int) Math.min(DEFAULT_BUFFER_SIZE, chunkSize + 2);
+            Deque<Future<Object>> futures = new ArrayDeque<Future<Object>>();
+            final AtomicBoolean failed = new AtomicBoolean();
+            boolean success = false;
+            try {
+                for (long start = 0; start < size; start += chunkSize) {
+                    final long chunkStart = start;
+                    final long chunkEnd = Math.min(start + chunkSize, size);
+                    if (futures.size() >= MAX_PENDING) {
+                        await(futures.poll());
+                    }
+                    futures.add(executor.submit(new Callable<Object>() {
+                        @Override
+                        public Object call() throws IOException {
+                            if (failed.get()) return null;
+                            try {
+                                new LineScanner(charset, bufferSize).scan(channel, chunkStart, chunkEnd, action);
+                            } catch (IOException e) {
+                                failed.set(true);
+                                throw e;
+                            } catch (RuntimeException e) {
+                                failed.set(true);
+                                throw e;
+                            } catch (Error e) {
+                                failed.set(true);
+                                throw e;
+                            }
+                            return null;
+                        }
+                    }));
+                }
+                while (!futures.isEmpty()) {
+                    await(futures.poll());
+                }
+                success = true;
+            } finally {
+                if (!success) {
+                    // The tasks are not canceled, an interrupted read closes the channel shared by them,
+                    // they end quickly once a task failed and no action is called after returning
+                    failed.set(true);
+                    awaitQuietly(futures);
+                }
+            }
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    private static void await(@NotNull Future<Object> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException exception = new InterruptedIOException("Interrupted while waiting for lines");
+            exception.initCause(e);
+            throw exception;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new IOException(cause != null ? cause.toString() : e.toString());
+            }
+        }
+    }
+
+    private static void awaitQuietly(@NotNull Collection<Future<Object>> futures) {
+        boolean interrupted = false;
+        for (Future<Object> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    break;
+                } catch (CancellationException e) {
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @param base          The position of the first byte of the source
+     * @param skipFirstLine The first line started before the base, it belongs to the previous chunk
+     * @param end           Lines starting at or after this position are not scanned
+     */
+    private void scan(@NotNull Source source, long base, boolean skipFirstLine, long end, @NotNull Action<CharSequence> action) throws IOException {
+        byte[] buffer = this.buffer;
+        int lineStart = 0;
+        int position = 0;
+        int limit = 0;
+        int nonAscii = 0;
+        boolean eof = false;
+        boolean skipLine = skipFirstLine;
+        while (true) {
+            // Find the next line terminator
+            while (position < limit) {
+                byte b = buffer[position];
+                if (b == '\n' || b == '\r') break;
+                nonAscii |= b;
+                position++;
+            }
+
+            if (position < limit) {
+                if (buffer[position] == '\r' && position + 1 == limit && !eof) {
+                    // Need the next byte to know whether it's "\r\n"
+                } else {
+                    if (base + lineStart >= end) return;
+                    int terminatorLength = buffer[position] == '\r' && position + 1 < limit && buffer[position + 1] == '\n' ? 2 : 1;
+                    if (skipLine) {
+                        skipLine = false;
+                    } else {
+                        action.action(line.set(buffer, lineStart, position - lineStart, nonAscii >= 0));
+                    }
+                    position += terminatorLength;
+                    lineStart = position;
+                    nonAscii = 0;
+                    continue;
+                }
+            } else if (eof) {
+                // The last line has no terminator
+                if (lineStart < limit && base + lineStart < end && !skipLine) {
+                    action.action(line.set(buffer, lineStart, limit - lineStart, nonAscii >= 0));
+                }
+                return;
+            }
+
+            if (skipLine) {
+                // The skipped bytes are dropped, only a '\r' waiting for the next byte is kept.
+                // Without a terminator before the end no line starts in the chunk
+                if (base + position >= end) return;
+                System.arraycopy(buffer, position, buffer, 0, limit - position);
+                base += position;
+                limit -= position;
+                position = 0;
+                lineStart = 0;
+            } else if (lineStart > 0) {
+                // Move the current line to the beginning of the buffer and read more bytes after it
+                System.arraycopy(buffer, lineStart, buffer, 0, limit - lineStart);
+                base += lineStart;
+                position -= lineStart;
+                limit -= lineStart;
+                lineStart = 0;
+            } else if (limit == buffer.length) {
+                // The line is longer than the buffer
+                buffer = this.buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            int readLength = buffer.length - limit;
+            if (skipLine) {
+                // The bytes after the end are only needed once the skipped line ends
+                readLength = (int) Math.max(Math.min(readLength, end + 1 - base - limit), 1);
+            }
+            readLength = source.read(buffer, limit, readLength);
+            if (readLength == -1) {
+                eof = true;
+            } else {
+                limit += readLength;
+            }
+        }
+    }
+
+    private interface Source {
+        int read(@NotNull byte[] bytes, int offset, int length) throws IOException;
+    }
+
+    /**
+     * A line in the buffer of the scanner, decoded when its chars are asked for the first time
+     */
+    private static class Line implements CharSequence {
+        @NotNull
+        private final CharsetDecoder decoder;
+        @NotNull
+        private byte[] bytes = new byte[0];
+        private int offset;
+        private int byteLength;
+        private boolean ascii;
+        @NotNull
+        private CharBuffer chars = CharBuffer.allocate(0);
+        private boolean decoded;
+
+        private Line(@NotNull Charset charset) {
+            // Malformed bytes are replaced, as InputStreamReader does
+            this.decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+
+        @NotNull
+        private Line set(@NotNull byte[] bytes, int offset, int byteLength, boolean ascii) {
+            this.bytes = bytes;
+            this.offset = offset;
+            this.byteLength = byteLength;
+            this.ascii = ascii;
+            this.decoded = false;
+            return this;
+        }
+
+        @NotNull
+        private CharBuffer decode() {
+            if (!decoded) {
+                int capacity = (int) Math.ceil(byteLength * (double) decoder.maxCharsPerByte());
+                if (chars.capacity() < capacity) {
+                    chars = CharBuffer.allocate(Math.max(capacity, chars.capacity() * 2));
+                }
+                chars.clear();
+                decoder.reset();
+                decoder.decode(ByteBuffer.wrap(bytes, offset, byteLength), chars, true);
+                decoder.flush(chars);
+                chars.flip();
+                decoded = true;
+            }
+            return chars;
+        }
+
+        @Override
+        public int length() {
+            return ascii ? byteLength : decode().remaining();
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (ascii) {
+                if (index < 0 || index >= byteLength) {
+                    throw new IndexOutOfBoundsException("index: " + index + ", length: " + byteLength);
+                }
+                return (char) bytes[offset + index];
+            }
+            return decode().get(index);
+        }
+
+        @NotNull
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+
+        @NotNull
+        @Override
+        public String toString() {
+            if (ascii) {
+                char[] chars = new char[byteLength];
+                for (int i = 0; i < byteLength; i++) {
+                    chars[i] = (char) bytes[offset + i];
+                }
+                return new String(chars);
+            }
+            return decode().toString();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.io;
+
+import com.github.panpf.tools4j.common.Action;
+import com.github.panpf.tools4j.common.Transformer;
+import com.github.panpf.tools4j.iterable.AbstractIterator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The iterator of an unordered parallel {@link FileTreeWalk}.
+ * <p>
+ * Every directory is listed by its own task on the {@link ExecutorService}, which queues its files and submits the tasks of its sub-directories,
+ * so the files are visited in the order they are found. A directory is always visited before its files.
+ * The onEnter, onLeave and onFail callbacks are called on the threads of the executor, onLeave is called after the files of the directory have been queued.
+ * <p>
+ * At most {@link #QUEUE_CAPACITY} files wait to be visited, the tasks wait for the iterating thread when the queue is full.
+ * Call {@link #close()} when the iteration is abandoned, otherwise the waiting tasks keep the threads of the executor.
+ */
+class UnorderedFileTreeWalkIterator extends AbstractIterator<File> implements Closeable {
+
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+    private static final Object END = new Object();
+    private static final Object WAKE_UP = new Object();
+
+    @NotNull
+    private final ExecutorService executor;
+    @Nullable
+    private final Transformer<File, Boolean> onEnter;
+    @Nullable
+    private final Action<File> onLeave;
+    @Nullable
+    private final OnFailed onFail;
+    private final int maxDepth;
+    @NotNull
+    private final BlockingQueue<Object> queue = new ArrayBlockingQueue<Object>(QUEUE_CAPACITY);
+    @NotNull
+    private final AtomicInteger pendingTasks = new AtomicInteger();
+    // END or the first Failure, set only once and visited after the queued files
+    @NotNull
+    private final AtomicReference<Object> terminal = new AtomicReference<Object>();
+    private volatile boolean closed;
+
+    UnorderedFileTreeWalkIterator(@NotNull File start, @NotNull ExecutorService executor, @Nullable Transformer<File, Boolean> onEnter,
+                                  @Nullable Action<File> onLeave, @Nullable OnFailed onFail, int maxDepth) {
+        this.executor = executor;
+        this.onEnter = onEnter;
+        this.onLeave = onLeave;
+        this.onFail = onFail;
+        this.maxDepth = maxDepth;
+
+        if (start.isDirectory()) {
+            if (onEnter == null || onEnter.transform(start)) {
+                queue.add(start);
+                submit(start, 0);
+            } else {
+                terminate(END);
+            }
+        } else if (start.isFile()) {
+            queue.add(start);
+            terminate(END);
+        } else {
+            terminate(END);
+        }
+    }
+
+    @Override
+    protected void computeNext() {
+        Object next;
+        try {
+            do {
+                // The terminal item is set after the files before it have been queued, so it is read before polling them
+                Object end = terminal.get();
+                next = queue.poll();
+                if (next == null) {
+                    next = end != null ? end : queue.take();
+                }
+            } while (next == WAKE_UP && !closed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        if (closed || next == END) {
+            done();
+        } else if (next instanceof Failure) {
+            close();
+            Throwable cause = ((Failure) next).cause;
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new RuntimeException(cause);
+            }
+        } else {
+            setNext((File) next);
+        }
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove");
+    }
+
+    /**
+     * Stops the walk, the tasks still running return without listing or queueing any more files and the iteration ends
+     */
+    @Override
+    public void close() {
+        closed = true;
+        queue.clear();
+        queue.offer(WAKE_UP);
+    }
+
+    private boolean isStopped() {
+        return closed || terminal.get() != null;
+    }
+
+    private void submit(@NotNull final File dir, final int depth) {
+        pendingTasks.incrementAndGet();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    if (!isStopped()) {
+                        list(dir, depth);
+                    }
+                } catch (Throwable e) {
+                    if (e instanceof InterruptedException) {
+                        Thread.currentThread().interrupt();
+                    }
+                    // Only the first failure is reported, the walk ends with it
+                    terminate(new Failure(e));
+                } finally {
+                    if (pendingTasks.decrementAndGet() == 0) {
+                        terminate(END);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Sets the terminal item of the walk if it has not been set yet, and wakes up the iterating thread if it waits for an empty queue
+     */
+    private void terminate(@NotNull Object item) {
+        if (terminal.compareAndSet(null, item)) {
+            queue.offer(WAKE_UP);
+        }
+    }
+
+    /**
+     * Queues the given file, waiting for space in the queue as long as the walk is not stopped
+     *
+     * @return false if the walk has been stopped before the file was queued
+     */
+    private boolean put(@NotNull File file) throws InterruptedException {
+        while (!isStopped()) {
+            if (queue.offer(file, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void list(@NotNull File dir, int depth) throws IOException, InterruptedException {
+        FileEntry[] entries = DirectoryReader.read(dir);
+        if (entries == null) {
+            if (onFail != null) {
+                onFail.onError(dir, new AccessDeniedException(dir, null, "Cannot list files in a directory"));
+            }
+        } else {
+            boolean enterChildren = depth + 1 < maxDepth;
+            for (FileEntry entry : entries) {
+                if (enterChildren && entry.isDirectory()) {
+                    if (onEnter == null || onEnter.transform(entry.file)) {
+                        if (!put(entry.file)) return;
+                        submit(entry.file, depth + 1);
+                    }
+                } else if (!put(entry.file)) {
+                    return;
+                }
+            }
+        }
+        if (onLeave != null) {
+            onLeave.action(dir);
+        }
+    }
+
+    private static class Failure {
+        @NotNull
+        private final Throwable cause;
+
+        private Failure(@NotNull Throwable cause) {
+            this.cause = cause;
+        }
+    }
+}
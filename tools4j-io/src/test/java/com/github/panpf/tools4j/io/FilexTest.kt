@@ -19,11 +19,14 @@ package com.github.panpf.tools4j.io
 import com.github.panpf.tools4j.security.ktx.getMD5Digest
 import org.junit.Assert.*
 import org.junit.Test
+import java.io.Closeable
 import java.io.File
 import java.io.FileNotFoundException
 import java.io.IOException
 import java.nio.charset.Charset
 import java.util.*
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
 
 class FilexTest {
 
@@ -917,6 +920,17 @@ class FilexTest {
             Filex.deleteRecursively(copyTargetFile)
         }
 
+        // The size of the files in /proc is not known, their content is copied by the stream with the given buffer size
+        val procFile = File("/proc/version")
+        if (procFile.exists()) {
+            try {
+                Filex.copyTo(procFile, copyTargetFile, true, 7)
+                assertEquals(procFile.readText(), copyTargetFile.readText())
+            } finally {
+                Filex.deleteRecursively(copyTargetFile)
+            }
+        }
+
         /*
          * test copy dir
          */
@@ -1022,6 +1036,77 @@ class FilexTest {
         }
     }
 
+    @Test
+    fun testParallelCopyRecursively() {
+        val copySourceDir = Filex.createFileTree(File("/tmp/testParallelCopyRecursively"), 3, 3, "file.txt", "testParallelCopyRecursively")
+        val bigFile = File(copySourceDir, "big.bin")
+        Filex.writeBytes(bigFile, ByteArray(1024 * 1024 * 3 + 17) { it.toByte() })
+        val copyTargetDir = File(copySourceDir.path + "_copyTarget")
+        val executor = Executors.newFixedThreadPool(4)
+        try {
+            val sourceLength = Filex.lengthRecursively(copySourceDir)
+            for (parallelExecutor in listOf(null, executor)) {
+                Filex.deleteRecursively(copyTargetDir)
+                val progress = Collections.synchronizedList(LinkedList<Long>())
+                val listener = object : CopyListener {
+                    override fun onUpdateProgress(completedLength: Long) {
+                        progress.add(completedLength)
+                    }
+
+                    override fun isCanceled(): Boolean = false
+                }
+                assertTrue(Filex.copyRecursively(copySourceDir, copyTargetDir, false, parallelExecutor, listener))
+                assertEquals(Filex.listRecursively(copySourceDir)!!.sorted(), Filex.listRecursively(copyTargetDir)!!.sorted())
+                for (file in Filex.listFilesRecursively(copySourceDir)!!.filter { it.isFile }) {
+                    val copiedFile = File(copyTargetDir, Filex.toRelativeString(file, copySourceDir))
+                    assertEquals(file.getMD5Digest(), copiedFile.getMD5Digest())
+                }
+                assertEquals(sourceLength, progress.last())
+                assertEquals(progress.sorted(), progress)
+
+                // test overwrite is false
+                try {
+                    Filex.copyRecursively(copySourceDir, copyTargetDir, false, parallelExecutor, null)
+                    fail()
+                } catch (e: FileAlreadyExistsException) {
+                }
+                assertTrue(Filex.copyRecursively(copySourceDir, copyTargetDir, true, parallelExecutor, null))
+                assertEquals(sourceLength, Filex.lengthRecursively(copyTargetDir))
+
+                // test cancel
+                Filex.deleteRecursively(copyTargetDir)
+                val cancelListener = object : CopyListener {
+                    @Volatile
+                    var canceled = false
+
+                    override fun onUpdateProgress(completedLength: Long) {
+                        canceled = true
+                    }
+
+                    override fun isCanceled(): Boolean = canceled
+                }
+                assertFalse(Filex.copyRecursively(copySourceDir, copyTargetDir, false, parallelExecutor, cancelListener))
+                assertTrue(Filex.lengthRecursively(copyTargetDir) < sourceLength)
+            }
+
+            val copiedBigFile = File(copyTargetDir, "big_copy.bin")
+            var bigFileProgress = 0L
+            Filex.copyTo(bigFile, copiedBigFile, true, object : CopyListener {
+                override fun onUpdateProgress(completedLength: Long) {
+                    bigFileProgress = completedLength
+                }
+
+                override fun isCanceled(): Boolean = false
+            })
+            assertEquals(bigFile.length(), bigFileProgress)
+            assertEquals(bigFile.getMD5Digest(), copiedBigFile.getMD5Digest())
+        } finally {
+            executor.shutdown()
+            Filex.deleteRecursively(copySourceDir)
+            Filex.deleteRecursively(copyTargetDir)
+        }
+    }
+
     @Test
     fun testDeleteRecursively() {
         val dir = Filex.createFileTree(File("/tmp/testDeleteRecursively"), 3, 3, "file.txt", "testDeleteRecursively")
@@ -1483,6 +1568,66 @@ class FilexTest {
         }
     }
 
+    @Test
+    fun testScanLines() {
+        val file = File("/tmp/testScanLines.txt")
+        val executor = Executors.newFixedThreadPool(4)
+        try {
+            val longLine = "x".repeat(1024 * 200)
+            val contents = listOf(
+                    "",
+                    "\n",
+                    "a",
+                    "a\r",
+                    "a\n\nb\r\rc\r\n\r\nd",
+                    "first\r\nsecond\rthird\nfourth\n",
+                    "中文\n日本語\rmixed ascii 中文\r\n\uD83D\uDE00\n",
+                    "$longLine\nshort\r\n$longLine\r$longLine"
+            )
+            for (content in contents) {
+                Filex.writeText(file, content)
+                val expected = Filex.readLines(file)
+
+                val lines = LinkedList<String>()
+                Filex.scanLines(file) { lines.add(it.toString()) }
+                assertEquals(expected, lines)
+
+                val charLines = LinkedList<String>()
+                Filex.scanLines(file) { line -> charLines.add(String(CharArray(line.length) { line[it] })) }
+                assertEquals(expected, charLines)
+
+                // Chunks should be much larger than the lines, the long lines still span many chunks
+                val chunkSizes = if (content.length < 1024) listOf(1L, 2L, 3L, 7L, 1024L, 1024L * 1024) else listOf(1000L, 1024L * 70, 1024L * 1024)
+                for (chunkSize in chunkSizes) {
+                    val parallelLines = Collections.synchronizedList(LinkedList<String>())
+                    Filex.scanLines(file, Charset.forName("UTF-8"), executor, chunkSize) { parallelLines.add(it.toString()) }
+                    assertEquals(expected.sorted(), parallelLines.sorted())
+                }
+            }
+
+            // UTF-16 is read as Strings
+            Filex.writeText(file, "a\nb\r\n中文", Charset.forName("UTF-16"))
+            val utf16Lines = LinkedList<String>()
+            Filex.scanLines(file, Charset.forName("UTF-16")) { utf16Lines.add(it.toString()) }
+            assertEquals(listOf("a", "b", "中文"), utf16Lines)
+            try {
+                Filex.scanLines(file, Charset.forName("UTF-16"), executor) { }
+                fail()
+            } catch (e: IllegalArgumentException) {
+            }
+
+            Filex.writeText(file, "a\nb\nc\nd")
+            try {
+                Filex.scanLines(file, Charset.forName("UTF-8"), executor, 2) { if (it.toString() == "c") throw IllegalStateException() }
+                fail()
+            } catch (e: IllegalStateException) {
+            }
+        } finally {
+            executor.shutdown()
+            file.delete()
+        }
+    }
+
     @Test
     fun testOutputStream() {
         val file = File("/tmp/testOutputStream.txt")
@@ -1581,6 +1726,91 @@ class FilexTest {
         }
     }
 
+    @Test
+    @Throws(IOException::class)
+    fun testParallelWalk() {
+        val sourceDir = Filex.createFileTree(File("/tmp/testParallelWalk"), 3, 3, "file.txt", "testParallelWalk")
+        val executor = Executors.newFixedThreadPool(4)
+        try {
+            val walks = listOf(
+                    Filex.walkTopDown(sourceDir),
+                    Filex.walkBottomUp(sourceDir),
+                    Filex.walkTopDown(sourceDir).maxDepth(2),
+                    Filex.walkBottomUp(sourceDir).onEnter { it.name != "dir1" }
+            )
+            for (walk in walks) {
+                val serialEvents = LinkedList<String>()
+                val serialFiles = walk.onLeave { serialEvents.add(it.path) }.map { it.path }
+                val parallelEvents = LinkedList<String>()
+                val parallelFiles = walk.onLeave { parallelEvents.add(it.path) }.parallel(executor).map { it.path }
+                assertEquals(serialFiles, parallelFiles)
+                assertEquals(serialEvents, parallelEvents)
+
+                val unorderedEvents = Collections.synchronizedList(LinkedList<String>())
+                val unorderedFiles = walk.onLeave { unorderedEvents.add(it.path) }.parallel(executor, false).map { it.path }
+                assertEquals(serialFiles.sorted(), unorderedFiles.sorted())
+                assertEquals(serialEvents.sorted(), unorderedEvents.sorted())
+                // A directory is visited before its files
+                for ((index, path) in unorderedFiles.withIndex()) {
+                    val parentIndex = unorderedFiles.indexOf(File(path).parent)
+                    assertTrue(path, path == sourceDir.path || parentIndex in 0 until index)
+                }
+            }
+
+            assertEquals(listOf(File(sourceDir, "file1.txt").path), Filex.walk(File(sourceDir, "file1.txt")).parallel(executor, false).map { it.path })
+            assertEquals(emptyList<String>(), Filex.walk(File(sourceDir, "missing")).parallel(executor, false).map { it.path })
+
+            try {
+                Filex.walk(sourceDir).onEnter { if (it.name == "dir2") throw IllegalStateException(it.path) else true }
+                        .parallel(executor, false).toList()
+                fail()
+            } catch (e: IllegalStateException) {
+            }
+
+            // More files than the queue holds, the walk waits for the iteration and stops once the iterator is closed
+            val manyDir = File(sourceDir, "many").apply { mkdirs() }
+            repeat(3000) { File(manyDir, "file$it.txt").createNewFile() }
+            assertEquals(3001, Filex.walk(manyDir).parallel(executor, false).count())
+            val closeExecutor = Executors.newFixedThreadPool(2)
+            val iterator = Filex.walk(manyDir).parallel(closeExecutor, false).iterator()
+            assertEquals(manyDir, iterator.next())
+            (iterator as Closeable).close()
+            assertFalse(iterator.hasNext())
+            closeExecutor.shutdown()
+            assertTrue(closeExecutor.awaitTermination(10, TimeUnit.SECONDS))
+        } finally {
+            executor.shutdown()
+            Filex.deleteRecursively(sourceDir)
+        }
+    }
+
+    @Test
+    fun testDirectoryReader() {
+        val sourceDir = Filex.createFileTree(File("/tmp/testDirectoryReader"), 3, 3, "file.txt", "testDirectoryReader")
+        try {
+            assertTrue(DirectoryReader.isNioAvailable())
+            for (dir in Filex.walk(sourceDir).filter { it.isDirectory }) {
+                val entries = requireNotNull(DirectoryReader.read(dir))
+                assertEquals(requireNotNull(dir.listFiles()).map { it.path }.sorted(), entries.map { it.file.path }.sorted())
+                for (entry in entries) {
+                    val plainEntry = FileEntry(entry.file)
+                    assertEquals(plainEntry.exists(), entry.exists())
+                    assertEquals(plainEntry.isDirectory, entry.isDirectory)
+                    assertEquals(plainEntry.isRegularFile, entry.isRegularFile)
+                    assertEquals(plainEntry.length(), entry.length())
+                    assertEquals(plainEntry.lastModified(), entry.lastModified())
+                }
+            }
+
+            assertNull(DirectoryReader.read(File(sourceDir, "file1.txt")))
+            assertNull(DirectoryReader.readPlain(File(sourceDir, "file1.txt")))
+            assertNull(DirectoryReader.read(File(sourceDir, "missing")))
+            assertNull(DirectoryReader.read(File("")))
+        } finally {
+            Filex.deleteRecursively(sourceDir)
+        }
+    }
+
     @Test
     fun testFilterFileNameIllegalCharacters() {
         assertEquals("sample.txt", Filex.filterFileNameIllegalCharacters("sample.txt"))
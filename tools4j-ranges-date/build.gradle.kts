@@ -15,6 +15,7 @@ configure<JavaPluginConvention> {
 dependencies {
     api("org.jetbrains:annotations:${property("JETBRAINS_ANNOTATIONS_VERSION")}")
     api(project(":tools4j-ranges"))
+    api(project(":tools4j-common-iterable"))
 
     testImplementation("junit:junit:${property("JUNIT_VERSION")}")
     testImplementation("org.jetbrains.kotlin:kotlin-stdlib-jdk7:${property("KOTLIN_VERSION")}")
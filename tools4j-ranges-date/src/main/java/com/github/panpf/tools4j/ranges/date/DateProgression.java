@@ -16,11 +16,26 @@
 
 package com.github.panpf.tools4j.ranges.date;
 
+import com.github.panpf.tools4j.iterable.LongIterator;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Calendar;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 
+/**
+ * A progression of dates, the element at index i is [first] plus i times [step] units.
+ * <p>
+ * The built-in progressions compute the elements from the epoch milliseconds of [first],
+ * so [size], [get], [indexOf], [containsElement] and [split] take constant time and the iterators don't keep more than an index.
+ * The hour, minute, second and millisecond progressions only use arithmetic,
+ * the year, month and day of month progressions use one Calendar per query or per iterator, created in the default time zone.
+ * Progressions that only implement [nextDate] are walked from [first] instead.
+ */
 public abstract class DateProgression implements Iterable<Date> {
 
     @NotNull
@@ -29,6 +44,8 @@ public abstract class DateProgression implements Iterable<Date> {
     private final Date last;
     private final int step;
 
+    private volatile long size = -1;
+
     public DateProgression(@NotNull Date first, @NotNull Date last, int step) {
         if (step == 0) throw new IllegalArgumentException("Step must be non-zero");
         this.first = first;
@@ -38,7 +55,55 @@ public abstract class DateProgression implements Iterable<Date> {
 
     @NotNull
     public Iterator<Date> iterator() {
-        return (new DateProgressionIterator(this, this.getFirst(), this.getLast(), this.step));
+        final LongIterator iterator = millisIterator();
+        return new Iterator<Date>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @NotNull
+            @Override
+            public Date next() {
+                return new Date(iterator.nextLong());
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("remove");
+            }
+        };
+    }
+
+    /**
+     * Returns an iterator over the epoch milliseconds of the elements, which doesn't create Date objects
+     */
+    @NotNull
+    public LongIterator millisIterator() {
+        final Calendar calendar = newCalendar();
+        final long size = size();
+        final boolean randomAccess = isRandomAccess();
+        return new LongIterator() {
+            private long index;
+            private long millis;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public long nextLong() {
+                if (index >= size) throw new NoSuchElementException();
+                if (randomAccess) {
+                    millis = millisAt(calendar, index);
+                } else {
+                    millis = index == 0 ? first.getTime() : nextDate(new Date(millis)).getTime();
+                }
+                index++;
+                return millis;
+            }
+        };
     }
 
     @NotNull
@@ -57,4 +122,189 @@ public abstract class DateProgression implements Iterable<Date> {
     public final int getStep() {
         return this.step;
     }
+
+    public boolean isEmpty() {
+        return this.step > 0 ? this.first.compareTo(this.last) > 0 : this.first.compareTo(this.last) < 0;
+    }
+
+    /**
+     * Returns the number of elements
+     */
+    public long size() {
+        long size = this.size;
+        if (size == -1) {
+            size = isEmpty() ? 0 : stepsTo(newCalendar(), last.getTime()) + 1;
+            this.size = size;
+        }
+        return size;
+    }
+
+    /**
+     * Returns the epoch milliseconds of the element at [index]
+     *
+     * @throws IndexOutOfBoundsException if [index] is less than zero or not less than [size]
+     */
+    public long getMillis(long index) {
+        long size = size();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+        return millisAt(newCalendar(), index);
+    }
+
+    /**
+     * Returns the element at [index]
+     *
+     * @throws IndexOutOfBoundsException if [index] is less than zero or not less than [size]
+     */
+    @NotNull
+    public Date get(long index) {
+        return new Date(getMillis(index));
+    }
+
+    /**
+     * Returns the index of the element equal to [millis] epoch milliseconds, or -1 if it is not an element
+     */
+    public long indexOf(long millis) {
+        Calendar calendar = newCalendar();
+        long index = stepsTo(calendar, millis);
+        return index >= 0 && index < size() && millisAt(calendar, index) == millis ? index : -1;
+    }
+
+    /**
+     * Returns the index of the element equal to [date], or -1 if it is not an element
+     */
+    public long indexOf(@NotNull Date date) {
+        return indexOf(date.getTime());
+    }
+
+    /**
+     * Returns true if [millis] epoch milliseconds is an element,
+     * unlike the contains() method of ranges, which checks if a date is between the start and the end
+     */
+    public boolean containsElement(long millis) {
+        return indexOf(millis) != -1;
+    }
+
+    /**
+     * Returns true if [date] is an element,
+     * unlike the contains() method of ranges, which checks if a date is between the start and the end
+     */
+    public boolean containsElement(@NotNull Date date) {
+        return indexOf(date.getTime()) != -1;
+    }
+
+    /**
+     * Returns a progression of the elements from [fromIndex] (inclusive) to [toIndex] (exclusive),
+     * which computes its elements from the elements of this progression
+     *
+     * @throws IndexOutOfBoundsException if [fromIndex] is less than zero, [toIndex] is greater than [size] or [fromIndex] is greater than [toIndex]
+     */
+    @NotNull
+    public DateProgression subProgression(long fromIndex, long toIndex) {
+        long size = size();
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", size: " + size);
+        }
+        return new SubDateProgression(this, newCalendar(), fromIndex, toIndex);
+    }
+
+    /**
+     * Splits the elements into at most [parts] consecutive progressions whose sizes differ by at most one, for processing them in parallel
+     *
+     * @throws IllegalArgumentException if [parts] is less than or equal to zero
+     */
+    @NotNull
+    public List<DateProgression> split(int parts) {
+        if (parts <= 0) throw new IllegalArgumentException("Param 'parts' is less than or equal to zero.");
+        long size = size();
+        int count = (int) Math.min(parts, size);
+        List<DateProgression> result = new ArrayList<DateProgression>(count);
+        Calendar calendar = newCalendar();
+        long fromIndex = 0;
+        for (int part = 0; part < count; part++) {
+            long toIndex = fromIndex + (size - fromIndex) / (count - part);
+            result.add(new SubDateProgression(this, calendar, fromIndex, toIndex));
+            fromIndex = toIndex;
+        }
+        return result;
+    }
+
+
+    /* ******************************************* element arithmetic *******************************************/
+
+    /**
+     * Returns true if [millisAt] and [stepsTo] compute the elements instead of walking them with [nextDate]
+     */
+    boolean isRandomAccess() {
+        return false;
+    }
+
+    /**
+     * Returns the calendar passed to [millisAt] and [stepsTo], or null if they don't need one
+     */
+    @Nullable
+    Calendar newCalendar() {
+        return null;
+    }
+
+    /**
+     * Returns the epoch milliseconds of the element at [index], which may be out of the bounds
+     */
+    long millisAt(@Nullable Calendar calendar, long index) {
+        Date date = first;
+        for (long i = 0; i < index; i++) {
+            date = nextDate(date);
+        }
+        return date.getTime();
+    }
+
+    /**
+     * Returns the largest index whose element is not after [millis] in the direction of the step,
+     * -1 if even the first element is after it, the result may be greater than the last index
+     */
+    long stepsTo(@Nullable Calendar calendar, long millis) {
+        long index = -1;
+        for (Date date = first; isReached(date.getTime(), millis); date = nextDate(date)) {
+            index++;
+        }
+        return index;
+    }
+
+    final long fixedMillisAt(long index, long unitMillis) {
+        return first.getTime() + index * step * unitMillis;
+    }
+
+    final long fixedStepsTo(long millis, long unitMillis) {
+        long difference = millis - first.getTime();
+        long stepMillis = step * unitMillis;
+        long index = difference / stepMillis;
+        return (difference % stepMillis != 0 && (difference ^ stepMillis) < 0) ? index - 1 : index;
+    }
+
+    final long calendarMillisAt(@NotNull Calendar calendar, long index, int field) {
+        calendar.setTimeInMillis(first.getTime());
+        calendar.add(field, (int) (index * step));
+        return calendar.getTimeInMillis();
+    }
+
+    /**
+     * Estimates the index with [averageUnitMillis] and corrects it with [calendarMillisAt],
+     * which only takes a few steps because the length of the units varies little
+     */
+    final long calendarStepsTo(@NotNull Calendar calendar, long millis, int field, long averageUnitMillis) {
+        long maxIndex = Integer.MAX_VALUE / Math.abs(step) - 1;
+        long index = Math.max(Math.min((millis - first.getTime()) / (averageUnitMillis * step), maxIndex), -1);
+        while (index >= 0 && !isReached(calendarMillisAt(calendar, index, field), millis)) {
+            index--;
+        }
+        while (index < maxIndex && isReached(calendarMillisAt(calendar, index + 1, field), millis)) {
+            index++;
+        }
+        return index;
+    }
+
+    private boolean isReached(long elementMillis, long millis) {
+        return step > 0 ? elementMillis <= millis : elementMillis >= millis;
+    }
 }
@@ -22,6 +22,12 @@ import java.util.Date;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
+/**
+ * Iterates a [DateProgression] by applying its step to the previous date each time.
+ *
+ * @deprecated Please use DateProgression's iterator() or millisIterator() instead, which compute every element from the first date
+ */
+@Deprecated
 public class DateProgressionIterator implements Iterator<Date> {
 
     @NotNull
@@ -17,12 +17,15 @@
 package com.github.panpf.tools4j.ranges.date;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Calendar;
 import java.util.Date;
 
 public class DayOfMonthProgression extends DateProgression {
 
+    private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+
     public DayOfMonthProgression(@NotNull Date first, @NotNull Date last, int step) {
         super(first, last, step);
     }
@@ -35,6 +38,29 @@ public class DayOfMonthProgression extends DateProgression {
         return new Date(calendar.getTimeInMillis());
     }
 
+    @Override
+    boolean isRandomAccess() {
+        return true;
+    }
+
+    @NotNull
+    @Override
+    Calendar newCalendar() {
+        return Calendar.getInstance();
+    }
+
+    @Override
+    long millisAt(@Nullable Calendar calendar, long index) {
+        //noinspection ConstantConditions
+        return calendarMillisAt(calendar, index, Calendar.DAY_OF_MONTH);
+    }
+
+    @Override
+    long stepsTo(@Nullable Calendar calendar, long millis) {
+        //noinspection ConstantConditions
+        return calendarStepsTo(calendar, millis, Calendar.DAY_OF_MONTH, DAY_MILLIS);
+    }
+
     @NotNull
     public static DayOfMonthProgression fromClosedRange(@NotNull Date first, @NotNull Date last, int step) {
         return new DayOfMonthProgression(first, last, step);
@@ -17,22 +17,37 @@
 package com.github.panpf.tools4j.ranges.date;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Calendar;
 import java.util.Date;
 
 public class MinuteProgression extends DateProgression {
 
+    private static final long MINUTE_MILLIS = 60 * 1000L;
+
     public MinuteProgression(@NotNull Date first, @NotNull Date last, int step) {
         super(first, last, step);
     }
 
     @NotNull
     public Date nextDate(@NotNull Date date) {
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTimeInMillis(date.getTime());
-        calendar.add(Calendar.MINUTE, this.getStep());
-        return new Date(calendar.getTimeInMillis());
+        return new Date(date.getTime() + this.getStep() * MINUTE_MILLIS);
+    }
+
+    @Override
+    boolean isRandomAccess() {
+        return true;
+    }
+
+    @Override
+    long millisAt(@Nullable Calendar calendar, long index) {
+        return fixedMillisAt(index, MINUTE_MILLIS);
+    }
+
+    @Override
+    long stepsTo(@Nullable Calendar calendar, long millis) {
+        return fixedStepsTo(millis, MINUTE_MILLIS);
     }
 
     @NotNull
@@ -17,12 +17,18 @@
 package com.github.panpf.tools4j.ranges.date;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Calendar;
 import java.util.Date;
 
 public class MonthProgression extends DateProgression {
 
+    /**
+     * 30.436875 days
+     */
+    private static final long AVERAGE_MONTH_MILLIS = 2629746000L;
+
     public MonthProgression(@NotNull Date first, @NotNull Date last, int step) {
         super(first, last, step);
     }
@@ -35,6 +41,29 @@ public class MonthProgression extends DateProgression {
         return new Date(calendar.getTimeInMillis());
     }
 
+    @Override
+    boolean isRandomAccess() {
+        return true;
+    }
+
+    @NotNull
+    @Override
+    Calendar newCalendar() {
+        return Calendar.getInstance();
+    }
+
+    @Override
+    long millisAt(@Nullable Calendar calendar, long index) {
+        //noinspection ConstantConditions
+        return calendarMillisAt(calendar, index, Calendar.MONTH);
+    }
+
+    @Override
+    long stepsTo(@Nullable Calendar calendar, long millis) {
+        //noinspection ConstantConditions
+        return calendarStepsTo(calendar, millis, Calendar.MONTH, AVERAGE_MONTH_MILLIS);
+    }
+
     @NotNull
     public static MonthProgression fromClosedRange(@NotNull Date first, @NotNull Date last, int step) {
         return new MonthProgression(first, last, step);
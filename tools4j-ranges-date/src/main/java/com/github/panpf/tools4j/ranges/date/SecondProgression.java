@@ -17,22 +17,37 @@
 package com.github.panpf.tools4j.ranges.date;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Calendar;
 import java.util.Date;
 
 public class SecondProgression extends DateProgression {
 
+    private static final long SECOND_MILLIS = 1000L;
+
     public SecondProgression(@NotNull Date first, @NotNull Date last, int step) {
         super(first, last, step);
     }
 
     @NotNull
     public Date nextDate(@NotNull Date date) {
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTimeInMillis(date.getTime());
-        calendar.add(Calendar.SECOND, this.getStep());
-        return new Date(calendar.getTimeInMillis());
+        return new Date(date.getTime() + this.getStep() * SECOND_MILLIS);
+    }
+
+    @Override
+    boolean isRandomAccess() {
+        return true;
+    }
+
+    @Override
+    long millisAt(@Nullable Calendar calendar, long index) {
+        return fixedMillisAt(index, SECOND_MILLIS);
+    }
+
+    @Override
+    long stepsTo(@Nullable Calendar calendar, long millis) {
+        return fixedStepsTo(millis, SECOND_MILLIS);
     }
 
     @NotNull
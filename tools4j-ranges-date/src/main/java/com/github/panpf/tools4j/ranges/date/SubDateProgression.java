@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.ranges.date;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * A part of a progression returned by [DateProgression.subProgression] and [DateProgression.split],
+ * whose element at index i is the element at index [offset] + i of the parent, so it keeps the month and year pinning of the parent
+ */
+final class SubDateProgression extends DateProgression {
+
+    @NotNull
+    private final DateProgression parent;
+    private final long offset;
+    private final long size;
+
+    SubDateProgression(@NotNull DateProgression parent, @Nullable Calendar calendar, long fromIndex, long toIndex) {
+        super(new Date(parent.millisAt(calendar, fromIndex)), new Date(parent.millisAt(calendar, Math.max(toIndex - 1, fromIndex))), parent.getStep());
+        this.parent = parent;
+        this.offset = fromIndex;
+        this.size = toIndex - fromIndex;
+    }
+
+    @NotNull
+    @Override
+    public Date nextDate(@NotNull Date date) {
+        return parent.nextDate(date);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    boolean isRandomAccess() {
+        return parent.isRandomAccess();
+    }
+
+    @Nullable
+    @Override
+    Calendar newCalendar() {
+        return parent.newCalendar();
+    }
+
+    @Override
+    long millisAt(@Nullable Calendar calendar, long index) {
+        return parent.millisAt(calendar, offset + index);
+    }
+
+    @Override
+    long stepsTo(@Nullable Calendar calendar, long millis) {
+        return Math.max(parent.stepsTo(calendar, millis) - offset, -1);
+    }
+}
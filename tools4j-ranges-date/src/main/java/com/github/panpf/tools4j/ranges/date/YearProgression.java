@@ -17,12 +17,18 @@
 package com.github.panpf.tools4j.ranges.date;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Calendar;
 import java.util.Date;
 
 public class YearProgression extends DateProgression {
 
+    /**
+     * 365.2425 days
+     */
+    private static final long AVERAGE_YEAR_MILLIS = 31556952000L;
+
     public YearProgression(@NotNull Date first, @NotNull Date last, int step) {
         super(first, last, step);
     }
@@ -35,6 +41,29 @@ public class YearProgression extends DateProgression {
         return new Date(calendar.getTimeInMillis());
     }
 
+    @Override
+    boolean isRandomAccess() {
+        return true;
+    }
+
+    @NotNull
+    @Override
+    Calendar newCalendar() {
+        return Calendar.getInstance();
+    }
+
+    @Override
+    long millisAt(@Nullable Calendar calendar, long index) {
+        //noinspection ConstantConditions
+        return calendarMillisAt(calendar, index, Calendar.YEAR);
+    }
+
+    @Override
+    long stepsTo(@Nullable Calendar calendar, long millis) {
+        //noinspection ConstantConditions
+        return calendarStepsTo(calendar, millis, Calendar.YEAR, AVERAGE_YEAR_MILLIS);
+    }
+
     @NotNull
     public static YearProgression fromClosedRange(@NotNull Date first, @NotNull Date last, int step) {
         return new YearProgression(first, last, step);
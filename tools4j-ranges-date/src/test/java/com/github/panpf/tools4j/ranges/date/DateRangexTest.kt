@@ -234,4 +234,45 @@ class DateRangexTest {
                 DateRangex.step(DateRangex.millisecondDownTo("2022-10-07 13:34:12 555".toDate(Datex.yMdHmsS), "2022-10-07 13:34:12 553".toDate(Datex.yMdHmsS)), 2).joinToString { it.format(Datex.yMdHmsS) }
         )
     }
+
+    @Test
+    fun testRandomAccess() {
+        val hours = DateRangex.hourOfDayRangeTo("2018-01-01 00".toDate(Datex.yMdH), "2022-12-31 23".toDate(Datex.yMdH))
+        val hourList = hours.toList()
+        assertEquals(43824L, hours.size())
+        assertEquals(hourList.size.toLong(), hours.size())
+        assertEquals(hourList[1000], hours.get(1000))
+        assertEquals(1000L, hours.indexOf(hourList[1000]))
+        assertEquals(-1L, hours.indexOf(hourList[1000].time + 1))
+        assertTrue(hours.containsElement(hourList.last()))
+        assertFalse(hours.containsElement(hourList.last().time + 60 * 60 * 1000))
+        assertEquals(hourList.map { it.time }, hours.millisIterator().asSequence().toList())
+        assertEquals(7, hours.split(7).size)
+        assertEquals(hourList, hours.split(7).flatMap { it.toList() })
+        assertEquals(hourList.subList(10, 20), hours.subProgression(10, 20).toList())
+        try {
+            hours.get(hours.size())
+            fail()
+        } catch (e: IndexOutOfBoundsException) {
+        }
+
+        val months = DateRangex.monthRangeTo("2018-01-31".toDate(Datex.yMd), "2018-05-31".toDate(Datex.yMd))
+        assertEquals("2018-01-31, 2018-02-28, 2018-03-31, 2018-04-30, 2018-05-31", months.joinToString { it.format(Datex.yMd) })
+        assertEquals(5L, months.size())
+        assertEquals("2018-03-31", months.get(2).format(Datex.yMd))
+        assertEquals(3L, months.indexOf("2018-04-30".toDate(Datex.yMd)))
+        assertEquals(-1L, months.indexOf("2018-04-29".toDate(Datex.yMd)))
+        assertEquals("2018-03-31, 2018-04-30, 2018-05-31", months.split(2)[1].joinToString { it.format(Datex.yMd) })
+
+        val days = DateRangex.dayOfMonthDownTo("2018-08-06".toDate(Datex.yMd), "2018-07-28".toDate(Datex.yMd))
+        assertEquals(10L, days.size())
+        assertEquals("2018-07-28", days.get(9).format(Datex.yMd))
+        assertEquals(5L, days.indexOf("2018-08-01".toDate(Datex.yMd)))
+        assertEquals(listOf(3L, 3L, 4L), days.split(3).map { it.size() })
+
+        val emptyDays = DateRangex.dayOfMonthRangeTo("2018-08-06".toDate(Datex.yMd), "2018-08-03".toDate(Datex.yMd))
+        assertEquals(0L, emptyDays.size())
+        assertEquals(-1L, emptyDays.indexOf("2018-08-06".toDate(Datex.yMd)))
+        assertTrue(emptyDays.split(3).isEmpty())
+    }
 }
@@ -0,0 +1,265 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.regex;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * A global cache of the patterns compiled for the regular expression strings passed to [Regexx],
+ * which keeps the most recently used [MAX_SIZE] patterns by regular expression and flags.
+ * <p>
+ * The cache is split into segments with their own lock and least recently used order, so threads using different
+ * regular expressions rarely wait for each other. Patterns are compiled outside the locks.
+ */
+public final class PatternCache {
+
+    /**
+     * The maximum number of cached patterns
+     */
+    public static final int MAX_SIZE = 256;
+
+    private static final int SEGMENT_COUNT = 16;
+    @NotNull
+    private static final Segment[] SEGMENTS = new Segment[SEGMENT_COUNT];
+
+    static {
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            SEGMENTS[i] = new Segment(MAX_SIZE / SEGMENT_COUNT);
+        }
+    }
+
+    private static volatile boolean enabled = true;
+
+    private PatternCache() {
+    }
+
+    /**
+     * Returns the pattern of [regex] from the cache, compiling it if it isn't cached yet
+     *
+     * @throws java.util.regex.PatternSyntaxException if [regex] is invalid
+     */
+    @NotNull
+    public static Pattern get(@NotNull String regex) {
+        return get(regex, 0);
+    }
+
+    /**
+     * Returns the pattern of [regex] compiled with [flags] from the cache, compiling it if it isn't cached yet
+     *
+     * @param flags the flags of [Pattern.compile]
+     * @throws java.util.regex.PatternSyntaxException if [regex] is invalid
+     */
+    @NotNull
+    public static Pattern get(@NotNull String regex, int flags) {
+        if (!enabled) {
+            return Pattern.compile(regex, flags);
+        }
+        // Most regular expressions have no flags, so they are their own key and the lookup allocates nothing
+        Object key = flags == 0 ? regex : new Key(regex, flags);
+        Segment segment = segmentFor(key);
+        Pattern pattern = segment.get(key);
+        if (pattern == null) {
+            pattern = segment.putIfAbsent(key, Pattern.compile(regex, flags));
+        }
+        return pattern;
+    }
+
+    /**
+     * Returns true if the patterns are cached, which is the default
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables the cache, a disabled cache compiles the pattern for each call and is cleared
+     */
+    public static void setEnabled(boolean enabled) {
+        PatternCache.enabled = enabled;
+        if (!enabled) {
+            clear();
+        }
+    }
+
+    /**
+     * Removes all the cached patterns, the statistics are kept
+     */
+    public static void clear() {
+        for (Segment segment : SEGMENTS) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Returns the number of cached patterns
+     */
+    public static int size() {
+        int size = 0;
+        for (Segment segment : SEGMENTS) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of times a cached pattern was returned
+     */
+    public static long getHitCount() {
+        long count = 0;
+        for (Segment segment : SEGMENTS) {
+            count += segment.hitCount();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of times a pattern had to be compiled while the cache was enabled
+     */
+    public static long getMissCount() {
+        long count = 0;
+        for (Segment segment : SEGMENTS) {
+            count += segment.missCount();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of patterns removed to keep the size of the cache
+     */
+    public static long getEvictionCount() {
+        long count = 0;
+        for (Segment segment : SEGMENTS) {
+            count += segment.evictionCount();
+        }
+        return count;
+    }
+
+    /**
+     * Resets the hit, miss and eviction counts to zero
+     */
+    public static void resetStats() {
+        for (Segment segment : SEGMENTS) {
+            segment.resetStats();
+        }
+    }
+
+    @NotNull
+    private static Segment segmentFor(@NotNull Object key) {
+        int hash = key.hashCode();
+        return SEGMENTS[(hash ^ (hash >>> 16)) & (SEGMENT_COUNT - 1)];
+    }
+
+    private static final class Key {
+        @NotNull
+        private final String regex;
+        private final int flags;
+
+        private Key(@NotNull String regex, int flags) {
+            this.regex = regex;
+            this.flags = flags;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return flags == key.flags && regex.equals(key.regex);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * regex.hashCode() + flags;
+        }
+    }
+
+    private static final class Segment {
+        @NotNull
+        private final Map<Object, Pattern> patterns;
+        private long hitCount;
+        private long missCount;
+        private long evictionCount;
+
+        private Segment(final int maxSize) {
+            this.patterns = new LinkedHashMap<Object, Pattern>(maxSize * 4 / 3 + 1, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, Pattern> eldest) {
+                    if (size() > maxSize) {
+                        evictionCount++;
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        @Nullable
+        synchronized Pattern get(@NotNull Object key) {
+            Pattern pattern = patterns.get(key);
+            if (pattern != null) {
+                hitCount++;
+            } else {
+                missCount++;
+            }
+            return pattern;
+        }
+
+        /**
+         * Another thread may have compiled the same pattern in the meantime, then its pattern is kept and returned
+         */
+        @NotNull
+        synchronized Pattern putIfAbsent(@NotNull Object key, @NotNull Pattern pattern) {
+            Pattern cached = patterns.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            patterns.put(key, pattern);
+            return pattern;
+        }
+
+        synchronized void clear() {
+            patterns.clear();
+        }
+
+        synchronized int size() {
+            return patterns.size();
+        }
+
+        synchronized long hitCount() {
+            return hitCount;
+        }
+
+        synchronized long missCount() {
+            return missCount;
+        }
+
+        synchronized long evictionCount() {
+            return evictionCount;
+        }
+
+        synchronized void resetStats() {
+            hitCount = 0;
+            missCount = 0;
+            evictionCount = 0;
+        }
+    }
+}
@@ -124,7 +124,7 @@ public class Regexx {
      * Return true if the entire sequence of characters matches the given regular expression
      */
     public static boolean matches(@Nullable CharSequence charSequence, @NotNull String regex) {
-        return Pattern.compile(regex).matcher(charSequence != null ? charSequence : "").matches();
+        return PatternCache.get(regex).matcher(charSequence != null ? charSequence : "").matches();
     }
 
     /**
@@ -138,7 +138,7 @@ public class Regexx {
      * Returns true if the specified sequence of characters matches any given position from the specified position to the given regular expression
      */
     public static boolean find(@Nullable CharSequence charSequence, @NotNull String regex, int start) {
-        return Pattern.compile(regex).matcher(charSequence != null ? charSequence : "").find(start);
+        return PatternCache.get(regex).matcher(charSequence != null ? charSequence : "").find(start);
     }
 
     /**
@@ -152,7 +152,7 @@ public class Regexx {
      * Return true if a given regular expression is matched anywhere in a given sequence of characters
      */
     public static boolean find(@Nullable CharSequence charSequence, @NotNull String regex) {
-        return Pattern.compile(regex).matcher(charSequence != null ? charSequence : "").find();
+        return PatternCache.get(regex).matcher(charSequence != null ? charSequence : "").find();
     }
 
     /**
@@ -166,7 +166,7 @@ public class Regexx {
      * Return true if the given regular expression is matched at the beginning of the character sequence
      */
     public static boolean lookingAt(@Nullable CharSequence charSequence, @NotNull String regex) {
-        return Pattern.compile(regex).matcher(charSequence != null ? charSequence : "").lookingAt();
+        return PatternCache.get(regex).matcher(charSequence != null ? charSequence : "").lookingAt();
     }
 
     /**
@@ -183,7 +183,7 @@ public class Regexx {
      */
     @Nullable
     public static String getFirst(@Nullable CharSequence charSequence, @NotNull String regex) {
-        Matcher matcher = Pattern.compile(regex).matcher(charSequence != null ? charSequence : "");
+        Matcher matcher = PatternCache.get(regex).matcher(charSequence != null ? charSequence : "");
         return matcher.find() ? matcher.group() : null;
     }
 
@@ -205,7 +205,7 @@ public class Regexx {
      */
     @NotNull
     public static String[] getAll(@Nullable CharSequence charSequence, @NotNull String regex) {
-        Matcher matcher = Pattern.compile(regex).matcher(charSequence != null ? charSequence : "");
+        Matcher matcher = PatternCache.get(regex).matcher(charSequence != null ? charSequence : "");
         List<String> stringList = new LinkedList<String>();
         while (matcher.find()) {
             stringList.add(matcher.group());
@@ -227,7 +227,7 @@ public class Regexx {
      */
     @Nullable
     public static Group firstGroup(@Nullable CharSequence charSequence, @NotNull String regex) {
-        Matcher matcher = Pattern.compile(regex).matcher(charSequence != null ? charSequence : "");
+        Matcher matcher = PatternCache.get(regex).matcher(charSequence != null ? charSequence : "");
         return matcher.find() ? new Group(matcher.start(), matcher.end(), matcher.group()) : null;
     }
 
@@ -249,7 +249,7 @@ public class Regexx {
      */
     @NotNull
     public static Group[] allGroup(@Nullable CharSequence charSequence, @NotNull String regex) {
-        Matcher matcher = Pattern.compile(regex).matcher(charSequence != null ? charSequence : "");
+        Matcher matcher = PatternCache.get(regex).matcher(charSequence != null ? charSequence : "");
         List<Group> stringList = new LinkedList<Group>();
         while (matcher.find()) {
             stringList.add(new Group(matcher.start(), matcher.end(), matcher.group()));
@@ -270,7 +270,7 @@ public class Regexx {
      */
     @NotNull
     public static String replaceFirst(@Nullable CharSequence charSequence, @NotNull String regex, @NotNull String replacement) {
-        return Pattern.compile(regex).matcher(charSequence != null ? charSequence : "").replaceFirst(replacement);
+        return PatternCache.get(regex).matcher(charSequence != null ? charSequence : "").replaceFirst(replacement);
     }
 
     /**
@@ -286,6 +286,6 @@ public class Regexx {
      */
     @NotNull
     public static String replaceAll(@Nullable CharSequence charSequence, @NotNull String regex, @NotNull String replacement) {
-        return Pattern.compile(regex).matcher(charSequence != null ? charSequence : "").replaceAll(replacement);
+        return PatternCache.get(regex).matcher(charSequence != null ? charSequence : "").replaceAll(replacement);
     }
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.panpf.tools4j.regex
+
+import org.junit.Assert
+import org.junit.Test
+import java.util.regex.Pattern
+import java.util.regex.PatternSyntaxException
+
+class PatternCacheTest {
+
+    @Test
+    fun testGet() {
+        PatternCache.clear()
+        PatternCache.resetStats()
+
+        val pattern = PatternCache.get("[a-z]+\\d")
+        Assert.assertEquals("[a-z]+\\d", pattern.pattern())
+        Assert.assertSame(pattern, PatternCache.get("[a-z]+\\d"))
+        Assert.assertSame(pattern, PatternCache.get("[a-z]+\\d", 0))
+        val caseInsensitivePattern = PatternCache.get("[a-z]+\\d", Pattern.CASE_INSENSITIVE)
+        Assert.assertNotSame(pattern, caseInsensitivePattern)
+        Assert.assertEquals(Pattern.CASE_INSENSITIVE, caseInsensitivePattern.flags())
+        Assert.assertSame(caseInsensitivePattern, PatternCache.get("[a-z]+\\d", Pattern.CASE_INSENSITIVE))
+        Assert.assertEquals(2, PatternCache.size())
+        Assert.assertEquals(3L, PatternCache.getHitCount())
+        Assert.assertEquals(2L, PatternCache.getMissCount())
+
+        Assert.assertTrue(Regexx.matches("abc1", "[a-z]+\\d"))
+        Assert.assertEquals(4L, PatternCache.getHitCount())
+
+        try {
+            PatternCache.get("[a-z")
+            Assert.fail()
+        } catch (e: PatternSyntaxException) {
+        }
+        Assert.assertEquals(2, PatternCache.size())
+    }
+
+    @Test
+    fun testEviction() {
+        PatternCache.clear()
+        PatternCache.resetStats()
+
+        val first = PatternCache.get("a0")
+        for (i in 1 until PatternCache.MAX_SIZE * 2) {
+            PatternCache.get("a$i")
+            // Keeps the first pattern recently used, so it is never evicted
+            Assert.assertSame(first, PatternCache.get("a0"))
+        }
+        Assert.assertTrue(PatternCache.size() <= PatternCache.MAX_SIZE)
+        Assert.assertEquals((PatternCache.MAX_SIZE * 2).toLong(), PatternCache.getMissCount())
+        Assert.assertEquals((PatternCache.MAX_SIZE * 2 - PatternCache.size()).toLong(), PatternCache.getEvictionCount())
+    }
+
+    @Test
+    fun testEnabled() {
+        try {
+            PatternCache.get("b+")
+            PatternCache.setEnabled(false)
+            Assert.assertFalse(PatternCache.isEnabled())
+            Assert.assertEquals(0, PatternCache.size())
+            val missCount = PatternCache.getMissCount()
+            Assert.assertNotSame(PatternCache.get("b+"), PatternCache.get("b+"))
+            Assert.assertTrue(Regexx.find("abbc", "b+"))
+            Assert.assertEquals(0, PatternCache.size())
+            Assert.assertEquals(missCount, PatternCache.getMissCount())
+        } finally {
+            PatternCache.setEnabled(true)
+        }
+        Assert.assertTrue(PatternCache.isEnabled())
+        Assert.assertSame(PatternCache.get("b+"), PatternCache.get("b+"))
+    }
+}
@@ -57,4 +57,19 @@ class FileResourcesItem implements ResourcesItem {
     public String getMD5Digest() throws IOException {
         return MessageDigestx.getMD5(file);
     }
+
+    @Override
+    public long getLength() {
+        return file.length();
+    }
+
+    @Override
+    public long getCrc() {
+        return -1;
+    }
+
+    @Override
+    public long getLastModified() {
+        return file.lastModified();
+    }
 }
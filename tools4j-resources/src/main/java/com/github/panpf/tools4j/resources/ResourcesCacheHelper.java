@@ -26,10 +26,7 @@ import java.io.File;
 import java.io.FileFilter;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Enumeration;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.*;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -39,11 +36,17 @@ public class ResourcesCacheHelper {
     private final Class<?> targetClazz;
     @NotNull
     private final File cacheDir;
+    @NotNull
+    private final ResourcesCacheIndex cacheIndex;
 
     private final List<DevResourcesDirCreator> devResourcesDirCreators = new LinkedList<DevResourcesDirCreator>();
     public final boolean isInJar;
     @Nullable
     private File resourcesDir = null;
+    @Nullable
+    private ZipFile jarZipFile = null;
+    @Nullable
+    private TreeMap<String, ZipEntry> jarEntries = null;
 
     /**
      * @param targetClazz Any Class in the same jar as the Resources file
@@ -51,6 +54,7 @@ public class ResourcesCacheHelper {
     public ResourcesCacheHelper(@NotNull Class<?> targetClazz, @NotNull File cacheDir) {
         this.targetClazz = targetClazz;
         this.cacheDir = cacheDir;
+        this.cacheIndex = new ResourcesCacheIndex(cacheDir);
 
         this.isInJar = Environmentx.isClassInJar(targetClazz);
         this.devResourcesDirCreators.add(new GradleBuildResourcesDirCreator());
@@ -60,22 +64,11 @@ public class ResourcesCacheHelper {
     public File getFile(@NotNull String filePathInResources) throws IOException {
         ResourcesItem item;
         if (isInJar) {
-            File jarFile = Environmentx.getClassInJarFile(targetClazz);
-            if (jarFile == null) throw new IOException("Not get jar file");
-            ZipFile zipFile = new ZipFile(jarFile);
-
-            ZipEntry targetZipEntry = null;
-            Enumeration<?> zipEntryEnumeration = zipFile.entries();
-            while (zipEntryEnumeration.hasMoreElements()) {
-                ZipEntry zipEntry = (ZipEntry) zipEntryEnumeration.nextElement();
-                if (!zipEntry.isDirectory() && zipEntry.getName().equals(filePathInResources)) {
-                    targetZipEntry = zipEntry;
-                    break;
-                }
-            }
-            if (targetZipEntry == null)
+            File jarFile = getJarFile();
+            ZipEntry targetZipEntry = getJarZipFile().getEntry(filePathInResources);
+            if (targetZipEntry == null || targetZipEntry.isDirectory())
                 throw new FileNotFoundException(String.format("Not found file '%s' in jar file", filePathInResources));
-            item = new ZipResourcesItem(jarFile, zipFile, targetZipEntry, filePathInResources);
+            item = new ZipResourcesItem(jarFile, getJarZipFile(), targetZipEntry, filePathInResources);
         } else {
             File sourceDir = getResourcesDir();
             File sourceFile = new File(sourceDir, filePathInResources);
@@ -86,21 +79,21 @@ public class ResourcesCacheHelper {
         }
 
         File outFile = new File(cacheDir, filePathInResources);
-        if (!outFile.exists()) {
-            item.outFile(outFile);
-            if (outFile.exists()) {
-                System.out.printf("Create resources cache file. %s -> %s%n%n", item.getPath(), outFile.getPath());
-            } else {
-                throw new IOException(String.format("Copy to cache dir failed. %s -> %s", item.getPath(), outFile.getPath()));
-            }
-        } else {
-            String sourceFileMd5 = item.getMD5Digest();
-            String outFileMd5 = MessageDigestx.getMD5(outFile, null);
-            if (!sourceFileMd5.equals(outFileMd5)) {
+        try {
+            if (!outFile.exists()) {
                 item.outFile(outFile);
-                System.out.printf("Update resources cache file. %s -> %s%n", item.getPath(), outFile.getPath());
+                if (outFile.exists()) {
+                    cacheIndex.update(getIndexKey(outFile), item, outFile);
+                    System.out.printf("Create resources cache file. %s -> %s%n%n", item.getPath(), outFile.getPath());
+                } else {
+                    throw new IOException(String.format("Copy to cache dir failed. %s -> %s", item.getPath(), outFile.getPath()));
+                }
             } else {
-                System.out.printf("Use resources cache file. %s%n", outFile.getPath());
+                updateCacheFile(item, outFile);
+            }
+        } finally {
+            if (cacheIndex.isDirty()) {
+                cacheIndex.save();
             }
         }
 
@@ -111,14 +104,11 @@ public class ResourcesCacheHelper {
     public File getDir(@NotNull String dirPathInResources) throws IOException {
         List<ResourcesItem> sourceChildResItems;
         if (isInJar) {
-            File jarFile = Environmentx.getClassInJarFile(targetClazz);
-            if (jarFile == null) throw new IOException("Not get jar file");
-            ZipFile zipFile = new ZipFile(jarFile);
+            File jarFile = getJarFile();
+            ZipFile zipFile = getJarZipFile();
             List<ResourcesItem> sourceChildFilesTemp = new ArrayList<ResourcesItem>();
-            Enumeration<?> zipEntryEnumeration = zipFile.entries();
-            while (zipEntryEnumeration.hasMoreElements()) {
-                ZipEntry zipEntry = (ZipEntry) zipEntryEnumeration.nextElement();
-                if (!zipEntry.isDirectory() && zipEntry.getName().startsWith(dirPathInResources)) {
+            for (ZipEntry zipEntry : getJarEntries(dirPathInResources)) {
+                if (!zipEntry.isDirectory()) {
                     sourceChildFilesTemp.add(new ZipResourcesItem(jarFile, zipFile, zipEntry, dirPathInResources));
                 }
             }
@@ -158,19 +148,19 @@ public class ResourcesCacheHelper {
                 }
             });
             if (outDirChildFiles != null) {
+                Set<String> sourceChildPaths = new HashSet<String>(sourceChildResItems.size() * 4 / 3 + 1);
+                for (ResourcesItem sourceChildFile : sourceChildResItems) {
+                    sourceChildPaths.add(removeStartSeparator(sourceChildFile.getPathWithoutSourceDirPath()));
+                }
                 for (File outChildFile : outDirChildFiles) {
-                    ResourcesItem sameItem = null;
-                    for (ResourcesItem sourceChildFile : sourceChildResItems) {
-                        String sourceChildFileWithoutSourceDirPath = removeStartSeparator(sourceChildFile.getPathWithoutSourceDirPath());
-                        String outChildFileWithoutOutDirPath = removeStartSeparator(outChildFile.getPath().replace(outDir.getPath(), ""));
-                        if (sourceChildFileWithoutSourceDirPath.equals(outChildFileWithoutOutDirPath)) {
-                            sameItem = sourceChildFile;
-                            break;
-                        }
+                    if (isCacheIndexFile(outChildFile)) {
+                        continue;
                     }
-                    if (sameItem == null) {
+                    String outChildFileWithoutOutDirPath = removeStartSeparator(outChildFile.getPath().replace(outDir.getPath(), ""));
+                    if (!sourceChildPaths.contains(outChildFileWithoutOutDirPath)) {
                         //noinspection ResultOfMethodCallIgnored
                         outChildFile.delete();
+                        cacheIndex.remove(getIndexKey(outChildFile));
                         System.out.printf("Deleted resources cache file. %s%n", outChildFile.getPath());
                     }
                 }
@@ -183,26 +173,91 @@ public class ResourcesCacheHelper {
                 if (!outChildFile.exists()) {
                     sourceChildFile.outFile(outChildFile);
                     if (outChildFile.exists()) {
+                        cacheIndex.update(getIndexKey(outChildFile), sourceChildFile, outChildFile);
                         System.out.printf("Create resources cache file. %s -> %s%n", sourceChildFile.getPath(), outChildFile.getPath());
                     } else {
                         throw new IOException(String.format("Copy to cache dir failed. %s -> %s", sourceChildFile.getPath(), outChildFile.getPath()));
                     }
                 } else {
-                    String sourceChildFileMd5 = sourceChildFile.getMD5Digest();
-                    String outChildFileMd5 = MessageDigestx.getMD5(outChildFile);
-                    if (!sourceChildFileMd5.equals(outChildFileMd5)) {
-                        sourceChildFile.outFile(outChildFile);
-                        System.out.printf("Update resources cache file. %s -> %s%n", sourceChildFile.getPath(), outChildFile.getPath());
-                    } else {
-                        System.out.printf("Use resources cache file. %s%n", outChildFile.getPath());
-                    }
+                    updateCacheFile(sourceChildFile, outChildFile);
                 }
             }
             return outDir;
         } catch (IOException e) {
             Filex.deleteRecursively(outDir);
             throw e;
+        } finally {
+            if (cacheIndex.isDirty()) {
+                cacheIndex.save();
+            }
+        }
+    }
+
+    /**
+     * Update the existing cache file if its source has changed. The index is checked first, the MD5 of both files is only compared
+     * when neither the index nor the length and CRC can decide
+     */
+    private void updateCacheFile(@NotNull ResourcesItem item, @NotNull File outFile) throws IOException {
+        String indexKey = getIndexKey(outFile);
+        if (cacheIndex.isUpToDate(indexKey, item, outFile)) {
+            System.out.printf("Use resources cache file. %s%n", outFile.getPath());
+            return;
+        }
+
+        if (cacheIndex.isChanged(indexKey, item, outFile) || !item.getMD5Digest().equals(MessageDigestx.getMD5(outFile))) {
+            item.outFile(outFile);
+            System.out.printf("Update resources cache file. %s -> %s%n", item.getPath(), outFile.getPath());
+        } else {
+            System.out.printf("Use resources cache file. %s%n", outFile.getPath());
+        }
+        cacheIndex.update(indexKey, item, outFile);
+    }
+
+    @NotNull
+    private String getIndexKey(@NotNull File outFile) {
+        return removeStartSeparator(outFile.getPath().substring(cacheDir.getPath().length())).replace(File.separatorChar, '/');
+    }
+
+    private boolean isCacheIndexFile(@NotNull File file) {
+        return cacheDir.equals(file.getParentFile()) && file.getName().startsWith(ResourcesCacheIndex.FILE_NAME);
+    }
+
+    @NotNull
+    private File getJarFile() throws IOException {
+        File jarFile = Environmentx.getClassInJarFile(targetClazz);
+        if (jarFile == null) throw new IOException("Not get jar file");
+        return jarFile;
+    }
+
+    /**
+     * The jar is opened only once and kept open, because entries of it may be read by the cache files that are returned later
+     */
+    @NotNull
+    private ZipFile getJarZipFile() throws IOException {
+        ZipFile jarZipFile = this.jarZipFile;
+        if (jarZipFile == null) {
+            jarZipFile = new ZipFile(getJarFile());
+            this.jarZipFile = jarZipFile;
+        }
+        return jarZipFile;
+    }
+
+    /**
+     * Get the entries whose name starts with the specified prefix, all entries of the jar are sorted by name once, so that no full scan is needed after that
+     */
+    @NotNull
+    private Collection<ZipEntry> getJarEntries(@NotNull String namePrefix) throws IOException {
+        TreeMap<String, ZipEntry> jarEntries = this.jarEntries;
+        if (jarEntries == null) {
+            jarEntries = new TreeMap<String, ZipEntry>();
+            Enumeration<? extends ZipEntry> zipEntryEnumeration = getJarZipFile().entries();
+            while (zipEntryEnumeration.hasMoreElements()) {
+                ZipEntry zipEntry = zipEntryEnumeration.nextElement();
+                jarEntries.put(zipEntry.getName(), zipEntry);
+            }
+            this.jarEntries = jarEntries;
         }
+        return jarEntries.subMap(namePrefix, true, namePrefix + Character.MAX_VALUE, true).values();
     }
 
     @NotNull
@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.resources;
+
+import com.github.panpf.tools4j.io.IOx;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Persistent index of the files in the resources cache dir, it records the size, CRC and modified time of the source of each cache file,
+ * and the size and modified time of the cache file itself when it was written.
+ * <p>
+ * A cache file whose source and itself have not changed since then is used directly, without calculating the MD5 of either of them.
+ * The CRC of ZIP entries comes from the central directory, so the data of unchanged entries is not read at all.
+ */
+class ResourcesCacheIndex {
+
+    static final String FILE_NAME = ".tools4j_resources_cache_index";
+
+    private static final String HEADER = "tools4j-resources-cache-index 1";
+    /**
+     * The modified time of some file systems only has a precision of seconds, or even two seconds.
+     * A source modified this close to the time it was indexed may be modified again without changing its modified time
+     */
+    private static final long MODIFIED_TIME_PRECISION = 2000;
+
+    @NotNull
+    private final File indexFile;
+    @Nullable
+    private Map<String, Record> records;
+    private boolean dirty;
+
+    ResourcesCacheIndex(@NotNull File cacheDir) {
+        this.indexFile = new File(cacheDir, FILE_NAME);
+    }
+
+    /**
+     * Return true if the cache file is known to have the same content as the source, false means the caller needs to compare them by content
+     */
+    synchronized boolean isUpToDate(@NotNull String key, @NotNull ResourcesItem item, @NotNull File outFile) {
+        Record record = getRecords().get(key);
+        return record != null
+                && record.sourceLength == item.getLength()
+                && record.sourceCrc == item.getCrc()
+                && record.sourceLastModified == item.getLastModified()
+                && (record.sourceCrc != -1 || record.sourceLastModified < record.indexedTime - MODIFIED_TIME_PRECISION)
+                && record.outLength == outFile.length()
+                && record.outLastModified == outFile.lastModified();
+    }
+
+    /**
+     * Return true if the cache file is known to differ from the source without comparing their content,
+     * because their lengths differ or the CRC of the source has changed since the unchanged cache file was indexed
+     */
+    synchronized boolean isChanged(@NotNull String key, @NotNull ResourcesItem item, @NotNull File outFile) {
+        long sourceLength = item.getLength();
+        if (sourceLength != -1 && sourceLength != outFile.length()) {
+            return true;
+        }
+        Record record = getRecords().get(key);
+        long sourceCrc = item.getCrc();
+        return record != null
+                && sourceCrc != -1
+                && record.sourceCrc != -1
+                && record.sourceCrc != sourceCrc
+                && record.outLength == outFile.length()
+                && record.outLastModified == outFile.lastModified();
+    }
+
+    synchronized void update(@NotNull String key, @NotNull ResourcesItem item, @NotNull File outFile) {
+        getRecords().put(key, new Record(item.getLength(), item.getCrc(), item.getLastModified(),
+                outFile.length(), outFile.lastModified(), System.currentTimeMillis()));
+        dirty = true;
+    }
+
+    synchronized void remove(@NotNull String key) {
+        if (getRecords().remove(key) != null) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Return true if the index has been changed since it was loaded or saved
+     */
+    synchronized boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Write the index to the cache dir, the index is only an optimization, so failure to save it is not fatal
+     */
+    synchronized void save() {
+        if (records == null) return;
+        File parentDir = indexFile.getParentFile();
+        if (parentDir != null && !parentDir.exists() && !parentDir.mkdirs()) {
+            return;
+        }
+        File tempFile = new File(indexFile.getPath() + ".tmp");
+        Writer writer = null;
+        try {
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tempFile, false), "UTF-8"));
+            writer.write(HEADER);
+            writer.write('\n');
+            for (Map.Entry<String, Record> entry : records.entrySet()) {
+                Record record = entry.getValue();
+                writer.write(String.valueOf(record.sourceLength));
+                writer.write('\t');
+                writer.write(String.valueOf(record.sourceCrc));
+                writer.write('\t');
+                writer.write(String.valueOf(record.sourceLastModified));
+                writer.write('\t');
+                writer.write(String.valueOf(record.outLength));
+                writer.write('\t');
+                writer.write(String.valueOf(record.outLastModified));
+                writer.write('\t');
+                writer.write(String.valueOf(record.indexedTime));
+                writer.write('\t');
+                writer.write(entry.getKey());
+                writer.write('\n');
+            }
+            writer.close();
+            writer = null;
+            //noinspection ResultOfMethodCallIgnored
+            indexFile.delete();
+            if (tempFile.renameTo(indexFile)) {
+                dirty = false;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            IOx.closeQuietly(writer);
+            //noinspection ResultOfMethodCallIgnored
+            tempFile.delete();
+        }
+    }
+
+    @NotNull
+    private Map<String, Record> getRecords() {
+        Map<String, Record> records = this.records;
+        if (records == null) {
+            records = load();
+            this.records = records;
+        }
+        return records;
+    }
+
+    @NotNull
+    private Map<String, Record> load() {
+        Map<String, Record> records = new HashMap<String, Record>();
+        if (!indexFile.exists()) return records;
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(indexFile), "UTF-8"));
+            if (!HEADER.equals(reader.readLine())) return records;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] items = line.split("\t", 7);
+                if (items.length != 7) continue;
+                try {
+                    records.put(items[6], new Record(Long.parseLong(items[0]), Long.parseLong(items[1]), Long.parseLong(items[2]),
+                            Long.parseLong(items[3]), Long.parseLong(items[4]), Long.parseLong(items[5])));
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            records.clear();
+        } finally {
+            IOx.closeQuietly(reader);
+        }
+        return records;
+    }
+
+    private static class Record {
+        private final long sourceLength;
+        private final long sourceCrc;
+        private final long sourceLastModified;
+        private final long outLength;
+        private final long outLastModified;
+        private final long indexedTime;
+
+        private Record(long sourceLength, long sourceCrc, long sourceLastModified, long outLength, long outLastModified, long indexedTime) {
+            this.sourceLength = sourceLength;
+            this.sourceCrc = sourceCrc;
+            this.sourceLastModified = sourceLastModified;
+            this.outLength = outLength;
+            this.outLastModified = outLastModified;
+            this.indexedTime = indexedTime;
+        }
+    }
+}
@@ -32,4 +32,16 @@ interface ResourcesItem {
 
     @NotNull
     String getMD5Digest() throws IOException;
+
+    /**
+     * Get the length of the uncompressed content
+     */
+    long getLength();
+
+    /**
+     * Get the CRC-32 of the content, -1 if it is unknown without reading the content
+     */
+    long getCrc();
+
+    long getLastModified();
 }
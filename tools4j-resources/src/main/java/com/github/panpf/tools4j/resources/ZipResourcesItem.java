@@ -85,4 +85,19 @@ class ZipResourcesItem implements ResourcesItem {
             IOx.closeQuietly(inputStream);
         }
     }
+
+    @Override
+    public long getLength() {
+        return zipEntry.getSize();
+    }
+
+    @Override
+    public long getCrc() {
+        return zipEntry.getCrc();
+    }
+
+    @Override
+    public long getLastModified() {
+        return zipEntry.getTime();
+    }
 }
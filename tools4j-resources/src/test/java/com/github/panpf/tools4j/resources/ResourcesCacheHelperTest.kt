@@ -95,4 +95,56 @@ class ResourcesCacheHelperTest {
             cacheDir.deleteRecursively()
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    fun testCacheIndex() {
+        val cacheDir = File("/tmp/ResourcesCacheHelperIndexTest")
+        val resourcesDir = ResourcesCacheHelper(ResourcesCacheHelperTest::class.java, cacheDir).resourcesDir
+
+        val filePathInResources = "testIndex.txt"
+        val testResourceFile = File(resourcesDir, filePathInResources)
+        val dirPathInResources = "testIndexDir"
+        val testResourceDir = File(resourcesDir, dirPathInResources)
+        try {
+            testResourceFile.createNewFileOrThrow()
+            testResourceFile.writeText("123456")
+            testResourceFile.setLastModified(System.currentTimeMillis() - 60 * 1000)
+            val testCacheFile = ResourcesCacheHelper(ResourcesCacheHelperTest::class.java, cacheDir).getFile(filePathInResources)
+            Assert.assertEquals("123456", testCacheFile.readText())
+            Assert.assertTrue(File(cacheDir, ".tools4j_resources_cache_index").exists())
+
+            // A new helper reads the index written by the previous one, and does not rewrite it on a cache hit
+            val indexFile = File(cacheDir, ".tools4j_resources_cache_index")
+            indexFile.setLastModified(indexFile.lastModified() - 60 * 1000)
+            val indexLastModified = indexFile.lastModified()
+            Assert.assertEquals("123456", ResourcesCacheHelper(ResourcesCacheHelperTest::class.java, cacheDir).getFile(filePathInResources).readText())
+            Assert.assertEquals(indexLastModified, indexFile.lastModified())
+
+            // Different length, it is updated without comparing the content
+            testResourceFile.writeText("1234567")
+            Assert.assertEquals("1234567", ResourcesCacheHelper(ResourcesCacheHelperTest::class.java, cacheDir).getFile(filePathInResources).readText())
+
+            // Same length but different content and modified time
+            testResourceFile.writeText("abcdef")
+            testResourceFile.setLastModified(System.currentTimeMillis() - 30 * 1000)
+            Assert.assertEquals("abcdef", ResourcesCacheHelper(ResourcesCacheHelperTest::class.java, cacheDir).getFile(filePathInResources).readText())
+
+            // The cache file was changed outside
+            testCacheFile.writeText("xyz")
+            Assert.assertEquals("abcdef", ResourcesCacheHelper(ResourcesCacheHelperTest::class.java, cacheDir).getFile(filePathInResources).readText())
+
+            // The index file is not deleted as a cache file
+            File(testResourceDir, "a.txt").apply { createNewFileOrThrow();writeText("a.txt") }
+            val rootCacheDir = File(cacheDir, "root")
+            val helper = ResourcesCacheHelper(ResourcesCacheHelperTest::class.java, rootCacheDir)
+            helper.getDir("")
+            helper.getDir("")
+            Assert.assertTrue(File(rootCacheDir, ".tools4j_resources_cache_index").exists())
+            Assert.assertEquals("a.txt", File(rootCacheDir, "$dirPathInResources/a.txt").readText())
+        } finally {
+            testResourceFile.delete()
+            testResourceDir.deleteRecursively()
+            cacheDir.deleteRecursively()
+        }
+    }
+}
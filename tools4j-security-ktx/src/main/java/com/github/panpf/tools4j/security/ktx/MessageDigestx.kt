@@ -23,6 +23,7 @@ import com.github.panpf.tools4j.security.MessageDigestx
 import java.io.File
 import java.io.IOException
 import java.io.InputStream
+import java.util.concurrent.ExecutorService
 
 
 /*
@@ -304,4 +305,42 @@ inline fun File.getSHA512DigestOrEmpty(listener: MessageDigestListener? = null):
  * Get the message digest of the file using the SHA-512 algorithm
  */
 @Throws(IOException::class)
-inline fun File.getSHA512DigestOrNull(listener: MessageDigestListener? = null): String? = MessageDigestx.getSHA512OrNull(this, listener)
\ No newline at end of file
+inline fun File.getSHA512DigestOrNull(listener: MessageDigestListener? = null): String? = MessageDigestx.getSHA512OrNull(this, listener)
+
+/* ******************************************* Multiple algorithms *******************************************/
+
+
+/**
+ * Get the message digests of the input stream using all the specified [algorithms] in one pass
+ */
+@Throws(IOException::class)
+inline fun InputStream.getDigests(algorithms: Array<String>, listener: MessageDigestListener? = null): Map<String, String> = MessageDigestx.getDigests(this, algorithms, listener)
+
+/**
+ * Get the message digests of the bytes using all the specified [algorithms]
+ */
+inline fun ByteArray.getDigests(algorithms: Array<String>): Map<String, String> = MessageDigestx.getDigests(this, algorithms)
+
+/**
+ * Get the message digests of the file using all the specified [algorithms] in one pass
+ */
+@Throws(IOException::class)
+inline fun File.getDigests(algorithms: Array<String>, listener: MessageDigestListener? = null): Map<String, String> = MessageDigestx.getDigests(this, algorithms, listener)
+
+/**
+ * Get the message digests of the file using all the specified [algorithms] in one pass,
+ * the algorithms digest each chunk of the file in parallel on the [executor] while the next chunk is being read
+ */
+@Throws(IOException::class)
+inline fun File.getDigests(algorithms: Array<String>, listener: MessageDigestListener?, executor: ExecutorService): Map<String, String> = MessageDigestx.getDigests(this, algorithms, listener, executor)
+
+
+/* ******************************************* Tree *******************************************/
+
+
+/**
+ * Get the Merkle digest of the directory tree using the specified [algorithm], the files are digested on the [executor] in parallel.
+ * Files that have not changed since the last call with the same [cacheFile] are not read again
+ */
+@Throws(IOException::class)
+inline fun File.getTreeDigest(algorithm: String, executor: ExecutorService? = null, cacheFile: File? = null): String = MessageDigestx.getTreeDigest(this, algorithm, executor, cacheFile)
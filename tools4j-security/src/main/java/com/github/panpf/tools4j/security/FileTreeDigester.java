@@ -0,0 +1,346 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.security;
+
+import com.github.panpf.tools4j.io.FileTreeWalk;
+import com.github.panpf.tools4j.io.FileWalkDirection;
+import com.github.panpf.tools4j.io.Filex;
+import com.github.panpf.tools4j.io.OnFailed;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Calculate the Merkle digest of a directory tree, the implementation of {@link MessageDigestx#getTreeDigest(File, String, ExecutorService, File)}.
+ * <p>
+ * The digest of a file is the digest of its content. The digest of a directory is the digest of the lines 'name \0 type digest \n' of its
+ * files and directories sorted by name, where type is 'f' for files and 'd' for directories, and digest is the hex digest of the child.
+ * Entries that are neither files nor directories, such as broken links, are skipped.
+ * <p>
+ * With a cache file the length, modified time and digest of each file is kept between calls, a file whose length and modified time have not changed is not read again.
+ */
+class FileTreeDigester {
+
+    private static final String CACHE_HEADER = "tools4j-tree-digest-cache 1";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    /**
+     * The cached digest of a file modified less than this before it was digested is not trusted,
+     * a write in the same tick of a coarse modified time, two seconds on FAT, would leave the length and modified time unchanged
+     */
+    private static final long MODIFIED_TIME_PRECISION = 2000;
+    private static final int MAX_PENDING = 1024;
+
+    @NotNull
+    private final String algorithm;
+    @Nullable
+    private final ExecutorService executor;
+    @Nullable
+    private final File cacheFile;
+
+    FileTreeDigester(@NotNull String algorithm, @Nullable ExecutorService executor, @Nullable File cacheFile) {
+        this.algorithm = algorithm;
+        this.executor = executor;
+        this.cacheFile = cacheFile;
+    }
+
+    @NotNull
+    String digest(@NotNull File start) throws IOException {
+        if (!start.exists()) {
+            throw new FileNotFoundException(start.getPath());
+        }
+        // Fail fast on an unsupported algorithm, before walking the tree
+        MultiMessageDigest.obtain(algorithm).recycle();
+
+        Map<String, Record> oldRecords = loadCache();
+        Map<String, Record> newRecords = new HashMap<String, Record>();
+        Map<String, String> digests = new HashMap<String, String>();
+        Map<String, List<Node>> children = new HashMap<String, List<Node>>();
+        List<String> dirPaths = new ArrayList<String>();
+        Queue<PendingDigest> pendingDigests = new LinkedList<PendingDigest>();
+        boolean changed = false;
+
+        String startPath = start.getPath();
+        boolean success = false;
+        try {
+            for (File file : walk(start)) {
+                boolean isDirectory = file.isDirectory();
+                if (!isDirectory && !file.isFile()) continue;
+
+                String path = file.getPath().length() > startPath.length()
+                        ? file.getPath().substring(startPath.length() + 1).replace(File.separatorChar, '/') : "";
+                if (path.length() > 0) {
+                    int lastSlash = path.lastIndexOf('/');
+                    String parentPath = lastSlash != -1 ? path.substring(0, lastSlash) : "";
+                    List<Node> siblings = children.get(parentPath);
+                    if (siblings == null) {
+                        siblings = new ArrayList<Node>();
+                        children.put(parentPath, siblings);
+                    }
+                    siblings.add(new Node(file.getName(), path, isDirectory));
+                }
+
+                if (isDirectory) {
+                    dirPaths.add(path);
+                } else {
+                    long length = file.length();
+                    long lastModified = file.lastModified();
+                    Record record = oldRecords.get(path);
+                    if (record != null && record.isUpToDate(length, lastModified)) {
+                        digests.put(path, record.digest);
+                        newRecords.put(path, record);
+                    } else {
+                        changed = true;
+                        Record newRecord = new Record(length, lastModified, System.currentTimeMillis(), null);
+                        pendingDigests.add(new PendingDigest(path, newRecord, submit(file)));
+                        // Don't keep too many digests of a large tree waiting
+                        while (!pendingDigests.isEmpty() && (pendingDigests.size() > MAX_PENDING || pendingDigests.peek().future.isDone())) {
+                            finish(pendingDigests.poll(), digests, newRecords);
+                        }
+                    }
+                }
+            }
+
+            while (!pendingDigests.isEmpty()) {
+                finish(pendingDigests.poll(), digests, newRecords);
+            }
+            success = true;
+        } catch (RuntimeException e) {
+            // FileTreeWalk wraps the exception thrown by OnFailed
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        } finally {
+            if (!success) {
+                for (PendingDigest pendingDigest : pendingDigests) {
+                    pendingDigest.future.cancel(false);
+                }
+            }
+        }
+
+        // A directory is always walked before its children, so in reverse order the children are ready before their directory
+        for (int i = dirPaths.size() - 1; i >= 0; i--) {
+            String dirPath = dirPaths.get(i);
+            digests.put(dirPath, digestDirectory(children.get(dirPath), digests));
+        }
+
+        if (cacheFile != null && (changed || oldRecords.size() != newRecords.size())) {
+            saveCache(newRecords);
+        }
+        return digests.get("");
+    }
+
+    @NotNull
+    private Iterable<File> walk(@NotNull File start) {
+        return new FileTreeWalk(start, FileWalkDirection.TOP_DOWN).onFail(new OnFailed() {
+            @Override
+            public void onError(@NotNull File file, @NotNull IOException e) throws IOException {
+                // A directory that can't be listed would silently change the digest
+                throw e;
+            }
+        });
+    }
+
+    @NotNull
+    private Future<String> submit(@NotNull final File file) {
+        Callable<String> task = new Callable<String>() {
+            @Override
+            public String call() throws IOException {
+                MultiMessageDigest messageDigest = MultiMessageDigest.obtain(algorithm);
+                try {
+                    messageDigest.update(file, null, null);
+                    return messageDigest.digest().get(algorithm);
+                } finally {
+                    messageDigest.recycle();
+                }
+            }
+        };
+        if (executor != null) {
+            return executor.submit(task);
+        } else {
+            FutureTask<String> futureTask = new FutureTask<String>(task);
+            futureTask.run();
+            return futureTask;
+        }
+    }
+
+    private static void finish(@NotNull PendingDigest pendingDigest, @NotNull Map<String, String> digests,
+                               @NotNull Map<String, Record> newRecords) throws IOException {
+        String digest = await(pendingDigest.future);
+        Record record = pendingDigest.record;
+        digests.put(pendingDigest.path, digest);
+        newRecords.put(pendingDigest.path, new Record(record.length, record.lastModified, record.indexedTime, digest));
+    }
+
+    @NotNull
+    private String digestDirectory(@Nullable List<Node> nodes, @NotNull Map<String, String> digests) {
+        MultiMessageDigest messageDigest = MultiMessageDigest.obtain(algorithm);
+        try {
+            if (nodes != null) {
+                Collections.sort(nodes);
+                for (Node node : nodes) {
+                    byte[] line = (node.name + '\0' + (node.isDirectory ? 'd' : 'f') + digests.get(node.path) + '\n').getBytes(UTF_8);
+                    messageDigest.update(line, 0, line.length);
+                }
+            }
+            return messageDigest.digest().get(algorithm);
+        } finally {
+            messageDigest.recycle();
+        }
+    }
+
+    @NotNull
+    private static String await(@NotNull Future<String> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException exception = new InterruptedIOException("Interrupted while waiting for file digest");
+            exception.initCause(e);
+            throw exception;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new IOException(cause != null ? cause.toString() : e.toString());
+            }
+        }
+    }
+
+    /**
+     * The cache file is one line 'length \t lastModified \t indexedTime \t digest \t path' per file after a header naming the algorithm.
+     * A cache file that is missing, unreadable or written for another algorithm is ignored, the tree is just digested again
+     */
+    @NotNull
+    private Map<String, Record> loadCache() {
+        Map<String, Record> records = new HashMap<String, Record>();
+        if (cacheFile == null || !cacheFile.isFile()) return records;
+        List<String> lines;
+        try {
+            lines = Filex.readLines(cacheFile, UTF_8);
+        } catch (IOException e) {
+            return records;
+        }
+        if (lines.isEmpty() || !lines.get(0).equals(CACHE_HEADER + '\t' + algorithm)) return records;
+        for (int i = 1; i < lines.size(); i++) {
+            String[] items = lines.get(i).split("\t", 5);
+            if (items.length != 5) continue;
+            try {
+                records.put(items[4], new Record(Long.parseLong(items[0]), Long.parseLong(items[1]), Long.parseLong(items[2]), items[3]));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return records;
+    }
+
+    /**
+     * The cache is written to a temporary file that replaces the old one, so a failed write leaves no truncated cache behind
+     */
+    private void saveCache(@NotNull Map<String, Record> records) {
+        File cacheFile = this.cacheFile;
+        if (cacheFile == null) return;
+        StringBuilder builder = new StringBuilder(CACHE_HEADER).append('\t').append(algorithm).append('\n');
+        for (Map.Entry<String, Record> entry : records.entrySet()) {
+            Record record = entry.getValue();
+            builder.append(record.length).append('\t').append(record.lastModified).append('\t').append(record.indexedTime)
+                    .append('\t').append(record.digest).append('\t').append(entry.getKey()).append('\n');
+        }
+        File tempFile = new File(cacheFile.getPath() + ".tmp");
+        try {
+            File parentDir = cacheFile.getParentFile();
+            if (parentDir != null) {
+                Filex.mkdirsOrThrow(parentDir);
+            }
+            Filex.writeText(tempFile, builder.toString(), UTF_8);
+            //noinspection ResultOfMethodCallIgnored
+            cacheFile.delete();
+            //noinspection ResultOfMethodCallIgnored
+            tempFile.renameTo(cacheFile);
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            //noinspection ResultOfMethodCallIgnored
+            tempFile.delete();
+        }
+    }
+
+    private static class Node implements Comparable<Node> {
+        @NotNull
+        private final String name;
+        @NotNull
+        private final String path;
+        private final boolean isDirectory;
+
+        private Node(@NotNull String name, @NotNull String path, boolean isDirectory) {
+            this.name = name;
+            this.path = path;
+            this.isDirectory = isDirectory;
+        }
+
+        @Override
+        public int compareTo(@NotNull Node o) {
+            return name.compareTo(o.name);
+        }
+    }
+
+    private static class PendingDigest {
+        @NotNull
+        private final String path;
+        @NotNull
+        private final Record record;
+        @NotNull
+        private final Future<String> future;
+
+        private PendingDigest(@NotNull String path, @NotNull Record record, @NotNull Future<String> future) {
+            this.path = path;
+            this.record = record;
+            this.future = future;
+        }
+    }
+
+    private static class Record {
+        private final long length;
+        private final long lastModified;
+        private final long indexedTime;
+        @Nullable
+        private final String digest;
+
+        private Record(long length, long lastModified, long indexedTime, @Nullable String digest) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.indexedTime = indexedTime;
+            this.digest = digest;
+        }
+
+        private boolean isUpToDate(long length, long lastModified) {
+            return digest != null && this.length == length && this.lastModified == lastModified
+                    && lastModified < indexedTime - MODIFIED_TIME_PRECISION;
+        }
+    }
+}
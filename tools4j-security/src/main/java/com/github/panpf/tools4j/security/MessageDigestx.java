@@ -21,16 +21,14 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
 import java.nio.charset.Charset;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Message digest tool method
  */
 public class MessageDigestx {
 
-    private static final char[] HEX = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
-
     private MessageDigestx() {
     }
 
@@ -42,36 +40,13 @@ public class MessageDigestx {
      */
     @NotNull
     public static String getDigest(@NotNull InputStream inputStream, @NotNull String algorithm, @Nullable MessageDigestListener listener) throws IOException {
-        MessageDigest messageDigest;
+        MultiMessageDigest messageDigest = MultiMessageDigest.obtain(algorithm);
         try {
-            messageDigest = MessageDigest.getInstance(algorithm);
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException(e);
-        }
-
-        byte[] buffer = new byte[1024 * 8];
-        int readLength;
-        long completedLength = 0;
-        while (listener == null || !listener.isCanceled()) {
-            readLength = inputStream.read(buffer);
-            if (readLength == -1) {
-                break;
-            } else {
-                messageDigest.update(buffer, 0, readLength);
-            }
-            if (listener != null && !listener.isCanceled()) {
-                completedLength += readLength;
-                listener.onUpdateProgress(completedLength);
-            }
-        }
-
-        byte[] result = messageDigest.digest();
-        StringBuilder sb = new StringBuilder();
-        for (byte aMd5Byte : result) {
-            sb.append(HEX[(aMd5Byte & 0xff) / 16]);
-            sb.append(HEX[(aMd5Byte & 0xff) % 16]);
+            messageDigest.update(inputStream, listener);
+            return messageDigest.digest().get(algorithm);
+        } finally {
+            messageDigest.recycle();
         }
-        return sb.toString();
     }
 
     /**
@@ -483,17 +458,12 @@ public class MessageDigestx {
      */
     @NotNull
     public static String getDigest(@NotNull byte[] data, @NotNull String algorithm) {
-        InputStream inputStream = new ByteArrayInputStream(data);
+        MultiMessageDigest messageDigest = MultiMessageDigest.obtain(algorithm);
         try {
-            return getDigest(inputStream, algorithm);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+            messageDigest.update(data, 0, data.length);
+            return messageDigest.digest().get(algorithm);
         } finally {
-            try {
-                inputStream.close();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
+            messageDigest.recycle();
         }
     }
 
@@ -601,18 +571,7 @@ public class MessageDigestx {
      */
     @NotNull
     public static String getDigest(@NotNull String text, @NotNull String algorithm) {
-        InputStream inputStream = new ByteArrayInputStream(text.getBytes(Charset.forName("UTF-8")));
-        try {
-            return getDigest(inputStream, algorithm);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        } finally {
-            try {
-                inputStream.close();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
+        return getDigest(text.getBytes(Charset.forName("UTF-8")), algorithm);
     }
 
     /**
@@ -719,18 +678,12 @@ public class MessageDigestx {
      */
     @NotNull
     public static String getDigest(@NotNull File file, @NotNull String algorithm, @Nullable MessageDigestListener listener) throws IOException {
-        InputStream inputStream = null;
+        MultiMessageDigest messageDigest = MultiMessageDigest.obtain(algorithm);
         try {
-            inputStream = new FileInputStream(file);
-            return getDigest(inputStream, algorithm, listener);
+            messageDigest.update(file, listener, null);
+            return messageDigest.digest().get(algorithm);
         } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
+            messageDigest.recycle();
         }
     }
 
@@ -739,19 +692,7 @@ public class MessageDigestx {
      */
     @NotNull
     public static String getDigest(@NotNull File file, @NotNull String algorithm) throws IOException {
-        InputStream inputStream = null;
-        try {
-            inputStream = new FileInputStream(file);
-            return getDigest(inputStream, algorithm);
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
+        return getDigest(file, algorithm, null);
     }
 
     /**
@@ -759,21 +700,11 @@ public class MessageDigestx {
      */
     @NotNull
     public static String getDigestOrEmpty(@NotNull File file, @NotNull String algorithm, @Nullable MessageDigestListener listener) {
-        InputStream inputStream = null;
         try {
-            inputStream = new FileInputStream(file);
-            return getDigest(inputStream, algorithm, listener);
+            return getDigest(file, algorithm, listener);
         } catch (IOException e) {
             e.printStackTrace();
             return "";
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -782,21 +713,11 @@ public class MessageDigestx {
      */
     @NotNull
     public static String getDigestOrEmpty(@NotNull File file, @NotNull String algorithm) {
-        InputStream inputStream = null;
         try {
-            inputStream = new FileInputStream(file);
-            return getDigest(inputStream, algorithm);
+            return getDigest(file, algorithm);
         } catch (IOException e) {
             e.printStackTrace();
             return "";
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -805,21 +726,11 @@ public class MessageDigestx {
      */
     @Nullable
     public static String getDigestOrNull(@NotNull File file, @NotNull String algorithm, @Nullable MessageDigestListener listener) {
-        InputStream inputStream = null;
         try {
-            inputStream = new FileInputStream(file);
-            return getDigest(inputStream, algorithm, listener);
+            return getDigest(file, algorithm, listener);
         } catch (IOException e) {
             e.printStackTrace();
             return null;
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -828,21 +739,11 @@ public class MessageDigestx {
      */
     @Nullable
     public static String getDigestOrNull(@NotNull File file, @NotNull String algorithm) {
-        InputStream inputStream = null;
         try {
-            inputStream = new FileInputStream(file);
-            return getDigest(inputStream, algorithm);
+            return getDigest(file, algorithm);
         } catch (IOException e) {
             e.printStackTrace();
             return null;
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -851,19 +752,7 @@ public class MessageDigestx {
      */
     @NotNull
     public static String getMD5(@NotNull File file, @Nullable MessageDigestListener listener) throws IOException {
-        InputStream inputStream = null;
-        try {
-            inputStream = new FileInputStream(file);
-            return getMD5(inputStream, listener);
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
+        return getDigest(file, "MD5", listener);
     }
 
     /**
@@ -871,19 +760,7 @@ public class MessageDigestx {
      */
     @NotNull
     public static String getMD5(@NotNull File file) throws IOException {
-        InputStream inputStream = null;
-        try {
-            inputStream = new FileInputStream(file);
-            return getMD5(inputStream);
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
+        return getDigest(file, "MD5");
     }
 
     /**
@@ -891,21 +768,11 @@ public class MessageDigestx {
      */
     @NotNull
     public static String getMD5OrEmpty(@NotNull File file, @Nullable MessageDigestListener listener) {
-        InputStream inputStream = null;
         try {
-            inputStream = new FileInputStream(file);
-            return getMD5(inputStream, listener);
+            return getMD5(file, listener);
         } catch (IOException e) {
             e.printStackTrace();
             return "";
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -914,21 +781,11 @@ public class MessageDigestx {
      */
     @NotNull
     public static String getMD5OrEmpty(@NotNull File file) {
-        InputStream inputStream = null;
         try {
-            inputStream = new FileInputStream(file);
-            return getMD5(inputStream);
+            return getMD5(file);
         } catch (IOException e) {
             e.printStackTrace();
             return "";
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -937,21 +794,11 @@ public class MessageDigestx {
      */
     @Nullable
     public static String getMD5OrNull(@NotNull File file, @Nullable MessageDigestListener listener) {
-        InputStream inputStream = null;
         try {
-            inputStream = new FileInputStream(file);
-            return getMD5(inputStream, listener);
+            return getMD5(file, listener);
         } catch (IOException e) {
             e.printStackTrace();
             return null;
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -960,21 +807,11 @@ public class MessageDigestx {
      */
     @Nullable
     public static String getMD5OrNull(@NotNull File file) {
-        InputStream inputStream = null;
         try {
-            inputStream = new FileInputStream(file);
-            return getMD5(inputStream);
+            return getMD5(file);
         } catch (IOException e) {
             e.printStackTrace();
             return null;
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -983,19 +820,7 @@ public class MessageDigestx {
      */
     @NotNull
     public static String getMD5_16(@NotNull File file, @Nullable MessageDigestListener listener) throws IOException {
-        InputStream inputStream = null;
-        try {
-            inputStream = new FileInputStream(file);
-            return getMD5_16(inputStream, listener);
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
+        return getDigest(file, "MD5", listener).substring(8, 24);
     }
 
     /**
@@ -1003,19 +828,7 @@ public class MessageDigestx {
      */
     @NotNull
     public static String getMD5_16(@NotNull File file) throws IOException {
-        InputStream inputStream = null;
-        try {
-            inputStream = new FileInputStream(file);
-            return getMD5_16(inputStream);
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
+        return getDigest(file, "MD5").substring(8, 24);
     }
 
     /**
@@ -1023,21 +836,11 @@ public class MessageDigestx {
      */
     @NotNull
     public static String getMD5_16OrEmpty(@NotNull File file, @Nullable MessageDigestListener listener) {
-        InputStream inputStream = null;
         try {
-            inputStream = new FileInputStream(file);
-            return getMD5_16(inputStream, listener);
+            return getMD5_16(file, listener);
         } catch (IOException e) {
             e.printStackTrace();
             return "";
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -1046,21 +849,11 @@ public class MessageDigestx {
      */
     @NotNull
     public static String getMD5_16OrEmpty(@NotNull File file) {
-        InputStream inputStream = null;
         try {
-            inputStream = new FileInputStream(file);
-            return getMD5_16(inputStream);
+            return getMD5_16(file);
         } catch (IOException e) {
             e.printStackTrace();
             return "";
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -1069,21 +862,11 @@ public class MessageDigestx {
      */
     @Nullable
     public static String getMD5_16OrNull(@NotNull File file, @Nullable MessageDigestListener listener) {
-        InputStream inputStream = null;
         try {
-            inputStream = new FileInputStream(file);
-            return getMD5_16(inputStream, listener);
+            return getMD5_16(file, listener);
         } catch (IOException e) {
             e.printStackTrace();
             return null;
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -1092,21 +875,11 @@ public class MessageDigestx {
      */
     @Nullable
     public static String getMD5_16OrNull(@NotNull File file) {
-        InputStream inputStream = null;
         try {
-            inputStream = new FileInputStream(file);
-            return getMD5_16(inputStream);
+            return getMD5_16(file);
         } catch (IOException e) {
             e.printStackTrace();
             return null;
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -1115,19 +888,7 @@ public class MessageDigestx {
      */
     @NotNull
     public static String getSHA1(@NotNull File file, @Nullable MessageDigestListener listener) throws IOException {
-        InputStream inputStream = null;
-        try {
-            inputStream = new FileInputStream(file);
-            return getSHA1(inputStream, listener);
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
+        return getDigest(file, "SHA1", listener);
     }
 
     /**
@@ -1135,19 +896,7 @@ public class MessageDigestx {
      */
     @NotNull
     public static String getSHA1(@NotNull File file) throws IOException {
-        InputStream inputStream = null;
-        try {
-            inputStream = new FileInputStream(file);
-            return getSHA1(inputStream);
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
+        return getDigest(file, "SHA1");
     }
 
     /**
@@ -1155,21 +904,11 @@ public class MessageDigestx {
      */
     @NotNull
     public static String getSHA1OrEmpty(@NotNull File file, @Nullable MessageDigestListener listener) {
-        InputStream inputStream = null;
         try {
-            inputStream = new FileInputStream(file);
-            return getSHA1(inputStream, listener);
+            return getSHA1(file, listener);
         } catch (IOException e) {
             e.printStackTrace();
             return "";
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -1178,21 +917,11 @@ public class MessageDigestx {
      */
     @NotNull
     public static String getSHA1OrEmpty(@NotNull File file) {
-        InputStream inputStream = null;
         try {
-            inputStream = new FileInputStream(file);
-            return getSHA1(inputStream);
+            return getSHA1(file);
         } catch (IOException e) {
             e.printStackTrace();
             return "";
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -1201,21 +930,11 @@ public class MessageDigestx {
      */
     @Nullable
     public static String getSHA1OrNull(@NotNull File file, @Nullable MessageDigestListener listener) {
-        InputStream inputStream = null;
         try {
-            inputStream = new FileInputStream(file);
-            return getSHA1(inputStream, listener);
+            return getSHA1(file, listener);
         } catch (IOException e) {
             e.printStackTrace();
             return null;
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -1224,21 +943,11 @@ public class MessageDigestx {
      */
     @Nullable
     public static String getSHA1OrNull(@NotNull File file) {
-        InputStream inputStream = null;
         try {
-            inputStream = new FileInputStream(file);
-            return getSHA1(inputStream);
+            return getSHA1(file);
         } catch (IOException e) {
             e.printStackTrace();
             return null;
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -1247,19 +956,7 @@ public class MessageDigestx {
      */
     @NotNull
     public static String getSHA256(@NotNull File file, @Nullable MessageDigestListener listener) throws IOException {
-        InputStream inputStream = null;
-        try {
-            inputStream = new FileInputStream(file);
-            return getSHA256(inputStream, listener);
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
+        return getDigest(file, "SHA-256", listener);
     }
 
     /**
@@ -1267,19 +964,7 @@ public class MessageDigestx {
      */
     @NotNull
     public static String getSHA256(@NotNull File file) throws IOException {
-        InputStream inputStream = null;
-        try {
-            inputStream = new FileInputStream(file);
-            return getSHA256(inputStream);
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
+        return getDigest(file, "SHA-256");
     }
 
     /**
@@ -1287,21 +972,11 @@ public class MessageDigestx {
      */
     @NotNull
     public static String getSHA256OrEmpty(@NotNull File file, @Nullable MessageDigestListener listener) {
-        InputStream inputStream = null;
         try {
-            inputStream = new FileInputStream(file);
-            return getSHA256(inputStream, listener);
+            return getSHA256(file, listener);
         } catch (IOException e) {
             e.printStackTrace();
             return "";
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -1310,21 +985,11 @@ public class MessageDigestx {
      */
     @NotNull
     public static String getSHA256OrEmpty(@NotNull File file) {
-        InputStream inputStream = null;
         try {
-            inputStream = new FileInputStream(file);
-            return getSHA256(inputStream);
+            return getSHA256(file);
         } catch (IOException e) {
             e.printStackTrace();
             return "";
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -1333,21 +998,11 @@ public class MessageDigestx {
      */
     @Nullable
     public static String getSHA256OrNull(@NotNull File file, @Nullable MessageDigestListener listener) {
-        InputStream inputStream = null;
         try {
-            inputStream = new FileInputStream(file);
-            return getSHA256(inputStream, listener);
+            return getSHA256(file, listener);
         } catch (IOException e) {
             e.printStackTrace();
             return null;
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -1356,21 +1011,11 @@ public class MessageDigestx {
      */
     @Nullable
     public static String getSHA256OrNull(@NotNull File file) {
-        InputStream inputStream = null;
         try {
-            inputStream = new FileInputStream(file);
-            return getSHA256(inputStream);
+            return getSHA256(file);
         } catch (IOException e) {
             e.printStackTrace();
             return null;
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -1379,19 +1024,7 @@ public class MessageDigestx {
      */
     @NotNull
     public static String getSHA512(@NotNull File file, @Nullable MessageDigestListener listener) throws IOException {
-        InputStream inputStream = null;
-        try {
-            inputStream = new FileInputStream(file);
-            return getSHA512(inputStream, listener);
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
+        return getDigest(file, "SHA-512", listener);
     }
 
     /**
@@ -1399,19 +1032,7 @@ public class MessageDigestx {
      */
     @NotNull
     public static String getSHA512(@NotNull File file) throws IOException {
-        InputStream inputStream = null;
-        try {
-            inputStream = new FileInputStream(file);
-            return getSHA512(inputStream);
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
+        return getDigest(file, "SHA-512");
     }
 
     /**
@@ -1419,21 +1040,11 @@ public class MessageDigestx {
      */
     @NotNull
     public static String getSHA512OrEmpty(@NotNull File file, @Nullable MessageDigestListener listener) {
-        InputStream inputStream = null;
         try {
-            inputStream = new FileInputStream(file);
-            return getSHA512(inputStream, listener);
+            return getSHA512(file, listener);
         } catch (IOException e) {
             e.printStackTrace();
             return "";
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -1442,21 +1053,11 @@ public class MessageDigestx {
      */
     @NotNull
     public static String getSHA512OrEmpty(@NotNull File file) {
-        InputStream inputStream = null;
         try {
-            inputStream = new FileInputStream(file);
-            return getSHA512(inputStream);
+            return getSHA512(file);
         } catch (IOException e) {
             e.printStackTrace();
             return "";
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -1465,21 +1066,11 @@ public class MessageDigestx {
      */
     @Nullable
     public static String getSHA512OrNull(@NotNull File file, @Nullable MessageDigestListener listener) {
-        InputStream inputStream = null;
         try {
-            inputStream = new FileInputStream(file);
-            return getSHA512(inputStream, listener);
+            return getSHA512(file, listener);
         } catch (IOException e) {
             e.printStackTrace();
             return null;
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
     }
 
@@ -1488,21 +1079,131 @@ public class MessageDigestx {
      */
     @Nullable
     public static String getSHA512OrNull(@NotNull File file) {
-        InputStream inputStream = null;
         try {
-            inputStream = new FileInputStream(file);
-            return getSHA512(inputStream);
+            return getSHA512(file);
         } catch (IOException e) {
             e.printStackTrace();
             return null;
+        }
+    }
+
+
+    /* ******************************************* Multiple algorithms *******************************************/
+
+
+    /**
+     * Get the message digests of the input stream using all the specified [algorithms] in one pass
+     *
+     * @return Hex digest by algorithm, in the order of [algorithms]
+     */
+    @NotNull
+    public static Map<String, String> getDigests(@NotNull InputStream inputStream, @NotNull String[] algorithms, @Nullable MessageDigestListener listener) throws IOException {
+        MultiMessageDigest messageDigest = MultiMessageDigest.obtain(algorithms);
+        try {
+            messageDigest.update(inputStream, listener);
+            return messageDigest.digest();
         } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
+            messageDigest.recycle();
+        }
+    }
+
+    /**
+     * Get the message digests of the input stream using all the specified [algorithms] in one pass
+     *
+     * @return Hex digest by algorithm, in the order of [algorithms]
+     */
+    @NotNull
+    public static Map<String, String> getDigests(@NotNull InputStream inputStream, @NotNull String[] algorithms) throws IOException {
+        return getDigests(inputStream, algorithms, null);
+    }
+
+    /**
+     * Get the message digests of the bytes using all the specified [algorithms]
+     *
+     * @return Hex digest by algorithm, in the order of [algorithms]
+     */
+    @NotNull
+    public static Map<String, String> getDigests(@NotNull byte[] data, @NotNull String[] algorithms) {
+        MultiMessageDigest messageDigest = MultiMessageDigest.obtain(algorithms);
+        try {
+            messageDigest.update(data, 0, data.length);
+            return messageDigest.digest();
+        } finally {
+            messageDigest.recycle();
+        }
+    }
+
+    /**
+     * Get the message digests of the file using all the specified [algorithms] in one pass,
+     * the algorithms digest each chunk of the file in parallel on the [executor] while the next chunk is being read
+     *
+     * @return Hex digest by algorithm, in the order of [algorithms]
+     */
+    @NotNull
+    public static Map<String, String> getDigests(@NotNull File file, @NotNull String[] algorithms, @Nullable MessageDigestListener listener,
+                                                 @NotNull ExecutorService executor) throws IOException {
+        MultiMessageDigest messageDigest = MultiMessageDigest.obtain(algorithms);
+        try {
+            messageDigest.update(file, listener, executor);
+            return messageDigest.digest();
+        } finally {
+            messageDigest.recycle();
+        }
+    }
+
+    /**
+     * Get the message digests of the file using all the specified [algorithms] in one pass
+     *
+     * @return Hex digest by algorithm, in the order of [algorithms]
+     */
+    @NotNull
+    public static Map<String, String> getDigests(@NotNull File file, @NotNull String[] algorithms, @Nullable MessageDigestListener listener) throws IOException {
+        MultiMessageDigest messageDigest = MultiMessageDigest.obtain(algorithms);
+        try {
+            messageDigest.update(file, listener, null);
+            return messageDigest.digest();
+        } finally {
+            messageDigest.recycle();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Get the message digests of the file using all the specified [algorithms] in one pass
+     *
+     * @return Hex digest by algorithm, in the order of [algorithms]
+     */
+    @NotNull
+    public static Map<String, String> getDigests(@NotNull File file, @NotNull String[] algorithms) throws IOException {
+        return getDigests(file, algorithms, null);
+    }
+
+
+    /* ******************************************* Tree *******************************************/
+
+
+    /**
+     * Get the Merkle digest of the directory tree using the specified [algorithm], the files are digested on the [executor] in parallel.
+     * <p>
+     * The digest of a file is the digest of its content. The digest of a directory is the digest of the lines 'name \0 type digest \n'
+     * of its children sorted by name, where type is 'f' or 'd' and digest is the hex digest of the child.
+     * If [file] is a file, its own digest is returned
+     *
+     * @param executor  Digest the files in parallel on this executor, or on the calling thread if null
+     * @param cacheFile Keep the length, modified time and digest of each file in this file, files that have not changed since the last call are not read again.
+     *                  The cache file must not be inside the directory tree
+     */
+    @NotNull
+    public static String getTreeDigest(@NotNull File file, @NotNull String algorithm, @Nullable ExecutorService executor, @Nullable File cacheFile) throws IOException {
+        return new FileTreeDigester(algorithm, executor, cacheFile).digest(file);
+    }
+
+    /**
+     * Get the Merkle digest of the directory tree using the specified [algorithm]
+     *
+     * @see #getTreeDigest(File, String, ExecutorService, File)
+     */
+    @NotNull
+    public static String getTreeDigest(@NotNull File file, @NotNull String algorithm) throws IOException {
+        return getTreeDigest(file, algorithm, null, null);
+    }
+}
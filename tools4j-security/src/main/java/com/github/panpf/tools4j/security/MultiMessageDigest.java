@@ -0,0 +1,348 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.security;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Feed the same data to the {@link MessageDigest} of several algorithms in one pass, used by {@link MessageDigestx}.
+ * <p>
+ * The {@link MessageDigest} instances are cached by the current thread and reset after use, so repeated calls don't look up the provider again.
+ * With an {@link ExecutorService} each algorithm digests the current chunk on its own thread while the next chunk is being read.
+ */
+class MultiMessageDigest {
+
+    /**
+     * The granularity of {@link MessageDigestListener#onUpdateProgress(long)} and {@link MessageDigestListener#isCanceled()}
+     */
+    static final int PROGRESS_STEP = 1024 * 8;
+    private static final int FILE_BUFFER_SIZE = 1024 * 256;
+
+    private static final char[] HEX_TABLE = createHexTable();
+    private static final ThreadLocal<Map<String, MessageDigest>> CACHE = new ThreadLocal<Map<String, MessageDigest>>() {
+        @Override
+        protected Map<String, MessageDigest> initialValue() {
+            return new HashMap<String, MessageDigest>();
+        }
+    };
+    private static final ThreadLocal<ByteBuffer[]> FILE_BUFFERS = new ThreadLocal<ByteBuffer[]>();
+
+    @NotNull
+    private final String[] algorithms;
+    @NotNull
+    private final MessageDigest[] messageDigests;
+
+    private MultiMessageDigest(@NotNull String[] algorithms, @NotNull MessageDigest[] messageDigests) {
+        this.algorithms = algorithms;
+        this.messageDigests = messageDigests;
+    }
+
+    /**
+     * Take the {@link MessageDigest} of each algorithm out of the cache of the current thread, duplicate algorithms are only digested once
+     *
+     * @throws RuntimeException The algorithm is not supported, as {@link MessageDigestx#getDigest(InputStream, String)} does
+     */
+    @NotNull
+    static MultiMessageDigest obtain(@NotNull String... algorithms) {
+        if (algorithms.length == 0) {
+            throw new IllegalArgumentException("algorithms is empty");
+        }
+        Set<String> distinctAlgorithms = new LinkedHashSet<String>(Arrays.asList(algorithms));
+        String[] distinctArray = distinctAlgorithms.toArray(new String[distinctAlgorithms.size()]);
+        MessageDigest[] messageDigests = new MessageDigest[distinctArray.length];
+        Map<String, MessageDigest> cache = CACHE.get();
+        try {
+            for (int i = 0; i < distinctArray.length; i++) {
+                MessageDigest messageDigest = cache.remove(distinctArray[i]);
+                messageDigests[i] = messageDigest != null ? messageDigest : MessageDigest.getInstance(distinctArray[i]);
+            }
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        return new MultiMessageDigest(distinctArray, messageDigests);
+    }
+
+    void update(@NotNull byte[] bytes, int offset, int length) {
+        for (MessageDigest messageDigest : messageDigests) {
+            messageDigest.update(bytes, offset, length);
+        }
+    }
+
+    /**
+     * Digest the remaining bytes of the buffer, the position of the buffer is advanced to its limit
+     */
+    void update(@NotNull ByteBuffer buffer) {
+        int position = buffer.position();
+        for (MessageDigest messageDigest : messageDigests) {
+            buffer.position(position);
+            messageDigest.update(buffer);
+        }
+    }
+
+    /**
+     * Read the input stream to the end, or until the listener cancels
+     */
+    void update(@NotNull InputStream inputStream, @Nullable MessageDigestListener listener) throws IOException {
+        byte[] buffer = new byte[PROGRESS_STEP];
+        int readLength;
+        long completedLength = 0;
+        while (listener == null || !listener.isCanceled()) {
+            readLength = inputStream.read(buffer);
+            if (readLength == -1) {
+                break;
+            } else {
+                update(buffer, 0, readLength);
+            }
+            if (listener != null && !listener.isCanceled()) {
+                completedLength += readLength;
+                listener.onUpdateProgress(completedLength);
+            }
+        }
+    }
+
+    /**
+     * Read the file through its {@link FileChannel} into large direct buffers, or until the listener cancels.
+     * With an executor the algorithms digest one buffer in parallel while the other one is being filled
+     */
+    void update(@NotNull File file, @Nullable MessageDigestListener listener, @Nullable ExecutorService executor) throws IOException {
+        FileInputStream inputStream = new FileInputStream(file);
+        try {
+            FileChannel channel = inputStream.getChannel();
+            ByteBuffer[] buffers = obtainFileBuffers();
+            List<Future<?>> pending = executor != null && messageDigests.length > 1 ? new ArrayList<Future<?>>(messageDigests.length) : null;
+            ProgressState progress = new ProgressState(listener);
+            int bufferIndex = 0;
+            try {
+                while (!progress.isCanceled()) {
+                    ByteBuffer buffer = buffers[bufferIndex];
+                    buffer.clear();
+                    if (readFully(channel, buffer) <= 0) break;
+                    buffer.flip();
+                    if (pending != null) {
+                        // The previous buffer is no longer used once its tasks are done, so it can be filled next
+                        awaitAll(pending);
+                        submitAll(executor, buffer, pending);
+                        progress.advance(buffer.remaining());
+                        bufferIndex = (bufferIndex + 1) % buffers.length;
+                    } else {
+                        progress.update(this, buffer);
+                    }
+                }
+            } finally {
+                if (pending != null) {
+                    awaitQuietly(pending);
+                }
+            }
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    /**
+     * Return the hex digests in the order of the algorithms passed to {@link #obtain(String...)}, the {@link MessageDigest} instances are reset after this
+     */
+    @NotNull
+    Map<String, String> digest() {
+        Map<String, String> result = new LinkedHashMap<String, String>(algorithms.length * 2);
+        for (int i = 0; i < algorithms.length; i++) {
+            result.put(algorithms[i], toHex(messageDigests[i].digest()));
+        }
+        return result;
+    }
+
+    /**
+     * Put the {@link MessageDigest} instances back into the cache of the current thread, this object must not be used any more after this
+     */
+    void recycle() {
+        Map<String, MessageDigest> cache = CACHE.get();
+        for (int i = 0; i < algorithms.length; i++) {
+            messageDigests[i].reset();
+            if (!cache.containsKey(algorithms[i])) {
+                cache.put(algorithms[i], messageDigests[i]);
+            }
+        }
+    }
+
+    @NotNull
+    static String toHex(@NotNull byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0, j = 0; i < bytes.length; i++, j += 2) {
+            int index = (bytes[i] & 0xFF) << 1;
+            chars[j] = HEX_TABLE[index];
+            chars[j + 1] = HEX_TABLE[index + 1];
+        }
+        return new String(chars);
+    }
+
+    @NotNull
+    private static char[] createHexTable() {
+        char[] hex = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+        char[] table = new char[256 * 2];
+        for (int i = 0; i < 256; i++) {
+            table[i << 1] = hex[i >>> 4];
+            table[(i << 1) + 1] = hex[i & 0x0F];
+        }
+        return table;
+    }
+
+    /**
+     * Two direct buffers per thread, direct buffers are read by the channel without an intermediate copy and are expensive to allocate
+     */
+    @NotNull
+    private static ByteBuffer[] obtainFileBuffers() {
+        ByteBuffer[] buffers = FILE_BUFFERS.get();
+        if (buffers == null) {
+            buffers = new ByteBuffer[]{ByteBuffer.allocateDirect(FILE_BUFFER_SIZE), ByteBuffer.allocateDirect(FILE_BUFFER_SIZE)};
+            FILE_BUFFERS.set(buffers);
+        }
+        return buffers;
+    }
+
+    private static int readFully(@NotNull FileChannel channel, @NotNull ByteBuffer buffer) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int readLength = channel.read(buffer);
+            if (readLength < 0) break;
+            total += readLength;
+        }
+        return total;
+    }
+
+    private void submitAll(@NotNull ExecutorService executor, @NotNull final ByteBuffer buffer, @NotNull List<Future<?>> pending) {
+        for (final MessageDigest messageDigest : messageDigests) {
+            final ByteBuffer duplicate = buffer.duplicate();
+            pending.add(executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    messageDigest.update(duplicate);
+                }
+            }));
+        }
+    }
+
+    private static void awaitAll(@NotNull List<Future<?>> pending) throws IOException {
+        try {
+            for (Future<?> future : pending) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException exception = new InterruptedIOException("Interrupted while waiting for digest");
+            exception.initCause(e);
+            throw exception;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new IOException(cause != null ? cause.toString() : e.toString());
+            }
+        } finally {
+            pending.clear();
+        }
+    }
+
+    /**
+     * Wait for the tasks even if interrupted, because the {@link MessageDigest} instances are put back into the cache after this
+     */
+    private static void awaitQuietly(@NotNull List<Future<?>> pending) {
+        boolean interrupted = false;
+        for (Future<?> future : pending) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    break;
+                } catch (CancellationException e) {
+                    break;
+                }
+            }
+        }
+        pending.clear();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Report progress in {@link #PROGRESS_STEP} steps no matter how large the buffers are, so listeners see the same progress as before
+     */
+    private static class ProgressState {
+        @Nullable
+        private final MessageDigestListener listener;
+        private long completedLength;
+        private boolean canceled;
+
+        private ProgressState(@Nullable MessageDigestListener listener) {
+            this.listener = listener;
+        }
+
+        private boolean isCanceled() {
+            if (!canceled && listener != null && listener.isCanceled()) canceled = true;
+            return canceled;
+        }
+
+        /**
+         * Digest the buffer step by step, checking for cancellation between the steps
+         */
+        private void update(@NotNull MultiMessageDigest digest, @NotNull ByteBuffer buffer) {
+            if (listener == null) {
+                digest.update(buffer);
+                return;
+            }
+            int limit = buffer.limit();
+            while (buffer.position() < limit && !isCanceled()) {
+                int stepLength = Math.min(PROGRESS_STEP, limit - buffer.position());
+                buffer.limit(buffer.position() + stepLength);
+                digest.update(buffer);
+                buffer.limit(limit);
+                if (!isCanceled()) {
+                    completedLength += stepLength;
+                    listener.onUpdateProgress(completedLength);
+                }
+            }
+        }
+
+        /**
+         * Report the progress of a buffer digested in parallel, which can't be canceled half way
+         */
+        private void advance(int length) {
+            if (listener == null) return;
+            int remaining = length;
+            while (remaining > 0 && !isCanceled()) {
+                int stepLength = Math.min(PROGRESS_STEP, remaining);
+                completedLength += stepLength;
+                remaining -= stepLength;
+                listener.onUpdateProgress(completedLength);
+            }
+        }
+    }
+}
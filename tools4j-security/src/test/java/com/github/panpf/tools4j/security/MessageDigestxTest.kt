@@ -18,7 +18,10 @@ package com.github.panpf.tools4j.security
 import org.junit.Assert
 import org.junit.Test
 import java.io.File
+import java.io.FileNotFoundException
 import java.io.IOException
+import java.util.*
+import java.util.concurrent.Executors
 
 class MessageDigestxTest {
 
@@ -175,6 +178,106 @@ class MessageDigestxTest {
         }
     }
 
+    @Test
+    @Throws(IOException::class)
+    fun testMultipleDigests() {
+        val algorithms = arrayOf("MD5", "SHA1", "SHA-256", "MD5")
+        val textDigests = MessageDigestx.getDigests(TEST_TEXT.toByteArray(), algorithms)
+        Assert.assertEquals("MD5, SHA1, SHA-256", textDigests.keys.joinToString())
+        Assert.assertEquals(TEXT_MD5, textDigests["MD5"])
+        Assert.assertEquals(TEXT_SHA1, textDigests["SHA1"])
+        Assert.assertEquals(TEXT_SHA256, textDigests["SHA-256"])
+        Assert.assertEquals(textDigests, MessageDigestx.getDigests(TEST_TEXT.byteInputStream(), algorithms))
+
+        val callback = TestMessageDigestListener()
+        val file = File("/tmp/testMultipleDigests.tmp")
+        val executor = Executors.newFixedThreadPool(3)
+        try {
+            file.writeText(TEST_FILE_TEXT)
+            val fileDigests = MessageDigestx.getDigests(file, algorithms, callback.reset())
+            Assert.assertEquals("8192,16384,18072", callback.toString())
+            Assert.assertEquals(FILE_MD5, fileDigests["MD5"])
+            Assert.assertEquals(FILE_SHA1, fileDigests["SHA1"])
+            Assert.assertEquals(FILE_SHA256, fileDigests["SHA-256"])
+            Assert.assertEquals(fileDigests, MessageDigestx.getDigests(file, algorithms, null, executor))
+
+            // Larger than the read buffers, so the chunks are digested in parallel while the next one is read
+            val random = Random(42)
+            val bytes = ByteArray(1024 * 1024 + 123).apply { random.nextBytes(this) }
+            file.writeBytes(bytes)
+            val expected = MessageDigestx.getDigests(bytes, algorithms)
+            Assert.assertEquals(MessageDigestx.getMD5(bytes), expected["MD5"])
+            Assert.assertEquals(MessageDigestx.getSHA256(bytes), expected["SHA-256"])
+            Assert.assertEquals(expected, MessageDigestx.getDigests(file, algorithms))
+            Assert.assertEquals(expected, MessageDigestx.getDigests(file, algorithms, callback.reset(), executor))
+            Assert.assertEquals(bytes.size.toString(), callback.toString().substringAfterLast(","))
+            Assert.assertEquals(expected["SHA1"], MessageDigestx.getSHA1(file))
+        } finally {
+            executor.shutdown()
+            file.delete()
+        }
+    }
+
+    @Test
+    @Throws(IOException::class)
+    fun testTreeDigest() {
+        val dir = File("/tmp/testTreeDigest")
+        val cacheFile = File("/tmp/testTreeDigest.cache")
+        val executor = Executors.newFixedThreadPool(3)
+        try {
+            dir.deleteRecursively()
+            cacheFile.delete()
+            File(dir, "a.txt").apply { parentFile.mkdirs() }.writeText("a")
+            File(dir, "sub/b.txt").apply { parentFile.mkdirs() }.writeText("b")
+            File(dir, "sub/c.txt").writeText(TEST_FILE_TEXT)
+            File(dir, "empty").mkdirs()
+
+            val md5 = { text: String -> MessageDigestx.getMD5(text) }
+            val sub = md5("b.txt\u0000f${md5("b")}\nc.txt\u0000f$FILE_MD5\n")
+            val empty = md5("")
+            val root = md5("a.txt\u0000f${md5("a")}\nempty\u0000d$empty\nsub\u0000d$sub\n")
+            Assert.assertEquals(root, MessageDigestx.getTreeDigest(dir, "MD5"))
+            Assert.assertEquals(root, MessageDigestx.getTreeDigest(dir, "MD5", executor, null))
+            Assert.assertEquals(sub, MessageDigestx.getTreeDigest(File(dir, "sub"), "MD5"))
+            Assert.assertEquals(FILE_MD5, MessageDigestx.getTreeDigest(File(dir, "sub/c.txt"), "MD5"))
+
+            Assert.assertEquals(root, MessageDigestx.getTreeDigest(dir, "MD5", executor, cacheFile))
+            Assert.assertTrue(cacheFile.exists())
+            Assert.assertEquals(root, MessageDigestx.getTreeDigest(dir, "MD5", executor, cacheFile))
+
+            // A cached file is trusted only if its length and modified time have not changed, and it is old enough
+            val oldTime = System.currentTimeMillis() - 60 * 1000
+            dir.walkTopDown().forEach { it.setLastModified(oldTime) }
+            Assert.assertEquals(root, MessageDigestx.getTreeDigest(dir, "MD5", executor, cacheFile))
+            cacheFile.writeText(cacheFile.readText().replace(md5("a"), md5("x")))
+            Assert.assertNotEquals(root, MessageDigestx.getTreeDigest(dir, "MD5", executor, cacheFile))
+            File(dir, "a.txt").setLastModified(oldTime + 1000)
+            Assert.assertEquals(root, MessageDigestx.getTreeDigest(dir, "MD5", executor, cacheFile))
+
+            File(dir, "sub/b.txt").writeText("bb")
+            val changedRoot = MessageDigestx.getTreeDigest(dir, "MD5", executor, cacheFile)
+            Assert.assertNotEquals(root, changedRoot)
+            Assert.assertEquals(changedRoot, MessageDigestx.getTreeDigest(dir, "MD5"))
+            // A cache of another algorithm is ignored
+            Assert.assertEquals(MessageDigestx.getTreeDigest(dir, "SHA-256"), MessageDigestx.getTreeDigest(dir, "SHA-256", null, cacheFile))
+
+            // More files than the digests kept waiting at once
+            val many = File(dir, "many").apply { mkdirs() }
+            repeat(2500) { File(many, "file$it.txt").writeText(it.toString()) }
+            Assert.assertEquals(MessageDigestx.getTreeDigest(many, "MD5"), MessageDigestx.getTreeDigest(many, "MD5", executor, cacheFile))
+
+            try {
+                MessageDigestx.getTreeDigest(File(dir, "missing"), "MD5")
+                Assert.fail()
+            } catch (e: FileNotFoundException) {
+            }
+        } finally {
+            executor.shutdown()
+            dir.deleteRecursively()
+            cacheFile.delete()
+        }
+    }
+
     @Test
     fun testError() {
         try {
@@ -0,0 +1,914 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.sequences;
+
+import com.github.panpf.tools4j.common.*;
+import com.github.panpf.tools4j.iterable.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * [DoubleSequence] tool method, the stages and the terminal operations pass the `double` values without boxing them
+ */
+public class DoubleSequencex {
+
+    private static final DoubleSequence EMPTY = new DoubleSequence() {
+        @NotNull
+        @Override
+        public DoubleIterator iterator() {
+            return new DoubleIterator() {
+                @Override
+                public boolean hasNext() {
+                    return false;
+                }
+
+                @Override
+                public double nextDouble() {
+                    throw new NoSuchElementException();
+                }
+            };
+        }
+    };
+
+    private static final int WINDOW_SUM = 0;
+    private static final int WINDOW_MIN = 1;
+    private static final int WINDOW_MAX = 2;
+
+    private DoubleSequencex() {
+    }
+
+
+    /* ******************************************* create ******************************************* */
+
+
+    /**
+     * Returns an empty sequence.
+     */
+    @NotNull
+    public static DoubleSequence emptyDoubleSequence() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a sequence that returns the specified values.
+     */
+    @NotNull
+    public static DoubleSequence doubleSequenceOf(@Nullable double... elements) {
+        return asDoubleSequence(elements);
+    }
+
+    /**
+     * Creates a [DoubleSequence] instance that wraps the original array returning its elements when being iterated.
+     */
+    @NotNull
+    public static DoubleSequence asDoubleSequence(@Nullable final double[] elements) {
+        if (elements == null || elements.length == 0) {
+            return EMPTY;
+        }
+        return new DoubleSequence() {
+            @NotNull
+            @Override
+            public DoubleIterator iterator() {
+                return new DoubleIterator() {
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < elements.length;
+                    }
+
+                    @Override
+                    public double nextDouble() {
+                        if (index >= elements.length) {
+                            throw new NoSuchElementException();
+                        }
+                        return elements[index++];
+                    }
+                };
+            }
+        };
+    }
+
+
+    /* ******************************************* convert ******************************************* */
+
+
+    /**
+     * Creates a [DoubleSequence] that unboxes the elements of the [sequence].
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public static DoubleSequence asDoubleSequence(@Nullable final Sequence<Double> sequence) {
+        if (sequence == null) {
+            return EMPTY;
+        }
+        return new DoubleSequence() {
+            @NotNull
+            @Override
+            public DoubleIterator iterator() {
+                final Iterator<Double> iterator = sequence.iterator();
+                return new DoubleIterator() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public double nextDouble() {
+                        return iterator.next();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a [DoubleSequence] containing the results of applying the given [transform] function
+     * to each element in the original [sequence].
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public static <T> DoubleSequence mapToDouble(@Nullable final Sequence<T> sequence, @NotNull final ToDoubleTransformer<T> transform) {
+        if (sequence == null) {
+            return EMPTY;
+        }
+        return new DoubleSequence() {
+            @NotNull
+            @Override
+            public DoubleIterator iterator() {
+                final Iterator<T> iterator = sequence.iterator();
+                return new DoubleIterator() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public double nextDouble() {
+                        return transform.transform(iterator.next());
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Creates a [Sequence] that boxes the values of the [sequence].
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public static Sequence<Double> asSequence(@Nullable final DoubleSequence sequence) {
+        if (sequence == null) {
+            return Sequencex.emptySequence();
+        }
+        return new Sequence<Double>() {
+            @NotNull
+            @Override
+            public Iterator<Double> iterator() {
+                return sequence.iterator();
+            }
+        };
+    }
+
+    /**
+     * Returns a [Sequence] containing the results of applying the given [transform] function
+     * to each value in the original [sequence].
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public static <R> Sequence<R> mapToObj(@Nullable final DoubleSequence sequence, @NotNull final DoubleToObjTransformer<R> transform) {
+        if (sequence == null) {
+            return Sequencex.emptySequence();
+        }
+        return new Sequence<R>() {
+            @NotNull
+            @Override
+            public Iterator<R> iterator() {
+                final DoubleIterator iterator = sequence.iterator();
+                return new Iterator<R>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public R next() {
+                        return transform.transform(iterator.nextDouble());
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException("remove");
+                    }
+                };
+            }
+        };
+    }
+
+
+    /* ******************************************* stages ******************************************* */
+
+
+    /**
+     * Returns a sequence containing the results of applying the given [transform] function
+     * to each value in the original sequence.
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public static DoubleSequence map(@Nullable final DoubleSequence sequence, @NotNull final DoubleTransformer transform) {
+        if (sequence == null) {
+            return EMPTY;
+        }
+        return new DoubleSequence() {
+            @NotNull
+            @Override
+            public DoubleIterator iterator() {
+                final DoubleIterator iterator = sequence.iterator();
+                return new DoubleIterator() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public double nextDouble() {
+                        return transform.transform(iterator.nextDouble());
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence containing only values matching the given [predicate].
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public static DoubleSequence filter(@Nullable DoubleSequence sequence, @NotNull DoublePredicate predicate) {
+        return filter(sequence, true, predicate);
+    }
+
+    /**
+     * Returns a sequence containing all values not matching the given [predicate].
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public static DoubleSequence filterNot(@Nullable DoubleSequence sequence, @NotNull DoublePredicate predicate) {
+        return filter(sequence, false, predicate);
+    }
+
+    @NotNull
+    private static DoubleSequence filter(@Nullable final DoubleSequence sequence, final boolean sendWhen, @NotNull final DoublePredicate predicate) {
+        if (sequence == null) {
+            return EMPTY;
+        }
+        return new DoubleSequence() {
+            @NotNull
+            @Override
+            public DoubleIterator iterator() {
+                final DoubleIterator iterator = sequence.iterator();
+                return new DoubleIterator() {
+                    private int nextState = -1; // -1 for unknown, 0 for done, 1 for continue
+                    private double nextValue;
+
+                    private void calcNext() {
+                        while (iterator.hasNext()) {
+                            double value = iterator.nextDouble();
+                            if (predicate.accept(value) == sendWhen) {
+                                nextValue = value;
+                                nextState = 1;
+                                return;
+                            }
+                        }
+                        nextState = 0;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        if (nextState == -1)
+                            calcNext();
+                        return nextState == 1;
+                    }
+
+                    @Override
+                    public double nextDouble() {
+                        if (nextState == -1)
+                            calcNext();
+                        if (nextState == 0)
+                            throw new NoSuchElementException();
+                        nextState = -1;
+                        return nextValue;
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence containing first [n] values.
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     *
+     * @throws IllegalArgumentException if [n] is negative.
+     */
+    @NotNull
+    public static DoubleSequence take(@Nullable final DoubleSequence sequence, final int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Param 'n' is less than to zero.");
+        }
+        if (n == 0 || sequence == null) {
+            return EMPTY;
+        }
+        return new DoubleSequence() {
+            @NotNull
+            @Override
+            public DoubleIterator iterator() {
+                final DoubleIterator iterator = sequence.iterator();
+                return new DoubleIterator() {
+                    private int left = n;
+
+                    @Override
+                    public boolean hasNext() {
+                        return left > 0 && iterator.hasNext();
+                    }
+
+                    @Override
+                    public double nextDouble() {
+                        if (left <= 0) {
+                            throw new NoSuchElementException();
+                        }
+                        left--;
+                        return iterator.nextDouble();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence containing all values except first [n] values.
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     *
+     * @throws IllegalArgumentException if [n] is negative.
+     */
+    @NotNull
+    public static DoubleSequence drop(@Nullable final DoubleSequence sequence, final int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Param 'n' is less than to zero.");
+        }
+        if (sequence == null) {
+            return EMPTY;
+        }
+        if (n == 0) {
+            return sequence;
+        }
+        return new DoubleSequence() {
+            @NotNull
+            @Override
+            public DoubleIterator iterator() {
+                final DoubleIterator iterator = sequence.iterator();
+                return new DoubleIterator() {
+                    private int left = n;
+
+                    private void drop() {
+                        while (left > 0 && iterator.hasNext()) {
+                            iterator.nextDouble();
+                            left--;
+                        }
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        drop();
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public double nextDouble() {
+                        drop();
+                        return iterator.nextDouble();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence containing only distinct values from the given sequence.
+     * <p>
+     * The values are remembered by [Double#doubleToLongBits] in a hash set of `long` values, the resulting sequence preserves the order of the first occurrences.
+     * Like [Double#equals], `NaN` is equal to itself and `0.0` is not equal to `-0.0`.
+     * <p>
+     * The operation is _intermediate_ and _stateful_.
+     */
+    @NotNull
+    public static DoubleSequence distinct(@Nullable final DoubleSequence sequence) {
+        if (sequence == null) {
+            return EMPTY;
+        }
+        return new DoubleSequence() {
+            @NotNull
+            @Override
+            public DoubleIterator iterator() {
+                final DoubleIterator iterator = sequence.iterator();
+                return new DoubleIterator() {
+                    private final PrimitiveHashSet observed = new PrimitiveHashSet();
+                    private boolean hasNextValue;
+                    private double nextValue;
+
+                    @Override
+                    public boolean hasNext() {
+                        while (!hasNextValue && iterator.hasNext()) {
+                            double value = iterator.nextDouble();
+                            if (observed.add(Double.doubleToLongBits(value))) {
+                                nextValue = value;
+                                hasNextValue = true;
+                            }
+                        }
+                        return hasNextValue;
+                    }
+
+                    @Override
+                    public double nextDouble() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        hasNextValue = false;
+                        return nextValue;
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence that yields values of this sequence sorted according to their natural sort order.
+     * <p>
+     * The operation is _intermediate_ and _stateful_.
+     */
+    @NotNull
+    public static DoubleSequence sorted(@Nullable DoubleSequence sequence) {
+        return sorted(sequence, false);
+    }
+
+    /**
+     * Returns a sequence that yields values of this sequence sorted descending according to their natural sort order.
+     * <p>
+     * The operation is _intermediate_ and _stateful_.
+     */
+    @NotNull
+    public static DoubleSequence sortedDescending(@Nullable DoubleSequence sequence) {
+        return sorted(sequence, true);
+    }
+
+    @NotNull
+    private static DoubleSequence sorted(@Nullable final DoubleSequence sequence, final boolean descending) {
+        if (sequence == null) {
+            return EMPTY;
+        }
+        return new DoubleSequence() {
+            @NotNull
+            @Override
+            public DoubleIterator iterator() {
+                final double[] values = toDoubleArray(sequence);
+                Arrays.sort(values);
+                return new DoubleIterator() {
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < values.length;
+                    }
+
+                    @Override
+                    public double nextDouble() {
+                        if (index >= values.length) {
+                            throw new NoSuchElementException();
+                        }
+                        return descending ? values[values.length - 1 - index++] : values[index++];
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence of snapshots of the window of the given [size]
+     * sliding along this sequence with the given [step], where each
+     * snapshot is a new `double` array.
+     * <p>
+     * Several last arrays may have less values than the given [size].
+     * <p>
+     * Both [size] and [step] must be positive and can be greater than the number of values in this sequence.
+     *
+     * @param size           the number of values to take in each window
+     * @param step           the number of values to move the window forward by on an each step
+     * @param partialWindows controls whether or not to keep partial windows in the end if any
+     */
+    @NotNull
+    public static Sequence<double[]> windowed(@Nullable final DoubleSequence sequence, final int size, final int step, final boolean partialWindows) {
+        if (size <= 0 || step <= 0) {
+            if (size != step) {
+                throw new IllegalArgumentException("Both size " + size + " and step " + step + " must be greater than zero.");
+            } else {
+                throw new IllegalArgumentException("size " + size + " must be greater than zero.");
+            }
+        }
+        if (sequence == null) {
+            return Sequencex.emptySequence();
+        }
+        return new Sequence<double[]>() {
+            @NotNull
+            @Override
+            public Iterator<double[]> iterator() {
+                final DoubleIterator iterator = sequence.iterator();
+                return new AbstractIterator<double[]>() {
+                    @NotNull
+                    private final double[] buffer = new double[size];
+                    private int count = -1;
+
+                    @Override
+                    protected void computeNext() {
+                        if (count == -1) {
+                            count = 0;
+                        } else if (step >= count) {
+                            for (int skip = step - count; skip > 0 && iterator.hasNext(); skip--) {
+                                iterator.nextDouble();
+                            }
+                            count = 0;
+                        } else {
+                            System.arraycopy(buffer, step, buffer, 0, count - step);
+                            count -= step;
+                        }
+                        while (count < size && iterator.hasNext()) {
+                            buffer[count++] = iterator.nextDouble();
+                        }
+                        if (count == size || (partialWindows && count > 0)) {
+                            double[] window = new double[count];
+                            System.arraycopy(buffer, 0, window, 0, count);
+                            setNext(window);
+                        } else {
+                            done();
+                        }
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException("remove");
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence of the sums of the window of the given [size] sliding along this sequence one value at a time.
+     * <p>
+     * The sum is updated as the window slides, the windows are never copied. A sequence with less values than [size] has no windows.
+     * A window containing `NaN` or both infinities sums to `NaN`.
+     * <p>
+     * The operation is _intermediate_ and _stateful_.
+     *
+     * @param size the number of values in each window, must be positive
+     */
+    @NotNull
+    public static DoubleSequence windowedSum(@Nullable DoubleSequence sequence, int size) {
+        return windowedAggregate(sequence, size, WINDOW_SUM);
+    }
+
+    /**
+     * Returns a sequence of the averages of the window of the given [size] sliding along this sequence one value at a time.
+     * <p>
+     * The sum is updated as the window slides, the windows are never copied. A sequence with less values than [size] has no windows.
+     * <p>
+     * The operation is _intermediate_ and _stateful_.
+     *
+     * @param size the number of values in each window, must be positive
+     */
+    @NotNull
+    public static DoubleSequence windowedAverage(@Nullable final DoubleSequence sequence, final int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size " + size + " must be greater than zero.");
+        }
+        if (sequence == null) {
+            return EMPTY;
+        }
+        return new DoubleSequence() {
+            @NotNull
+            @Override
+            public DoubleIterator iterator() {
+                final DoubleSlidingWindow window = new DoubleSlidingWindow(sequence.iterator(), size, false);
+                return new DoubleIterator() {
+                    private boolean ready;
+
+                    @Override
+                    public boolean hasNext() {
+                        return ready || (ready = window.slide());
+                    }
+
+                    @Override
+                    public double nextDouble() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        ready = false;
+                        return window.average();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence of the smallest values of the window of the given [size] sliding along this sequence one value at a time.
+     * <p>
+     * Only the values that can still become the smallest are remembered, so each value is compared a constant number of times on average
+     * and the windows are never copied. A sequence with less values than [size] has no windows.
+     * A window containing `NaN` returns `NaN`.
+     * <p>
+     * The operation is _intermediate_ and _stateful_.
+     *
+     * @param size the number of values in each window, must be positive
+     */
+    @NotNull
+    public static DoubleSequence windowedMin(@Nullable DoubleSequence sequence, int size) {
+        return windowedAggregate(sequence, size, WINDOW_MIN);
+    }
+
+    /**
+     * Returns a sequence of the largest values of the window of the given [size] sliding along this sequence one value at a time.
+     * <p>
+     * Only the values that can still become the largest are remembered, so each value is compared a constant number of times on average
+     * and the windows are never copied. A sequence with less values than [size] has no windows.
+     * A window containing `NaN` returns `NaN`.
+     * <p>
+     * The operation is _intermediate_ and _stateful_.
+     *
+     * @param size the number of values in each window, must be positive
+     */
+    @NotNull
+    public static DoubleSequence windowedMax(@Nullable DoubleSequence sequence, int size) {
+        return windowedAggregate(sequence, size, WINDOW_MAX);
+    }
+
+    @NotNull
+    private static DoubleSequence windowedAggregate(@Nullable final DoubleSequence sequence, final int size, final int aggregate) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size " + size + " must be greater than zero.");
+        }
+        if (sequence == null) {
+            return EMPTY;
+        }
+        return new DoubleSequence() {
+            @NotNull
+            @Override
+            public DoubleIterator iterator() {
+                final DoubleSlidingWindow window = new DoubleSlidingWindow(sequence.iterator(), size, aggregate != WINDOW_SUM);
+                return new DoubleIterator() {
+                    private boolean ready;
+
+                    @Override
+                    public boolean hasNext() {
+                        return ready || (ready = window.slide());
+                    }
+
+                    @Override
+                    public double nextDouble() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        ready = false;
+                        return aggregate == WINDOW_SUM ? window.sum() : aggregate == WINDOW_MIN ? window.min() : window.max();
+                    }
+                };
+            }
+        };
+    }
+
+
+
+    /* ******************************************* terminal ******************************************* */
+
+
+    /**
+     * Returns an array containing all of the values of this sequence.
+     * <p>
+     * The operation is _terminal_.
+     */
+    @NotNull
+    public static double[] toDoubleArray(@Nullable DoubleSequence sequence) {
+        double[] values = new double[16];
+        int size = 0;
+        if (sequence != null) {
+            DoubleIterator iterator = sequence.iterator();
+            while (iterator.hasNext()) {
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, values.length * 2);
+                }
+                values[size++] = iterator.nextDouble();
+            }
+        }
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Returns the number of values in this sequence.
+     * <p>
+     * The operation is _terminal_.
+     */
+    public static int count(@Nullable DoubleSequence sequence) {
+        int count = 0;
+        if (sequence != null) {
+            DoubleIterator iterator = sequence.iterator();
+            while (iterator.hasNext()) {
+                iterator.nextDouble();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the sum of all values in the sequence.
+     * <p>
+     * The operation is _terminal_.
+     */
+    public static double sum(@Nullable DoubleSequence sequence) {
+        double sum = 0;
+        if (sequence != null) {
+            DoubleIterator iterator = sequence.iterator();
+            while (iterator.hasNext()) {
+                sum += iterator.nextDouble();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Returns an average value of values in the sequence, or `NaN` if the sequence is empty.
+     * <p>
+     * The operation is _terminal_.
+     */
+    public static double average(@Nullable DoubleSequence sequence) {
+        double sum = 0;
+        int count = 0;
+        if (sequence != null) {
+            DoubleIterator iterator = sequence.iterator();
+            while (iterator.hasNext()) {
+                sum += iterator.nextDouble();
+                count++;
+            }
+        }
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    /**
+     * Returns the largest value or `null` if there are no values.
+     * <p>
+     * If any of values is `NaN` returns `NaN`.
+     * <p>
+     * The operation is _terminal_.
+     */
+    @Nullable
+    public static Double maxOrNull(@Nullable DoubleSequence sequence) {
+        DoubleIterator iterator = sequence != null ? sequence.iterator() : null;
+        if (iterator == null || !iterator.hasNext()) return null;
+        double max = iterator.nextDouble();
+        while (iterator.hasNext()) {
+            max = Math.max(max, iterator.nextDouble());
+        }
+        return max;
+    }
+
+    /**
+     * Returns the smallest value or `null` if there are no values.
+     * <p>
+     * If any of values is `NaN` returns `NaN`.
+     * <p>
+     * The operation is _terminal_.
+     */
+    @Nullable
+    public static Double minOrNull(@Nullable DoubleSequence sequence) {
+        DoubleIterator iterator = sequence != null ? sequence.iterator() : null;
+        if (iterator == null || !iterator.hasNext()) return null;
+        double min = iterator.nextDouble();
+        while (iterator.hasNext()) {
+            min = Math.min(min, iterator.nextDouble());
+        }
+        return min;
+    }
+
+    /**
+     * Accumulates value starting with [initial] value and applying [operation] from left to right to current accumulator value and each value.
+     * <p>
+     * The operation is _terminal_.
+     */
+    public static double fold(@Nullable DoubleSequence sequence, double initial, @NotNull DoubleOperation operation) {
+        double accumulator = initial;
+        if (sequence != null) {
+            DoubleIterator iterator = sequence.iterator();
+            while (iterator.hasNext()) {
+                accumulator = operation.operation(accumulator, iterator.nextDouble());
+            }
+        }
+        return accumulator;
+    }
+
+    /**
+     * Accumulates value starting with the first value and applying [operation] from left to right to current accumulator value and each value.
+     * <p>
+     * The operation is _terminal_.
+     *
+     * @throws UnsupportedOperationException if the sequence is empty.
+     */
+    public static double reduce(@Nullable DoubleSequence sequence, @NotNull DoubleOperation operation) {
+        DoubleIterator iterator = sequence != null ? sequence.iterator() : null;
+        if (iterator == null || !iterator.hasNext()) {
+            throw new UnsupportedOperationException("Empty sequence can't be reduced.");
+        }
+        double accumulator = iterator.nextDouble();
+        while (iterator.hasNext()) {
+            accumulator = operation.operation(accumulator, iterator.nextDouble());
+        }
+        return accumulator;
+    }
+
+    /**
+     * Performs the given [action] on each value.
+     * <p>
+     * The operation is _terminal_.
+     */
+    public static void forEach(@Nullable DoubleSequence sequence, @NotNull DoubleAction action) {
+        if (sequence != null) {
+            DoubleIterator iterator = sequence.iterator();
+            while (iterator.hasNext()) {
+                action.action(iterator.nextDouble());
+            }
+        }
+    }
+
+    /**
+     * Returns `true` if at least one value matches the given [predicate].
+     * <p>
+     * The operation is _terminal_.
+     */
+    public static boolean any(@Nullable DoubleSequence sequence, @NotNull DoublePredicate predicate) {
+        if (sequence != null) {
+            DoubleIterator iterator = sequence.iterator();
+            while (iterator.hasNext()) {
+                if (predicate.accept(iterator.nextDouble())) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns `true` if all values match the given [predicate].
+     * <p>
+     * The operation is _terminal_.
+     */
+    public static boolean all(@Nullable DoubleSequence sequence, @NotNull DoublePredicate predicate) {
+        if (sequence != null) {
+            DoubleIterator iterator = sequence.iterator();
+            while (iterator.hasNext()) {
+                if (!predicate.accept(iterator.nextDouble())) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns `true` if no values match the given [predicate].
+     * <p>
+     * The operation is _terminal_.
+     */
+    public static boolean none(@Nullable DoubleSequence sequence, @NotNull DoublePredicate predicate) {
+        return !any(sequence, predicate);
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.sequences;
+
+import com.github.panpf.tools4j.iterable.DoubleIterator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The last [size] values of a [DoubleIterator], whose sum, minimum and maximum are updated in constant amortized time as the window slides,
+ * without copying the window
+ */
+class DoubleSlidingWindow {
+
+    @NotNull
+    private final DoubleIterator iterator;
+    private final int size;
+    @NotNull
+    private final double[] values;
+    /**
+     * The position in the source of the next value, the value at position `p` is kept in `values[p % size]` while it is in the window
+     */
+    private long position;
+
+    /**
+     * The sum of the finite values of the window and its compensation, the infinities and `NaN` are counted instead of added
+     */
+    private double sum;
+    private double compensation;
+    private int nanCount;
+    private int positiveInfinityCount;
+    private int negativeInfinityCount;
+
+    /**
+     * The positions of the candidates for the minimum and the maximum, the values at the positions are increasing and decreasing respectively
+     */
+    @Nullable
+    private final long[] minPositions;
+    @Nullable
+    private final long[] maxPositions;
+    private int minHead;
+    private int minCount;
+    private int maxHead;
+    private int maxCount;
+
+    DoubleSlidingWindow(@NotNull DoubleIterator iterator, int size, boolean trackMinMax) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size " + size + " must be greater than zero.");
+        }
+        this.iterator = iterator;
+        this.size = size;
+        this.values = new double[size];
+        this.minPositions = trackMinMax ? new long[size] : null;
+        this.maxPositions = trackMinMax ? new long[size] : null;
+    }
+
+    /**
+     * Slides the window by one value, filling it first if it is not full yet
+     *
+     * @return `false` if the source has no more values and the window can't slide
+     */
+    boolean slide() {
+        while (position < size - 1 && iterator.hasNext()) {
+            push(iterator.nextDouble());
+        }
+        if (position < size - 1 || !iterator.hasNext()) {
+            return false;
+        }
+        push(iterator.nextDouble());
+        return true;
+    }
+
+    private void push(double value) {
+        int slot = (int) (position % size);
+        if (position >= size) {
+            remove(values[slot]);
+        }
+        values[slot] = value;
+        add(value);
+        if (minPositions != null) {
+            long windowStart = position - size + 1;
+            if (minCount > 0 && minPositions[minHead] < windowStart) {
+                minHead = (minHead + 1) % size;
+                minCount--;
+            }
+            if (maxCount > 0 && maxPositions[maxHead] < windowStart) {
+                maxHead = (maxHead + 1) % size;
+                maxCount--;
+            }
+            if (!Double.isNaN(value)) {
+                while (minCount > 0 && Double.compare(values[(int) (minPositions[(minHead + minCount - 1) % size] % size)], value) >= 0) {
+                    minCount--;
+                }
+                minPositions[(minHead + minCount++) % size] = position;
+                while (maxCount > 0 && Double.compare(values[(int) (maxPositions[(maxHead + maxCount - 1) % size] % size)], value) <= 0) {
+                    maxCount--;
+                }
+                maxPositions[(maxHead + maxCount++) % size] = position;
+            }
+        }
+        position++;
+    }
+
+    private void add(double value) {
+        if (Double.isNaN(value)) {
+            nanCount++;
+        } else if (value == Double.POSITIVE_INFINITY) {
+            positiveInfinityCount++;
+        } else if (value == Double.NEGATIVE_INFINITY) {
+            negativeInfinityCount++;
+        } else {
+            addFinite(value);
+        }
+    }
+
+    private void remove(double value) {
+        if (Double.isNaN(value)) {
+            nanCount--;
+        } else if (value == Double.POSITIVE_INFINITY) {
+            positiveInfinityCount--;
+        } else if (value == Double.NEGATIVE_INFINITY) {
+            negativeInfinityCount--;
+        } else {
+            addFinite(-value);
+        }
+    }
+
+    /**
+     * Neumaier summation, so that the rounding errors of the values that left the window don't accumulate
+     */
+    private void addFinite(double value) {
+        double newSum = sum + value;
+        if (Math.abs(sum) >= Math.abs(value)) {
+            compensation += (sum - newSum) + value;
+        } else {
+            compensation += (value - newSum) + sum;
+        }
+        sum = newSum;
+    }
+
+    double sum() {
+        if (nanCount > 0 || (positiveInfinityCount > 0 && negativeInfinityCount > 0)) {
+            return Double.NaN;
+        } else if (positiveInfinityCount > 0) {
+            return Double.POSITIVE_INFINITY;
+        } else if (negativeInfinityCount > 0) {
+            return Double.NEGATIVE_INFINITY;
+        } else {
+            return sum + compensation;
+        }
+    }
+
+    double average() {
+        return sum() / size;
+    }
+
+    double min() {
+        return nanCount > 0 ? Double.NaN : values[(int) (minPositions[minHead] % size)];
+    }
+
+    double max() {
+        return nanCount > 0 ? Double.NaN : values[(int) (maxPositions[maxHead] % size)];
+    }
+}
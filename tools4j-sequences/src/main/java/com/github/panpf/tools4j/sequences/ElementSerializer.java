@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.sequences;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Writes elements to and reads them back from a binary stream, used to spill elements to temporary files
+ * <p>
+ * [read] must read exactly the bytes written by [write] for the same element. Null elements are handled by the caller
+ * and never passed to [write].
+ *
+ * @see ElementSerializers
+ */
+public interface ElementSerializer<T> {
+
+    void write(@NotNull DataOutput output, @NotNull T element) throws IOException;
+
+    @NotNull
+    T read(@NotNull DataInput input) throws IOException;
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.sequences;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Common [ElementSerializer] implementations
+ */
+public class ElementSerializers {
+
+    /**
+     * Writes strings as UTF-8 bytes with no limit on the length
+     */
+    @NotNull
+    public static final ElementSerializer<String> STRING = new ElementSerializer<String>() {
+        @Override
+        public void write(@NotNull DataOutput output, @NotNull String element) throws IOException {
+            byte[] bytes = element.getBytes("UTF-8");
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+
+        @NotNull
+        @Override
+        public String read(@NotNull DataInput input) throws IOException {
+            byte[] bytes = new byte[input.readInt()];
+            input.readFully(bytes);
+            return new String(bytes, "UTF-8");
+        }
+    };
+
+    @NotNull
+    public static final ElementSerializer<Integer> INT = new ElementSerializer<Integer>() {
+        @Override
+        public void write(@NotNull DataOutput output, @NotNull Integer element) throws IOException {
+            output.writeInt(element);
+        }
+
+        @NotNull
+        @Override
+        public Integer read(@NotNull DataInput input) throws IOException {
+            return input.readInt();
+        }
+    };
+
+    @NotNull
+    public static final ElementSerializer<Long> LONG = new ElementSerializer<Long>() {
+        @Override
+        public void write(@NotNull DataOutput output, @NotNull Long element) throws IOException {
+            output.writeLong(element);
+        }
+
+        @NotNull
+        @Override
+        public Long read(@NotNull DataInput input) throws IOException {
+            return input.readLong();
+        }
+    };
+
+    @NotNull
+    public static final ElementSerializer<Double> DOUBLE = new ElementSerializer<Double>() {
+        @Override
+        public void write(@NotNull DataOutput output, @NotNull Double element) throws IOException {
+            output.writeDouble(element);
+        }
+
+        @NotNull
+        @Override
+        public Double read(@NotNull DataInput input) throws IOException {
+            return input.readDouble();
+        }
+    };
+
+    private ElementSerializers() {
+    }
+}
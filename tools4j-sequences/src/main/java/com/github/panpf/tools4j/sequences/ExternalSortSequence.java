@@ -0,0 +1,342 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.sequences;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * A sequence that yields the elements of the source sequence sorted according to the [comparator],
+ * holding at most [maxElementsInMemory] elements in memory at a time.
+ * <p>
+ * If the source has no more than [maxElementsInMemory] elements it is sorted in memory. Otherwise the source is read in
+ * runs of [maxElementsInMemory] elements, each run is sorted and written to a temporary file with the [serializer],
+ * and the iterator lazily merges the sorted runs. Equal elements keep their original order.
+ * <p>
+ * The temporary files are deleted as soon as they are read to the end. The iterator implements [Closeable],
+ * close it to delete the remaining files when the iteration is abandoned before the end.
+ * An [IOException] of the temporary files is thrown as an [IllegalStateException].
+ */
+public class ExternalSortSequence<T> implements Sequence<T> {
+
+    /**
+     * The maximum number of runs merged at once, more runs are first merged into larger runs
+     * so that the number of files open at the same time stays bounded
+     */
+    private static final int MAX_MERGE_WIDTH = 64;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final byte TAG_END = 0;
+    private static final byte TAG_NULL = 1;
+    private static final byte TAG_ELEMENT = 2;
+
+    @Nullable
+    private final Sequence<T> source;
+    @NotNull
+    private final Comparator<T> comparator;
+    @NotNull
+    private final ElementSerializer<T> serializer;
+    private final int maxElementsInMemory;
+    @Nullable
+    private final File tempDirectory;
+
+    /**
+     * @param source              the sequence to sort
+     * @param comparator          the order of the elements
+     * @param serializer          writes the elements to the temporary files and reads them back
+     * @param maxElementsInMemory the maximum number of elements sorted in memory, also the size of the runs written to the temporary files
+     * @param tempDirectory       the directory of the temporary files, the default temporary directory if null
+     */
+    public ExternalSortSequence(@Nullable Sequence<T> source, @NotNull Comparator<T> comparator,
+                                @NotNull ElementSerializer<T> serializer, int maxElementsInMemory, @Nullable File tempDirectory) {
+        if (maxElementsInMemory <= 0) {
+            throw new IllegalArgumentException("maxElementsInMemory " + maxElementsInMemory + " must be greater than zero.");
+        }
+        this.source = source;
+        this.comparator = comparator;
+        this.serializer = serializer;
+        this.maxElementsInMemory = maxElementsInMemory;
+        this.tempDirectory = tempDirectory;
+    }
+
+    @NotNull
+    @Override
+    public Iterator<T> iterator() {
+        Iterator<T> iterator = source != null ? source.iterator() : Collections.<T>emptyList().iterator();
+        List<T> buffer = new ArrayList<T>(Math.min(maxElementsInMemory, 1024));
+        List<File> runs = new ArrayList<File>();
+        List<File> createdFiles = new ArrayList<File>();
+        boolean success = false;
+        try {
+            while (true) {
+                while (buffer.size() < maxElementsInMemory && iterator.hasNext()) {
+                    buffer.add(iterator.next());
+                }
+                Collections.sort(buffer, comparator);
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                runs.add(writeRun(buffer.iterator(), createdFiles));
+                buffer.clear();
+            }
+
+            while (runs.size() >= MAX_MERGE_WIDTH) {
+                // Merge consecutive runs so that equal elements of earlier runs still come first
+                List<File> mergedRuns = new ArrayList<File>((runs.size() + MAX_MERGE_WIDTH - 1) / MAX_MERGE_WIDTH);
+                for (int start = 0; start < runs.size(); start += MAX_MERGE_WIDTH) {
+                    List<File> group = runs.subList(start, Math.min(start + MAX_MERGE_WIDTH, runs.size()));
+                    if (group.size() == 1) {
+                        mergedRuns.add(group.get(0));
+                    } else {
+                        MergingIterator<T> merging = openRuns(group, null);
+                        try {
+                            mergedRuns.add(writeRun(merging, createdFiles));
+                        } finally {
+                            merging.close();
+                        }
+                    }
+                }
+                runs = mergedRuns;
+            }
+
+            // The last run is still sorted in memory, it is merged without going through a file.
+            // A source sorted entirely in memory is a single run, so the iterator is always Closeable
+            Iterator<T> result = openRuns(runs, buffer.iterator());
+            success = true;
+            return result;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            if (!success) {
+                for (File file : createdFiles) {
+                    //noinspection ResultOfMethodCallIgnored
+                    file.delete();
+                }
+            }
+        }
+    }
+
+    @NotNull
+    private File writeRun(@NotNull Iterator<T> elements, @NotNull List<File> createdFiles) throws IOException {
+        File file = File.createTempFile("sequence", ".run", tempDirectory);
+        createdFiles.add(file);
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE));
+        try {
+            while (elements.hasNext()) {
+                T element = elements.next();
+                if (element != null) {
+                    output.writeByte(TAG_ELEMENT);
+                    serializer.write(output, element);
+                } else {
+                    output.writeByte(TAG_NULL);
+                }
+            }
+            output.writeByte(TAG_END);
+        } finally {
+            output.close();
+        }
+        return file;
+    }
+
+    /**
+     * @param lastRun a run that is merged after the [files], may be null
+     */
+    @NotNull
+    private MergingIterator<T> openRuns(@NotNull List<File> files, @Nullable Iterator<T> lastRun) throws IOException {
+        List<Iterator<T>> runs = new ArrayList<Iterator<T>>(files.size() + 1);
+        boolean success = false;
+        try {
+            for (File file : files) {
+                runs.add(new RunIterator<T>(file, serializer));
+            }
+            success = true;
+        } finally {
+            if (!success) {
+                // The first read of a run may also fail with an IllegalStateException
+                for (Iterator<T> run : runs) {
+                    ((RunIterator<T>) run).close();
+                }
+            }
+        }
+        if (lastRun != null) {
+            runs.add(lastRun);
+        }
+        return new MergingIterator<T>(runs, comparator);
+    }
+
+    /**
+     * Reads a run written by [writeRun] and deletes the file when it is read to the end or closed
+     */
+    private static class RunIterator<T> implements Iterator<T>, Closeable {
+
+        @NotNull
+        private final File file;
+        @NotNull
+        private final ElementSerializer<T> serializer;
+        @Nullable
+        private DataInputStream input;
+        @Nullable
+        private T next;
+        private boolean hasNext;
+
+        RunIterator(@NotNull File file, @NotNull ElementSerializer<T> serializer) throws IOException {
+            this.file = file;
+            this.serializer = serializer;
+            this.input = new DataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE));
+            readNext();
+        }
+
+        private void readNext() {
+            DataInputStream input = this.input;
+            if (input == null) {
+                return;
+            }
+            try {
+                byte tag = input.readByte();
+                if (tag == TAG_ELEMENT) {
+                    next = serializer.read(input);
+                    hasNext = true;
+                } else if (tag == TAG_NULL) {
+                    next = null;
+                    hasNext = true;
+                } else {
+                    next = null;
+                    hasNext = false;
+                    close();
+                }
+            } catch (IOException e) {
+                close();
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext) {
+                throw new NoSuchElementException();
+            }
+            T result = next;
+            readNext();
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+
+        @Override
+        public void close() {
+            hasNext = false;
+            next = null;
+            if (input != null) {
+                try {
+                    input.close();
+                } catch (IOException ignored) {
+                }
+                input = null;
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * Merges sorted runs with a heap of the heads of the runs, equal elements are taken from the earlier run first
+     */
+    private static class MergingIterator<T> implements Iterator<T>, Closeable {
+
+        @NotNull
+        private final List<Iterator<T>> runs;
+        @NotNull
+        private final PriorityQueue<Head<T>> heads;
+
+        MergingIterator(@NotNull List<Iterator<T>> runs, @NotNull final Comparator<T> comparator) {
+            this.runs = runs;
+            this.heads = new PriorityQueue<Head<T>>(Math.max(runs.size(), 1), new Comparator<Head<T>>() {
+                @Override
+                public int compare(Head<T> o1, Head<T> o2) {
+                    int result = comparator.compare(o1.element, o2.element);
+                    return result != 0 ? result : (o1.runIndex < o2.runIndex ? -1 : (o1.runIndex == o2.runIndex ? 0 : 1));
+                }
+            });
+            for (int i = 0; i < runs.size(); i++) {
+                Iterator<T> run = runs.get(i);
+                if (run.hasNext()) {
+                    heads.add(new Head<T>(run.next(), i));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            Head<T> head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            T result = head.element;
+            Iterator<T> run = runs.get(head.runIndex);
+            if (run.hasNext()) {
+                head.element = run.next();
+                heads.add(head);
+            }
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+
+        @Override
+        public void close() {
+            heads.clear();
+            for (Iterator<T> run : runs) {
+                if (run instanceof Closeable) {
+                    try {
+                        ((Closeable) run).close();
+                    } catch (IOException ignored) {
+                    }
+                }
+            }
+        }
+    }
+
+    private static class Head<T> {
+        @Nullable
+        private T element;
+        private final int runIndex;
+
+        Head(@Nullable T element, int runIndex) {
+            this.element = element;
+            this.runIndex = runIndex;
+        }
+    }
+}
@@ -105,4 +105,12 @@ public class FilteringSequence<T> implements Sequence<T> {
             }
         };
     }
+
+    /**
+     * Returns this stage in the form that further map and filter stages can be fused into
+     */
+    @NotNull
+    FusedSequence<T, T> fuse() {
+        return FusedSequence.filter(sequence, sendWhen, predicate);
+    }
 }
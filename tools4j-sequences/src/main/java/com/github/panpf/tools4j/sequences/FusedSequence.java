@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.sequences;
+
+import com.github.panpf.tools4j.common.Action;
+import com.github.panpf.tools4j.common.Predicate;
+import com.github.panpf.tools4j.common.Transformer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A sequence that runs adjacent map and filter stages of the underlying [sequence] in one loop.
+ * <p>
+ * Chaining [Sequencex#map], [Sequencex#filter] and [Sequencex#filterNot] on a [TransformingSequence], [FilteringSequence]
+ * or [FusedSequence] composes the new stage into the [stage] of this sequence instead of wrapping another iterator,
+ * so each element is pulled from the underlying [sequence] once and passed through all the stages by plain calls.
+ * [forEach] pushes the elements through the stages without any iterator state.
+ */
+class FusedSequence<T, R> implements Sequence<R> {
+
+    /**
+     * Returned by a [Stage] for an element that is filtered out
+     */
+    private static final Object SKIP = new Object();
+
+    @Nullable
+    private final Sequence<T> sequence;
+    @NotNull
+    private final Stage<T, R> stage;
+
+    private FusedSequence(@Nullable Sequence<T> sequence, @NotNull Stage<T, R> stage) {
+        this.sequence = sequence;
+        this.stage = stage;
+    }
+
+    /**
+     * Returns the fused form of the [sequence] if it is a map or filter stage, otherwise null
+     */
+    @Nullable
+    static <R> FusedSequence<?, R> of(@Nullable Sequence<R> sequence) {
+        if (sequence instanceof FusedSequence) {
+            return (FusedSequence<?, R>) sequence;
+        } else if (sequence instanceof FilteringSequence) {
+            return ((FilteringSequence<R>) sequence).fuse();
+        } else if (sequence instanceof TransformingSequence) {
+            return ((TransformingSequence<?, R>) sequence).fuse();
+        } else {
+            return null;
+        }
+    }
+
+    @NotNull
+    static <T> FusedSequence<T, T> filter(@Nullable Sequence<T> sequence, final boolean sendWhen, @NotNull final Predicate<T> predicate) {
+        return new FusedSequence<T, T>(sequence, new Stage<T, T>() {
+            @Nullable
+            @Override
+            public Object apply(@NotNull T element) {
+                return accept(element, sendWhen, predicate);
+            }
+        });
+    }
+
+    @NotNull
+    static <T, R> FusedSequence<T, R> map(@Nullable Sequence<T> sequence, @NotNull final Transformer<T, R> transformer) {
+        return new FusedSequence<T, R>(sequence, new Stage<T, R>() {
+            @Nullable
+            @Override
+            public Object apply(@NotNull T element) {
+                return transformer.transform(element);
+            }
+        });
+    }
+
+    @Nullable
+    private static <R> Object accept(@NotNull R element, boolean sendWhen, @NotNull Predicate<R> predicate) {
+        if (predicate.accept(element) != sendWhen) {
+            return SKIP;
+        }
+        //noinspection ConstantConditions
+        if (element == null) {
+            // Same as FilteringSequence
+            throw new IllegalArgumentException("'result' is null");
+        }
+        return element;
+    }
+
+    /**
+     * Returns a sequence that runs [predicate] after the stages of this sequence, in the same loop
+     */
+    @NotNull
+    FusedSequence<T, R> filter(final boolean sendWhen, @NotNull final Predicate<R> predicate) {
+        return new FusedSequence<T, R>(sequence, new Stage<T, R>() {
+            @Nullable
+            @Override
+            public Object apply(@NotNull T element) {
+                Object result = stage.apply(element);
+                //noinspection unchecked
+                return result != SKIP ? accept((R) result, sendWhen, predicate) : SKIP;
+            }
+        });
+    }
+
+    /**
+     * Returns a sequence that runs [transformer] after the stages of this sequence, in the same loop
+     */
+    @NotNull
+    <E> FusedSequence<T, E> map(@NotNull final Transformer<R, E> transformer) {
+        return new FusedSequence<T, E>(sequence, new Stage<T, E>() {
+            @Nullable
+            @Override
+            public Object apply(@NotNull T element) {
+                Object result = stage.apply(element);
+                //noinspection unchecked
+                return result != SKIP ? transformer.transform((R) result) : SKIP;
+            }
+        });
+    }
+
+    /**
+     * Passes each element of the underlying sequence through the stages and the results to the [action], without the state of [iterator]
+     */
+    void forEach(@NotNull Action<R> action) {
+        if (sequence != null) {
+            Iterator<T> iterator = sequence.iterator();
+            while (iterator.hasNext()) {
+                Object result = stage.apply(iterator.next());
+                if (result != SKIP) {
+                    //noinspection unchecked
+                    action.action((R) result);
+                }
+            }
+        }
+    }
+
+    @NotNull
+    @Override
+    public Iterator<R> iterator() {
+        return new Iterator<R>() {
+            @Nullable
+            private final Iterator<T> iterator = sequence != null ? sequence.iterator() : null;
+            @Nullable
+            private Object nextItem = SKIP;
+
+            @Override
+            public boolean hasNext() {
+                if (nextItem == SKIP && iterator != null) {
+                    while (iterator.hasNext()) {
+                        Object result = stage.apply(iterator.next());
+                        if (result != SKIP) {
+                            nextItem = result;
+                            break;
+                        }
+                    }
+                }
+                return nextItem != SKIP;
+            }
+
+            @Override
+            public R next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                //noinspection unchecked
+                R result = (R) nextItem;
+                nextItem = SKIP;
+                return result;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("remove");
+            }
+        };
+    }
+
+    /**
+     * Map and filter stages composed into one function
+     */
+    private interface Stage<T, R> {
+        /**
+         * @return The result of the stages for the [element], or [SKIP] if it is filtered out
+         */
+        @Nullable
+        Object apply(@NotNull T element);
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.sequences;
+
+import com.github.panpf.tools4j.iterable.IntIterator;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A sequence of `int` values that are passed through its stages without boxing. See [IntSequencex] for the stages and the terminal operations
+ */
+public interface IntSequence {
+    /**
+     * Returns an [IntIterator] that returns the values from the sequence.
+     * <p>
+     * Throws an exception if the sequence is constrained to be iterated once and `iterator` is invoked the second time.
+     */
+    @NotNull
+    IntIterator iterator();
+}
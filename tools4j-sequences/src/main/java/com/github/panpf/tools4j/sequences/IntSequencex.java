@@ -0,0 +1,998 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.sequences;
+
+import com.github.panpf.tools4j.common.*;
+import com.github.panpf.tools4j.iterable.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * [IntSequence] tool method, the stages and the terminal operations pass the `int` values without boxing them
+ */
+public class IntSequencex {
+
+    private static final IntSequence EMPTY = new IntSequence() {
+        @NotNull
+        @Override
+        public IntIterator iterator() {
+            return new IntIterator() {
+                @Override
+                public boolean hasNext() {
+                    return false;
+                }
+
+                @Override
+                public int nextInt() {
+                    throw new NoSuchElementException();
+                }
+            };
+        }
+    };
+
+    private static final int WINDOW_SUM = 0;
+    private static final int WINDOW_MIN = 1;
+    private static final int WINDOW_MAX = 2;
+
+    private IntSequencex() {
+    }
+
+
+    /* ******************************************* create ******************************************* */
+
+
+    /**
+     * Returns an empty sequence.
+     */
+    @NotNull
+    public static IntSequence emptyIntSequence() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a sequence that returns the specified values.
+     */
+    @NotNull
+    public static IntSequence intSequenceOf(@Nullable int... elements) {
+        return asIntSequence(elements);
+    }
+
+    /**
+     * Creates a [IntSequence] instance that wraps the original array returning its elements when being iterated.
+     */
+    @NotNull
+    public static IntSequence asIntSequence(@Nullable final int[] elements) {
+        if (elements == null || elements.length == 0) {
+            return EMPTY;
+        }
+        return new IntSequence() {
+            @NotNull
+            @Override
+            public IntIterator iterator() {
+                return new IntIterator() {
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < elements.length;
+                    }
+
+                    @Override
+                    public int nextInt() {
+                        if (index >= elements.length) {
+                            throw new NoSuchElementException();
+                        }
+                        return elements[index++];
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Creates a sequence of the values from [start] inclusive to [endExclusive] exclusive.
+     */
+    @NotNull
+    public static IntSequence range(final int start, final int endExclusive) {
+        if (start >= endExclusive) {
+            return EMPTY;
+        }
+        return new IntSequence() {
+            @NotNull
+            @Override
+            public IntIterator iterator() {
+                return new IntIterator() {
+                    private int next = start;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < endExclusive;
+                    }
+
+                    @Override
+                    public int nextInt() {
+                        if (next >= endExclusive) {
+                            throw new NoSuchElementException();
+                        }
+                        return next++;
+                    }
+                };
+            }
+        };
+    }
+
+
+    /* ******************************************* convert ******************************************* */
+
+
+    /**
+     * Creates a [IntSequence] that unboxes the elements of the [sequence].
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public static IntSequence asIntSequence(@Nullable final Sequence<Integer> sequence) {
+        if (sequence == null) {
+            return EMPTY;
+        }
+        return new IntSequence() {
+            @NotNull
+            @Override
+            public IntIterator iterator() {
+                final Iterator<Integer> iterator = sequence.iterator();
+                return new IntIterator() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public int nextInt() {
+                        return iterator.next();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a [IntSequence] containing the results of applying the given [transform] function
+     * to each element in the original [sequence].
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public static <T> IntSequence mapToInt(@Nullable final Sequence<T> sequence, @NotNull final ToIntTransformer<T> transform) {
+        if (sequence == null) {
+            return EMPTY;
+        }
+        return new IntSequence() {
+            @NotNull
+            @Override
+            public IntIterator iterator() {
+                final Iterator<T> iterator = sequence.iterator();
+                return new IntIterator() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public int nextInt() {
+                        return transform.transform(iterator.next());
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Creates a [Sequence] that boxes the values of the [sequence].
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public static Sequence<Integer> asSequence(@Nullable final IntSequence sequence) {
+        if (sequence == null) {
+            return Sequencex.emptySequence();
+        }
+        return new Sequence<Integer>() {
+            @NotNull
+            @Override
+            public Iterator<Integer> iterator() {
+                return sequence.iterator();
+            }
+        };
+    }
+
+    /**
+     * Returns a [Sequence] containing the results of applying the given [transform] function
+     * to each value in the original [sequence].
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public static <R> Sequence<R> mapToObj(@Nullable final IntSequence sequence, @NotNull final IntToObjTransformer<R> transform) {
+        if (sequence == null) {
+            return Sequencex.emptySequence();
+        }
+        return new Sequence<R>() {
+            @NotNull
+            @Override
+            public Iterator<R> iterator() {
+                final IntIterator iterator = sequence.iterator();
+                return new Iterator<R>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public R next() {
+                        return transform.transform(iterator.nextInt());
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException("remove");
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a [LongSequence] of the values of the [sequence] widened to `long`.
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public static LongSequence asLongSequence(@Nullable final IntSequence sequence) {
+        if (sequence == null) {
+            return LongSequencex.emptyLongSequence();
+        }
+        return new LongSequence() {
+            @NotNull
+            @Override
+            public LongIterator iterator() {
+                final IntIterator iterator = sequence.iterator();
+                return new LongIterator() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public long nextLong() {
+                        return iterator.nextInt();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a [DoubleSequence] of the values of the [sequence] converted to `double`.
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public static DoubleSequence asDoubleSequence(@Nullable final IntSequence sequence) {
+        if (sequence == null) {
+            return DoubleSequencex.emptyDoubleSequence();
+        }
+        return new DoubleSequence() {
+            @NotNull
+            @Override
+            public DoubleIterator iterator() {
+                final IntIterator iterator = sequence.iterator();
+                return new DoubleIterator() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public double nextDouble() {
+                        return iterator.nextInt();
+                    }
+                };
+            }
+        };
+    }
+
+
+    /* ******************************************* stages ******************************************* */
+
+
+    /**
+     * Returns a sequence containing the results of applying the given [transform] function
+     * to each value in the original sequence.
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public static IntSequence map(@Nullable final IntSequence sequence, @NotNull final IntTransformer transform) {
+        if (sequence == null) {
+            return EMPTY;
+        }
+        return new IntSequence() {
+            @NotNull
+            @Override
+            public IntIterator iterator() {
+                final IntIterator iterator = sequence.iterator();
+                return new IntIterator() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public int nextInt() {
+                        return transform.transform(iterator.nextInt());
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence containing only values matching the given [predicate].
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public static IntSequence filter(@Nullable IntSequence sequence, @NotNull IntPredicate predicate) {
+        return filter(sequence, true, predicate);
+    }
+
+    /**
+     * Returns a sequence containing all values not matching the given [predicate].
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public static IntSequence filterNot(@Nullable IntSequence sequence, @NotNull IntPredicate predicate) {
+        return filter(sequence, false, predicate);
+    }
+
+    @NotNull
+    private static IntSequence filter(@Nullable final IntSequence sequence, final boolean sendWhen, @NotNull final IntPredicate predicate) {
+        if (sequence == null) {
+            return EMPTY;
+        }
+        return new IntSequence() {
+            @NotNull
+            @Override
+            public IntIterator iterator() {
+                final IntIterator iterator = sequence.iterator();
+                return new IntIterator() {
+                    private int nextState = -1; // -1 for unknown, 0 for done, 1 for continue
+                    private int nextValue;
+
+                    private void calcNext() {
+                        while (iterator.hasNext()) {
+                            int value = iterator.nextInt();
+                            if (predicate.accept(value) == sendWhen) {
+                                nextValue = value;
+                                nextState = 1;
+                                return;
+                            }
+                        }
+                        nextState = 0;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        if (nextState == -1)
+                            calcNext();
+                        return nextState == 1;
+                    }
+
+                    @Override
+                    public int nextInt() {
+                        if (nextState == -1)
+                            calcNext();
+                        if (nextState == 0)
+                            throw new NoSuchElementException();
+                        nextState = -1;
+                        return nextValue;
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence containing first [n] values.
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     *
+     * @throws IllegalArgumentException if [n] is negative.
+     */
+    @NotNull
+    public static IntSequence take(@Nullable final IntSequence sequence, final int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Param 'n' is less than to zero.");
+        }
+        if (n == 0 || sequence == null) {
+            return EMPTY;
+        }
+        return new IntSequence() {
+            @NotNull
+            @Override
+            public IntIterator iterator() {
+                final IntIterator iterator = sequence.iterator();
+                return new IntIterator() {
+                    private int left = n;
+
+                    @Override
+                    public boolean hasNext() {
+                        return left > 0 && iterator.hasNext();
+                    }
+
+                    @Override
+                    public int nextInt() {
+                        if (left <= 0) {
+                            throw new NoSuchElementException();
+                        }
+                        left--;
+                        return iterator.nextInt();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence containing all values except first [n] values.
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     *
+     * @throws IllegalArgumentException if [n] is negative.
+     */
+    @NotNull
+    public static IntSequence drop(@Nullable final IntSequence sequence, final int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Param 'n' is less than to zero.");
+        }
+        if (sequence == null) {
+            return EMPTY;
+        }
+        if (n == 0) {
+            return sequence;
+        }
+        return new IntSequence() {
+            @NotNull
+            @Override
+            public IntIterator iterator() {
+                final IntIterator iterator = sequence.iterator();
+                return new IntIterator() {
+                    private int left = n;
+
+                    private void drop() {
+                        while (left > 0 && iterator.hasNext()) {
+                            iterator.nextInt();
+                            left--;
+                        }
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        drop();
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public int nextInt() {
+                        drop();
+                        return iterator.nextInt();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence containing only distinct values from the given sequence.
+     * <p>
+     * The values are remembered in a hash set of `long` values, the resulting sequence preserves the order of the first occurrences.
+     * <p>
+     * The operation is _intermediate_ and _stateful_.
+     */
+    @NotNull
+    public static IntSequence distinct(@Nullable final IntSequence sequence) {
+        if (sequence == null) {
+            return EMPTY;
+        }
+        return new IntSequence() {
+            @NotNull
+            @Override
+            public IntIterator iterator() {
+                final IntIterator iterator = sequence.iterator();
+                return new IntIterator() {
+                    private final PrimitiveHashSet observed = new PrimitiveHashSet();
+                    private boolean hasNextValue;
+                    private int nextValue;
+
+                    @Override
+                    public boolean hasNext() {
+                        while (!hasNextValue && iterator.hasNext()) {
+                            int value = iterator.nextInt();
+                            if (observed.add(value)) {
+                                nextValue = value;
+                                hasNextValue = true;
+                            }
+                        }
+                        return hasNextValue;
+                    }
+
+                    @Override
+                    public int nextInt() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        hasNextValue = false;
+                        return nextValue;
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence that yields values of this sequence sorted according to their natural sort order.
+     * <p>
+     * The operation is _intermediate_ and _stateful_.
+     */
+    @NotNull
+    public static IntSequence sorted(@Nullable IntSequence sequence) {
+        return sorted(sequence, false);
+    }
+
+    /**
+     * Returns a sequence that yields values of this sequence sorted descending according to their natural sort order.
+     * <p>
+     * The operation is _intermediate_ and _stateful_.
+     */
+    @NotNull
+    public static IntSequence sortedDescending(@Nullable IntSequence sequence) {
+        return sorted(sequence, true);
+    }
+
+    @NotNull
+    private static IntSequence sorted(@Nullable final IntSequence sequence, final boolean descending) {
+        if (sequence == null) {
+            return EMPTY;
+        }
+        return new IntSequence() {
+            @NotNull
+            @Override
+            public IntIterator iterator() {
+                final int[] values = toIntArray(sequence);
+                Arrays.sort(values);
+                return new IntIterator() {
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < values.length;
+                    }
+
+                    @Override
+                    public int nextInt() {
+                        if (index >= values.length) {
+                            throw new NoSuchElementException();
+                        }
+                        return descending ? values[values.length - 1 - index++] : values[index++];
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence of snapshots of the window of the given [size]
+     * sliding along this sequence with the given [step], where each
+     * snapshot is a new `int` array.
+     * <p>
+     * Several last arrays may have less values than the given [size].
+     * <p>
+     * Both [size] and [step] must be positive and can be greater than the number of values in this sequence.
+     *
+     * @param size           the number of values to take in each window
+     * @param step           the number of values to move the window forward by on an each step
+     * @param partialWindows controls whether or not to keep partial windows in the end if any
+     */
+    @NotNull
+    public static Sequence<int[]> windowed(@Nullable final IntSequence sequence, final int size, final int step, final boolean partialWindows) {
+        if (size <= 0 || step <= 0) {
+            if (size != step) {
+                throw new IllegalArgumentException("Both size " + size + " and step " + step + " must be greater than zero.");
+            } else {
+                throw new IllegalArgumentException("size " + size + " must be greater than zero.");
+            }
+        }
+        if (sequence == null) {
+            return Sequencex.emptySequence();
+        }
+        return new Sequence<int[]>() {
+            @NotNull
+            @Override
+            public Iterator<int[]> iterator() {
+                final IntIterator iterator = sequence.iterator();
+                return new AbstractIterator<int[]>() {
+                    @NotNull
+                    private final int[] buffer = new int[size];
+                    private int count = -1;
+
+                    @Override
+                    protected void computeNext() {
+                        if (count == -1) {
+                            count = 0;
+                        } else if (step >= count) {
+                            for (int skip = step - count; skip > 0 && iterator.hasNext(); skip--) {
+                                iterator.nextInt();
+                            }
+                            count = 0;
+                        } else {
+                            System.arraycopy(buffer, step, buffer, 0, count - step);
+                            count -= step;
+                        }
+                        while (count < size && iterator.hasNext()) {
+                            buffer[count++] = iterator.nextInt();
+                        }
+                        if (count == size || (partialWindows && count > 0)) {
+                            int[] window = new int[count];
+                            System.arraycopy(buffer, 0, window, 0, count);
+                            setNext(window);
+                        } else {
+                            done();
+                        }
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException("remove");
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence of the sums of the window of the given [size] sliding along this sequence one value at a time.
+     * <p>
+     * The sum is updated as the window slides, the windows are never copied. A sequence with less values than [size] has no windows.
+     * <p>
+     * The operation is _intermediate_ and _stateful_.
+     *
+     * @param size the number of values in each window, must be positive
+     */
+    @NotNull
+    public static IntSequence windowedSum(@Nullable IntSequence sequence, int size) {
+        return windowedAggregate(sequence, size, WINDOW_SUM);
+    }
+
+    /**
+     * Returns a sequence of the averages of the window of the given [size] sliding along this sequence one value at a time.
+     * <p>
+     * The sum is updated as the window slides, the windows are never copied. A sequence with less values than [size] has no windows.
+     * <p>
+     * The operation is _intermediate_ and _stateful_.
+     *
+     * @param size the number of values in each window, must be positive
+     */
+    @NotNull
+    public static DoubleSequence windowedAverage(@Nullable final IntSequence sequence, final int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size " + size + " must be greater than zero.");
+        }
+        if (sequence == null) {
+            return DoubleSequencex.emptyDoubleSequence();
+        }
+        return new DoubleSequence() {
+            @NotNull
+            @Override
+            public DoubleIterator iterator() {
+                final IntSlidingWindow window = new IntSlidingWindow(sequence.iterator(), size, false);
+                return new DoubleIterator() {
+                    private boolean ready;
+
+                    @Override
+                    public boolean hasNext() {
+                        return ready || (ready = window.slide());
+                    }
+
+                    @Override
+                    public double nextDouble() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        ready = false;
+                        return window.average();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence of the smallest values of the window of the given [size] sliding along this sequence one value at a time.
+     * <p>
+     * Only the values that can still become the smallest are remembered, so each value is compared a constant number of times on average
+     * and the windows are never copied. A sequence with less values than [size] has no windows.
+     * <p>
+     * The operation is _intermediate_ and _stateful_.
+     *
+     * @param size the number of values in each window, must be positive
+     */
+    @NotNull
+    public static IntSequence windowedMin(@Nullable IntSequence sequence, int size) {
+        return windowedAggregate(sequence, size, WINDOW_MIN);
+    }
+
+    /**
+     * Returns a sequence of the largest values of the window of the given [size] sliding along this sequence one value at a time.
+     * <p>
+     * Only the values that can still become the largest are remembered, so each value is compared a constant number of times on average
+     * and the windows are never copied. A sequence with less values than [size] has no windows.
+     * <p>
+     * The operation is _intermediate_ and _stateful_.
+     *
+     * @param size the number of values in each window, must be positive
+     */
+    @NotNull
+    public static IntSequence windowedMax(@Nullable IntSequence sequence, int size) {
+        return windowedAggregate(sequence, size, WINDOW_MAX);
+    }
+
+    @NotNull
+    private static IntSequence windowedAggregate(@Nullable final IntSequence sequence, final int size, final int aggregate) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size " + size + " must be greater than zero.");
+        }
+        if (sequence == null) {
+            return EMPTY;
+        }
+        return new IntSequence() {
+            @NotNull
+            @Override
+            public IntIterator iterator() {
+                final IntSlidingWindow window = new IntSlidingWindow(sequence.iterator(), size, aggregate != WINDOW_SUM);
+                return new IntIterator() {
+                    private boolean ready;
+
+                    @Override
+                    public boolean hasNext() {
+                        return ready || (ready = window.slide());
+                    }
+
+                    @Override
+                    public int nextInt() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        ready = false;
+                        return aggregate == WINDOW_SUM ? window.sum() : aggregate == WINDOW_MIN ? window.min() : window.max();
+                    }
+                };
+            }
+        };
+    }
+
+
+
+    /* ******************************************* terminal ******************************************* */
+
+
+    /**
+     * Returns an array containing all of the values of this sequence.
+     * <p>
+     * The operation is _terminal_.
+     */
+    @NotNull
+    public static int[] toIntArray(@Nullable IntSequence sequence) {
+        int[] values = new int[16];
+        int size = 0;
+        if (sequence != null) {
+            IntIterator iterator = sequence.iterator();
+            while (iterator.hasNext()) {
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, values.length * 2);
+                }
+                values[size++] = iterator.nextInt();
+            }
+        }
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Returns the number of values in this sequence.
+     * <p>
+     * The operation is _terminal_.
+     */
+    public static int count(@Nullable IntSequence sequence) {
+        int count = 0;
+        if (sequence != null) {
+            IntIterator iterator = sequence.iterator();
+            while (iterator.hasNext()) {
+                iterator.nextInt();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the sum of all values in the sequence.
+     * <p>
+     * The operation is _terminal_.
+     */
+    public static int sum(@Nullable IntSequence sequence) {
+        int sum = 0;
+        if (sequence != null) {
+            IntIterator iterator = sequence.iterator();
+            while (iterator.hasNext()) {
+                sum += iterator.nextInt();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Returns an average value of values in the sequence, or `NaN` if the sequence is empty.
+     * <p>
+     * The operation is _terminal_.
+     */
+    public static double average(@Nullable IntSequence sequence) {
+        double sum = 0;
+        int count = 0;
+        if (sequence != null) {
+            IntIterator iterator = sequence.iterator();
+            while (iterator.hasNext()) {
+                sum += iterator.nextInt();
+                count++;
+            }
+        }
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    /**
+     * Returns the largest value or `null` if there are no values.
+     * <p>
+     * The operation is _terminal_.
+     */
+    @Nullable
+    public static Integer maxOrNull(@Nullable IntSequence sequence) {
+        IntIterator iterator = sequence != null ? sequence.iterator() : null;
+        if (iterator == null || !iterator.hasNext()) return null;
+        int max = iterator.nextInt();
+        while (iterator.hasNext()) {
+            max = Math.max(max, iterator.nextInt());
+        }
+        return max;
+    }
+
+    /**
+     * Returns the smallest value or `null` if there are no values.
+     * <p>
+     * The operation is _terminal_.
+     */
+    @Nullable
+    public static Integer minOrNull(@Nullable IntSequence sequence) {
+        IntIterator iterator = sequence != null ? sequence.iterator() : null;
+        if (iterator == null || !iterator.hasNext()) return null;
+        int min = iterator.nextInt();
+        while (iterator.hasNext()) {
+            min = Math.min(min, iterator.nextInt());
+        }
+        return min;
+    }
+
+    /**
+     * Accumulates value starting with [initial] value and applying [operation] from left to right to current accumulator value and each value.
+     * <p>
+     * The operation is _terminal_.
+     */
+    public static int fold(@Nullable IntSequence sequence, int initial, @NotNull IntOperation operation) {
+        int accumulator = initial;
+        if (sequence != null) {
+            IntIterator iterator = sequence.iterator();
+            while (iterator.hasNext()) {
+                accumulator = operation.operation(accumulator, iterator.nextInt());
+            }
+        }
+        return accumulator;
+    }
+
+    /**
+     * Accumulates value starting with the first value and applying [operation] from left to right to current accumulator value and each value.
+     * <p>
+     * The operation is _terminal_.
+     *
+     * @throws UnsupportedOperationException if the sequence is empty.
+     */
+    public static int reduce(@Nullable IntSequence sequence, @NotNull IntOperation operation) {
+        IntIterator iterator = sequence != null ? sequence.iterator() : null;
+        if (iterator == null || !iterator.hasNext()) {
+            throw new UnsupportedOperationException("Empty sequence can't be reduced.");
+        }
+        int accumulator = iterator.nextInt();
+        while (iterator.hasNext()) {
+            accumulator = operation.operation(accumulator, iterator.nextInt());
+        }
+        return accumulator;
+    }
+
+    /**
+     * Performs the given [action] on each value.
+     * <p>
+     * The operation is _terminal_.
+     */
+    public static void forEach(@Nullable IntSequence sequence, @NotNull IntAction action) {
+        if (sequence != null) {
+            IntIterator iterator = sequence.iterator();
+            while (iterator.hasNext()) {
+                action.action(iterator.nextInt());
+            }
+        }
+    }
+
+    /**
+     * Returns `true` if at least one value matches the given [predicate].
+     * <p>
+     * The operation is _terminal_.
+     */
+    public static boolean any(@Nullable IntSequence sequence, @NotNull IntPredicate predicate) {
+        if (sequence != null) {
+            IntIterator iterator = sequence.iterator();
+            while (iterator.hasNext()) {
+                if (predicate.accept(iterator.nextInt())) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns `true` if all values match the given [predicate].
+     * <p>
+     * The operation is _terminal_.
+     */
+    public static boolean all(@Nullable IntSequence sequence, @NotNull IntPredicate predicate) {
+        if (sequence != null) {
+            IntIterator iterator = sequence.iterator();
+            while (iterator.hasNext()) {
+                if (!predicate.accept(iterator.nextInt())) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns `true` if no values match the given [predicate].
+     * <p>
+     * The operation is _terminal_.
+     */
+    public static boolean none(@Nullable IntSequence sequence, @NotNull IntPredicate predicate) {
+        return !any(sequence, predicate);
+    }
+}
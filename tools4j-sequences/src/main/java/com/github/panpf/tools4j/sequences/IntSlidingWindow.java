@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.sequences;
+
+import com.github.panpf.tools4j.iterable.IntIterator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The last [size] values of a [IntIterator], whose sum, minimum and maximum are updated in constant amortized time as the window slides,
+ * without copying the window
+ */
+class IntSlidingWindow {
+
+    @NotNull
+    private final IntIterator iterator;
+    private final int size;
+    @NotNull
+    private final int[] values;
+    /**
+     * The position in the source of the next value, the value at position `p` is kept in `values[p % size]` while it is in the window
+     */
+    private long position;
+
+    private long sum;
+
+    /**
+     * The positions of the candidates for the minimum and the maximum, the values at the positions are increasing and decreasing respectively
+     */
+    @Nullable
+    private final long[] minPositions;
+    @Nullable
+    private final long[] maxPositions;
+    private int minHead;
+    private int minCount;
+    private int maxHead;
+    private int maxCount;
+
+    IntSlidingWindow(@NotNull IntIterator iterator, int size, boolean trackMinMax) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size " + size + " must be greater than zero.");
+        }
+        this.iterator = iterator;
+        this.size = size;
+        this.values = new int[size];
+        this.minPositions = trackMinMax ? new long[size] : null;
+        this.maxPositions = trackMinMax ? new long[size] : null;
+    }
+
+    /**
+     * Slides the window by one value, filling it first if it is not full yet
+     *
+     * @return `false` if the source has no more values and the window can't slide
+     */
+    boolean slide() {
+        while (position < size - 1 && iterator.hasNext()) {
+            push(iterator.nextInt());
+        }
+        if (position < size - 1 || !iterator.hasNext()) {
+            return false;
+        }
+        push(iterator.nextInt());
+        return true;
+    }
+
+    private void push(int value) {
+        int slot = (int) (position % size);
+        if (position >= size) {
+            remove(values[slot]);
+        }
+        values[slot] = value;
+        add(value);
+        if (minPositions != null) {
+            long windowStart = position - size + 1;
+            if (minCount > 0 && minPositions[minHead] < windowStart) {
+                minHead = (minHead + 1) % size;
+                minCount--;
+            }
+            if (maxCount > 0 && maxPositions[maxHead] < windowStart) {
+                maxHead = (maxHead + 1) % size;
+                maxCount--;
+            }
+            while (minCount > 0 && values[(int) (minPositions[(minHead + minCount - 1) % size] % size)] >= value) {
+                minCount--;
+            }
+            minPositions[(minHead + minCount++) % size] = position;
+            while (maxCount > 0 && values[(int) (maxPositions[(maxHead + maxCount - 1) % size] % size)] <= value) {
+                maxCount--;
+            }
+            maxPositions[(maxHead + maxCount++) % size] = position;
+        }
+        position++;
+    }
+
+    private void add(int value) {
+        sum += value;
+    }
+
+    private void remove(int value) {
+        sum -= value;
+    }
+
+    int sum() {
+        return (int) sum;
+    }
+
+    double average() {
+        return (double) sum / size;
+    }
+
+    int min() {
+        return values[(int) (minPositions[minHead] % size)];
+    }
+
+    int max() {
+        return values[(int) (maxPositions[maxHead] % size)];
+    }
+}
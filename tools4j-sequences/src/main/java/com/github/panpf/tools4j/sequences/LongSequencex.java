@@ -0,0 +1,968 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.sequences;
+
+import com.github.panpf.tools4j.common.*;
+import com.github.panpf.tools4j.iterable.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * [LongSequence] tool method, the stages and the terminal operations pass the `long` values without boxing them
+ */
+public class LongSequencex {
+
+    private static final LongSequence EMPTY = new LongSequence() {
+        @NotNull
+        @Override
+        public LongIterator iterator() {
+            return new LongIterator() {
+                @Override
+                public boolean hasNext() {
+                    return false;
+                }
+
+                @Override
+                public long nextLong() {
+                    throw new NoSuchElementException();
+                }
+            };
+        }
+    };
+
+    private static final int WINDOW_SUM = 0;
+    private static final int WINDOW_MIN = 1;
+    private static final int WINDOW_MAX = 2;
+
+    private LongSequencex() {
+    }
+
+
+    /* ******************************************* create ******************************************* */
+
+
+    /**
+     * Returns an empty sequence.
+     */
+    @NotNull
+    public static LongSequence emptyLongSequence() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a sequence that returns the specified values.
+     */
+    @NotNull
+    public static LongSequence longSequenceOf(@Nullable long... elements) {
+        return asLongSequence(elements);
+    }
+
+    /**
+     * Creates a [LongSequence] instance that wraps the original array returning its elements when being iterated.
+     */
+    @NotNull
+    public static LongSequence asLongSequence(@Nullable final long[] elements) {
+        if (elements == null || elements.length == 0) {
+            return EMPTY;
+        }
+        return new LongSequence() {
+            @NotNull
+            @Override
+            public LongIterator iterator() {
+                return new LongIterator() {
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < elements.length;
+                    }
+
+                    @Override
+                    public long nextLong() {
+                        if (index >= elements.length) {
+                            throw new NoSuchElementException();
+                        }
+                        return elements[index++];
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Creates a sequence of the values from [start] inclusive to [endExclusive] exclusive.
+     */
+    @NotNull
+    public static LongSequence range(final long start, final long endExclusive) {
+        if (start >= endExclusive) {
+            return EMPTY;
+        }
+        return new LongSequence() {
+            @NotNull
+            @Override
+            public LongIterator iterator() {
+                return new LongIterator() {
+                    private long next = start;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < endExclusive;
+                    }
+
+                    @Override
+                    public long nextLong() {
+                        if (next >= endExclusive) {
+                            throw new NoSuchElementException();
+                        }
+                        return next++;
+                    }
+                };
+            }
+        };
+    }
+
+
+    /* ******************************************* convert ******************************************* */
+
+
+    /**
+     * Creates a [LongSequence] that unboxes the elements of the [sequence].
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public static LongSequence asLongSequence(@Nullable final Sequence<Long> sequence) {
+        if (sequence == null) {
+            return EMPTY;
+        }
+        return new LongSequence() {
+            @NotNull
+            @Override
+            public LongIterator iterator() {
+                final Iterator<Long> iterator = sequence.iterator();
+                return new LongIterator() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public long nextLong() {
+                        return iterator.next();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a [LongSequence] containing the results of applying the given [transform] function
+     * to each element in the original [sequence].
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public static <T> LongSequence mapToLong(@Nullable final Sequence<T> sequence, @NotNull final ToLongTransformer<T> transform) {
+        if (sequence == null) {
+            return EMPTY;
+        }
+        return new LongSequence() {
+            @NotNull
+            @Override
+            public LongIterator iterator() {
+                final Iterator<T> iterator = sequence.iterator();
+                return new LongIterator() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public long nextLong() {
+                        return transform.transform(iterator.next());
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Creates a [Sequence] that boxes the values of the [sequence].
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public static Sequence<Long> asSequence(@Nullable final LongSequence sequence) {
+        if (sequence == null) {
+            return Sequencex.emptySequence();
+        }
+        return new Sequence<Long>() {
+            @NotNull
+            @Override
+            public Iterator<Long> iterator() {
+                return sequence.iterator();
+            }
+        };
+    }
+
+    /**
+     * Returns a [Sequence] containing the results of applying the given [transform] function
+     * to each value in the original [sequence].
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public static <R> Sequence<R> mapToObj(@Nullable final LongSequence sequence, @NotNull final LongToObjTransformer<R> transform) {
+        if (sequence == null) {
+            return Sequencex.emptySequence();
+        }
+        return new Sequence<R>() {
+            @NotNull
+            @Override
+            public Iterator<R> iterator() {
+                final LongIterator iterator = sequence.iterator();
+                return new Iterator<R>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public R next() {
+                        return transform.transform(iterator.nextLong());
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException("remove");
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a [DoubleSequence] of the values of the [sequence] converted to `double`.
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public static DoubleSequence asDoubleSequence(@Nullable final LongSequence sequence) {
+        if (sequence == null) {
+            return DoubleSequencex.emptyDoubleSequence();
+        }
+        return new DoubleSequence() {
+            @NotNull
+            @Override
+            public DoubleIterator iterator() {
+                final LongIterator iterator = sequence.iterator();
+                return new DoubleIterator() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public double nextDouble() {
+                        return iterator.nextLong();
+                    }
+                };
+            }
+        };
+    }
+
+
+    /* ******************************************* stages ******************************************* */
+
+
+    /**
+     * Returns a sequence containing the results of applying the given [transform] function
+     * to each value in the original sequence.
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public static LongSequence map(@Nullable final LongSequence sequence, @NotNull final LongTransformer transform) {
+        if (sequence == null) {
+            return EMPTY;
+        }
+        return new LongSequence() {
+            @NotNull
+            @Override
+            public LongIterator iterator() {
+                final LongIterator iterator = sequence.iterator();
+                return new LongIterator() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public long nextLong() {
+                        return transform.transform(iterator.nextLong());
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence containing only values matching the given [predicate].
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public static LongSequence filter(@Nullable LongSequence sequence, @NotNull LongPredicate predicate) {
+        return filter(sequence, true, predicate);
+    }
+
+    /**
+     * Returns a sequence containing all values not matching the given [predicate].
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public static LongSequence filterNot(@Nullable LongSequence sequence, @NotNull LongPredicate predicate) {
+        return filter(sequence, false, predicate);
+    }
+
+    @NotNull
+    private static LongSequence filter(@Nullable final LongSequence sequence, final boolean sendWhen, @NotNull final LongPredicate predicate) {
+        if (sequence == null) {
+            return EMPTY;
+        }
+        return new LongSequence() {
+            @NotNull
+            @Override
+            public LongIterator iterator() {
+                final LongIterator iterator = sequence.iterator();
+                return new LongIterator() {
+                    private int nextState = -1; // -1 for unknown, 0 for done, 1 for continue
+                    private long nextValue;
+
+                    private void calcNext() {
+                        while (iterator.hasNext()) {
+                            long value = iterator.nextLong();
+                            if (predicate.accept(value) == sendWhen) {
+                                nextValue = value;
+                                nextState = 1;
+                                return;
+                            }
+                        }
+                        nextState = 0;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        if (nextState == -1)
+                            calcNext();
+                        return nextState == 1;
+                    }
+
+                    @Override
+                    public long nextLong() {
+                        if (nextState == -1)
+                            calcNext();
+                        if (nextState == 0)
+                            throw new NoSuchElementException();
+                        nextState = -1;
+                        return nextValue;
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence containing first [n] values.
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     *
+     * @throws IllegalArgumentException if [n] is negative.
+     */
+    @NotNull
+    public static LongSequence take(@Nullable final LongSequence sequence, final int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Param 'n' is less than to zero.");
+        }
+        if (n == 0 || sequence == null) {
+            return EMPTY;
+        }
+        return new LongSequence() {
+            @NotNull
+            @Override
+            public LongIterator iterator() {
+                final LongIterator iterator = sequence.iterator();
+                return new LongIterator() {
+                    private int left = n;
+
+                    @Override
+                    public boolean hasNext() {
+                        return left > 0 && iterator.hasNext();
+                    }
+
+                    @Override
+                    public long nextLong() {
+                        if (left <= 0) {
+                            throw new NoSuchElementException();
+                        }
+                        left--;
+                        return iterator.nextLong();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence containing all values except first [n] values.
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     *
+     * @throws IllegalArgumentException if [n] is negative.
+     */
+    @NotNull
+    public static LongSequence drop(@Nullable final LongSequence sequence, final int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Param 'n' is less than to zero.");
+        }
+        if (sequence == null) {
+            return EMPTY;
+        }
+        if (n == 0) {
+            return sequence;
+        }
+        return new LongSequence() {
+            @NotNull
+            @Override
+            public LongIterator iterator() {
+                final LongIterator iterator = sequence.iterator();
+                return new LongIterator() {
+                    private int left = n;
+
+                    private void drop() {
+                        while (left > 0 && iterator.hasNext()) {
+                            iterator.nextLong();
+                            left--;
+                        }
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        drop();
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public long nextLong() {
+                        drop();
+                        return iterator.nextLong();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence containing only distinct values from the given sequence.
+     * <p>
+     * The values are remembered in a hash set of `long` values, the resulting sequence preserves the order of the first occurrences.
+     * <p>
+     * The operation is _intermediate_ and _stateful_.
+     */
+    @NotNull
+    public static LongSequence distinct(@Nullable final LongSequence sequence) {
+        if (sequence == null) {
+            return EMPTY;
+        }
+        return new LongSequence() {
+            @NotNull
+            @Override
+            public LongIterator iterator() {
+                final LongIterator iterator = sequence.iterator();
+                return new LongIterator() {
+                    private final PrimitiveHashSet observed = new PrimitiveHashSet();
+                    private boolean hasNextValue;
+                    private long nextValue;
+
+                    @Override
+                    public boolean hasNext() {
+                        while (!hasNextValue && iterator.hasNext()) {
+                            long value = iterator.nextLong();
+                            if (observed.add(value)) {
+                                nextValue = value;
+                                hasNextValue = true;
+                            }
+                        }
+                        return hasNextValue;
+                    }
+
+                    @Override
+                    public long nextLong() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        hasNextValue = false;
+                        return nextValue;
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence that yields values of this sequence sorted according to their natural sort order.
+     * <p>
+     * The operation is _intermediate_ and _stateful_.
+     */
+    @NotNull
+    public static LongSequence sorted(@Nullable LongSequence sequence) {
+        return sorted(sequence, false);
+    }
+
+    /**
+     * Returns a sequence that yields values of this sequence sorted descending according to their natural sort order.
+     * <p>
+     * The operation is _intermediate_ and _stateful_.
+     */
+    @NotNull
+    public static LongSequence sortedDescending(@Nullable LongSequence sequence) {
+        return sorted(sequence, true);
+    }
+
+    @NotNull
+    private static LongSequence sorted(@Nullable final LongSequence sequence, final boolean descending) {
+        if (sequence == null) {
+            return EMPTY;
+        }
+        return new LongSequence() {
+            @NotNull
+            @Override
+            public LongIterator iterator() {
+                final long[] values = toLongArray(sequence);
+                Arrays.sort(values);
+                return new LongIterator() {
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < values.length;
+                    }
+
+                    @Override
+                    public long nextLong() {
+                        if (index >= values.length) {
+                            throw new NoSuchElementException();
+                        }
+                        return descending ? values[values.length - 1 - index++] : values[index++];
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence of snapshots of the window of the given [size]
+     * sliding along this sequence with the given [step], where each
+     * snapshot is a new `long` array.
+     * <p>
+     * Several last arrays may have less values than the given [size].
+     * <p>
+     * Both [size] and [step] must be positive and can be greater than the number of values in this sequence.
+     *
+     * @param size           the number of values to take in each window
+     * @param step           the number of values to move the window forward by on an each step
+     * @param partialWindows controls whether or not to keep partial windows in the end if any
+     */
+    @NotNull
+    public static Sequence<long[]> windowed(@Nullable final LongSequence sequence, final int size, final int step, final boolean partialWindows) {
+        if (size <= 0 || step <= 0) {
+            if (size != step) {
+                throw new IllegalArgumentException("Both size " + size + " and step " + step + " must be greater than zero.");
+            } else {
+                throw new IllegalArgumentException("size " + size + " must be greater than zero.");
+            }
+        }
+        if (sequence == null) {
+            return Sequencex.emptySequence();
+        }
+        return new Sequence<long[]>() {
+            @NotNull
+            @Override
+            public Iterator<long[]> iterator() {
+                final LongIterator iterator = sequence.iterator();
+                return new AbstractIterator<long[]>() {
+                    @NotNull
+                    private final long[] buffer = new long[size];
+                    private int count = -1;
+
+                    @Override
+                    protected void computeNext() {
+                        if (count == -1) {
+                            count = 0;
+                        } else if (step >= count) {
+                            for (int skip = step - count; skip > 0 && iterator.hasNext(); skip--) {
+                                iterator.nextLong();
+                            }
+                            count = 0;
+                        } else {
+                            System.arraycopy(buffer, step, buffer, 0, count - step);
+                            count -= step;
+                        }
+                        while (count < size && iterator.hasNext()) {
+                            buffer[count++] = iterator.nextLong();
+                        }
+                        if (count == size || (partialWindows && count > 0)) {
+                            long[] window = new long[count];
+                            System.arraycopy(buffer, 0, window, 0, count);
+                            setNext(window);
+                        } else {
+                            done();
+                        }
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException("remove");
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence of the sums of the window of the given [size] sliding along this sequence one value at a time.
+     * <p>
+     * The sum is updated as the window slides, the windows are never copied. A sequence with less values than [size] has no windows.
+     * <p>
+     * The operation is _intermediate_ and _stateful_.
+     *
+     * @param size the number of values in each window, must be positive
+     */
+    @NotNull
+    public static LongSequence windowedSum(@Nullable LongSequence sequence, int size) {
+        return windowedAggregate(sequence, size, WINDOW_SUM);
+    }
+
+    /**
+     * Returns a sequence of the averages of the window of the given [size] sliding along this sequence one value at a time.
+     * <p>
+     * The sum is updated as the window slides, the windows are never copied. A sequence with less values than [size] has no windows.
+     * <p>
+     * The operation is _intermediate_ and _stateful_.
+     *
+     * @param size the number of values in each window, must be positive
+     */
+    @NotNull
+    public static DoubleSequence windowedAverage(@Nullable final LongSequence sequence, final int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size " + size + " must be greater than zero.");
+        }
+        if (sequence == null) {
+            return DoubleSequencex.emptyDoubleSequence();
+        }
+        return new DoubleSequence() {
+            @NotNull
+            @Override
+            public DoubleIterator iterator() {
+                final LongSlidingWindow window = new LongSlidingWindow(sequence.iterator(), size, false);
+                return new DoubleIterator() {
+                    private boolean ready;
+
+                    @Override
+                    public boolean hasNext() {
+                        return ready || (ready = window.slide());
+                    }
+
+                    @Override
+                    public double nextDouble() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        ready = false;
+                        return window.average();
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns a sequence of the smallest values of the window of the given [size] sliding along this sequence one value at a time.
+     * <p>
+     * Only the values that can still become the smallest are remembered, so each value is compared a constant number of times on average
+     * and the windows are never copied. A sequence with less values than [size] has no windows.
+     * <p>
+     * The operation is _intermediate_ and _stateful_.
+     *
+     * @param size the number of values in each window, must be positive
+     */
+    @NotNull
+    public static LongSequence windowedMin(@Nullable LongSequence sequence, int size) {
+        return windowedAggregate(sequence, size, WINDOW_MIN);
+    }
+
+    /**
+     * Returns a sequence of the largest values of the window of the given [size] sliding along this sequence one value at a time.
+     * <p>
+     * Only the values that can still become the largest are remembered, so each value is compared a constant number of times on average
+     * and the windows are never copied. A sequence with less values than [size] has no windows.
+     * <p>
+     * The operation is _intermediate_ and _stateful_.
+     *
+     * @param size the number of values in each window, must be positive
+     */
+    @NotNull
+    public static LongSequence windowedMax(@Nullable LongSequence sequence, int size) {
+        return windowedAggregate(sequence, size, WINDOW_MAX);
+    }
+
+    @NotNull
+    private static LongSequence windowedAggregate(@Nullable final LongSequence sequence, final int size, final int aggregate) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size " + size + " must be greater than zero.");
+        }
+        if (sequence == null) {
+            return EMPTY;
+        }
+        return new LongSequence() {
+            @NotNull
+            @Override
+            public LongIterator iterator() {
+                final LongSlidingWindow window = new LongSlidingWindow(sequence.iterator(), size, aggregate != WINDOW_SUM);
+                return new LongIterator() {
+                    private boolean ready;
+
+                    @Override
+                    public boolean hasNext() {
+                        return ready || (ready = window.slide());
+                    }
+
+                    @Override
+                    public long nextLong() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        ready = false;
+                        return aggregate == WINDOW_SUM ? window.sum() : aggregate == WINDOW_MIN ? window.min() : window.max();
+                    }
+                };
+            }
+        };
+    }
+
+
+
+    /* ******************************************* terminal ******************************************* */
+
+
+    /**
+     * Returns an array containing all of the values of this sequence.
+     * <p>
+     * The operation is _terminal_.
+     */
+    @NotNull
+    public static long[] toLongArray(@Nullable LongSequence sequence) {
+        long[] values = new long[16];
+        int size = 0;
+        if (sequence != null) {
+            LongIterator iterator = sequence.iterator();
+            while (iterator.hasNext()) {
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, values.length * 2);
+                }
+                values[size++] = iterator.nextLong();
+            }
+        }
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Returns the number of values in this sequence.
+     * <p>
+     * The operation is _terminal_.
+     */
+    public static int count(@Nullable LongSequence sequence) {
+        int count = 0;
+        if (sequence != null) {
+            LongIterator iterator = sequence.iterator();
+            while (iterator.hasNext()) {
+                iterator.nextLong();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the sum of all values in the sequence.
+     * <p>
+     * The operation is _terminal_.
+     */
+    public static long sum(@Nullable LongSequence sequence) {
+        long sum = 0;
+        if (sequence != null) {
+            LongIterator iterator = sequence.iterator();
+            while (iterator.hasNext()) {
+                sum += iterator.nextLong();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Returns an average value of values in the sequence, or `NaN` if the sequence is empty.
+     * <p>
+     * The operation is _terminal_.
+     */
+    public static double average(@Nullable LongSequence sequence) {
+        double sum = 0;
+        int count = 0;
+        if (sequence != null) {
+            LongIterator iterator = sequence.iterator();
+            while (iterator.hasNext()) {
+                sum += iterator.nextLong();
+                count++;
+            }
+        }
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    /**
+     * Returns the largest value or `null` if there are no values.
+     * <p>
+     * The operation is _terminal_.
+     */
+    @Nullable
+    public static Long maxOrNull(@Nullable LongSequence sequence) {
+        LongIterator iterator = sequence != null ? sequence.iterator() : null;
+        if (iterator == null || !iterator.hasNext()) return null;
+        long max = iterator.nextLong();
+        while (iterator.hasNext()) {
+            max = Math.max(max, iterator.nextLong());
+        }
+        return max;
+    }
+
+    /**
+     * Returns the smallest value or `null` if there are no values.
+     * <p>
+     * The operation is _terminal_.
+     */
+    @Nullable
+    public static Long minOrNull(@Nullable LongSequence sequence) {
+        LongIterator iterator = sequence != null ? sequence.iterator() : null;
+        if (iterator == null || !iterator.hasNext()) return null;
+        long min = iterator.nextLong();
+        while (iterator.hasNext()) {
+            min = Math.min(min, iterator.nextLong());
+        }
+        return min;
+    }
+
+    /**
+     * Accumulates value starting with [initial] value and applying [operation] from left to right to current accumulator value and each value.
+     * <p>
+     * The operation is _terminal_.
+     */
+    public static long fold(@Nullable LongSequence sequence, long initial, @NotNull LongOperation operation) {
+        long accumulator = initial;
+        if (sequence != null) {
+            LongIterator iterator = sequence.iterator();
+            while (iterator.hasNext()) {
+                accumulator = operation.operation(accumulator, iterator.nextLong());
+            }
+        }
+        return accumulator;
+    }
+
+    /**
+     * Accumulates value starting with the first value and applying [operation] from left to right to current accumulator value and each value.
+     * <p>
+     * The operation is _terminal_.
+     *
+     * @throws UnsupportedOperationException if the sequence is empty.
+     */
+    public static long reduce(@Nullable LongSequence sequence, @NotNull LongOperation operation) {
+        LongIterator iterator = sequence != null ? sequence.iterator() : null;
+        if (iterator == null || !iterator.hasNext()) {
+            throw new UnsupportedOperationException("Empty sequence can't be reduced.");
+        }
+        long accumulator = iterator.nextLong();
+        while (iterator.hasNext()) {
+            accumulator = operation.operation(accumulator, iterator.nextLong());
+        }
+        return accumulator;
+    }
+
+    /**
+     * Performs the given [action] on each value.
+     * <p>
+     * The operation is _terminal_.
+     */
+    public static void forEach(@Nullable LongSequence sequence, @NotNull LongAction action) {
+        if (sequence != null) {
+            LongIterator iterator = sequence.iterator();
+            while (iterator.hasNext()) {
+                action.action(iterator.nextLong());
+            }
+        }
+    }
+
+    /**
+     * Returns `true` if at least one value matches the given [predicate].
+     * <p>
+     * The operation is _terminal_.
+     */
+    public static boolean any(@Nullable LongSequence sequence, @NotNull LongPredicate predicate) {
+        if (sequence != null) {
+            LongIterator iterator = sequence.iterator();
+            while (iterator.hasNext()) {
+                if (predicate.accept(iterator.nextLong())) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns `true` if all values match the given [predicate].
+     * <p>
+     * The operation is _terminal_.
+     */
+    public static boolean all(@Nullable LongSequence sequence, @NotNull LongPredicate predicate) {
+        if (sequence != null) {
+            LongIterator iterator = sequence.iterator();
+            while (iterator.hasNext()) {
+                if (!predicate.accept(iterator.nextLong())) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns `true` if no values match the given [predicate].
+     * <p>
+     * The operation is _terminal_.
+     */
+    public static boolean none(@Nullable LongSequence sequence, @NotNull LongPredicate predicate) {
+        return !any(sequence, predicate);
+    }
+}
@@ -0,0 +1,613 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.sequences;
+
+import com.github.panpf.tools4j.common.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * A sequence whose stateless stages ([map], [filter], [mapNotNull], [flatMap]) run concurrently on an [ExecutorService].
+ * <p>
+ * The source sequence is read on the calling thread and split into batches of [batchSize] elements,
+ * each batch is passed through all the stages on the executor,
+ * and the results of the batches are merged on the calling thread, in the order of the source if [ordered] is `true`,
+ * otherwise in the order the batches finish. Only a bounded number of batches is submitted ahead of the consumer.
+ * <p>
+ * The functions given to the stages are called concurrently and must not depend on the order of the elements.
+ * The terminal operations of this class also reduce each batch on the executor, the sequence can be passed to any other
+ * function of [Sequencex] as well, which then consumes the merged results on the calling thread.
+ * <p>
+ * The executor is not shut down by this sequence.
+ */
+public class ParallelSequence<T> implements Sequence<T> {
+
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    @Nullable
+    private final Sequence<Object> sequence;
+    @NotNull
+    private final ExecutorService executor;
+    private final int batchSize;
+    private final boolean ordered;
+    @NotNull
+    private final Stage<Object, T> stage;
+
+    /**
+     * @param sequence  the source, it is read on the thread that iterates this sequence
+     * @param executor  runs the stages of the batches, it is not shut down by this sequence
+     * @param batchSize the number of source elements processed by one task
+     * @param ordered   If `true`, the results are returned in the order of the source. Otherwise, in the order the batches finish
+     */
+    public ParallelSequence(@Nullable Sequence<T> sequence, @NotNull ExecutorService executor, int batchSize, boolean ordered) {
+        //noinspection unchecked
+        this((Sequence<Object>) sequence, executor, batchSize, ordered, (Stage<Object, T>) IDENTITY_STAGE);
+    }
+
+    /**
+     * The results are returned in the order of the source and [DEFAULT_BATCH_SIZE] elements are processed by one task
+     *
+     * @param sequence the source, it is read on the thread that iterates this sequence
+     * @param executor runs the stages of the batches, it is not shut down by this sequence
+     */
+    public ParallelSequence(@Nullable Sequence<T> sequence, @NotNull ExecutorService executor) {
+        this(sequence, executor, DEFAULT_BATCH_SIZE, true);
+    }
+
+    private ParallelSequence(@Nullable Sequence<Object> sequence, @NotNull ExecutorService executor, int batchSize, boolean ordered, @NotNull Stage<Object, T> stage) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize " + batchSize + " must be greater than zero.");
+        }
+        this.sequence = sequence;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.ordered = ordered;
+        this.stage = stage;
+    }
+
+    @NotNull
+    private <R> ParallelSequence<R> then(@NotNull final Stage<T, R> next) {
+        return new ParallelSequence<R>(sequence, executor, batchSize, ordered, new Stage<Object, R>() {
+            @NotNull
+            @Override
+            public Action<Object> wrap(@NotNull Action<R> downstream) {
+                return stage.wrap(next.wrap(downstream));
+            }
+        });
+    }
+
+    /**
+     * Returns a sequence with the same stages whose results are merged in the order of the source if [ordered] is `true`,
+     * otherwise in the order the batches finish.
+     */
+    @NotNull
+    public ParallelSequence<T> ordered(boolean ordered) {
+        return new ParallelSequence<T>(sequence, executor, batchSize, ordered, stage);
+    }
+
+
+    /* ******************************************* stages ******************************************* */
+
+
+    /**
+     * Returns a sequence containing the results of applying the given [transform] function
+     * to each element in the original sequence.
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public <R> ParallelSequence<R> map(@NotNull final Transformer<T, R> transform) {
+        return then(new Stage<T, R>() {
+            @NotNull
+            @Override
+            public Action<T> wrap(@NotNull final Action<R> downstream) {
+                return new Action<T>() {
+                    @Override
+                    public void action(@NotNull T t) {
+                        downstream.action(transform.transform(t));
+                    }
+                };
+            }
+        });
+    }
+
+    /**
+     * Returns a sequence containing only the non-null results of applying the given [transform] function
+     * to each element in the original sequence.
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public <R> ParallelSequence<R> mapNotNull(@NotNull final NullableTransformer<T, R> transform) {
+        return then(new Stage<T, R>() {
+            @NotNull
+            @Override
+            public Action<T> wrap(@NotNull final Action<R> downstream) {
+                return new Action<T>() {
+                    @Override
+                    public void action(@NotNull T t) {
+                        R result = transform.transform(t);
+                        if (result != null) {
+                            downstream.action(result);
+                        }
+                    }
+                };
+            }
+        });
+    }
+
+    /**
+     * Returns a sequence containing only elements matching the given [predicate].
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public ParallelSequence<T> filter(@NotNull final Predicate<T> predicate) {
+        return then(new Stage<T, T>() {
+            @NotNull
+            @Override
+            public Action<T> wrap(@NotNull final Action<T> downstream) {
+                return new Action<T>() {
+                    @Override
+                    public void action(@NotNull T t) {
+                        if (predicate.accept(t)) {
+                            downstream.action(t);
+                        }
+                    }
+                };
+            }
+        });
+    }
+
+    /**
+     * Returns a sequence containing all elements not matching the given [predicate].
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public ParallelSequence<T> filterNot(@NotNull final Predicate<T> predicate) {
+        return filter(new Predicate<T>() {
+            @Override
+            public boolean accept(@NotNull T t) {
+                return !predicate.accept(t);
+            }
+        });
+    }
+
+    /**
+     * Returns a single sequence of all elements from results of [transform] function being invoked on each element of original sequence.
+     * <p>
+     * The operation is _intermediate_ and _stateless_.
+     */
+    @NotNull
+    public <R> ParallelSequence<R> flatMap(@NotNull final Transformer<T, Sequence<R>> transform) {
+        return then(new Stage<T, R>() {
+            @NotNull
+            @Override
+            public Action<T> wrap(@NotNull final Action<R> downstream) {
+                return new Action<T>() {
+                    @Override
+                    public void action(@NotNull T t) {
+                        Iterator<R> iterator = transform.transform(t).iterator();
+                        while (iterator.hasNext()) {
+                            downstream.action(iterator.next());
+                        }
+                    }
+                };
+            }
+        });
+    }
+
+
+    /* ******************************************* terminal ******************************************* */
+
+
+    @NotNull
+    @Override
+    public Iterator<T> iterator() {
+        final Iterator<List<T>> batches = batches(new BatchReducer<T, List<T>>() {
+            @NotNull
+            @Override
+            public List<T> newResult() {
+                return new ArrayList<T>();
+            }
+
+            @NotNull
+            @Override
+            public List<T> reduce(@NotNull List<T> result, @NotNull T element) {
+                result.add(element);
+                return result;
+            }
+        });
+        return new Iterator<T>() {
+            @NotNull
+            private Iterator<T> batch = Collections.<T>emptyList().iterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!batch.hasNext() && batches.hasNext()) {
+                    batch = batches.next().iterator();
+                }
+                return batch.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return batch.next();
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("remove");
+            }
+        };
+    }
+
+    /**
+     * Returns a [List] containing all elements.
+     * <p>
+     * The operation is _terminal_.
+     */
+    @NotNull
+    public List<T> toList() {
+        List<T> list = new ArrayList<T>();
+        Iterator<T> iterator = iterator();
+        while (iterator.hasNext()) {
+            list.add(iterator.next());
+        }
+        return list;
+    }
+
+    /**
+     * Returns the number of elements in this sequence.
+     * <p>
+     * The operation is _terminal_.
+     */
+    public int count() {
+        return sumBy(new Transformer<T, Integer>() {
+            @NotNull
+            @Override
+            public Integer transform(@NotNull T t) {
+                return 1;
+            }
+        });
+    }
+
+    /**
+     * Accumulates each batch starting with the value of [initial] and applying [operation] from left to right to current accumulator value and each element,
+     * then combines the accumulators of the batches with [combiner], in the order of the source if the sequence is ordered.
+     * <p>
+     * [initial] must return a new value that doesn't change the result when combined, such as `0` for sum or an empty collection.
+     * <p>
+     * The operation is _terminal_.
+     */
+    @NotNull
+    public <R> R fold(@NotNull final InitialValue<R> initial, @NotNull final Operation<T, R> operation, @NotNull Transformer2<R, R, R> combiner) {
+        Iterator<R> batches = batches(new BatchReducer<T, R>() {
+            @NotNull
+            @Override
+            public R newResult() {
+                return initial.get();
+            }
+
+            @NotNull
+            @Override
+            public R reduce(@NotNull R result, @NotNull T element) {
+                return operation.operation(result, element);
+            }
+        });
+        R accumulator = initial.get();
+        while (batches.hasNext()) {
+            accumulator = combiner.transform(accumulator, batches.next());
+        }
+        return accumulator;
+    }
+
+    /**
+     * Groups elements of the original sequence by the key returned by the given [keySelector] function
+     * applied to each element and returns a map where each group key is associated with a list of corresponding elements.
+     * <p>
+     * If the sequence is ordered, the returned map preserves the entry iteration order of the keys produced from the original sequence.
+     * <p>
+     * The operation is _terminal_.
+     */
+    @NotNull
+    public <K> Map<K, List<T>> groupBy(@NotNull final Transformer<T, K> keySelector) {
+        return groupBy(keySelector, new Transformer<T, T>() {
+            @NotNull
+            @Override
+            public T transform(@NotNull T t) {
+                return t;
+            }
+        });
+    }
+
+    /**
+     * Groups values returned by the [valueTransform] function applied to each element of the original sequence
+     * by the key returned by the given [keySelector] function applied to the element
+     * and returns a map where each group key is associated with a list of corresponding values.
+     * <p>
+     * If the sequence is ordered, the returned map preserves the entry iteration order of the keys produced from the original sequence.
+     * <p>
+     * The operation is _terminal_.
+     */
+    @NotNull
+    public <K, V> Map<K, List<V>> groupBy(@NotNull final Transformer<T, K> keySelector, @NotNull final Transformer<T, V> valueTransform) {
+        Iterator<Map<K, List<V>>> batches = batches(new BatchReducer<T, Map<K, List<V>>>() {
+            @NotNull
+            @Override
+            public Map<K, List<V>> newResult() {
+                return new LinkedHashMap<K, List<V>>();
+            }
+
+            @NotNull
+            @Override
+            public Map<K, List<V>> reduce(@NotNull Map<K, List<V>> result, @NotNull T element) {
+                K key = keySelector.transform(element);
+                List<V> list = result.get(key);
+                if (list == null) {
+                    list = new ArrayList<V>();
+                    result.put(key, list);
+                }
+                list.add(valueTransform.transform(element));
+                return result;
+            }
+        });
+        Map<K, List<V>> destination = new LinkedHashMap<K, List<V>>();
+        while (batches.hasNext()) {
+            for (Map.Entry<K, List<V>> entry : batches.next().entrySet()) {
+                List<V> list = destination.get(entry.getKey());
+                if (list == null) {
+                    destination.put(entry.getKey(), entry.getValue());
+                } else {
+                    list.addAll(entry.getValue());
+                }
+            }
+        }
+        return destination;
+    }
+
+    /**
+     * Returns the sum of all values produced by [selector] function applied to each element in the sequence.
+     * <p>
+     * The operation is _terminal_.
+     */
+    public int sumBy(@NotNull final Transformer<T, Integer> selector) {
+        int sum = 0;
+        Iterator<Ref.IntRef> batches = batches(new BatchReducer<T, Ref.IntRef>() {
+            @NotNull
+            @Override
+            public Ref.IntRef newResult() {
+                return new Ref.IntRef();
+            }
+
+            @NotNull
+            @Override
+            public Ref.IntRef reduce(@NotNull Ref.IntRef result, @NotNull T element) {
+                result.element += selector.transform(element);
+                return result;
+            }
+        });
+        while (batches.hasNext()) {
+            sum += batches.next().element;
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the sum of all values produced by [selector] function applied to each element in the sequence.
+     * <p>
+     * The operation is _terminal_.
+     */
+    public long sumByLong(@NotNull final Transformer<T, Long> selector) {
+        long sum = 0;
+        Iterator<Ref.LongRef> batches = batches(new BatchReducer<T, Ref.LongRef>() {
+            @NotNull
+            @Override
+            public Ref.LongRef newResult() {
+                return new Ref.LongRef();
+            }
+
+            @NotNull
+            @Override
+            public Ref.LongRef reduce(@NotNull Ref.LongRef result, @NotNull T element) {
+                result.element += selector.transform(element);
+                return result;
+            }
+        });
+        while (batches.hasNext()) {
+            sum += batches.next().element;
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the sum of all values produced by [selector] function applied to each element in the sequence.
+     * <p>
+     * If the sequence is not ordered, the result may differ in the last bits between calls, because the batches are added in a different order.
+     * <p>
+     * The operation is _terminal_.
+     */
+    public double sumByDouble(@NotNull final Transformer<T, Double> selector) {
+        double sum = 0;
+        Iterator<Ref.DoubleRef> batches = batches(new BatchReducer<T, Ref.DoubleRef>() {
+            @NotNull
+            @Override
+            public Ref.DoubleRef newResult() {
+                return new Ref.DoubleRef();
+            }
+
+            @NotNull
+            @Override
+            public Ref.DoubleRef reduce(@NotNull Ref.DoubleRef result, @NotNull T element) {
+                result.element += selector.transform(element);
+                return result;
+            }
+        });
+        while (batches.hasNext()) {
+            sum += batches.next().element;
+        }
+        return sum;
+    }
+
+
+    /* ******************************************* batches ******************************************* */
+
+
+    /**
+     * Reads the source in batches, passes each batch through the stages and the [reducer] on the executor,
+     * and returns the results of the batches as they are merged
+     */
+    @NotNull
+    private <R> Iterator<R> batches(@NotNull BatchReducer<T, R> reducer) {
+        Iterator<Object> iterator = sequence != null ? sequence.iterator() : null;
+        int maxPendingBatches = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+        return new BatchIterator<R>(iterator, reducer, maxPendingBatches);
+    }
+
+    private class BatchIterator<R> implements Iterator<R> {
+        @Nullable
+        private final Iterator<Object> source;
+        @NotNull
+        private final BatchReducer<T, R> reducer;
+        private final int maxPendingBatches;
+        @NotNull
+        private final LinkedList<Future<R>> pendingBatches = new LinkedList<Future<R>>();
+        @NotNull
+        private final CompletionService<R> completionService;
+
+        private BatchIterator(@Nullable Iterator<Object> source, @NotNull BatchReducer<T, R> reducer, int maxPendingBatches) {
+            this.source = source;
+            this.reducer = reducer;
+            this.maxPendingBatches = maxPendingBatches;
+            this.completionService = new ExecutorCompletionService<R>(executor);
+        }
+
+        private void submitBatches() {
+            while (source != null && pendingBatches.size() < maxPendingBatches && source.hasNext()) {
+                final List<Object> batch = new ArrayList<Object>(batchSize);
+                while (batch.size() < batchSize && source.hasNext()) {
+                    batch.add(source.next());
+                }
+                pendingBatches.add(completionService.submit(new Callable<R>() {
+                    @Override
+                    public R call() {
+                        return reduceBatch(batch);
+                    }
+                }));
+            }
+        }
+
+        @NotNull
+        private R reduceBatch(@NotNull List<Object> batch) {
+            final Ref.ObjectRef<R> result = new Ref.ObjectRef<R>();
+            result.element = reducer.newResult();
+            Action<Object> action = stage.wrap(new Action<T>() {
+                @Override
+                public void action(@NotNull T t) {
+                    result.element = reducer.reduce(result.element, t);
+                }
+            });
+            for (Object element : batch) {
+                action.action(element);
+            }
+            return result.element;
+        }
+
+        @Override
+        public boolean hasNext() {
+            submitBatches();
+            return !pendingBatches.isEmpty();
+        }
+
+        @Override
+        public R next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Future<R> future;
+            try {
+                if (ordered) {
+                    future = pendingBatches.removeFirst();
+                } else {
+                    future = completionService.take();
+                    pendingBatches.remove(future);
+                }
+                return future.get();
+            } catch (InterruptedException e) {
+                cancelPendingBatches();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a batch", e);
+            } catch (ExecutionException e) {
+                cancelPendingBatches();
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                } else {
+                    throw new IllegalStateException(cause);
+                }
+            }
+        }
+
+        private void cancelPendingBatches() {
+            for (Future<R> future : pendingBatches) {
+                future.cancel(false);
+            }
+            pendingBatches.clear();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+    }
+
+    /**
+     * Wraps the [Action] that receives the output of a stage into the [Action] that receives its input
+     */
+    private interface Stage<S, T> {
+        @NotNull
+        Action<S> wrap(@NotNull Action<T> downstream);
+    }
+
+    private static final Stage<Object, Object> IDENTITY_STAGE = new Stage<Object, Object>() {
+        @NotNull
+        @Override
+        public Action<Object> wrap(@NotNull Action<Object> downstream) {
+            return downstream;
+        }
+    };
+
+    /**
+     * Reduces the output of the stages for one batch on the executor
+     */
+    private interface BatchReducer<T, R> {
+        @NotNull
+        R newResult();
+
+        @NotNull
+        R reduce(@NotNull R result, @NotNull T element);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.sequences;
+
+/**
+ * An open addressing hash set of `long` values, used by the primitive sequences to remember values without boxing them.
+ * `int` values are widened and `double` values are added as their bits
+ */
+class PrimitiveHashSet {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] values = new long[16];
+    private boolean[] used = new boolean[16];
+    private int size;
+
+    /**
+     * @return `true` if the value has been added, `false` if the set already contains it
+     */
+    boolean add(long value) {
+        if (size >= values.length * LOAD_FACTOR) {
+            resize();
+        }
+        int mask = values.length - 1;
+        int index = hash(value) & mask;
+        while (used[index]) {
+            if (values[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        used[index] = true;
+        values[index] = value;
+        size++;
+        return true;
+    }
+
+    private void resize() {
+        long[] oldValues = values;
+        boolean[] oldUsed = used;
+        values = new long[oldValues.length * 2];
+        used = new boolean[oldValues.length * 2];
+        int mask = values.length - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldUsed[i]) {
+                int index = hash(oldValues[i]) & mask;
+                while (used[index]) {
+                    index = (index + 1) & mask;
+                }
+                used[index] = true;
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private static int hash(long value) {
+        // Spread the bits, so that sequential values and values differing only in the high bits don't cluster
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -21,8 +21,10 @@ import com.github.panpf.tools4j.iterable.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Sequence tool method
@@ -309,6 +311,33 @@ public class Sequencex {
         return sequence instanceof ConstrainedOnceSequence ? sequence : new ConstrainedOnceSequence<T>(sequence);
     }
 
+    /**
+     * Returns a sequence whose stateless stages ([ParallelSequence#map], [ParallelSequence#filter], [ParallelSequence#mapNotNull],
+     * [ParallelSequence#flatMap]) run concurrently on the [executor], [batchSize] elements of this sequence per task.
+     * <p>
+     * This sequence is still read on the calling thread.
+     *
+     * @param ordered If `true`, the results are returned in the order of this sequence. Otherwise, in the order the batches finish
+     * @see ParallelSequence
+     */
+    @NotNull
+    public static <T> ParallelSequence<T> parallel(@Nullable Sequence<T> sequence, @NotNull ExecutorService executor, int batchSize, boolean ordered) {
+        return new ParallelSequence<T>(sequence, executor, batchSize, ordered);
+    }
+
+    /**
+     * Returns a sequence whose stateless stages ([ParallelSequence#map], [ParallelSequence#filter], [ParallelSequence#mapNotNull],
+     * [ParallelSequence#flatMap]) run concurrently on the [executor], the results are returned in the order of this sequence.
+     * <p>
+     * This sequence is still read on the calling thread.
+     *
+     * @see ParallelSequence
+     */
+    @NotNull
+    public static <T> ParallelSequence<T> parallel(@Nullable Sequence<T> sequence, @NotNull ExecutorService executor) {
+        return new ParallelSequence<T>(sequence, executor);
+    }
+
     /**
      * Returns a sequence which invokes the function to calculate the next value on each iteration until the function returns `null`.
      * <p>
@@ -900,10 +929,16 @@ public class Sequencex {
     /**
      * Returns a sequence containing only elements matching the given [predicate].
      * <p>
+     * If the [sequence] is itself a map or filter stage, the two stages are fused and run in one loop.
+     * <p>
      * The operation is _intermediate_ and _stateless_.
      */
     @NotNull
     public static <T> Sequence<T> filter(@Nullable Sequence<T> sequence, @NotNull Predicate<T> predicate) {
+        FusedSequence<?, T> fusedSequence = FusedSequence.of(sequence);
+        if (fusedSequence != null) {
+            return fusedSequence.filter(true, predicate);
+        }
         return new FilteringSequence<T>(sequence, true, predicate);
     }
 
@@ -1029,10 +1064,16 @@ public class Sequencex {
     /**
      * Returns a sequence containing all elements not matching the given [predicate].
      * <p>
+     * If the [sequence] is itself a map or filter stage, the two stages are fused and run in one loop.
+     * <p>
      * The operation is _intermediate_ and _stateless_.
      */
     @NotNull
     public static <T> Sequence<T> filterNot(@Nullable Sequence<T> sequence, @NotNull Predicate<T> predicate) {
+        FusedSequence<?, T> fusedSequence = FusedSequence.of(sequence);
+        if (fusedSequence != null) {
+            return fusedSequence.filter(false, predicate);
+        }
         return new FilteringSequence<T>(sequence, false, predicate);
     }
 
@@ -1176,6 +1217,247 @@ public class Sequencex {
     }
 
 
+    /**
+     * Returns a sequence that yields elements of this sequence sorted according to their natural sort order,
+     * holding at most [maxElementsInMemory] elements in memory.
+     * <p>
+     * Larger sequences are sorted in runs of [maxElementsInMemory] elements that are written to temporary files
+     * with the [serializer] and merged lazily while iterating, see [ExternalSortSequence].
+     * <p>
+     * The operation is _intermediate_ and _stateful_.
+     */
+    @NotNull
+    public static <T extends Comparable<T>> Sequence<T> sorted(@Nullable Sequence<T> sequence, @NotNull ElementSerializer<T> serializer, int maxElementsInMemory) {
+        return sortedWith(sequence, new Comparator<T>() {
+            @Override
+            public int compare(T o1, T o2) {
+                return o1.compareTo(o2);
+            }
+        }, serializer, maxElementsInMemory, null);
+    }
+
+    /**
+     * Returns a sequence that yields elements of this sequence sorted according to natural sort order of the value returned by specified [transformer] function,
+     * holding at most [maxElementsInMemory] elements in memory.
+     * <p>
+     * Larger sequences are sorted in runs of [maxElementsInMemory] elements that are written to temporary files
+     * with the [serializer] and merged lazily while iterating, see [ExternalSortSequence].
+     * <p>
+     * The operation is _intermediate_ and _stateful_.
+     */
+    @NotNull
+    public static <T, R extends Comparable<R>> Sequence<T> sortedBy(@Nullable Sequence<T> sequence, @NotNull final NullableTransformer<T, R> transformer,
+                                                                    @NotNull ElementSerializer<T> serializer, int maxElementsInMemory) {
+        return sortedWith(sequence, new Comparator<T>() {
+            @Override
+            public int compare(@Nullable T o1, @Nullable T o2) {
+                R r1 = o1 != null ? transformer.transform(o1) : null;
+                R r2 = o2 != null ? transformer.transform(o2) : null;
+                return r1 == r2 ? 0 : (r1 == null ? -1 : (r2 == null ? 1 : (r1.compareTo(r2))));
+            }
+        }, serializer, maxElementsInMemory, null);
+    }
+
+    /**
+     * Returns a sequence that yields elements of this sequence sorted according to the specified [comparator],
+     * holding at most [maxElementsInMemory] elements in memory.
+     * <p>
+     * Larger sequences are sorted in runs of [maxElementsInMemory] elements that are written to temporary files
+     * with the [serializer] and merged lazily while iterating, see [ExternalSortSequence].
+     * <p>
+     * The operation is _intermediate_ and _stateful_.
+     */
+    @NotNull
+    public static <T> Sequence<T> sortedWith(@Nullable Sequence<T> sequence, @NotNull Comparator<T> comparator,
+                                             @NotNull ElementSerializer<T> serializer, int maxElementsInMemory) {
+        return sortedWith(sequence, comparator, serializer, maxElementsInMemory, null);
+    }
+
+    /**
+     * Returns a sequence that yields elements of this sequence sorted according to the specified [comparator],
+     * holding at most [maxElementsInMemory] elements in memory.
+     * <p>
+     * Larger sequences are sorted in runs of [maxElementsInMemory] elements that are written to temporary files
+     * in [tempDirectory] with the [serializer] and merged lazily while iterating, see [ExternalSortSequence].
+     * <p>
+     * The operation is _intermediate_ and _stateful_.
+     *
+     * @param tempDirectory the directory of the temporary files, the default temporary directory if null
+     */
+    @NotNull
+    public static <T> Sequence<T> sortedWith(@Nullable Sequence<T> sequence, @NotNull Comparator<T> comparator,
+                                             @NotNull ElementSerializer<T> serializer, int maxElementsInMemory, @Nullable File tempDirectory) {
+        return new ExternalSortSequence<T>(sequence, comparator, serializer, maxElementsInMemory, tempDirectory);
+    }
+
+    /* ******************************************* top k ******************************************* */
+
+
+    /**
+     * Returns a list of the [k] smallest elements according to their natural sort order, in ascending order.
+     * <p>
+     * Equal elements keep their original order, so the result is the same as taking the first [k] elements of the sorted sequence,
+     * but only [k] elements are kept at a time in a bounded heap, in O(n log k) time.
+     * <p>
+     * The operation is _terminal_.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    @NotNull
+    public static <T extends Comparable<T>> List<T> bottomK(@Nullable Sequence<T> sequence, int k) {
+        return bottomKWith(sequence, k, new Comparator<T>() {
+            @Override
+            public int compare(@NotNull T o1, @NotNull T o2) {
+                return o1.compareTo(o2);
+            }
+        });
+    }
+
+    /**
+     * Returns a list of the [k] elements with the smallest values returned by specified [transformer] function, in ascending order of the values.
+     * <p>
+     * Equal elements keep their original order, and only [k] elements are kept at a time in a bounded heap, in O(n log k) time.
+     * <p>
+     * The operation is _terminal_.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    @NotNull
+    public static <T, R extends Comparable<R>> List<T> bottomKBy(@Nullable Sequence<T> sequence, int k, @NotNull final NullableTransformer<T, R> transformer) {
+        return bottomKWith(sequence, k, new Comparator<T>() {
+            @Override
+            public int compare(@Nullable T o1, @Nullable T o2) {
+                R r1 = o1 != null ? transformer.transform(o1) : null;
+                R r2 = o2 != null ? transformer.transform(o2) : null;
+                return r1 == r2 ? 0 : (r1 == null ? -1 : (r2 == null ? 1 : (r1.compareTo(r2))));
+            }
+        });
+    }
+
+    /**
+     * Returns a list of the [k] smallest elements according to the order specified with [comparator], in that order.
+     * <p>
+     * Equal elements keep their original order, and only [k] elements are kept at a time in a bounded heap, in O(n log k) time.
+     * <p>
+     * The operation is _terminal_.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    @NotNull
+    public static <T> List<T> bottomKWith(@Nullable Sequence<T> sequence, int k, @NotNull Comparator<T> comparator) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Param 'k' is less than zero.");
+        }
+        BoundedHeap<T> heap = new BoundedHeap<T>(k, comparator);
+        if (sequence != null && k > 0) {
+            Iterator<T> iterator = sequence.iterator();
+            while (iterator.hasNext()) {
+                heap.add(iterator.next());
+            }
+        }
+        return heap.toSortedList();
+    }
+
+    /**
+     * Returns a list of the [k] largest elements according to their natural sort order, in descending order.
+     * <p>
+     * Equal elements keep their original order, and only [k] elements are kept at a time in a bounded heap, in O(n log k) time.
+     * <p>
+     * The operation is _terminal_.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    @NotNull
+    public static <T extends Comparable<T>> List<T> topK(@Nullable Sequence<T> sequence, int k) {
+        return bottomKWith(sequence, k, new Comparator<T>() {
+            @Override
+            public int compare(@NotNull T o1, @NotNull T o2) {
+                return o2.compareTo(o1);
+            }
+        });
+    }
+
+    /**
+     * Returns a list of the [k] elements with the largest values returned by specified [transformer] function, in descending order of the values.
+     * <p>
+     * Equal elements keep their original order, and only [k] elements are kept at a time in a bounded heap, in O(n log k) time.
+     * <p>
+     * The operation is _terminal_.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    @NotNull
+    public static <T, R extends Comparable<R>> List<T> topKBy(@Nullable Sequence<T> sequence, int k, @NotNull final NullableTransformer<T, R> transformer) {
+        return bottomKWith(sequence, k, new Comparator<T>() {
+            @Override
+            public int compare(@Nullable T o1, @Nullable T o2) {
+                R r1 = o2 != null ? transformer.transform(o2) : null;
+                R r2 = o1 != null ? transformer.transform(o1) : null;
+                return r1 == r2 ? 0 : (r1 == null ? -1 : (r2 == null ? 1 : (r1.compareTo(r2))));
+            }
+        });
+    }
+
+    /**
+     * Returns a list of the [k] largest elements according to the order specified with [comparator], in descending order.
+     * <p>
+     * Equal elements keep their original order, and only [k] elements are kept at a time in a bounded heap, in O(n log k) time.
+     * <p>
+     * The operation is _terminal_.
+     *
+     * @throws IllegalArgumentException if [k] is negative.
+     */
+    @NotNull
+    public static <T> List<T> topKWith(@Nullable Sequence<T> sequence, int k, @NotNull Comparator<T> comparator) {
+        return bottomKWith(sequence, k, Collections.reverseOrder(comparator));
+    }
+
+
+    /**
+     * Returns the element that would be at index [n] if the sequence was sorted according to their natural sort order.
+     * <p>
+     * Only the [n] + 1 smallest elements are kept at a time in a bounded heap.
+     * <p>
+     * The operation is _terminal_.
+     *
+     * @throws IndexOutOfBoundsException if [n] is not an index of the sequence.
+     */
+    public static <T extends Comparable<T>> T nthElement(@Nullable Sequence<T> sequence, int n) {
+        return nthElementWith(sequence, n, new Comparator<T>() {
+            @Override
+            public int compare(@NotNull T o1, @NotNull T o2) {
+                return o1.compareTo(o2);
+            }
+        });
+    }
+
+    /**
+     * Returns the element that would be at index [n] if the sequence was sorted according to [comparator].
+     * <p>
+     * Only the [n] + 1 smallest elements are kept at a time in a bounded heap.
+     * <p>
+     * The operation is _terminal_.
+     *
+     * @throws IndexOutOfBoundsException if [n] is not an index of the sequence.
+     */
+    public static <T> T nthElementWith(@Nullable Sequence<T> sequence, int n, @NotNull Comparator<T> comparator) {
+        if (n < 0 || n == Integer.MAX_VALUE) {
+            throw new IndexOutOfBoundsException("Sequence doesn't contain element at index " + n + ".");
+        }
+        BoundedHeap<T> heap = new BoundedHeap<T>(n + 1, comparator);
+        if (sequence != null) {
+            Iterator<T> iterator = sequence.iterator();
+            while (iterator.hasNext()) {
+                heap.add(iterator.next());
+            }
+        }
+        if (heap.size() <= n) {
+            throw new IndexOutOfBoundsException("Sequence doesn't contain element at index " + n + ".");
+        }
+        return heap.largest();
+    }
+
+
     /* ******************************************* associate ******************************************* */
 
 
@@ -1692,10 +1974,16 @@ public class Sequencex {
      * Returns a sequence containing the results of applying the given [transform] function
      * to each element in the original sequence.
      * <p>
+     * If the [sequence] is itself a map or filter stage, the two stages are fused and run in one loop.
+     * <p>
      * The operation is _intermediate_ and _stateless_.
      */
     @NotNull
     public static <T, R> Sequence<R> map(@Nullable Sequence<T> sequence, @NotNull Transformer<T, R> transform) {
+        FusedSequence<?, T> fusedSequence = FusedSequence.of(sequence);
+        if (fusedSequence != null) {
+            return fusedSequence.map(transform);
+        }
         return new TransformingSequence<T, R>(sequence, transform);
     }
 
@@ -2014,10 +2302,15 @@ public class Sequencex {
     /**
      * Performs the given [action] on each element.
      * <p>
+     * Map and filter stages push the elements straight to the [action] without going through their iterators.
+     * <p>
      * The operation is _terminal_.
      */
     public static <T> void forEach(@Nullable Sequence<T> sequence, @NotNull Action<T> action) {
-        if (sequence != null) {
+        FusedSequence<?, T> fusedSequence = FusedSequence.of(sequence);
+        if (fusedSequence != null) {
+            fusedSequence.forEach(action);
+        } else if (sequence != null) {
             Iterator<T> iterator = sequence.iterator();
             while (iterator.hasNext()) {
                 T element = iterator.next();
@@ -3235,7 +3528,7 @@ public class Sequencex {
             @NotNull
             @Override
             public Iterator<List<T>> iterator() {
-                return new WindowedIterator<T>(sequence != null ? sequence.iterator() : null, size, step, partialWindows);
+                return new WindowedIterator<T>(sequence != null ? sequence.iterator() : null, size, step, partialWindows, true);
             }
         }, transform);
     }
@@ -71,4 +71,12 @@ public class TransformingSequence<T, R> implements Sequence<R> {
     public <E> Sequence<E> flatten(@NotNull Transformer<R, Iterator<E>> iterator) {
         return new FlatteningSequence<T, R, E>(sequence, transformer, iterator);
     }
+
+    /**
+     * Returns this stage in the form that further map and filter stages can be fused into
+     */
+    @NotNull
+    FusedSequence<T, R> fuse() {
+        return FusedSequence.map(sequence, transformer);
+    }
 }
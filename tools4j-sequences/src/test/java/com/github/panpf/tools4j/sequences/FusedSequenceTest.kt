@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.sequences
+
+import com.github.panpf.tools4j.common.Transformer
+import org.junit.Assert
+import org.junit.Test
+
+class FusedSequenceTest {
+
+    @Test
+    fun test() {
+        val sequence = Sequencex.asSequence((0 until 20).toList())
+        val nullSequence = null as Sequence<Int>?
+
+        val fused = Sequencex.map(Sequencex.filterNot(Sequencex.filter(Sequencex.map(sequence, Transformer<Int, Int> { it + 1 })) { it % 2 == 0 }) { it > 12 }, Transformer<Int, String> { "v$it" })
+        Assert.assertTrue(fused is FusedSequence<*, *>)
+        Assert.assertEquals("v2, v4, v6, v8, v10, v12", Sequencex.joinToString(fused))
+        Assert.assertEquals("v2, v4, v6, v8, v10, v12", Sequencex.joinToString(fused))
+
+        val builder = StringBuilder()
+        Sequencex.forEach(fused) { builder.append(it).append(";") }
+        Assert.assertEquals("v2;v4;v6;v8;v10;v12;", builder.toString())
+
+        Assert.assertEquals("2, 4", Sequencex.joinToString(Sequencex.filter(Sequencex.filter(sequence) { it % 2 == 0 }) { it in 1..4 }))
+        Assert.assertEquals("", Sequencex.joinToString(Sequencex.filter(Sequencex.map(nullSequence, Transformer<Int, Int> { it + 1 })) { true }))
+
+        val iterator = Sequencex.filter(Sequencex.map(sequence, Transformer<Int, Int> { it })) { it == 3 }.iterator()
+        Assert.assertTrue(iterator.hasNext())
+        Assert.assertTrue(iterator.hasNext())
+        Assert.assertEquals(3, iterator.next())
+        Assert.assertFalse(iterator.hasNext())
+        try {
+            iterator.next()
+            Assert.fail()
+        } catch (e: NoSuchElementException) {
+        }
+    }
+}
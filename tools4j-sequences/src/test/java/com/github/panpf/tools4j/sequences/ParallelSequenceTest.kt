@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.sequences
+
+import com.github.panpf.tools4j.common.InitialValue
+import com.github.panpf.tools4j.common.NullableTransformer
+import com.github.panpf.tools4j.common.Operation
+import com.github.panpf.tools4j.common.Transformer
+import com.github.panpf.tools4j.common.Transformer2
+import org.junit.Assert
+import org.junit.Test
+import java.util.concurrent.Executors
+
+class ParallelSequenceTest {
+
+    @Test
+    fun test() {
+        val executor = Executors.newFixedThreadPool(4)
+        try {
+            val source = (0 until 10000).toList()
+            val sequence = Sequencex.asSequence(source)
+            val nullSequence = null as Sequence<Int>?
+
+            val parallel = Sequencex.parallel(sequence, executor, 100, true)
+                    .filter { it % 3 != 0 }
+                    .map(Transformer<Int, Int> { it * 2 })
+            val expected = source.filter { it % 3 != 0 }.map { it * 2 }
+            Assert.assertEquals(expected, parallel.toList())
+            Assert.assertEquals(expected, Sequencex.toMutableList(parallel))
+            Assert.assertEquals(expected.size, parallel.count())
+            Assert.assertEquals(expected.sum(), parallel.sumBy { it })
+            Assert.assertEquals(expected.sumOf { it.toLong() }, parallel.sumByLong { it.toLong() })
+            Assert.assertEquals(expected.sumOf { it.toDouble() }, parallel.sumByDouble { it.toDouble() }, 0.0)
+            Assert.assertEquals(expected.groupBy { it % 7 }, parallel.groupBy { it % 7 })
+            Assert.assertEquals(expected.groupBy({ it % 7 }, { it.toString() }), parallel.groupBy({ it % 7 }, { it.toString() }))
+            Assert.assertEquals(expected.joinToString(), parallel.fold(InitialValue { StringBuilder() },
+                    Operation<Int, StringBuilder> { builder, element -> builder.apply { if (isNotEmpty()) append(", "); append(element) } },
+                    Transformer2<StringBuilder, StringBuilder, StringBuilder> { left, right -> left.apply { if (isNotEmpty() && right.isNotEmpty()) append(", "); append(right) } }
+            ).toString())
+
+            val unordered = parallel.ordered(false)
+            Assert.assertEquals(expected.sorted(), unordered.toList().sorted())
+            Assert.assertEquals(expected.sum(), unordered.sumBy { it })
+
+            Assert.assertEquals(source.flatMap { listOf(it, -it) }, Sequencex.parallel(sequence, executor)
+                    .flatMap(Transformer<Int, Sequence<Int>> { Sequencex.sequenceOf(it, -it) }).toList())
+            Assert.assertEquals(source.filter { it % 2 == 0 }, Sequencex.parallel(sequence, executor)
+                    .mapNotNull(NullableTransformer<Int, Int> { if (it % 2 == 0) it else null }).toList())
+            Assert.assertEquals(source.filter { it % 2 != 0 }, Sequencex.parallel(sequence, executor).filterNot { it % 2 == 0 }.toList())
+
+            Assert.assertEquals(emptyList<Int>(), Sequencex.parallel(nullSequence, executor).toList())
+            Assert.assertEquals(0, Sequencex.parallel(nullSequence, executor).sumBy { it })
+
+            try {
+                Sequencex.parallel(sequence, executor).map(Transformer<Int, Int> { if (it == 5000) throw IllegalStateException("5000") else it }).toList()
+                Assert.fail()
+            } catch (e: IllegalStateException) {
+                Assert.assertEquals("5000", e.message)
+            }
+
+            try {
+                Sequencex.parallel(sequence, executor, 0, true)
+                Assert.fail()
+            } catch (e: IllegalArgumentException) {
+            }
+        } finally {
+            executor.shutdown()
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.sequences
+
+import org.junit.Assert
+import org.junit.Test
+
+class PrimitiveSequencexTest {
+
+    @Test
+    fun testIntSequence() {
+        val sequence = IntSequencex.intSequenceOf(5, 3, 8, 3, 1, 8, 9)
+        val nullSequence = null as IntSequence?
+
+        Assert.assertArrayEquals(intArrayOf(5, 3, 8, 3, 1, 8, 9), IntSequencex.toIntArray(sequence))
+        Assert.assertArrayEquals(intArrayOf(), IntSequencex.toIntArray(nullSequence))
+        Assert.assertArrayEquals(intArrayOf(2, 3, 4), IntSequencex.toIntArray(IntSequencex.range(2, 5)))
+        Assert.assertArrayEquals(intArrayOf(), IntSequencex.toIntArray(IntSequencex.range(5, 2)))
+
+        Assert.assertArrayEquals(intArrayOf(10, 6, 16, 6, 2, 16, 18), IntSequencex.toIntArray(IntSequencex.map(sequence) { it * 2 }))
+        Assert.assertArrayEquals(intArrayOf(8, 8), IntSequencex.toIntArray(IntSequencex.filter(sequence) { it % 2 == 0 }))
+        Assert.assertArrayEquals(intArrayOf(5, 3, 3, 1, 9), IntSequencex.toIntArray(IntSequencex.filterNot(sequence) { it % 2 == 0 }))
+        Assert.assertArrayEquals(intArrayOf(5, 3), IntSequencex.toIntArray(IntSequencex.take(sequence, 2)))
+        Assert.assertArrayEquals(intArrayOf(), IntSequencex.toIntArray(IntSequencex.take(sequence, 0)))
+        Assert.assertArrayEquals(intArrayOf(8, 9), IntSequencex.toIntArray(IntSequencex.drop(sequence, 5)))
+        Assert.assertArrayEquals(intArrayOf(), IntSequencex.toIntArray(IntSequencex.drop(sequence, 10)))
+        Assert.assertArrayEquals(intArrayOf(5, 3, 8, 1, 9), IntSequencex.toIntArray(IntSequencex.distinct(sequence)))
+        Assert.assertArrayEquals(intArrayOf(1, 3, 3, 5, 8, 8, 9), IntSequencex.toIntArray(IntSequencex.sorted(sequence)))
+        Assert.assertArrayEquals(intArrayOf(9, 8, 8, 5, 3, 3, 1), IntSequencex.toIntArray(IntSequencex.sortedDescending(sequence)))
+        try {
+            IntSequencex.take(sequence, -1)
+            Assert.fail()
+        } catch (e: IllegalArgumentException) {
+        }
+        try {
+            IntSequencex.drop(sequence, -1)
+            Assert.fail()
+        } catch (e: IllegalArgumentException) {
+        }
+
+        val range = IntSequencex.range(0, 10)
+        Assert.assertEquals((0 until 10).windowed(3, 1, true), Sequencex.toMutableList(IntSequencex.windowed(range, 3, 1, true)).map { it.toList() })
+        Assert.assertEquals((0 until 10).windowed(3, 1, false), Sequencex.toMutableList(IntSequencex.windowed(range, 3, 1, false)).map { it.toList() })
+        Assert.assertEquals((0 until 10).windowed(2, 3, true), Sequencex.toMutableList(IntSequencex.windowed(range, 2, 3, true)).map { it.toList() })
+        Assert.assertEquals((0 until 10).windowed(4, 4, false), Sequencex.toMutableList(IntSequencex.windowed(range, 4, 4, false)).map { it.toList() })
+        Assert.assertEquals((0 until 10).windowed(20, 1, true), Sequencex.toMutableList(IntSequencex.windowed(range, 20, 1, true)).map { it.toList() })
+        try {
+            IntSequencex.windowed(range, 0, 1, true)
+            Assert.fail()
+        } catch (e: IllegalArgumentException) {
+        }
+        try {
+            val windows = IntSequencex.windowed(range, 3, 1, true).iterator()
+            windows.next()
+            (windows as MutableIterator<IntArray>).remove()
+            Assert.fail()
+        } catch (e: UnsupportedOperationException) {
+        }
+
+        Assert.assertEquals(7, IntSequencex.count(sequence))
+        Assert.assertEquals(37, IntSequencex.sum(sequence))
+        Assert.assertEquals(37 / 7.0, IntSequencex.average(sequence), 0.0)
+        Assert.assertTrue(IntSequencex.average(nullSequence).isNaN())
+        Assert.assertEquals(9, IntSequencex.maxOrNull(sequence))
+        Assert.assertEquals(1, IntSequencex.minOrNull(sequence))
+        Assert.assertNull(IntSequencex.maxOrNull(nullSequence))
+        Assert.assertNull(IntSequencex.minOrNull(IntSequencex.emptyIntSequence()))
+        Assert.assertEquals(47, IntSequencex.fold(sequence, 10) { acc, value -> acc + value })
+        Assert.assertEquals(9, IntSequencex.reduce(sequence) { acc, value -> Math.max(acc, value) })
+        try {
+            IntSequencex.reduce(nullSequence) { acc, value -> acc + value }
+            Assert.fail()
+        } catch (e: UnsupportedOperationException) {
+        }
+        val builder = StringBuilder()
+        IntSequencex.forEach(sequence) { builder.append(it) }
+        Assert.assertEquals("5383189", builder.toString())
+        Assert.assertTrue(IntSequencex.any(sequence) { it > 8 })
+        Assert.assertFalse(IntSequencex.all(sequence) { it > 1 })
+        Assert.assertTrue(IntSequencex.none(sequence) { it > 9 })
+
+        Assert.assertEquals(listOf(5, 3, 8, 3, 1, 8, 9), Sequencex.toMutableList(IntSequencex.asSequence(sequence)))
+        Assert.assertEquals(listOf("5", "3"), Sequencex.toMutableList(IntSequencex.mapToObj(IntSequencex.take(sequence, 2)) { it.toString() }))
+        Assert.assertArrayEquals(intArrayOf(1, 2, 3), IntSequencex.toIntArray(IntSequencex.asIntSequence(Sequencex.sequenceOf(1, 2, 3))))
+        Assert.assertArrayEquals(intArrayOf(1, 2, 3), IntSequencex.toIntArray(IntSequencex.mapToInt(Sequencex.sequenceOf("1", "22", "333")) { it.length }))
+        Assert.assertEquals(45L, LongSequencex.sum(IntSequencex.asLongSequence(range)))
+        Assert.assertEquals(45.0, DoubleSequencex.sum(IntSequencex.asDoubleSequence(range)), 0.0)
+    }
+
+    @Test
+    fun testLongSequence() {
+        val sequence = LongSequencex.longSequenceOf(5L, Long.MAX_VALUE, 3L, 5L, Long.MIN_VALUE)
+
+        Assert.assertArrayEquals(longArrayOf(5L, Long.MAX_VALUE, 3L, Long.MIN_VALUE), LongSequencex.toLongArray(LongSequencex.distinct(sequence)))
+        Assert.assertArrayEquals(longArrayOf(Long.MIN_VALUE, 3L, 5L, 5L, Long.MAX_VALUE), LongSequencex.toLongArray(LongSequencex.sorted(sequence)))
+        Assert.assertArrayEquals(longArrayOf(10L, 6L), LongSequencex.toLongArray(LongSequencex.map(LongSequencex.filter(sequence) { it in 0..10 }) { it * 2 }.let { LongSequencex.distinct(it) }))
+        Assert.assertEquals(Long.MAX_VALUE, LongSequencex.maxOrNull(sequence))
+        Assert.assertEquals(Long.MIN_VALUE, LongSequencex.minOrNull(sequence))
+        Assert.assertEquals(4950L, LongSequencex.sum(LongSequencex.range(0L, 100L)))
+        Assert.assertEquals(3, LongSequencex.count(LongSequencex.take(LongSequencex.drop(LongSequencex.range(0L, 100L), 97), 5)))
+        Assert.assertEquals(listOf(listOf(0L, 1L), listOf(2L, 3L)), Sequencex.toMutableList(LongSequencex.windowed(LongSequencex.range(0L, 5L), 2, 2, false)).map { it.toList() })
+        Assert.assertEquals(4950.0, DoubleSequencex.sum(LongSequencex.asDoubleSequence(LongSequencex.range(0L, 100L))), 0.0)
+    }
+
+    @Test
+    fun testDoubleSequence() {
+        val sequence = DoubleSequencex.doubleSequenceOf(1.5, Double.NaN, 0.0, -0.0, 1.5, Double.NaN)
+
+        Assert.assertArrayEquals(doubleArrayOf(1.5, Double.NaN, 0.0, -0.0), DoubleSequencex.toDoubleArray(DoubleSequencex.distinct(sequence)), 0.0)
+        Assert.assertTrue(DoubleSequencex.maxOrNull(sequence)!!.isNaN())
+        Assert.assertEquals(1.5, DoubleSequencex.maxOrNull(DoubleSequencex.filterNot(sequence) { it.isNaN() }))
+        Assert.assertEquals(-0.0, DoubleSequencex.minOrNull(DoubleSequencex.filterNot(sequence) { it.isNaN() }))
+        Assert.assertArrayEquals(doubleArrayOf(-0.0, 0.0, 1.5, 1.5), DoubleSequencex.toDoubleArray(DoubleSequencex.sorted(DoubleSequencex.filterNot(sequence) { it.isNaN() })), 0.0)
+        Assert.assertEquals(2.0, DoubleSequencex.average(DoubleSequencex.doubleSequenceOf(1.0, 2.0, 3.0)), 0.0)
+        Assert.assertEquals(6.0, DoubleSequencex.sum(DoubleSequencex.map(DoubleSequencex.doubleSequenceOf(1.0, 2.0)) { it * 2 }), 0.0)
+    }
+
+    @Test
+    fun testWindowedAggregates() {
+        val ints = IntSequencex.intSequenceOf(3, 1, 4, 1, 5, 9, 2, 6)
+        Assert.assertArrayEquals(intArrayOf(8, 6, 10, 15, 16, 17), IntSequencex.toIntArray(IntSequencex.windowedSum(ints, 3)))
+        Assert.assertArrayEquals(intArrayOf(1, 1, 1, 1, 2, 2), IntSequencex.toIntArray(IntSequencex.windowedMin(ints, 3)))
+        Assert.assertArrayEquals(intArrayOf(4, 4, 5, 9, 9, 9), IntSequencex.toIntArray(IntSequencex.windowedMax(ints, 3)))
+        Assert.assertArrayEquals(doubleArrayOf(2.0, 2.5, 2.5, 3.0, 7.0, 5.5, 4.0), DoubleSequencex.toDoubleArray(IntSequencex.windowedAverage(ints, 2)), 0.0)
+        Assert.assertEquals(0, IntSequencex.count(IntSequencex.windowedSum(ints, 9)))
+        Assert.assertEquals(0, IntSequencex.count(IntSequencex.windowedMax(null, 2)))
+
+        val longs = LongSequencex.range(0L, 1000L)
+        Assert.assertArrayEquals(LongArray(991) { it * 10L + 45L }, LongSequencex.toLongArray(LongSequencex.windowedSum(longs, 10)))
+        Assert.assertArrayEquals(LongArray(991) { it + 9L }, LongSequencex.toLongArray(LongSequencex.windowedMax(longs, 10)))
+
+        val doubles = DoubleSequencex.doubleSequenceOf(1.0, Double.NaN, 2.0, Double.POSITIVE_INFINITY, 0.1, 0.2, -0.0, 0.0)
+        Assert.assertArrayEquals(doubleArrayOf(Double.NaN, Double.NaN, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, 0.3, 0.2, 0.0), DoubleSequencex.toDoubleArray(DoubleSequencex.windowedSum(doubles, 2)), 0.000000001)
+        Assert.assertArrayEquals(doubleArrayOf(Double.NaN, Double.NaN, 2.0, 0.1, 0.1, -0.0, -0.0), DoubleSequencex.toDoubleArray(DoubleSequencex.windowedMin(doubles, 2)), 0.0)
+        Assert.assertArrayEquals(doubleArrayOf(Double.NaN, Double.NaN, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, 0.2, 0.2, 0.0), DoubleSequencex.toDoubleArray(DoubleSequencex.windowedMax(doubles, 2)), 0.0)
+        Assert.assertTrue(DoubleSequencex.toDoubleArray(DoubleSequencex.windowedSum(DoubleSequencex.doubleSequenceOf(Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY), 2))[0].isNaN())
+    }
+}
@@ -25,6 +25,10 @@ import com.github.panpf.tools4j.test.ktx.assertTwoEquals
 import com.github.panpf.tools4j.test.ktx.assertTwoThrow
 import org.junit.Assert.*
 import org.junit.Test
+import java.io.Closeable
+import java.io.DataInput
+import java.io.DataOutput
+import java.io.File
 import java.io.IOException
 import java.util.*
 import kotlin.collections.HashMap
@@ -2441,6 +2445,68 @@ class SequencexTest {
     }
 
 
+    @Test
+    fun testTopK() {
+        val list = listOf("bb", "a", "ccc", "dd", "e", "ff")
+        assertEquals(list.sorted().take(3), Sequencex.bottomK(Sequencex.asSequence(list), 3))
+        assertEquals(list.sortedDescending().take(3), Sequencex.topK(Sequencex.asSequence(list), 3))
+        assertEquals(list.sortedBy { it.length }.take(4), Sequencex.bottomKBy(Sequencex.asSequence(list), 4) { it.length })
+        assertEquals(list.sortedByDescending { it.length }.take(4), Sequencex.topKBy(Sequencex.asSequence(list), 4) { it.length })
+        assertEquals(list.sorted(), Sequencex.topKWith(Sequencex.asSequence(list), 10) { o1, o2 -> o2.compareTo(o1) })
+        assertEquals(0, Sequencex.topK(null as Sequence<String>?, 3).size)
+        assertThrow(IllegalArgumentException::class) { Sequencex.topK(Sequencex.asSequence(list), -1) }
+
+        assertEquals(990, Sequencex.nthElement(Sequencex.map(Sequencex.generateSequence(IntInitialValue(1000))) { 1000 - it }, 990))
+        assertEquals("e", Sequencex.nthElementWith(Sequencex.asSequence(list), 1) { o1, o2 -> o2.compareTo(o1) })
+        assertThrow(IndexOutOfBoundsException::class) { Sequencex.nthElement(Sequencex.asSequence(list), 6) }
+    }
+
+    @Test
+    fun testExternalSort() {
+        val random = Random(19)
+        val list = (0 until 5000).map { if (it % 100 == 0) null else "${random.nextInt(100)}:$it" }
+        val comparator = Comparator<String?> { o1, o2 -> (o1?.substringBefore(':')?.toInt() ?: -1) - (o2?.substringBefore(':')?.toInt() ?: -1) }
+        val tempDirectory = File.createTempFile("sequence", "test").apply { delete(); mkdir() }
+        try {
+            assertEquals(list.sortedWith(comparator),
+                    Sequencex.toMutableList(Sequencex.sortedWith(Sequencex.asSequence(list), comparator, ElementSerializers.STRING, 7, tempDirectory)))
+            assertEquals(list.sortedWith(comparator),
+                    Sequencex.toMutableList(Sequencex.sortedWith(Sequencex.asSequence(list), comparator, ElementSerializers.STRING, 10000, tempDirectory)))
+            assertEquals(0, tempDirectory.list()!!.size)
+
+            val iterator = Sequencex.sortedWith(Sequencex.asSequence(list), comparator, ElementSerializers.STRING, 100, tempDirectory).iterator()
+            assertNull(iterator.next())
+            assertTrue(tempDirectory.list()!!.isNotEmpty())
+            (iterator as Closeable).close()
+            assertEquals(0, tempDirectory.list()!!.size)
+
+            // A source sorted in memory is closeable too
+            val memoryIterator = Sequencex.sortedWith(Sequencex.asSequence(list), comparator, ElementSerializers.STRING, 10000, tempDirectory).iterator()
+            assertNull(memoryIterator.next())
+            (memoryIterator as Closeable).close()
+            assertFalse(memoryIterator.hasNext())
+
+            // The runs opened before a failed read are closed and deleted
+            val failingSerializer = object : ElementSerializer<String?> {
+                override fun write(output: DataOutput, element: String) = ElementSerializers.STRING.write(output, element)
+                override fun read(input: DataInput): String = throw IOException("read")
+            }
+            val openFiles = File("/proc/self/fd").list()?.size
+            assertThrow(IllegalStateException::class) {
+                Sequencex.sortedWith(Sequencex.asSequence(list), comparator, failingSerializer, 7, tempDirectory).iterator()
+            }
+            assertEquals(openFiles, File("/proc/self/fd").list()?.size)
+            assertEquals(0, tempDirectory.list()!!.size)
+        } finally {
+            tempDirectory.deleteRecursively()
+        }
+
+        val ints = (0 until 1000).map { random.nextInt() }
+        assertEquals(ints.sorted(), Sequencex.toMutableList(Sequencex.sorted(Sequencex.asSequence(ints), ElementSerializers.INT, 10)))
+        assertEquals(ints.sortedBy { -it.toLong() }, Sequencex.toMutableList(Sequencex.sortedBy(Sequencex.asSequence(ints), { -it.toLong() }, ElementSerializers.INT, 10)))
+        assertThrow(IllegalArgumentException::class) { Sequencex.sorted(Sequencex.asSequence(ints), ElementSerializers.INT, 0) }
+    }
+
     class IntInitialValue(private val end: Int) : InitialValue<Int> {
         private var next = 0
 
@@ -23,7 +23,11 @@ import com.github.panpf.tools4j.zip.ZipListener
 import com.github.panpf.tools4j.zip.Zipx
 import java.io.File
 import java.io.IOException
+import java.io.InputStream
+import java.io.OutputStream
+import java.nio.ByteBuffer
 import java.util.*
+import java.util.concurrent.ExecutorService
 import java.util.zip.DataFormatException
 import java.util.zip.ZipEntry
 import java.util.zip.ZipFile
@@ -57,6 +61,66 @@ inline fun ByteArray.gzipCompress(): ByteArray = Zipx.gzipCompress(this)
 @Throws(DataFormatException::class)
 inline fun ByteArray.gzipDecompress(): ByteArray = Zipx.gzipDecompress(this)
 
+/**
+ * Compress the specified range of the byte array
+ */
+inline fun ByteArray.zipCompress(offset: Int, length: Int): ByteArray = Zipx.compress(this, offset, length)
+
+/**
+ * Decompress the specified range of the byte array
+ */
+@Throws(DataFormatException::class)
+inline fun ByteArray.zipDecompress(offset: Int, length: Int): ByteArray = Zipx.decompress(this, offset, length)
+
+/**
+ * Compress the specified range of the byte array use gzip
+ */
+inline fun ByteArray.gzipCompress(offset: Int, length: Int): ByteArray = Zipx.gzipCompress(this, offset, length)
+
+/**
+ * Decompress the specified range of the byte array use gzip
+ */
+@Throws(DataFormatException::class)
+inline fun ByteArray.gzipDecompress(offset: Int, length: Int): ByteArray = Zipx.gzipDecompress(this, offset, length)
+
+
+/**
+ * Compress the remaining bytes of the buffer into the destination buffer, the positions of both buffers are advanced
+ */
+inline fun ByteBuffer.zipCompressTo(destinationBuffer: ByteBuffer): Int = Zipx.compress(this, destinationBuffer)
+
+/**
+ * Decompress the remaining bytes of the buffer into the destination buffer,
+ * the buffer is advanced to the end of the compressed data and the destination buffer is advanced by the decompressed data
+ */
+@Throws(DataFormatException::class)
+inline fun ByteBuffer.zipDecompressTo(destinationBuffer: ByteBuffer): Int = Zipx.decompress(this, destinationBuffer)
+
+
+/**
+ * Compress all the data of the input stream into the output stream, neither of the streams is closed
+ */
+@Throws(IOException::class)
+inline fun InputStream.zipCompressTo(outputStream: OutputStream): Long = Zipx.compress(this, outputStream)
+
+/**
+ * Decompress the compressed data of the input stream into the output stream, neither of the streams is closed
+ */
+@Throws(IOException::class)
+inline fun InputStream.zipDecompressTo(outputStream: OutputStream): Long = Zipx.decompress(this, outputStream)
+
+/**
+ * Compress all the data of the input stream into the output stream use gzip, neither of the streams is closed
+ */
+@Throws(IOException::class)
+inline fun InputStream.gzipCompressTo(outputStream: OutputStream): Long = Zipx.gzipCompress(this, outputStream)
+
+/**
+ * Decompress the gzip data of the input stream into the output stream, neither of the streams is closed
+ */
+@Throws(IOException::class)
+inline fun InputStream.gzipDecompressTo(outputStream: OutputStream): Long = Zipx.gzipDecompress(this, outputStream)
+
 
 /**
  * Compress the specified files
@@ -83,6 +147,20 @@ inline fun Array<File>?.zipCompressFilesTo(destinationFile: File, zipEntryNameTr
 @Throws(IOException::class)
 inline fun Array<File>?.zipCompressFilesTo(destinationFile: File, zipEntryNameTransform: Transformer<File, String>): File = Zipx.compressFilesTo(this, destinationFile, zipEntryNameTransform)
 
+/**
+ * Compress the specified files in parallel
+ *
+ * @receiver           The file to be compressed
+ * @param destinationFile       Output file
+ * @param zipEntryNameTransform Get the name of the file compressed into the zip package
+ * @param listener              Progress listener
+ * @param executor              Executor used to deflate entries, it is not shut down by this method
+ * @return Output file
+ * @throws IOException IO exceptions
+ */
+@Throws(IOException::class)
+inline fun Array<File>?.zipCompressFilesTo(destinationFile: File, zipEntryNameTransform: Transformer<File, String>, listener: ZipListener?, executor: ExecutorService): File = Zipx.compressFilesTo(this, destinationFile, zipEntryNameTransform, listener, executor)
+
 
 /**
  * Compress the specified file or directory
@@ -107,6 +185,19 @@ inline fun File.zipCompressFileTo(destinationFile: File, listener: ZipListener?)
 @Throws(IOException::class)
 inline fun File.zipCompressFileTo(destinationFile: File): File = Zipx.compressFileTo(this, destinationFile)
 
+/**
+ * Compress the specified file or directory in parallel
+ *
+ * @receiver      The file to be compressed
+ * @param destinationFile Output file
+ * @param listener        Progress listener
+ * @param executor        Executor used to deflate entries, it is not shut down by this method
+ * @return Output file
+ * @throws IOException IO exceptions
+ */
+@Throws(IOException::class)
+inline fun File.zipCompressFileTo(destinationFile: File, listener: ZipListener?, executor: ExecutorService): File = Zipx.compressFileTo(this, destinationFile, listener, executor)
+
 /**
  * Compress the specified file or directory
  *
@@ -152,6 +243,19 @@ inline fun File.zipCompressChildFileTo(destinationFile: File, listener: ZipListe
 @Throws(IOException::class)
 inline fun File.zipCompressChildFileTo(destinationFile: File): File = Zipx.compressChildFileTo(this, destinationFile)
 
+/**
+ * Compress the specified file or directory (exclude source directory) in parallel
+ *
+ * @receiver      The file to be compressed
+ * @param destinationFile Output file
+ * @param listener        Progress listener
+ * @param executor        Executor used to deflate entries, it is not shut down by this method
+ * @return Output file
+ * @throws IOException IO exceptions
+ */
+@Throws(IOException::class)
+inline fun File.zipCompressChildFileTo(destinationFile: File, listener: ZipListener?, executor: ExecutorService): File = Zipx.compressChildFileTo(this, destinationFile, listener, executor)
+
 /**
  * Compress the specified file or directory (exclude source directory)
  *
@@ -196,6 +300,19 @@ inline fun File.zipDecompressTo(destinationDir: File, listener: ZipListener?): F
 @Throws(IOException::class)
 inline fun File.zipDecompressTo(destinationDir: File): File = Zipx.decompressTo(this, destinationDir)
 
+/**
+ * Decompress the ZIP file to the specified folder in parallel
+ *
+ * @receiver  ZIP file
+ * @param destinationDir Out dir
+ * @param listener       Progress listener
+ * @param executor       Executor used to extract entries, it is not shut down by this method
+ * @return Out dir
+ * @throws IOException IO exceptions. include ZipException
+ */
+@Throws(IOException::class)
+inline fun File.zipDecompressTo(destinationDir: File, listener: ZipListener?, executor: ExecutorService): File = Zipx.decompressTo(this, destinationDir, listener, executor)
+
 /**
  * Decompress the ZIP file to its directory, and the output folder name is the name of the ZIP file (without the suffix)
  *
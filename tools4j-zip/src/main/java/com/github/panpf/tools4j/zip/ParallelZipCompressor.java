@@ -0,0 +1,360 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.zip;
+
+import com.github.panpf.tools4j.common.Transformer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+
+/**
+ * Deflate the entries of a ZIP file on an {@link ExecutorService} and write them to the ZIP file in order.
+ * <p>
+ * Each file is deflated into a raw DEFLATE stream by a worker, small results are kept in memory and large ones are spilled into a temporary file.
+ * The calling thread writes the finished entries into the ZIP container in the same order as {@link Zipx#compressFilesTo(File[], File, Transformer, ZipListener)},
+ * at most {@link #maxPendingEntries} entries are deflated ahead of the one being written, so memory usage stays bounded.
+ * <p>
+ * {@link ZipListener} is only called on the calling thread except {@link ZipListener#isCanceled()}, which is also polled by the workers.
+ */
+class ParallelZipCompressor {
+
+    private static final int DEFAULT_BUFFER_SIZE = 1024 * 8;
+    private static final int SPILL_THRESHOLD = 1024 * 1024 * 4;
+
+    @NotNull
+    private final ExecutorService executor;
+    @NotNull
+    private final Transformer<File, String> zipEntryNameTransform;
+    @Nullable
+    private final ZipListener listener;
+    private final int maxPendingEntries;
+    private volatile boolean aborted;
+
+    ParallelZipCompressor(@NotNull ExecutorService executor, @NotNull Transformer<File, String> zipEntryNameTransform, @Nullable ZipListener listener) {
+        this.executor = executor;
+        this.zipEntryNameTransform = zipEntryNameTransform;
+        this.listener = listener;
+        this.maxPendingEntries = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    void compress(@Nullable File[] sourceFiles, @NotNull File destinationFile) throws IOException {
+        List<File> files = collectFiles(sourceFiles);
+
+        long totalLength = 0;
+        if (listener != null) {
+            for (File file : files) {
+                totalLength += file.length();
+            }
+        }
+        long totalCompletedLength = 0;
+        long time = System.currentTimeMillis();
+
+        LinkedList<Future<DeflatedEntry>> pending = new LinkedList<Future<DeflatedEntry>>();
+        Iterator<File> fileIterator = files.iterator();
+        ZipArchiveWriter writer = null;
+        try {
+            writer = new ZipArchiveWriter(new BufferedOutputStream(new FileOutputStream(destinationFile, false)));
+            byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
+            while (!isCanceled()) {
+                while (pending.size() < maxPendingEntries && fileIterator.hasNext()) {
+                    pending.add(executor.submit(new DeflateTask(fileIterator.next())));
+                }
+                Future<DeflatedEntry> future = pending.poll();
+                if (future == null) break;
+
+                DeflatedEntry deflatedEntry = await(future);
+                if (deflatedEntry == null) break;
+                try {
+                    ZipEntry zipEntry = deflatedEntry.zipEntry;
+                    if (listener != null && !listener.isCanceled()) listener.onEntryStart(zipEntry);
+                    writer.putDeflatedEntry(zipEntry.getName(), time, zipEntry.getCrc(), zipEntry.getSize(), zipEntry.getCompressedSize());
+                    deflatedEntry.writeTo(writer, buffer);
+                    if (listener != null && !listener.isCanceled()) {
+                        totalCompletedLength += zipEntry.getSize();
+                        listener.onUpdateProgress(totalLength, totalCompletedLength, zipEntry, zipEntry.getSize(), zipEntry.getSize());
+                        listener.onEntryEnd(zipEntry);
+                    }
+                } finally {
+                    deflatedEntry.release();
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException ignored) {
+                }
+                writer = null;
+            }
+            //noinspection ResultOfMethodCallIgnored
+            destinationFile.delete();
+            throw e;
+        } finally {
+            aborted = true;
+            for (Future<DeflatedEntry> future : pending) {
+                discard(future);
+            }
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
+
+    /**
+     * Collect the files to be compressed in the same order as the serial implementation, directories are expanded and not written as entries
+     */
+    @NotNull
+    private List<File> collectFiles(@Nullable File[] sourceFiles) {
+        List<File> result = new ArrayList<File>();
+        Stack<File> files = new Stack<File>();
+        if (sourceFiles != null) {
+            Collections.addAll(files, sourceFiles);
+        }
+        while (!files.isEmpty() && !isCanceled()) {
+            File childFile = files.pop();
+            if (!childFile.exists()) {
+                continue;
+            }
+            if (childFile.isDirectory()) {
+                File[] fileList = childFile.listFiles();
+                if (fileList != null) {
+                    Collections.addAll(files, fileList);
+                }
+            } else {
+                result.add(childFile);
+            }
+        }
+        return result;
+    }
+
+    private boolean isCanceled() {
+        return aborted || (listener != null && listener.isCanceled());
+    }
+
+    @Nullable
+    private static DeflatedEntry await(@NotNull Future<DeflatedEntry> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException exception = new InterruptedIOException("Interrupted while waiting for entry to be deflated");
+            exception.initCause(e);
+            throw exception;
+        } catch (CancellationException e) {
+            return null;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new IOException(cause != null ? cause.toString() : e.toString());
+            }
+        }
+    }
+
+    /**
+     * Wait for an entry that will not be written, so that its temporary file can be deleted. The worker gives up quickly because {@link #aborted} has been set
+     */
+    private static void discard(@NotNull Future<DeflatedEntry> future) {
+        try {
+            DeflatedEntry deflatedEntry = future.get();
+            if (deflatedEntry != null) deflatedEntry.release();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ignored) {
+        } catch (CancellationException ignored) {
+        }
+    }
+
+    private class DeflateTask implements Callable<DeflatedEntry> {
+        @NotNull
+        private final File file;
+
+        private DeflateTask(@NotNull File file) {
+            this.file = file;
+        }
+
+        @Nullable
+        @Override
+        public DeflatedEntry call() throws IOException {
+            if (isCanceled()) return null;
+            ZipEntry zipEntry = new ZipEntry(zipEntryNameTransform.transform(file));
+            SpillOutputStream outputStream = new SpillOutputStream();
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            CRC32 crc32 = new CRC32();
+            InputStream inputStream = null;
+            boolean success = false;
+            try {
+                inputStream = new FileInputStream(file);
+                byte[] readBuffer = new byte[DEFAULT_BUFFER_SIZE];
+                byte[] deflateBuffer = new byte[DEFAULT_BUFFER_SIZE];
+                long size = 0;
+                int readLength;
+                while ((readLength = inputStream.read(readBuffer)) >= 0) {
+                    if (isCanceled()) return null;
+                    if (readLength == 0) continue;
+                    crc32.update(readBuffer, 0, readLength);
+                    size += readLength;
+                    deflater.setInput(readBuffer, 0, readLength);
+                    while (!deflater.needsInput()) {
+                        int deflateLength = deflater.deflate(deflateBuffer);
+                        if (deflateLength > 0) outputStream.write(deflateBuffer, 0, deflateLength);
+                    }
+                }
+                deflater.finish();
+                while (!deflater.finished()) {
+                    int deflateLength = deflater.deflate(deflateBuffer);
+                    if (deflateLength > 0) outputStream.write(deflateBuffer, 0, deflateLength);
+                }
+                outputStream.close();
+
+                zipEntry.setSize(size);
+                zipEntry.setCompressedSize(outputStream.getCount());
+                zipEntry.setCrc(crc32.getValue());
+                success = true;
+                return new DeflatedEntry(zipEntry, outputStream);
+            } finally {
+                deflater.end();
+                if (inputStream != null) {
+                    inputStream.close();
+                }
+                if (!success) {
+                    outputStream.release();
+                }
+            }
+        }
+    }
+
+    private static class DeflatedEntry {
+        @NotNull
+        private final ZipEntry zipEntry;
+        @NotNull
+        private final SpillOutputStream data;
+
+        private DeflatedEntry(@NotNull ZipEntry zipEntry, @NotNull SpillOutputStream data) {
+            this.zipEntry = zipEntry;
+            this.data = data;
+        }
+
+        private void writeTo(@NotNull ZipArchiveWriter writer, @NotNull byte[] buffer) throws IOException {
+            data.writeTo(writer, buffer);
+        }
+
+        private void release() {
+            data.release();
+        }
+    }
+
+    /**
+     * Keep the deflated data in memory, and switch to a temporary file after it exceeds {@link #SPILL_THRESHOLD}
+     */
+    private static class SpillOutputStream extends OutputStream {
+        @Nullable
+        private ByteArrayOutputStream memory = new ByteArrayOutputStream(DEFAULT_BUFFER_SIZE);
+        @Nullable
+        private File spillFile;
+        @Nullable
+        private OutputStream spillOutputStream;
+        private long count;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(@NotNull byte[] bytes, int offset, int length) throws IOException {
+            if (spillOutputStream == null && memory != null && memory.size() + length > SPILL_THRESHOLD) {
+                spillFile = File.createTempFile("zipx", ".deflate");
+                spillOutputStream = new BufferedOutputStream(new FileOutputStream(spillFile), DEFAULT_BUFFER_SIZE);
+                memory.writeTo(spillOutputStream);
+                memory = null;
+            }
+            if (spillOutputStream != null) {
+                spillOutputStream.write(bytes, offset, length);
+            } else if (memory != null) {
+                memory.write(bytes, offset, length);
+            }
+            count += length;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (spillOutputStream != null) {
+                spillOutputStream.close();
+            }
+        }
+
+        private long getCount() {
+            return count;
+        }
+
+        private void writeTo(@NotNull final ZipArchiveWriter writer, @NotNull byte[] buffer) throws IOException {
+            if (memory != null) {
+                // toByteArray() would copy the whole entry once more
+                memory.writeTo(new OutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        writer.writeData(new byte[]{(byte) b}, 0, 1);
+                    }
+
+                    @Override
+                    public void write(@NotNull byte[] bytes, int offset, int length) throws IOException {
+                        writer.writeData(bytes, offset, length);
+                    }
+                });
+            } else if (spillFile != null) {
+                InputStream inputStream = new FileInputStream(spillFile);
+                try {
+                    int readLength;
+                    while ((readLength = inputStream.read(buffer)) >= 0) {
+                        writer.writeData(buffer, 0, readLength);
+                    }
+                } finally {
+                    inputStream.close();
+                }
+            }
+        }
+
+        private void release() {
+            memory = null;
+            if (spillOutputStream != null) {
+                try {
+                    spillOutputStream.close();
+                } catch (IOException ignored) {
+                }
+                spillOutputStream = null;
+            }
+            if (spillFile != null) {
+                //noinspection ResultOfMethodCallIgnored
+                spillFile.delete();
+                spillFile = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.zip;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.concurrent.*;
+import java.util.zip.ZipEntry;
+
+/**
+ * Extract the entries of a ZIP file on an {@link ExecutorService} with {@link ZipArchiveReader}.
+ * <p>
+ * {@link ZipListener} is called on the calling thread in the order of the central directory after each entry has been extracted,
+ * {@link ZipListener#isCanceled()} is also polled by the workers.
+ */
+class ParallelZipDecompressor {
+
+    @NotNull
+    private final ExecutorService executor;
+    @Nullable
+    private final ZipListener listener;
+    private final int maxPendingEntries;
+    private volatile boolean aborted;
+
+    ParallelZipDecompressor(@NotNull ExecutorService executor, @Nullable ZipListener listener) {
+        this.executor = executor;
+        this.listener = listener;
+        this.maxPendingEntries = Math.max(2, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    void decompress(@NotNull ZipArchiveReader reader, @NotNull File destinationDir) throws IOException {
+        long totalLength = listener != null ? reader.getTrueSize() : 0;
+        long totalCompletedLength = 0;
+
+        LinkedList<Future<ZipEntry>> pending = new LinkedList<Future<ZipEntry>>();
+        Iterator<ZipEntry> entryIterator = reader.entries().iterator();
+        try {
+            while (!isCanceled()) {
+                while (pending.size() < maxPendingEntries && entryIterator.hasNext()) {
+                    pending.add(executor.submit(new ExtractTask(reader, entryIterator.next(), destinationDir)));
+                }
+                Future<ZipEntry> future = pending.poll();
+                if (future == null) break;
+
+                ZipEntry zipEntry = await(future);
+                if (zipEntry == null) break;
+                if (!zipEntry.isDirectory() && listener != null && !listener.isCanceled()) {
+                    totalCompletedLength += zipEntry.getSize();
+                    listener.onEntryStart(zipEntry);
+                    listener.onUpdateProgress(totalLength, totalCompletedLength, zipEntry, zipEntry.getSize(), zipEntry.getSize());
+                    listener.onEntryEnd(zipEntry);
+                }
+            }
+        } finally {
+            aborted = true;
+            for (Future<ZipEntry> future : pending) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ignored) {
+                } catch (CancellationException ignored) {
+                }
+            }
+        }
+    }
+
+    private boolean isCanceled() {
+        return aborted || (listener != null && listener.isCanceled());
+    }
+
+    @Nullable
+    private static ZipEntry await(@NotNull Future<ZipEntry> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException exception = new InterruptedIOException("Interrupted while waiting for entry to be extracted");
+            exception.initCause(e);
+            throw exception;
+        } catch (CancellationException e) {
+            return null;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new IOException(cause != null ? cause.toString() : e.toString());
+            }
+        }
+    }
+
+    private static void mkdirsOrThrow(@NotNull File dir) throws IOException {
+        if (!dir.exists()) {
+            //noinspection ResultOfMethodCallIgnored
+            dir.mkdirs();
+            // Another worker may be creating the same directory at the same time, so only the result is checked
+            if (!dir.isDirectory()) {
+                throw new IOException("Can't create directory: " + dir.getPath());
+            }
+        }
+    }
+
+    private class ExtractTask implements Callable<ZipEntry> {
+        @NotNull
+        private final ZipArchiveReader reader;
+        @NotNull
+        private final ZipEntry zipEntry;
+        @NotNull
+        private final File destinationDir;
+
+        private ExtractTask(@NotNull ZipArchiveReader reader, @NotNull ZipEntry zipEntry, @NotNull File destinationDir) {
+            this.reader = reader;
+            this.zipEntry = zipEntry;
+            this.destinationDir = destinationDir;
+        }
+
+        @Nullable
+        @Override
+        public ZipEntry call() throws IOException {
+            if (isCanceled()) return null;
+            File file = new File(destinationDir, zipEntry.getName());
+            if (zipEntry.isDirectory()) {
+                mkdirsOrThrow(file);
+            } else {
+                File parentDir = file.getParentFile();
+                if (parentDir != null) {
+                    mkdirsOrThrow(parentDir);
+                }
+                try {
+                    reader.extractTo(zipEntry, file);
+                } catch (IOException e) {
+                    if (!file.exists()) {
+                        throw new IOException("Can't create file: " + file.getPath(), e);
+                    }
+                    throw e;
+                }
+            }
+            return zipEntry;
+        }
+    }
+}
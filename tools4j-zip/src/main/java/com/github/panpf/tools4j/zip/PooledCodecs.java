@@ -0,0 +1,609 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.zip;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.*;
+
+/**
+ * The implementation of the byte array, {@link ByteBuffer} and stream codec methods of {@link Zipx}.
+ * <p>
+ * Each thread keeps one {@link Deflater} and one {@link Inflater} of each mode and a scratch buffer, they are reset and reused by every call on that thread,
+ * so small payloads don't pay for creating and ending native zlib streams. A nested call on the same thread gets new instances instead of the cached ones.
+ */
+class PooledCodecs {
+
+    private static final int BUFFER_SIZE = 1024 * 8;
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int GZIP_HEADER_LENGTH = 10;
+    private static final int GZIP_TRAILER_LENGTH = 8;
+    private static final byte[] GZIP_HEADER = new byte[]{(byte) GZIP_MAGIC, (byte) (GZIP_MAGIC >> 8), Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private static final ThreadLocal<Cache> CACHE = new ThreadLocal<Cache>() {
+        @Override
+        protected Cache initialValue() {
+            return new Cache();
+        }
+    };
+
+    private PooledCodecs() {
+    }
+
+
+    @NotNull
+    static byte[] compress(@NotNull byte[] source, int offset, int length) {
+        checkBounds(source.length, offset, length);
+        Cache cache = CACHE.get();
+        Deflater deflater = cache.obtainDeflater(false);
+        try {
+            deflater.setInput(source, offset, length);
+            deflater.finish();
+            return deflateFully(deflater, new byte[initialCapacity(length)], 0, 0);
+        } finally {
+            cache.recycle(deflater, false);
+        }
+    }
+
+    static int compress(@NotNull byte[] source, int offset, int length, @NotNull byte[] destination, int destinationOffset) {
+        checkBounds(source.length, offset, length);
+        checkBounds(destination.length, destinationOffset, destination.length - destinationOffset);
+        Cache cache = CACHE.get();
+        Deflater deflater = cache.obtainDeflater(false);
+        try {
+            deflater.setInput(source, offset, length);
+            deflater.finish();
+            int position = destinationOffset;
+            while (!deflater.finished()) {
+                if (position == destination.length) throw new BufferOverflowException();
+                position += deflater.deflate(destination, position, destination.length - position);
+            }
+            return position - destinationOffset;
+        } finally {
+            cache.recycle(deflater, false);
+        }
+    }
+
+    static int compress(@NotNull ByteBuffer source, @NotNull ByteBuffer destination) {
+        int sourcePosition = source.position();
+        int destinationPosition = destination.position();
+        Cache cache = CACHE.get();
+        Deflater deflater = cache.obtainDeflater(false);
+        byte[] buffer = cache.obtainBuffer();
+        // The deflater keeps reading its input from the scratch buffer, so a direct destination needs its own one
+        byte[] outBuffer = destination.hasArray() ? null : new byte[BUFFER_SIZE];
+        boolean success = false;
+        try {
+            if (!source.hasRemaining()) deflater.finish();
+            while (!deflater.finished()) {
+                if (deflater.needsInput() && source.hasRemaining()) {
+                    setInput(deflater, source, buffer);
+                    // Finish as early as possible, so that heap buffers get exactly the same result as byte arrays
+                    if (!source.hasRemaining()) deflater.finish();
+                } else {
+                    deflate(deflater, destination, outBuffer);
+                }
+            }
+            success = true;
+            return destination.position() - destinationPosition;
+        } finally {
+            if (!success) {
+                source.position(sourcePosition);
+                destination.position(destinationPosition);
+            }
+            cache.recycle(buffer);
+            cache.recycle(deflater, false);
+        }
+    }
+
+    static long compress(@NotNull InputStream inputStream, @NotNull OutputStream outputStream) throws IOException {
+        Cache cache = CACHE.get();
+        Deflater deflater = cache.obtainDeflater(false);
+        byte[] buffer = cache.obtainBuffer();
+        try {
+            byte[] outBuffer = new byte[BUFFER_SIZE];
+            int readLength;
+            while ((readLength = inputStream.read(buffer)) >= 0) {
+                if (readLength == 0) continue;
+                deflater.setInput(buffer, 0, readLength);
+                while (!deflater.needsInput()) {
+                    int deflateLength = deflater.deflate(outBuffer);
+                    if (deflateLength > 0) outputStream.write(outBuffer, 0, deflateLength);
+                }
+            }
+            deflater.finish();
+            while (!deflater.finished()) {
+                int deflateLength = deflater.deflate(outBuffer);
+                if (deflateLength > 0) outputStream.write(outBuffer, 0, deflateLength);
+            }
+            return deflater.getBytesWritten();
+        } finally {
+            cache.recycle(buffer);
+            cache.recycle(deflater, false);
+        }
+    }
+
+
+    @NotNull
+    static byte[] decompress(@NotNull byte[] compressed, int offset, int length) throws DataFormatException {
+        checkBounds(compressed.length, offset, length);
+        Cache cache = CACHE.get();
+        Inflater inflater = cache.obtainInflater(false);
+        try {
+            inflater.setInput(compressed, offset, length);
+            byte[] result = new byte[initialCapacity(length * 3L)];
+            int resultLength = 0;
+            while (!inflater.finished()) {
+                if (resultLength == result.length) {
+                    result = grow(result);
+                }
+                int inflateLength = inflater.inflate(result, resultLength, result.length - resultLength);
+                if (inflateLength == 0 && !inflater.finished()) checkInflaterStalled(inflater);
+                resultLength += inflateLength;
+            }
+            return resultLength == result.length ? result : Arrays.copyOf(result, resultLength);
+        } finally {
+            cache.recycle(inflater, false);
+        }
+    }
+
+    static int decompress(@NotNull byte[] compressed, int offset, int length, @NotNull byte[] destination, int destinationOffset) throws DataFormatException {
+        checkBounds(compressed.length, offset, length);
+        checkBounds(destination.length, destinationOffset, destination.length - destinationOffset);
+        Cache cache = CACHE.get();
+        Inflater inflater = cache.obtainInflater(false);
+        try {
+            inflater.setInput(compressed, offset, length);
+            int position = destinationOffset;
+            while (!inflater.finished()) {
+                if (position == destination.length) {
+                    checkNoMoreOutput(inflater);
+                    if (!inflater.finished()) checkInflaterStalled(inflater);
+                    break;
+                }
+                int inflateLength = inflater.inflate(destination, position, destination.length - position);
+                if (inflateLength == 0 && !inflater.finished()) checkInflaterStalled(inflater);
+                position += inflateLength;
+            }
+            return position - destinationOffset;
+        } finally {
+            cache.recycle(inflater, false);
+        }
+    }
+
+    static int decompress(@NotNull ByteBuffer compressed, @NotNull ByteBuffer destination) throws DataFormatException {
+        int sourcePosition = compressed.position();
+        int destinationPosition = destination.position();
+        Cache cache = CACHE.get();
+        Inflater inflater = cache.obtainInflater(false);
+        byte[] buffer = cache.obtainBuffer();
+        // The inflater keeps reading its input from the scratch buffer, so a direct destination needs its own one
+        byte[] outBuffer = destination.hasArray() ? null : new byte[BUFFER_SIZE];
+        boolean success = false;
+        try {
+            while (!inflater.finished()) {
+                if (inflater.needsInput()) {
+                    if (!compressed.hasRemaining()) throw new DataFormatException("Unexpected end of ZLIB input");
+                    setInput(inflater, compressed, buffer);
+                }
+                if (!destination.hasRemaining()) {
+                    checkNoMoreOutput(inflater);
+                    if (inflater.finished()) break;
+                    if (inflater.needsDictionary()) checkInflaterStalled(inflater);
+                    continue;
+                }
+                int inflateLength = inflate(inflater, destination, outBuffer);
+                if (inflateLength == 0 && !inflater.finished() && !inflater.needsInput()) checkInflaterStalled(inflater);
+            }
+            // Give back the input after the end of the compressed data
+            compressed.position(compressed.position() - inflater.getRemaining());
+            success = true;
+            return destination.position() - destinationPosition;
+        } finally {
+            if (!success) {
+                compressed.position(sourcePosition);
+                destination.position(destinationPosition);
+            }
+            cache.recycle(buffer);
+            cache.recycle(inflater, false);
+        }
+    }
+
+    static long decompress(@NotNull InputStream inputStream, @NotNull OutputStream outputStream) throws IOException {
+        Cache cache = CACHE.get();
+        Inflater inflater = cache.obtainInflater(false);
+        byte[] buffer = cache.obtainBuffer();
+        try {
+            byte[] outBuffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                if (inflater.needsInput()) {
+                    int readLength = inputStream.read(buffer);
+                    if (readLength < 0) throw new EOFException("Unexpected end of ZLIB input stream");
+                    inflater.setInput(buffer, 0, readLength);
+                }
+                int inflateLength;
+                try {
+                    inflateLength = inflater.inflate(outBuffer);
+                    if (inflateLength == 0 && !inflater.finished() && !inflater.needsInput()) checkInflaterStalled(inflater);
+                } catch (DataFormatException e) {
+                    String message = e.getMessage();
+                    throw new ZipException(message != null ? message : "Invalid ZLIB data format");
+                }
+                if (inflateLength > 0) outputStream.write(outBuffer, 0, inflateLength);
+            }
+            return inflater.getBytesWritten();
+        } finally {
+            cache.recycle(buffer);
+            cache.recycle(inflater, false);
+        }
+    }
+
+
+    @NotNull
+    static byte[] gzipCompress(@NotNull byte[] source, int offset, int length) {
+        checkBounds(source.length, offset, length);
+        Cache cache = CACHE.get();
+        Deflater deflater = cache.obtainDeflater(true);
+        try {
+            CRC32 crc32 = new CRC32();
+            crc32.update(source, offset, length);
+            deflater.setInput(source, offset, length);
+            deflater.finish();
+            byte[] result = new byte[initialCapacity(length) + GZIP_HEADER_LENGTH + GZIP_TRAILER_LENGTH];
+            System.arraycopy(GZIP_HEADER, 0, result, 0, GZIP_HEADER_LENGTH);
+            result = deflateFully(deflater, result, GZIP_HEADER_LENGTH, GZIP_TRAILER_LENGTH);
+            writeIntLE(result, result.length - GZIP_TRAILER_LENGTH, crc32.getValue());
+            writeIntLE(result, result.length - GZIP_TRAILER_LENGTH + 4, length);
+            return result;
+        } finally {
+            cache.recycle(deflater, true);
+        }
+    }
+
+    static long gzipCompress(@NotNull InputStream inputStream, @NotNull OutputStream outputStream) throws IOException {
+        Cache cache = CACHE.get();
+        Deflater deflater = cache.obtainDeflater(true);
+        byte[] buffer = cache.obtainBuffer();
+        try {
+            CRC32 crc32 = new CRC32();
+            byte[] outBuffer = new byte[BUFFER_SIZE];
+            outputStream.write(GZIP_HEADER);
+            long size = 0;
+            int readLength;
+            while ((readLength = inputStream.read(buffer)) >= 0) {
+                if (readLength == 0) continue;
+                crc32.update(buffer, 0, readLength);
+                size += readLength;
+                deflater.setInput(buffer, 0, readLength);
+                while (!deflater.needsInput()) {
+                    int deflateLength = deflater.deflate(outBuffer);
+                    if (deflateLength > 0) outputStream.write(outBuffer, 0, deflateLength);
+                }
+            }
+            deflater.finish();
+            while (!deflater.finished()) {
+                int deflateLength = deflater.deflate(outBuffer);
+                if (deflateLength > 0) outputStream.write(outBuffer, 0, deflateLength);
+            }
+            writeIntLE(outBuffer, 0, crc32.getValue());
+            writeIntLE(outBuffer, 4, size);
+            outputStream.write(outBuffer, 0, GZIP_TRAILER_LENGTH);
+            return GZIP_HEADER_LENGTH + deflater.getBytesWritten() + GZIP_TRAILER_LENGTH;
+        } finally {
+            cache.recycle(buffer);
+            cache.recycle(deflater, true);
+        }
+    }
+
+    /**
+     * Decompress all members of the GZIP data, data after the last member is ignored as {@link GZIPInputStream} does
+     */
+    @NotNull
+    static byte[] gzipDecompress(@NotNull byte[] compressed, int offset, int length) throws DataFormatException {
+        checkBounds(compressed.length, offset, length);
+        Cache cache = CACHE.get();
+        Inflater inflater = cache.obtainInflater(true);
+        try {
+            int end = offset + length;
+            int position = offset;
+            byte[] result = new byte[initialCapacity(length * 3L)];
+            int resultLength = 0;
+            CRC32 crc32 = new CRC32();
+            do {
+                position = skipGzipHeader(compressed, position, end);
+                inflater.reset();
+                crc32.reset();
+                inflater.setInput(compressed, position, end - position);
+                int memberStart = resultLength;
+                while (!inflater.finished()) {
+                    if (resultLength == result.length) {
+                        result = grow(result);
+                    }
+                    int inflateLength = inflater.inflate(result, resultLength, result.length - resultLength);
+                    if (inflateLength == 0 && !inflater.finished()) checkInflaterStalled(inflater);
+                    resultLength += inflateLength;
+                }
+                crc32.update(result, memberStart, resultLength - memberStart);
+                position = end - inflater.getRemaining();
+                if (end - position < GZIP_TRAILER_LENGTH) {
+                    throw new DataFormatException("Unexpected end of GZIP input");
+                }
+                if (readIntLE(compressed, position) != crc32.getValue()
+                        || readIntLE(compressed, position + 4) != ((resultLength - memberStart) & 0xFFFFFFFFL)) {
+                    throw new DataFormatException("Corrupt GZIP trailer");
+                }
+                position += GZIP_TRAILER_LENGTH;
+            } while (end - position >= GZIP_HEADER_LENGTH && readShortLE(compressed, position) == GZIP_MAGIC);
+            return resultLength == result.length ? result : Arrays.copyOf(result, resultLength);
+        } finally {
+            cache.recycle(inflater, true);
+        }
+    }
+
+    static long gzipDecompress(@NotNull InputStream inputStream, @NotNull OutputStream outputStream) throws IOException {
+        Cache cache = CACHE.get();
+        byte[] buffer = cache.obtainBuffer();
+        try {
+            // GZIPInputStream parses the header and trailer from the stream, its Inflater can't be supplied on Java 6.
+            // It is closed to end its Inflater, but the input stream of the caller stays open
+            GZIPInputStream gzipInputStream = new GZIPInputStream(new FilterInputStream(inputStream) {
+                @Override
+                public void close() {
+                }
+            }, BUFFER_SIZE);
+            try {
+                long size = 0;
+                int readLength;
+                while ((readLength = gzipInputStream.read(buffer)) >= 0) {
+                    outputStream.write(buffer, 0, readLength);
+                    size += readLength;
+                }
+                return size;
+            } finally {
+                gzipInputStream.close();
+            }
+        } finally {
+            cache.recycle(buffer);
+        }
+    }
+
+
+    private static int skipGzipHeader(@NotNull byte[] bytes, int position, int end) throws DataFormatException {
+        if (end - position < GZIP_HEADER_LENGTH || readShortLE(bytes, position) != GZIP_MAGIC) {
+            throw new DataFormatException("Not in GZIP format");
+        }
+        if ((bytes[position + 2] & 0xFF) != Deflater.DEFLATED) {
+            throw new DataFormatException("Unsupported compression method");
+        }
+        int flags = bytes[position + 3] & 0xFF;
+        position += GZIP_HEADER_LENGTH;
+        if ((flags & FEXTRA) != 0) {
+            if (end - position < 2) throw new DataFormatException("Unexpected end of GZIP input");
+            position += 2 + readShortLE(bytes, position);
+        }
+        if ((flags & FNAME) != 0) {
+            position = skipZeroTerminated(bytes, position, end);
+        }
+        if ((flags & FCOMMENT) != 0) {
+            position = skipZeroTerminated(bytes, position, end);
+        }
+        if ((flags & FHCRC) != 0) {
+            position += 2;
+        }
+        if (position > end) throw new DataFormatException("Unexpected end of GZIP input");
+        return position;
+    }
+
+    private static int skipZeroTerminated(@NotNull byte[] bytes, int position, int end) throws DataFormatException {
+        while (position < end) {
+            if (bytes[position++] == 0) return position;
+        }
+        throw new DataFormatException("Unexpected end of GZIP input");
+    }
+
+    /**
+     * Deflate all the remaining output into result starting at position, the returned array is exactly long enough for the output and reserve more bytes
+     */
+    @NotNull
+    private static byte[] deflateFully(@NotNull Deflater deflater, @NotNull byte[] result, int position, int reserve) {
+        while (!deflater.finished()) {
+            if (position == result.length) {
+                result = grow(result);
+            }
+            position += deflater.deflate(result, position, result.length - position);
+        }
+        return position + reserve == result.length ? result : Arrays.copyOf(result, position + reserve);
+    }
+
+    /**
+     * Throw {@link BufferOverflowException} if the inflater still has output after the destination is full
+     */
+    private static void checkNoMoreOutput(@NotNull Inflater inflater) throws DataFormatException {
+        byte[] probe = new byte[1];
+        while (!inflater.finished()) {
+            if (inflater.inflate(probe) > 0) throw new BufferOverflowException();
+            if (inflater.needsInput() || inflater.needsDictionary()) break;
+        }
+    }
+
+    private static void checkInflaterStalled(@NotNull Inflater inflater) throws DataFormatException {
+        if (inflater.needsDictionary()) {
+            throw new DataFormatException("Preset dictionary is not supported");
+        } else if (inflater.needsInput()) {
+            throw new DataFormatException("Unexpected end of ZLIB input");
+        }
+    }
+
+    private static void setInput(@NotNull Deflater deflater, @NotNull ByteBuffer source, @NotNull byte[] buffer) {
+        if (source.hasArray()) {
+            deflater.setInput(source.array(), source.arrayOffset() + source.position(), source.remaining());
+            source.position(source.limit());
+        } else {
+            int length = Math.min(buffer.length, source.remaining());
+            source.get(buffer, 0, length);
+            deflater.setInput(buffer, 0, length);
+        }
+    }
+
+    /**
+     * Unlike the deflater, the inflater may not consume all the input, so heap buffers are fed in whole and the caller gives back {@link Inflater#getRemaining()}
+     */
+    private static void setInput(@NotNull Inflater inflater, @NotNull ByteBuffer source, @NotNull byte[] buffer) {
+        if (source.hasArray()) {
+            inflater.setInput(source.array(), source.arrayOffset() + source.position(), source.remaining());
+            source.position(source.limit());
+        } else {
+            int length = Math.min(buffer.length, source.remaining());
+            source.get(buffer, 0, length);
+            inflater.setInput(buffer, 0, length);
+        }
+    }
+
+    private static void deflate(@NotNull Deflater deflater, @NotNull ByteBuffer destination, @Nullable byte[] outBuffer) {
+        if (!destination.hasRemaining()) throw new BufferOverflowException();
+        if (outBuffer == null) {
+            int length = deflater.deflate(destination.array(), destination.arrayOffset() + destination.position(), destination.remaining());
+            destination.position(destination.position() + length);
+        } else {
+            int length = deflater.deflate(outBuffer, 0, Math.min(outBuffer.length, destination.remaining()));
+            destination.put(outBuffer, 0, length);
+        }
+    }
+
+    private static int inflate(@NotNull Inflater inflater, @NotNull ByteBuffer destination, @Nullable byte[] outBuffer) throws DataFormatException {
+        int length;
+        if (outBuffer == null) {
+            length = inflater.inflate(destination.array(), destination.arrayOffset() + destination.position(), destination.remaining());
+            destination.position(destination.position() + length);
+        } else {
+            length = inflater.inflate(outBuffer, 0, Math.min(outBuffer.length, destination.remaining()));
+            destination.put(outBuffer, 0, length);
+        }
+        return length;
+    }
+
+    @NotNull
+    private static byte[] grow(@NotNull byte[] bytes) {
+        int newLength = bytes.length * 2;
+        if (newLength < 0) {
+            if (bytes.length == Integer.MAX_VALUE) throw new OutOfMemoryError("Required array size too large");
+            newLength = Integer.MAX_VALUE;
+        }
+        return Arrays.copyOf(bytes, newLength);
+    }
+
+    private static int initialCapacity(long length) {
+        // Most payloads are compressible, half the input is enough, incompressible ones grow once
+        return (int) Math.min(Integer.MAX_VALUE - 8, Math.max(64L, length / 2 + 64));
+    }
+
+    private static void checkBounds(int arrayLength, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > arrayLength - length) {
+            throw new ArrayIndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", array length: " + arrayLength);
+        }
+    }
+
+    private static void writeIntLE(@NotNull byte[] bytes, int position, long value) {
+        bytes[position] = (byte) value;
+        bytes[position + 1] = (byte) (value >>> 8);
+        bytes[position + 2] = (byte) (value >>> 16);
+        bytes[position + 3] = (byte) (value >>> 24);
+    }
+
+    private static long readIntLE(@NotNull byte[] bytes, int position) {
+        return (bytes[position] & 0xFFL) | ((bytes[position + 1] & 0xFFL) << 8)
+                | ((bytes[position + 2] & 0xFFL) << 16) | ((bytes[position + 3] & 0xFFL) << 24);
+    }
+
+    private static int readShortLE(@NotNull byte[] bytes, int position) {
+        return (bytes[position] & 0xFF) | ((bytes[position + 1] & 0xFF) << 8);
+    }
+
+    /**
+     * Codecs cached by one thread, a codec is taken out while it is used, so a nested call on the same thread creates its own
+     */
+    private static class Cache {
+        private Deflater deflater;
+        private Deflater rawDeflater;
+        private Inflater inflater;
+        private Inflater rawInflater;
+        private byte[] buffer;
+
+        @NotNull
+        Deflater obtainDeflater(boolean nowrap) {
+            Deflater result = nowrap ? rawDeflater : deflater;
+            if (result == null) return new Deflater(Deflater.DEFAULT_COMPRESSION, nowrap);
+            if (nowrap) rawDeflater = null;
+            else deflater = null;
+            return result;
+        }
+
+        void recycle(@NotNull Deflater used, boolean nowrap) {
+            if (nowrap ? rawDeflater == null : deflater == null) {
+                used.reset();
+                if (nowrap) rawDeflater = used;
+                else deflater = used;
+            } else {
+                used.end();
+            }
+        }
+
+        @NotNull
+        Inflater obtainInflater(boolean nowrap) {
+            Inflater result = nowrap ? rawInflater : inflater;
+            if (result == null) return new Inflater(nowrap);
+            if (nowrap) rawInflater = null;
+            else inflater = null;
+            return result;
+        }
+
+        void recycle(@NotNull Inflater used, boolean nowrap) {
+            if (nowrap ? rawInflater == null : inflater == null) {
+                used.reset();
+                if (nowrap) rawInflater = used;
+                else inflater = used;
+            } else {
+                used.end();
+            }
+        }
+
+        @NotNull
+        byte[] obtainBuffer() {
+            byte[] result = buffer;
+            if (result == null) return new byte[BUFFER_SIZE];
+            buffer = null;
+            return result;
+        }
+
+        void recycle(@NotNull byte[] used) {
+            if (buffer == null) buffer = used;
+        }
+    }
+}
@@ -0,0 +1,470 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.zip;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+/**
+ * Random access ZIP reader based on {@link FileChannel}.
+ * <p>
+ * The central directory is memory-mapped and parsed once when it is opened, after that entries can be found by name in constant time.
+ * The data of all entries are read with positional reads, so different entries can be read or extracted by multiple threads at the same time.
+ * Stored entries are extracted with {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)} without passing through the heap.
+ */
+public class ZipArchiveReader implements Closeable {
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_EXTRA_ID = 0x0001;
+
+    private static final int LOCAL_HEADER_LENGTH = 30;
+    private static final int CENTRAL_HEADER_LENGTH = 46;
+    private static final int END_LENGTH = 22;
+    private static final int ZIP64_END_LENGTH = 56;
+    private static final int ZIP64_LOCATOR_LENGTH = 20;
+    private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+    private static final long LIMIT_32 = 0xFFFFFFFFL;
+
+    private static final int DEFAULT_BUFFER_SIZE = 1024 * 8;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @NotNull
+    private final File file;
+    @NotNull
+    private final RandomAccessFile randomAccessFile;
+    @NotNull
+    private final FileChannel channel;
+    @NotNull
+    private final Map<String, Entry> entryMap;
+
+    /**
+     * Open the specified ZIP file and parse its central directory
+     *
+     * @throws IOException IO exceptions. include ZipException
+     */
+    public ZipArchiveReader(@NotNull File file) throws IOException {
+        this.file = file;
+        this.randomAccessFile = new RandomAccessFile(file, "r");
+        this.channel = randomAccessFile.getChannel();
+        try {
+            this.entryMap = readCentralDirectory();
+        } catch (IOException e) {
+            randomAccessFile.close();
+            throw e;
+        } catch (RuntimeException e) {
+            randomAccessFile.close();
+            throw new ZipException("Invalid central directory: " + e);
+        }
+    }
+
+    @NotNull
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Get the number of entries
+     */
+    public int size() {
+        return entryMap.size();
+    }
+
+    /**
+     * Return true if an entry with the specified name exists
+     */
+    public boolean containsEntry(@NotNull String name) {
+        return entryMap.containsKey(name);
+    }
+
+    /**
+     * Get the entry with the specified name, return null if not found
+     */
+    @Nullable
+    public ZipEntry getEntry(@NotNull String name) {
+        Entry entry = entryMap.get(name);
+        return entry != null ? entry.toZipEntry() : null;
+    }
+
+    /**
+     * Get all entries, in the order of the central directory
+     */
+    @NotNull
+    public List<ZipEntry> entries() {
+        List<ZipEntry> zipEntries = new ArrayList<ZipEntry>(entryMap.size());
+        for (Entry entry : entryMap.values()) {
+            zipEntries.add(entry.toZipEntry());
+        }
+        return zipEntries;
+    }
+
+    /**
+     * Get the names of all entries, in the order of the central directory
+     */
+    @NotNull
+    public List<String> entryNames() {
+        return new ArrayList<String>(entryMap.keySet());
+    }
+
+    /**
+     * Get the original size of all entries
+     */
+    public long getTrueSize() {
+        long totalSize = 0;
+        for (Entry entry : entryMap.values()) {
+            totalSize += entry.size;
+        }
+        return totalSize;
+    }
+
+    /**
+     * Open an input stream of the uncompressed data of the specified entry
+     *
+     * @throws IOException IO exceptions. include ZipException
+     */
+    @NotNull
+    public InputStream getInputStream(@NotNull ZipEntry zipEntry) throws IOException {
+        Entry entry = requireEntry(zipEntry.getName());
+        long dataOffset = getDataOffset(entry);
+        if (entry.method == ZipEntry.STORED) {
+            return new ChannelInputStream(channel, dataOffset, entry.compressedSize, false);
+        } else if (entry.method == ZipEntry.DEFLATED) {
+            int bufferSize = (int) Math.max(64, Math.min(entry.compressedSize + 1, DEFAULT_BUFFER_SIZE));
+            return new EntryInflaterInputStream(new ChannelInputStream(channel, dataOffset, entry.compressedSize, true), bufferSize);
+        } else {
+            throw new ZipException("Unsupported compression method " + entry.method + ": " + entry.name);
+        }
+    }
+
+    /**
+     * Extract the specified entry to the specified file, stored entries are copied by {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}
+     *
+     * @return Output file
+     * @throws IOException IO exceptions. include ZipException
+     */
+    @NotNull
+    public File extractTo(@NotNull ZipEntry zipEntry, @NotNull File destinationFile) throws IOException {
+        Entry entry = requireEntry(zipEntry.getName());
+        if (entry.method == ZipEntry.STORED) {
+            long dataOffset = getDataOffset(entry);
+            FileOutputStream outputStream = new FileOutputStream(destinationFile, false);
+            try {
+                FileChannel outChannel = outputStream.getChannel();
+                long position = 0;
+                while (position < entry.compressedSize) {
+                    long transferred = channel.transferTo(dataOffset + position, entry.compressedSize - position, outChannel);
+                    if (transferred <= 0) {
+                        throw new EOFException("Unexpected end of ZIP file: " + entry.name);
+                    }
+                    position += transferred;
+                }
+            } finally {
+                outputStream.close();
+            }
+        } else {
+            InputStream inputStream = getInputStream(zipEntry);
+            try {
+                OutputStream outputStream = new FileOutputStream(destinationFile, false);
+                try {
+                    byte[] buffer = new byte[(int) Math.max(64, Math.min(entry.size, DEFAULT_BUFFER_SIZE))];
+                    int readLength;
+                    while ((readLength = inputStream.read(buffer)) >= 0) {
+                        outputStream.write(buffer, 0, readLength);
+                    }
+                } finally {
+                    outputStream.close();
+                }
+            } finally {
+                inputStream.close();
+            }
+        }
+        return destinationFile;
+    }
+
+    @Override
+    public void close() throws IOException {
+        randomAccessFile.close();
+    }
+
+    @NotNull
+    private Entry requireEntry(@NotNull String name) throws ZipException {
+        Entry entry = entryMap.get(name);
+        if (entry == null) {
+            throw new ZipException("Entry not found: " + name);
+        }
+        return entry;
+    }
+
+    private long getDataOffset(@NotNull Entry entry) throws IOException {
+        long dataOffset = entry.dataOffset;
+        if (dataOffset < 0) {
+            ByteBuffer header = read(entry.localHeaderOffset, LOCAL_HEADER_LENGTH);
+            if (header.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+                throw new ZipException("Invalid local file header: " + entry.name);
+            }
+            dataOffset = entry.localHeaderOffset + LOCAL_HEADER_LENGTH + getUnsignedShort(header, 26) + getUnsignedShort(header, 28);
+            entry.dataOffset = dataOffset;
+        }
+        return dataOffset;
+    }
+
+    @NotNull
+    private Map<String, Entry> readCentralDirectory() throws IOException {
+        long fileLength = channel.size();
+        if (fileLength < END_LENGTH) {
+            throw new ZipException("Not a ZIP file: " + file.getPath());
+        }
+
+        int tailLength = (int) Math.min(fileLength, END_LENGTH + MAX_COMMENT_LENGTH);
+        long tailOffset = fileLength - tailLength;
+        ByteBuffer tail = read(tailOffset, tailLength);
+        int endPosition = -1;
+        for (int i = tailLength - END_LENGTH; i >= 0; i--) {
+            if (tail.getInt(i) == END_SIGNATURE) {
+                endPosition = i;
+                break;
+            }
+        }
+        if (endPosition < 0) {
+            throw new ZipException("End of central directory not found: " + file.getPath());
+        }
+
+        long count = getUnsignedShort(tail, endPosition + 10);
+        long centralDirectorySize = getUnsignedInt(tail, endPosition + 12);
+        long centralDirectoryOffset = getUnsignedInt(tail, endPosition + 16);
+
+        long locatorOffset = tailOffset + endPosition - ZIP64_LOCATOR_LENGTH;
+        if (locatorOffset >= 0) {
+            ByteBuffer locator = read(locatorOffset, ZIP64_LOCATOR_LENGTH);
+            if (locator.getInt(0) == ZIP64_LOCATOR_SIGNATURE) {
+                ByteBuffer zip64End = read(locator.getLong(8), ZIP64_END_LENGTH);
+                if (zip64End.getInt(0) != ZIP64_END_SIGNATURE) {
+                    throw new ZipException("Invalid ZIP64 end of central directory: " + file.getPath());
+                }
+                count = zip64End.getLong(32);
+                centralDirectorySize = zip64End.getLong(40);
+                centralDirectoryOffset = zip64End.getLong(48);
+            }
+        }
+        if (count > Integer.MAX_VALUE || centralDirectorySize > Integer.MAX_VALUE || centralDirectoryOffset + centralDirectorySize > fileLength) {
+            throw new ZipException("Invalid central directory: " + file.getPath());
+        }
+
+        ByteBuffer centralDirectory = channel.map(FileChannel.MapMode.READ_ONLY, centralDirectoryOffset, centralDirectorySize);
+        centralDirectory.order(ByteOrder.LITTLE_ENDIAN);
+
+        Map<String, Entry> entryMap = new LinkedHashMap<String, Entry>((int) Math.min(count * 4 / 3 + 1, Integer.MAX_VALUE));
+        byte[] nameBuffer = new byte[256];
+        int position = 0;
+        for (long i = 0; i < count; i++) {
+            if (centralDirectory.getInt(position) != CENTRAL_HEADER_SIGNATURE) {
+                throw new ZipException("Invalid central directory header: " + file.getPath());
+            }
+            int method = getUnsignedShort(centralDirectory, position + 10);
+            long dosTime = getUnsignedInt(centralDirectory, position + 12);
+            long crc = getUnsignedInt(centralDirectory, position + 16);
+            long compressedSize = getUnsignedInt(centralDirectory, position + 20);
+            long size = getUnsignedInt(centralDirectory, position + 24);
+            int nameLength = getUnsignedShort(centralDirectory, position + 28);
+            int extraLength = getUnsignedShort(centralDirectory, position + 30);
+            int commentLength = getUnsignedShort(centralDirectory, position + 32);
+            long localHeaderOffset = getUnsignedInt(centralDirectory, position + 42);
+
+            if (nameBuffer.length < nameLength) {
+                nameBuffer = new byte[nameLength];
+            }
+            centralDirectory.position(position + CENTRAL_HEADER_LENGTH);
+            centralDirectory.get(nameBuffer, 0, nameLength);
+            String name = new String(nameBuffer, 0, nameLength, UTF_8);
+
+            if (size == LIMIT_32 || compressedSize == LIMIT_32 || localHeaderOffset == LIMIT_32) {
+                int extraPosition = position + CENTRAL_HEADER_LENGTH + nameLength;
+                int extraEnd = extraPosition + extraLength;
+                while (extraPosition + 4 <= extraEnd) {
+                    int headerId = getUnsignedShort(centralDirectory, extraPosition);
+                    int dataSize = getUnsignedShort(centralDirectory, extraPosition + 2);
+                    if (headerId == ZIP64_EXTRA_ID) {
+                        int fieldPosition = extraPosition + 4;
+                        if (size == LIMIT_32) {
+                            size = centralDirectory.getLong(fieldPosition);
+                            fieldPosition += 8;
+                        }
+                        if (compressedSize == LIMIT_32) {
+                            compressedSize = centralDirectory.getLong(fieldPosition);
+                            fieldPosition += 8;
+                        }
+                        if (localHeaderOffset == LIMIT_32) {
+                            localHeaderOffset = centralDirectory.getLong(fieldPosition);
+                        }
+                        break;
+                    }
+                    extraPosition += 4 + dataSize;
+                }
+            }
+
+            entryMap.put(name, new Entry(name, method, dosTime, crc, size, compressedSize, localHeaderOffset));
+            position += CENTRAL_HEADER_LENGTH + nameLength + extraLength + commentLength;
+        }
+        return entryMap;
+    }
+
+    @NotNull
+    private ByteBuffer read(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            int readLength = channel.read(buffer, offset + buffer.position());
+            if (readLength < 0) {
+                throw new EOFException("Unexpected end of ZIP file: " + file.getPath());
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static int getUnsignedShort(@NotNull ByteBuffer buffer, int index) {
+        return buffer.getShort(index) & 0xFFFF;
+    }
+
+    private static long getUnsignedInt(@NotNull ByteBuffer buffer, int index) {
+        return buffer.getInt(index) & LIMIT_32;
+    }
+
+    private static long dosToJavaTime(long dosTime) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.set((int) (((dosTime >> 25) & 0x7f) + 1980), (int) (((dosTime >> 21) & 0x0f) - 1), (int) ((dosTime >> 16) & 0x1f),
+                (int) ((dosTime >> 11) & 0x1f), (int) ((dosTime >> 5) & 0x3f), (int) ((dosTime << 1) & 0x3e));
+        calendar.set(Calendar.MILLISECOND, 0);
+        return calendar.getTimeInMillis();
+    }
+
+    private static class Entry {
+        @NotNull
+        private final String name;
+        private final int method;
+        private final long dosTime;
+        private final long crc;
+        private final long size;
+        private final long compressedSize;
+        private final long localHeaderOffset;
+        private volatile long dataOffset = -1;
+
+        private Entry(@NotNull String name, int method, long dosTime, long crc, long size, long compressedSize, long localHeaderOffset) {
+            this.name = name;
+            this.method = method;
+            this.dosTime = dosTime;
+            this.crc = crc;
+            this.size = size;
+            this.compressedSize = compressedSize;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+
+        @NotNull
+        private ZipEntry toZipEntry() {
+            ZipEntry zipEntry = new ZipEntry(name);
+            zipEntry.setMethod(method);
+            zipEntry.setTime(dosToJavaTime(dosTime));
+            zipEntry.setCrc(crc);
+            zipEntry.setSize(size);
+            zipEntry.setCompressedSize(compressedSize);
+            return zipEntry;
+        }
+    }
+
+    /**
+     * Read a region of the channel with positional reads, so it does not affect other readers of the same channel
+     */
+    private static class ChannelInputStream extends InputStream {
+        @NotNull
+        private final FileChannel channel;
+        private final long end;
+        private long position;
+        /**
+         * Inflater in 'nowrap' mode needs an extra dummy byte after the compressed data
+         */
+        private boolean appendDummyByte;
+
+        private ChannelInputStream(@NotNull FileChannel channel, long offset, long length, boolean appendDummyByte) {
+            this.channel = channel;
+            this.position = offset;
+            this.end = offset + length;
+            this.appendDummyByte = appendDummyByte;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] bytes = new byte[1];
+            return read(bytes, 0, 1) == 1 ? bytes[0] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(@NotNull byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) return 0;
+            long remaining = end - position;
+            if (remaining <= 0) {
+                if (appendDummyByte) {
+                    appendDummyByte = false;
+                    bytes[offset] = 0;
+                    return 1;
+                }
+                return -1;
+            }
+            int readLength = channel.read(ByteBuffer.wrap(bytes, offset, (int) Math.min(length, remaining)), position);
+            if (readLength < 0) {
+                throw new EOFException("Unexpected end of ZIP file");
+            }
+            position += readLength;
+            return readLength;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Math.max(end - position, 0), Integer.MAX_VALUE);
+        }
+    }
+
+    private static class EntryInflaterInputStream extends InflaterInputStream {
+        private boolean closed;
+
+        private EntryInflaterInputStream(@NotNull InputStream inputStream, int bufferSize) {
+            super(inputStream, new Inflater(true), bufferSize);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                inf.end();
+                super.close();
+            }
+        }
+    }
+}
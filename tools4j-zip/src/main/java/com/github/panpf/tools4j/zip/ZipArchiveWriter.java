@@ -0,0 +1,263 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.panpf.tools4j.zip;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.zip.ZipEntry;
+
+/**
+ * Write entries whose data has been deflated in advance into a ZIP container.
+ * The CRC and sizes of each entry must be known before it is written, so the local file header carries them directly and no data descriptor is needed.
+ * ZIP64 records are written only when an entry, an offset or the entry count exceeds the limits of the classic format.
+ */
+class ZipArchiveWriter implements Closeable {
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_EXTRA_ID = 0x0001;
+
+    private static final int VERSION_DEFAULT = 20;
+    private static final int VERSION_ZIP64 = 45;
+    private static final int FLAG_UTF8 = 0x0800;
+
+    private static final long LIMIT_32 = 0xFFFFFFFFL;
+    private static final int LIMIT_16 = 0xFFFF;
+
+    @NotNull
+    private final OutputStream out;
+    @NotNull
+    private final List<CentralEntry> centralEntries = new ArrayList<CentralEntry>();
+    @NotNull
+    private final byte[] writeBuffer = new byte[8];
+    private long written;
+    private boolean finished;
+
+    public ZipArchiveWriter(@NotNull OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Write the local file header of a deflated entry, the caller must then write exactly {@code compressedSize} bytes of raw DEFLATE data through {@link #writeData(byte[], int, int)}
+     */
+    public void putDeflatedEntry(@NotNull String name, long time, long crc, long size, long compressedSize) throws IOException {
+        if (finished) throw new IOException("ZIP archive already finished");
+        byte[] nameBytes = name.getBytes("UTF-8");
+        if (nameBytes.length > LIMIT_16) {
+            throw new IllegalArgumentException("Entry name too long: " + name);
+        }
+        boolean zip64 = size >= LIMIT_32 || compressedSize >= LIMIT_32;
+        int flag = isAscii(nameBytes) ? 0 : FLAG_UTF8;
+        int version = zip64 ? VERSION_ZIP64 : VERSION_DEFAULT;
+        long dosTime = javaToDosTime(time);
+        CentralEntry centralEntry = new CentralEntry(nameBytes, flag, dosTime, crc, size, compressedSize, written);
+        centralEntries.add(centralEntry);
+
+        writeInt(LOCAL_HEADER_SIGNATURE);
+        writeShort(version);
+        writeShort(flag);
+        writeShort(ZipEntry.DEFLATED);
+        writeInt(dosTime);
+        writeInt(crc);
+        if (zip64) {
+            writeInt(LIMIT_32);
+            writeInt(LIMIT_32);
+        } else {
+            writeInt(compressedSize);
+            writeInt(size);
+        }
+        writeShort(nameBytes.length);
+        writeShort(zip64 ? 20 : 0);
+        writeBytes(nameBytes, 0, nameBytes.length);
+        if (zip64) {
+            writeShort(ZIP64_EXTRA_ID);
+            writeShort(16);
+            writeLong(size);
+            writeLong(compressedSize);
+        }
+    }
+
+    /**
+     * Write the raw DEFLATE data of the current entry
+     */
+    public void writeData(@NotNull byte[] bytes, int offset, int length) throws IOException {
+        writeBytes(bytes, offset, length);
+    }
+
+    /**
+     * Write the central directory and the end of central directory record, no more entries can be added afterwards
+     */
+    public void finish() throws IOException {
+        if (finished) return;
+        finished = true;
+
+        long centralDirectoryOffset = written;
+        for (CentralEntry entry : centralEntries) {
+            writeCentralEntry(entry);
+        }
+        long centralDirectorySize = written - centralDirectoryOffset;
+        int count = centralEntries.size();
+
+        boolean zip64 = count >= LIMIT_16 || centralDirectoryOffset >= LIMIT_32 || centralDirectorySize >= LIMIT_32;
+        if (zip64) {
+            long zip64EndOffset = written;
+            writeInt(ZIP64_END_SIGNATURE);
+            writeLong(44);
+            writeShort(VERSION_ZIP64);
+            writeShort(VERSION_ZIP64);
+            writeInt(0);
+            writeInt(0);
+            writeLong(count);
+            writeLong(count);
+            writeLong(centralDirectorySize);
+            writeLong(centralDirectoryOffset);
+
+            writeInt(ZIP64_LOCATOR_SIGNATURE);
+            writeInt(0);
+            writeLong(zip64EndOffset);
+            writeInt(1);
+        }
+
+        writeInt(END_SIGNATURE);
+        writeShort(0);
+        writeShort(0);
+        writeShort(Math.min(count, LIMIT_16));
+        writeShort(Math.min(count, LIMIT_16));
+        writeInt(Math.min(centralDirectorySize, LIMIT_32));
+        writeInt(Math.min(centralDirectoryOffset, LIMIT_32));
+        writeShort(0);
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeCentralEntry(@NotNull CentralEntry entry) throws IOException {
+        boolean sizeZip64 = entry.size >= LIMIT_32;
+        boolean compressedSizeZip64 = entry.compressedSize >= LIMIT_32;
+        boolean offsetZip64 = entry.offset >= LIMIT_32;
+        int extraLength = (sizeZip64 ? 8 : 0) + (compressedSizeZip64 ? 8 : 0) + (offsetZip64 ? 8 : 0);
+        int version = extraLength > 0 ? VERSION_ZIP64 : VERSION_DEFAULT;
+
+        writeInt(CENTRAL_HEADER_SIGNATURE);
+        writeShort(version);
+        writeShort(version);
+        writeShort(entry.flag);
+        writeShort(ZipEntry.DEFLATED);
+        writeInt(entry.dosTime);
+        writeInt(entry.crc);
+        writeInt(compressedSizeZip64 ? LIMIT_32 : entry.compressedSize);
+        writeInt(sizeZip64 ? LIMIT_32 : entry.size);
+        writeShort(entry.nameBytes.length);
+        writeShort(extraLength > 0 ? extraLength + 4 : 0);
+        writeShort(0);
+        writeShort(0);
+        writeShort(0);
+        writeInt(0);
+        writeInt(offsetZip64 ? LIMIT_32 : entry.offset);
+        writeBytes(entry.nameBytes, 0, entry.nameBytes.length);
+        if (extraLength > 0) {
+            writeShort(ZIP64_EXTRA_ID);
+            writeShort(extraLength);
+            if (sizeZip64) writeLong(entry.size);
+            if (compressedSizeZip64) writeLong(entry.compressedSize);
+            if (offsetZip64) writeLong(entry.offset);
+        }
+    }
+
+    private void writeShort(int value) throws IOException {
+        writeBuffer[0] = (byte) value;
+        writeBuffer[1] = (byte) (value >>> 8);
+        writeBytes(writeBuffer, 0, 2);
+    }
+
+    private void writeInt(long value) throws IOException {
+        writeBuffer[0] = (byte) value;
+        writeBuffer[1] = (byte) (value >>> 8);
+        writeBuffer[2] = (byte) (value >>> 16);
+        writeBuffer[3] = (byte) (value >>> 24);
+        writeBytes(writeBuffer, 0, 4);
+    }
+
+    private void writeLong(long value) throws IOException {
+        for (int i = 0; i < 8; i++) {
+            writeBuffer[i] = (byte) (value >>> (i * 8));
+        }
+        writeBytes(writeBuffer, 0, 8);
+    }
+
+    private void writeBytes(@NotNull byte[] bytes, int offset, int length) throws IOException {
+        out.write(bytes, offset, length);
+        written += length;
+    }
+
+    private static boolean isAscii(@NotNull byte[] bytes) {
+        for (byte b : bytes) {
+            if (b < 0) return false;
+        }
+        return true;
+    }
+
+    private static long javaToDosTime(long time) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(time);
+        int year = calendar.get(Calendar.YEAR);
+        if (year < 1980) {
+            return (1 << 21) | (1 << 16);
+        }
+        return ((long) (year - 1980) << 25)
+                | ((long) (calendar.get(Calendar.MONTH) + 1) << 21)
+                | ((long) calendar.get(Calendar.DAY_OF_MONTH) << 16)
+                | ((long) calendar.get(Calendar.HOUR_OF_DAY) << 11)
+                | ((long) calendar.get(Calendar.MINUTE) << 5)
+                | ((long) calendar.get(Calendar.SECOND) >> 1);
+    }
+
+    private static class CentralEntry {
+        @NotNull
+        private final byte[] nameBytes;
+        private final int flag;
+        private final long dosTime;
+        private final long crc;
+        private final long size;
+        private final long compressedSize;
+        private final long offset;
+
+        private CentralEntry(@NotNull byte[] nameBytes, int flag, long dosTime, long crc, long size, long compressedSize, long offset) {
+            this.nameBytes = nameBytes;
+            this.flag = flag;
+            this.dosTime = dosTime;
+            this.crc = crc;
+            this.size = size;
+            this.compressedSize = compressedSize;
+            this.offset = offset;
+        }
+    }
+}
@@ -21,7 +21,10 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 import java.util.zip.*;
 
 /**
@@ -40,23 +43,44 @@ public class Zipx {
      */
     @NotNull
     public static byte[] compress(@NotNull byte[] sourceBytes) {
-        Deflater deflater = new Deflater();
-        deflater.setInput(sourceBytes);
-        deflater.finish();
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        try {
-            byte[] buf = new byte[DEFAULT_BUFFER_SIZE];
-            while (true) {
-                int readLength = deflater.deflate(buf);
-                if (readLength <= 0) {
-                    break;
-                }
-                bos.write(buf, 0, readLength);
-            }
-            return bos.toByteArray();
-        } finally {
-            deflater.end();
-        }
+        return PooledCodecs.compress(sourceBytes, 0, sourceBytes.length);
+    }
+
+    /**
+     * Compress the specified range of the byte array
+     */
+    @NotNull
+    public static byte[] compress(@NotNull byte[] sourceBytes, int offset, int length) {
+        return PooledCodecs.compress(sourceBytes, offset, length);
+    }
+
+    /**
+     * Compress the specified range of the byte array into the destination byte array starting at destinationOffset
+     *
+     * @return The number of bytes written to the destination byte array
+     * @throws BufferOverflowException The compressed data does not fit into the destination byte array
+     */
+    public static int compress(@NotNull byte[] sourceBytes, int offset, int length, @NotNull byte[] destinationBytes, int destinationOffset) {
+        return PooledCodecs.compress(sourceBytes, offset, length, destinationBytes, destinationOffset);
+    }
+
+    /**
+     * Compress the remaining bytes of the source buffer into the destination buffer, the positions of both buffers are advanced
+     *
+     * @return The number of bytes written to the destination buffer
+     * @throws BufferOverflowException The compressed data does not fit into the destination buffer, the positions of both buffers are not changed
+     */
+    public static int compress(@NotNull ByteBuffer sourceBuffer, @NotNull ByteBuffer destinationBuffer) {
+        return PooledCodecs.compress(sourceBuffer, destinationBuffer);
+    }
+
+    /**
+     * Compress all the data of the input stream into the output stream, neither of the streams is closed
+     *
+     * @return The number of bytes written to the output stream
+     */
+    public static long compress(@NotNull InputStream inputStream, @NotNull OutputStream outputStream) throws IOException {
+        return PooledCodecs.compress(inputStream, outputStream);
     }
 
     /**
@@ -64,22 +88,46 @@ public class Zipx {
      */
     @NotNull
     public static byte[] decompress(@NotNull byte[] compressedBytes) throws DataFormatException {
-        Inflater inflater = new Inflater();
-        inflater.setInput(compressedBytes);
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        try {
-            byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
-            while (true) {
-                int readLength = inflater.inflate(buffer);
-                if (readLength <= 0) {
-                    break;
-                }
-                bos.write(buffer, 0, readLength);
-            }
-            return bos.toByteArray();
-        } finally {
-            inflater.end();
-        }
+        return PooledCodecs.decompress(compressedBytes, 0, compressedBytes.length);
+    }
+
+    /**
+     * Decompress the specified range of the byte array
+     */
+    @NotNull
+    public static byte[] decompress(@NotNull byte[] compressedBytes, int offset, int length) throws DataFormatException {
+        return PooledCodecs.decompress(compressedBytes, offset, length);
+    }
+
+    /**
+     * Decompress the specified range of the byte array into the destination byte array starting at destinationOffset
+     *
+     * @return The number of bytes written to the destination byte array
+     * @throws BufferOverflowException The decompressed data does not fit into the destination byte array
+     */
+    public static int decompress(@NotNull byte[] compressedBytes, int offset, int length,
+                                 @NotNull byte[] destinationBytes, int destinationOffset) throws DataFormatException {
+        return PooledCodecs.decompress(compressedBytes, offset, length, destinationBytes, destinationOffset);
+    }
+
+    /**
+     * Decompress the remaining bytes of the compressed buffer into the destination buffer,
+     * the compressed buffer is advanced to the end of the compressed data and the destination buffer is advanced by the decompressed data
+     *
+     * @return The number of bytes written to the destination buffer
+     * @throws BufferOverflowException The decompressed data does not fit into the destination buffer, the positions of both buffers are not changed
+     */
+    public static int decompress(@NotNull ByteBuffer compressedBuffer, @NotNull ByteBuffer destinationBuffer) throws DataFormatException {
+        return PooledCodecs.decompress(compressedBuffer, destinationBuffer);
+    }
+
+    /**
+     * Decompress the compressed data of the input stream into the output stream, neither of the streams is closed
+     *
+     * @return The number of bytes written to the output stream
+     */
+    public static long decompress(@NotNull InputStream inputStream, @NotNull OutputStream outputStream) throws IOException {
+        return PooledCodecs.decompress(inputStream, outputStream);
     }
 
     /**
@@ -87,51 +135,49 @@ public class Zipx {
      */
     @NotNull
     public static byte[] gzipCompress(@NotNull byte[] sourceBytes) {
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        GZIPOutputStream gzip = null;
-        try {
-            gzip = new GZIPOutputStream(out);
-            gzip.write(sourceBytes);
-        } catch (IOException e) {
-            e.printStackTrace();
-        } finally {
-            if (gzip != null) {
-                try {
-                    gzip.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }
-        }
-        return out.toByteArray();
+        return PooledCodecs.gzipCompress(sourceBytes, 0, sourceBytes.length);
+    }
+
+    /**
+     * Compress the specified range of the byte array use gzip
+     */
+    @NotNull
+    public static byte[] gzipCompress(@NotNull byte[] sourceBytes, int offset, int length) {
+        return PooledCodecs.gzipCompress(sourceBytes, offset, length);
+    }
+
+    /**
+     * Compress all the data of the input stream into the output stream use gzip, neither of the streams is closed
+     *
+     * @return The number of bytes written to the output stream
+     */
+    public static long gzipCompress(@NotNull InputStream inputStream, @NotNull OutputStream outputStream) throws IOException {
+        return PooledCodecs.gzipCompress(inputStream, outputStream);
     }
 
     /**
      * Decompress the specified byte array use gzip
      */
     @NotNull
-    public static byte[] gzipDecompress(@NotNull byte[] compressedBytes) {
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        GZIPInputStream gzip = null;
-        try {
-            gzip = new GZIPInputStream(new ByteArrayInputStream(compressedBytes));
-            byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
-            int n;
-            while ((n = gzip.read(buffer)) >= 0) {
-                out.write(buffer, 0, n);
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        } finally {
-            if (gzip != null) {
-                try {
-                    gzip.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            }
-        }
-        return out.toByteArray();
+    public static byte[] gzipDecompress(@NotNull byte[] compressedBytes) throws DataFormatException {
+        return PooledCodecs.gzipDecompress(compressedBytes, 0, compressedBytes.length);
+    }
+
+    /**
+     * Decompress the specified range of the byte array use gzip
+     */
+    @NotNull
+    public static byte[] gzipDecompress(@NotNull byte[] compressedBytes, int offset, int length) throws DataFormatException {
+        return PooledCodecs.gzipDecompress(compressedBytes, offset, length);
+    }
+
+    /**
+     * Decompress the gzip data of the input stream into the output stream, neither of the streams is closed
+     *
+     * @return The number of bytes written to the output stream
+     */
+    public static long gzipDecompress(@NotNull InputStream inputStream, @NotNull OutputStream outputStream) throws IOException {
+        return PooledCodecs.gzipDecompress(inputStream, outputStream);
     }
 
 
@@ -251,6 +297,25 @@ public class Zipx {
         return compressFilesTo(sourceFiles, destinationFile, zipEntryNameTransform, null);
     }
 
+    /**
+     * Compress the specified files in parallel. Entries are deflated on the executor and written to the ZIP file in the same order as the serial version,
+     * the listener is called on the calling thread, but {@link ZipListener#isCanceled()} is also called by the executor's threads
+     *
+     * @param sourceFiles           The file to be compressed
+     * @param destinationFile       Output file
+     * @param zipEntryNameTransform Get the name of the file compressed into the zip package
+     * @param listener              Progress listener
+     * @param executor              Executor used to deflate entries, it is not shut down by this method
+     * @return Output file
+     * @throws IOException IO exceptions
+     */
+    @NotNull
+    public static File compressFilesTo(@Nullable File[] sourceFiles, @NotNull File destinationFile, @NotNull Transformer<File, String> zipEntryNameTransform,
+                                       @Nullable final ZipListener listener, @NotNull ExecutorService executor) throws IOException {
+        new ParallelZipCompressor(executor, zipEntryNameTransform, listener).compress(sourceFiles, destinationFile);
+        return destinationFile;
+    }
+
 
     /**
      * Compress the specified file or directory
@@ -282,6 +347,25 @@ public class Zipx {
         return compressFileTo(sourceFile, destinationFile, null);
     }
 
+    /**
+     * Compress the specified file or directory in parallel
+     *
+     * @param sourceFile      The file to be compressed
+     * @param destinationFile Output file
+     * @param listener        Progress listener
+     * @param executor        Executor used to deflate entries, it is not shut down by this method
+     * @return Output file
+     * @throws IOException IO exceptions
+     */
+    @NotNull
+    public static File compressFileTo(@NotNull final File sourceFile, @NotNull File destinationFile, @Nullable final ZipListener listener,
+                                      @NotNull ExecutorService executor) throws IOException {
+        if (!sourceFile.exists()) {
+            throw new FileNotFoundException(String.format("The file pointed to by this parameter 'sourceFile': %s", sourceFile.getPath()));
+        }
+        return compressFilesTo(new File[]{sourceFile}, destinationFile, ZipEntryNameTransformer.createByParent(sourceFile), listener, executor);
+    }
+
     /**
      * Compress the specified file or directory
      *
@@ -341,6 +425,29 @@ public class Zipx {
         return compressChildFileTo(sourceFile, destinationFile, null);
     }
 
+    /**
+     * Compress the specified file or directory (exclude source directory) in parallel
+     *
+     * @param sourceFile      The file to be compressed
+     * @param destinationFile Output file
+     * @param listener        Progress listener
+     * @param executor        Executor used to deflate entries, it is not shut down by this method
+     * @return Output file
+     * @throws IOException IO exceptions
+     */
+    @NotNull
+    public static File compressChildFileTo(@NotNull final File sourceFile, @NotNull File destinationFile, @Nullable final ZipListener listener,
+                                           @NotNull ExecutorService executor) throws IOException {
+        if (!sourceFile.exists()) {
+            throw new FileNotFoundException(String.format("The file pointed to by this parameter 'sourceFile': %s", sourceFile.getPath()));
+        }
+        if (sourceFile.isFile()) {
+            return compressFilesTo(new File[]{sourceFile}, destinationFile, ZipEntryNameTransformer.createByParent(sourceFile), listener, executor);
+        } else {
+            return compressFilesTo(sourceFile.listFiles(), destinationFile, ZipEntryNameTransformer.createBySelf(sourceFile), listener, executor);
+        }
+    }
+
     /**
      * Compress the specified file or directory (exclude source directory)
      *
@@ -476,6 +583,36 @@ public class Zipx {
         return decompressTo(zipSourceFile, destinationDir, null);
     }
 
+    /**
+     * Decompress the ZIP file to the specified folder in parallel. The central directory is read by {@link ZipArchiveReader} and entries are extracted on the executor,
+     * the listener is called on the calling thread after each entry is extracted, but {@link ZipListener#isCanceled()} is also called by the executor's threads
+     *
+     * @param zipSourceFile  ZIP file
+     * @param destinationDir Out dir
+     * @param listener       Progress listener
+     * @param executor       Executor used to extract entries, it is not shut down by this method
+     * @return Out dir
+     * @throws IOException IO exceptions. include ZipException
+     */
+    @NotNull
+    public static File decompressTo(@NotNull File zipSourceFile, @NotNull final File destinationDir, @Nullable final ZipListener listener,
+                                    @NotNull ExecutorService executor) throws IOException {
+        if (!zipSourceFile.exists()) {
+            throw new FileNotFoundException(String.format("The file pointed to by this parameter 'sourceFile': %s", zipSourceFile.getPath()));
+        }
+        if (destinationDir.exists() && !destinationDir.isDirectory()) {
+            throw new IllegalArgumentException(String.format("'%s' not directory", destinationDir.getPath()));
+        }
+
+        ZipArchiveReader reader = new ZipArchiveReader(zipSourceFile);
+        try {
+            new ParallelZipDecompressor(executor, listener).decompress(reader, destinationDir);
+        } finally {
+            reader.close();
+        }
+        return destinationDir;
+    }
+
     /**
      * Decompress the ZIP file to its directory, and the output folder name is the name of the ZIP file (without the suffix)
      *
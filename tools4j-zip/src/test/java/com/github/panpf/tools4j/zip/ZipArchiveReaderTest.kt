@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2020 panpf <panpfpanpf@outlook.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.panpf.tools4j.zip
+
+import org.junit.Assert
+import org.junit.Test
+import java.io.File
+import java.io.FileOutputStream
+import java.util.zip.CRC32
+import java.util.zip.ZipEntry
+import java.util.zip.ZipException
+import java.util.zip.ZipFile
+import java.util.zip.ZipOutputStream
+
+class ZipArchiveReaderTest {
+
+    @Test
+    fun testRead() {
+        val dir = File("/tmp/testZipArchiveReaderRead")
+        try {
+            dir.mkdirs()
+            val zipFile = File(dir, "test.zip")
+            val storedBytes = ByteArray(1024 * 20) { (it % 7).toByte() }
+            val deflatedText = "testZipArchiveReader".repeat(100)
+            ZipOutputStream(FileOutputStream(zipFile)).use { zipOutputStream ->
+                zipOutputStream.putNextEntry(ZipEntry("dir/"))
+                zipOutputStream.closeEntry()
+                zipOutputStream.putNextEntry(ZipEntry("dir/stored.bin").apply {
+                    method = ZipEntry.STORED
+                    size = storedBytes.size.toLong()
+                    compressedSize = storedBytes.size.toLong()
+                    crc = CRC32().apply { update(storedBytes) }.value
+                })
+                zipOutputStream.write(storedBytes)
+                zipOutputStream.closeEntry()
+                zipOutputStream.putNextEntry(ZipEntry("dir/deflated.txt"))
+                zipOutputStream.write(deflatedText.toByteArray())
+                zipOutputStream.closeEntry()
+                zipOutputStream.putNextEntry(ZipEntry("empty.txt"))
+                zipOutputStream.closeEntry()
+            }
+
+            ZipArchiveReader(zipFile).use { reader ->
+                Assert.assertEquals(4, reader.size())
+                Assert.assertEquals("[dir/, dir/stored.bin, dir/deflated.txt, empty.txt]", reader.entryNames().toString())
+                Assert.assertEquals(Zipx.listEntryName(zipFile), reader.entries().map { it.name })
+                Assert.assertEquals(Zipx.getTrueSize(zipFile), reader.trueSize)
+                Assert.assertTrue(reader.containsEntry("dir/stored.bin"))
+                Assert.assertFalse(reader.containsEntry("dir/none.txt"))
+                Assert.assertNull(reader.getEntry("dir/none.txt"))
+
+                val storedEntry = reader.getEntry("dir/stored.bin")!!
+                ZipFile(zipFile).use { jdkZipFile ->
+                    val jdkEntry = jdkZipFile.getEntry("dir/stored.bin")
+                    Assert.assertEquals(jdkEntry.method, storedEntry.method)
+                    Assert.assertEquals(jdkEntry.crc, storedEntry.crc)
+                    Assert.assertEquals(jdkEntry.size, storedEntry.size)
+                    Assert.assertEquals(jdkEntry.compressedSize, storedEntry.compressedSize)
+                    Assert.assertEquals(jdkEntry.time, storedEntry.time)
+                }
+                Assert.assertArrayEquals(storedBytes, reader.getInputStream(storedEntry).use { it.readBytes() })
+                Assert.assertArrayEquals(storedBytes, reader.extractTo(storedEntry, File(dir, "stored.bin")).readBytes())
+
+                val deflatedEntry = reader.getEntry("dir/deflated.txt")!!
+                Assert.assertEquals(ZipEntry.DEFLATED, deflatedEntry.method)
+                Assert.assertEquals(deflatedText, reader.getInputStream(deflatedEntry).use { String(it.readBytes()) })
+                Assert.assertEquals(deflatedText, reader.extractTo(deflatedEntry, File(dir, "deflated.txt")).readText())
+
+                Assert.assertEquals(0, reader.extractTo(reader.getEntry("empty.txt")!!, File(dir, "empty.txt")).length())
+                Assert.assertTrue(reader.getEntry("dir/")!!.isDirectory)
+
+                try {
+                    reader.getInputStream(ZipEntry("dir/none.txt"))
+                    Assert.fail()
+                } catch (e: ZipException) {
+                }
+            }
+
+            try {
+                ZipArchiveReader(File(dir, "stored.bin")).close()
+                Assert.fail()
+            } catch (e: ZipException) {
+            }
+        } finally {
+            dir.deleteRecursively()
+        }
+    }
+
+    @Test
+    fun testZip64() {
+        val dir = File("/tmp/testZipArchiveReaderZip64")
+        try {
+            dir.mkdirs()
+            val zipFile = File(dir, "test.zip")
+            ZipOutputStream(FileOutputStream(zipFile).buffered()).use { zipOutputStream ->
+                for (i in 0 until 70000) {
+                    zipOutputStream.putNextEntry(ZipEntry("file$i.txt"))
+                    zipOutputStream.write(i.toString().toByteArray())
+                    zipOutputStream.closeEntry()
+                }
+            }
+
+            ZipArchiveReader(zipFile).use { reader ->
+                Assert.assertEquals(70000, reader.size())
+                Assert.assertEquals("69999", reader.getInputStream(reader.getEntry("file69999.txt")!!).use { String(it.readBytes()) })
+            }
+        } finally {
+            dir.deleteRecursively()
+        }
+    }
+}
@@ -22,10 +22,14 @@ import com.github.panpf.tools4j.io.ktx.listFilesRecursively
 import com.github.panpf.tools4j.security.ktx.getMD5Digest
 import org.junit.Assert
 import org.junit.Test
-import java.io.File
-import java.io.IOException
+import java.io.*
+import java.nio.BufferOverflowException
+import java.nio.ByteBuffer
 import java.util.*
+import java.util.concurrent.Executors
 import java.util.zip.DataFormatException
+import java.util.zip.GZIPInputStream
+import java.util.zip.GZIPOutputStream
 import java.util.zip.ZipEntry
 import java.util.zip.ZipFile
 
@@ -54,6 +58,181 @@ class ZipxTest {
         Assert.assertEquals(source, String(newBytes))
     }
 
+    @Test
+    @Throws(DataFormatException::class)
+    fun testPooledBytes() {
+        val random = Random(42)
+        val sourceBytes = ByteArray(1024 * 64) { ('a' + random.nextInt(6)).toByte() }
+        val randomBytes = ByteArray(1024 * 64).apply { random.nextBytes(this) }
+
+        // Range and repeated calls reuse the pooled Deflater and Inflater of the thread
+        repeat(3) {
+            val resultBytes = Zipx.compress(sourceBytes, 100, 5000)
+            Assert.assertArrayEquals(sourceBytes.copyOfRange(100, 5100), Zipx.decompress(resultBytes))
+            Assert.assertArrayEquals(randomBytes, Zipx.decompress(Zipx.compress(randomBytes)))
+            Assert.assertArrayEquals(ByteArray(0), Zipx.decompress(Zipx.compress(ByteArray(0))))
+        }
+
+        val resultBytes = Zipx.compress(sourceBytes)
+        Assert.assertArrayEquals(resultBytes, Zipx.compress(sourceBytes))
+        val padded = ByteArray(resultBytes.size + 10)
+        System.arraycopy(resultBytes, 0, padded, 5, resultBytes.size)
+        Assert.assertArrayEquals(sourceBytes, Zipx.decompress(padded, 5, resultBytes.size))
+
+        val destinationBytes = ByteArray(resultBytes.size + 3)
+        Assert.assertEquals(resultBytes.size, Zipx.compress(sourceBytes, 0, sourceBytes.size, destinationBytes, 3))
+        Assert.assertArrayEquals(resultBytes, destinationBytes.copyOfRange(3, destinationBytes.size))
+        try {
+            Zipx.compress(sourceBytes, 0, sourceBytes.size, ByteArray(resultBytes.size - 1), 0)
+            Assert.fail()
+        } catch (e: BufferOverflowException) {
+        }
+
+        val decompressBytes = ByteArray(sourceBytes.size)
+        Assert.assertEquals(sourceBytes.size, Zipx.decompress(resultBytes, 0, resultBytes.size, decompressBytes, 0))
+        Assert.assertArrayEquals(sourceBytes, decompressBytes)
+        try {
+            Zipx.decompress(resultBytes, 0, resultBytes.size, ByteArray(sourceBytes.size - 1), 0)
+            Assert.fail()
+        } catch (e: BufferOverflowException) {
+        }
+
+        try {
+            Zipx.decompress(resultBytes.copyOf(resultBytes.size / 2))
+            Assert.fail()
+        } catch (e: DataFormatException) {
+        }
+        try {
+            Zipx.decompress(randomBytes)
+            Assert.fail()
+        } catch (e: DataFormatException) {
+        }
+    }
+
+    @Test
+    @Throws(DataFormatException::class)
+    fun testPooledByteBuffer() {
+        val random = Random(42)
+        val sourceBytes = ByteArray(1024 * 64) { ('a' + random.nextInt(6)).toByte() }
+        val expectedBytes = Zipx.compress(sourceBytes)
+
+        for (direct in arrayOf(false, true)) {
+            val allocate: (Int) -> ByteBuffer = { if (direct) ByteBuffer.allocateDirect(it) else ByteBuffer.allocate(it) }
+            val sourceBuffer = allocate(sourceBytes.size)
+            sourceBuffer.put(sourceBytes).flip()
+            val compressedBuffer = allocate(expectedBytes.size + 64)
+            val compressedLength = Zipx.compress(sourceBuffer, compressedBuffer)
+            Assert.assertEquals(compressedLength, compressedBuffer.position())
+            Assert.assertFalse(sourceBuffer.hasRemaining())
+            compressedBuffer.put(byteArrayOf(1, 2, 3)).flip()
+            if (!direct) {
+                val compressedBytes = ByteArray(compressedLength)
+                compressedBuffer.duplicate().get(compressedBytes)
+                Assert.assertArrayEquals(expectedBytes, compressedBytes)
+            }
+
+            val decompressBuffer = allocate(sourceBytes.size)
+            Assert.assertEquals(sourceBytes.size, Zipx.decompress(compressedBuffer, decompressBuffer))
+            // The data after the end of the compressed data is not consumed
+            Assert.assertEquals(3, compressedBuffer.remaining())
+            Assert.assertEquals(1.toByte(), compressedBuffer.get())
+            decompressBuffer.flip()
+            val decompressBytes = ByteArray(sourceBytes.size)
+            decompressBuffer.get(decompressBytes)
+            Assert.assertArrayEquals(sourceBytes, decompressBytes)
+
+            sourceBuffer.rewind()
+            val smallBuffer = allocate(compressedLength - 1)
+            try {
+                Zipx.compress(sourceBuffer, smallBuffer)
+                Assert.fail()
+            } catch (e: BufferOverflowException) {
+            }
+            Assert.assertEquals(0, sourceBuffer.position())
+            Assert.assertEquals(0, smallBuffer.position())
+
+            compressedBuffer.rewind()
+            val smallDecompressBuffer = allocate(sourceBytes.size - 1)
+            try {
+                Zipx.decompress(compressedBuffer, smallDecompressBuffer)
+                Assert.fail()
+            } catch (e: BufferOverflowException) {
+            }
+            Assert.assertEquals(0, compressedBuffer.position())
+            Assert.assertEquals(0, smallDecompressBuffer.position())
+        }
+    }
+
+    @Test
+    @Throws(IOException::class, DataFormatException::class)
+    fun testPooledStream() {
+        val random = Random(42)
+        val sourceBytes = ByteArray(1024 * 100) { ('a' + random.nextInt(6)).toByte() }
+
+        val compressedStream = ByteArrayOutputStream()
+        val compressedLength = Zipx.compress(ByteArrayInputStream(sourceBytes), compressedStream)
+        Assert.assertEquals(compressedStream.size().toLong(), compressedLength)
+        Assert.assertArrayEquals(sourceBytes, Zipx.decompress(compressedStream.toByteArray()))
+
+        val decompressedStream = ByteArrayOutputStream()
+        Assert.assertEquals(sourceBytes.size.toLong(), Zipx.decompress(ByteArrayInputStream(compressedStream.toByteArray()), decompressedStream))
+        Assert.assertArrayEquals(sourceBytes, decompressedStream.toByteArray())
+
+        try {
+            val truncatedBytes = compressedStream.toByteArray().copyOf(compressedStream.size() / 2)
+            Zipx.decompress(ByteArrayInputStream(truncatedBytes), ByteArrayOutputStream())
+            Assert.fail()
+        } catch (e: EOFException) {
+        }
+
+        val gzipStream = ByteArrayOutputStream()
+        val gzipLength = Zipx.gzipCompress(ByteArrayInputStream(sourceBytes), gzipStream)
+        Assert.assertEquals(gzipStream.size().toLong(), gzipLength)
+        Assert.assertArrayEquals(sourceBytes, GZIPInputStream(ByteArrayInputStream(gzipStream.toByteArray())).readBytes())
+        val gunzipStream = ByteArrayOutputStream()
+        Assert.assertEquals(sourceBytes.size.toLong(), Zipx.gzipDecompress(ByteArrayInputStream(gzipStream.toByteArray()), gunzipStream))
+        Assert.assertArrayEquals(sourceBytes, gunzipStream.toByteArray())
+    }
+
+    @Test
+    @Throws(IOException::class, DataFormatException::class)
+    fun testGzipCompatibility() {
+        val random = Random(42)
+        val sourceBytes = ByteArray(1024 * 20) { ('a' + random.nextInt(6)).toByte() }
+
+        // Compressed by GZIPOutputStream, with file name, comment and concatenated members
+        val jdkStream = ByteArrayOutputStream()
+        GZIPOutputStream(jdkStream).use { it.write(sourceBytes) }
+        val jdkBytes = jdkStream.toByteArray()
+        Assert.assertArrayEquals(sourceBytes, Zipx.gzipDecompress(jdkBytes))
+
+        val namedBytes = jdkBytes.copyOf()
+        namedBytes[3] = (8 or 16).toByte()
+        val headerBytes = namedBytes.copyOfRange(0, 10) + "test.txt".toByteArray() + byteArrayOf(0) + "comment".toByteArray() + byteArrayOf(0)
+        val namedMemberBytes = headerBytes + jdkBytes.copyOfRange(10, jdkBytes.size)
+        Assert.assertArrayEquals(sourceBytes, GZIPInputStream(ByteArrayInputStream(namedMemberBytes)).readBytes())
+        Assert.assertArrayEquals(sourceBytes, Zipx.gzipDecompress(namedMemberBytes))
+        Assert.assertArrayEquals(sourceBytes + sourceBytes, Zipx.gzipDecompress(jdkBytes + namedMemberBytes))
+
+        // Decompressed by GZIPInputStream
+        val resultBytes = Zipx.gzipCompress(sourceBytes, 10, 1000)
+        Assert.assertArrayEquals(sourceBytes.copyOfRange(10, 1010), GZIPInputStream(ByteArrayInputStream(resultBytes)).readBytes())
+        Assert.assertArrayEquals(ByteArray(0), Zipx.gzipDecompress(Zipx.gzipCompress(ByteArray(0))))
+
+        val corruptBytes = Zipx.gzipCompress(sourceBytes)
+        corruptBytes[corruptBytes.size - 5] = (corruptBytes[corruptBytes.size - 5] + 1).toByte()
+        try {
+            Zipx.gzipDecompress(corruptBytes)
+            Assert.fail()
+        } catch (e: DataFormatException) {
+        }
+        try {
+            Zipx.gzipDecompress(sourceBytes)
+            Assert.fail()
+        } catch (e: DataFormatException) {
+        }
+    }
+
     @Test
     @Throws(IOException::class)
     fun testFilesTo() {
@@ -255,6 +434,109 @@ class ZipxTest {
         }
     }
 
+    @Test
+    @Throws(IOException::class)
+    fun testParallelFilesTo() {
+        val executor = Executors.newFixedThreadPool(4)
+        val dir1 = File("/tmp/testParallelFilesTo1")
+        try {
+            val sourceDir: File = File(dir1, "test").createFileTree(3, 2, "file.txt", "testParallelFilesTo")
+            val bigFile = File(sourceDir, "big.bin").apply { writeBytes(Random(1).let { random -> ByteArray(1024 * 1024 * 6) { random.nextInt(256).toByte() } }) }
+            val sourceContents: String = sourceDir.listFilesRecursively()?.filter { it.isFile }?.joinToString(separator = "\n") { it.getMD5Digest() }
+                    ?: ""
+
+            val serialListener = ZipProgressListener()
+            val serialDstFile = Zipx.compressFilesTo(sourceDir.listFiles(), File(dir1, "serial.zip"), ZipEntryNameTransformer.createByParent(sourceDir), serialListener)
+            val parallelListener = ZipProgressListener()
+            val parallelDstFile = Zipx.compressFilesTo(sourceDir.listFiles(), File(dir1, "parallel.zip"), ZipEntryNameTransformer.createByParent(sourceDir), parallelListener, executor)
+            Assert.assertEquals(Zipx.listEntryName(serialDstFile), Zipx.listEntryName(parallelDstFile))
+            // The serial version reports the progress of a big file several times, the parallel version only once after the entry is written
+            Assert.assertEquals(serialListener.log.split(", ").filter { !it.contains("->test/big.bin") },
+                    parallelListener.log.split(", ").filter { !it.contains("->test/big.bin") })
+            Assert.assertTrue(parallelListener.log.contains("->test/big.bin: ${bigFile.length()}/${bigFile.length()}"))
+            ZipFile(parallelDstFile).use { zipFile ->
+                Assert.assertEquals(bigFile.length(), zipFile.getEntry("test/big.bin").size)
+            }
+
+            sourceDir.deleteRecursively()
+            val decompressDstDir = File(dir1, "out")
+            Zipx.decompressTo(parallelDstFile, decompressDstDir)
+            val decompressContents: String = decompressDstDir.listFilesRecursively()?.filter { it.isFile }?.joinToString(separator = "\n") { it.getMD5Digest() }
+                    ?: ""
+            Assert.assertEquals(sourceContents, decompressContents)
+        } finally {
+            dir1.deleteRecursively()
+        }
+
+        val dir2 = File("/tmp/testParallelFilesTo2")
+        try {
+            val sourceDir: File = File(dir2, "test").createFileTree(3, 2, "file.txt", "testParallelFilesTo")
+            val cancelListener = object : ZipListener {
+                var count = 0
+                override fun onEntryStart(zipEntry: ZipEntry) {}
+                override fun onUpdateProgress(totalLength: Long, totalCompletedLength: Long, zipEntry: ZipEntry, entryTotalLength: Long, entryCompletedLength: Long) {}
+                override fun onEntryEnd(zipEntry: ZipEntry) {
+                    count++
+                }
+
+                override fun isCanceled(): Boolean = count >= 3
+            }
+            val compressDstFile = Zipx.compressFileTo(sourceDir, File(dir2, "test.zip"), cancelListener, executor)
+            Assert.assertEquals(3, Zipx.size(compressDstFile))
+        } finally {
+            dir2.deleteRecursively()
+        }
+
+        val dir3 = File("/tmp/testParallelFilesTo3")
+        try {
+            val sourceDir: File = File(dir3, "test").createFileTree(3, 2, "file.txt", "testParallelFilesTo")
+            val compressDstFile = Zipx.compressChildFileTo(sourceDir, File(dir3, "test.zip"), null, executor)
+            Assert.assertEquals(Zipx.listEntryName(Zipx.compressChildFileTo(sourceDir, File(dir3, "test2.zip"))), Zipx.listEntryName(compressDstFile))
+        } finally {
+            dir3.deleteRecursively()
+            executor.shutdown()
+        }
+    }
+
+    @Test
+    @Throws(IOException::class)
+    fun testParallelDecompressTo() {
+        val executor = Executors.newFixedThreadPool(4)
+        val dir1 = File("/tmp/testParallelDecompressTo1")
+        try {
+            val sourceDir: File = File(dir1, "test").createFileTree(3, 2, "file.txt", "testParallelDecompressTo")
+            val sourceContents: String = sourceDir.listFilesRecursively()?.filter { it.isFile }?.joinToString(separator = "\n") { it.readText() }
+                    ?: ""
+            val compressDstFile = Zipx.compressFileTo(sourceDir, File(dir1, "test.zip"))
+            sourceDir.deleteRecursively()
+
+            val serialListener = ZipProgressListener()
+            Zipx.decompressTo(compressDstFile, File(dir1, "serial"), serialListener)
+            val parallelListener = ZipProgressListener()
+            val decompressDstDir = Zipx.decompressTo(compressDstFile, File(dir1, "parallel"), parallelListener, executor)
+            Assert.assertEquals(serialListener.log, parallelListener.log)
+            val decompressContents: String = File(decompressDstDir, "test").listFilesRecursively()?.filter { it.isFile }?.joinToString(separator = "\n") { it.readText() }
+                    ?: ""
+            Assert.assertEquals(sourceContents, decompressContents)
+
+            val cancelListener = object : ZipListener {
+                var count = 0
+                override fun onEntryStart(zipEntry: ZipEntry) {}
+                override fun onUpdateProgress(totalLength: Long, totalCompletedLength: Long, zipEntry: ZipEntry, entryTotalLength: Long, entryCompletedLength: Long) {}
+                override fun onEntryEnd(zipEntry: ZipEntry) {
+                    count++
+                }
+
+                override fun isCanceled(): Boolean = count >= 3
+            }
+            Zipx.decompressTo(compressDstFile, File(dir1, "cancel"), cancelListener, executor)
+            Assert.assertEquals(3, cancelListener.count)
+        } finally {
+            dir1.deleteRecursively()
+            executor.shutdown()
+        }
+    }
+
     @Test
     fun testGetCompressDstFile() {
         Assert.assertEquals("/tmp/testGetCompressDstFile.txt.zip", Zipx.getCompressDstFile(File("/tmp/testGetCompressDstFile.txt")).path)